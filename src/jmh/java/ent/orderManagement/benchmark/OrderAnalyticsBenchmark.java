@@ -0,0 +1,88 @@
+package ent.orderManagement.benchmark;
+
+import java.time.LocalDate;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import ent.orderManagement.analytics.OrderAggregations;
+import ent.orderManagement.analytics.OrderColumns;
+
+/**
+ * Aggregations over a synthetic snapshot of 10M orders: 3 years of dates, 100k customers
+ * with a skewed (roughly Zipf-like) distribution and mostly completed orders.
+ * Compare {@code parallelism=1} with the full pool to see the fork/join speed-up.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class OrderAnalyticsBenchmark {
+
+    private static final int STATUSES = 3;
+    private static final int COMPLETED = 2;
+    private static final int FIRST_DAY = (int) LocalDate.of(2022, 1, 1).toEpochDay();
+    private static final int DAYS = 3 * 365;
+
+    @Param("10000000")
+    public int orders;
+
+    @Param("100000")
+    public int customers;
+
+    @Param({"1", "0"})
+    public int parallelism;
+
+    private OrderColumns columns;
+    private ForkJoinPool pool;
+    private int lastMonthFrom;
+    private int lastDay;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(7);
+        columns = new OrderColumns(orders);
+        for (int i = 0; i < orders; i++) {
+            // Squaring a uniform value puts most orders on a few low customer indexes
+            double u = random.nextDouble();
+            int customer = (int) (u * u * customers);
+            int status = random.nextInt(10) < 7 ? COMPLETED : random.nextInt(2);
+            columns.append(500 + random.nextInt(50_000), FIRST_DAY + random.nextInt(DAYS), status, customer, 1);
+        }
+        pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        lastDay = FIRST_DAY + DAYS - 1;
+        lastMonthFrom = lastDay - 30;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Benchmark
+    public long[] revenueByStatusAllTime() {
+        return OrderAggregations.byStatus(columns, orders, STATUSES, Integer.MIN_VALUE + 1, Integer.MAX_VALUE, pool);
+    }
+
+    @Benchmark
+    public long[] revenueByStatusLastMonth() {
+        return OrderAggregations.byStatus(columns, orders, STATUSES, lastMonthFrom, lastDay, pool);
+    }
+
+    @Benchmark
+    public long[] completedRevenueByCustomer() {
+        return OrderAggregations.byCustomer(columns, orders, customers, FIRST_DAY, lastDay, COMPLETED, pool);
+    }
+}
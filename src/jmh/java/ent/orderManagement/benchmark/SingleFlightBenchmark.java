@@ -0,0 +1,66 @@
+package ent.orderManagement.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import ent.orderManagement.service.SingleFlight;
+
+/**
+ * Thundering herd: 64 threads read the same order, each "DB load" takes 2 ms.
+ * Compare the dbLoads counter with the ops counter: without coalescing every read
+ * is a load, with coalescing one load serves all callers waiting at that moment.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(64)
+public class SingleFlightBenchmark {
+
+    private static final String HOT_ORDER = "b2b-wall-display-order";
+    private static final long DB_LATENCY_NANOS = TimeUnit.MILLISECONDS.toNanos(2);
+
+    @State(Scope.Benchmark)
+    public static class Database {
+        final SingleFlight<String, String> flight = new SingleFlight<>();
+
+        String findById(String id) {
+            LockSupport.parkNanos(DB_LATENCY_NANOS);
+            return id;
+        }
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Counters {
+        public long dbLoads;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            dbLoads = 0;
+        }
+    }
+
+    @Benchmark
+    public String direct(Database db, Counters counters) {
+        counters.dbLoads++;
+        return db.findById(HOT_ORDER);
+    }
+
+    @Benchmark
+    public String coalesced(Database db, Counters counters) {
+        return db.flight.load(HOT_ORDER, () -> {
+            counters.dbLoads++;
+            return db.findById(HOT_ORDER);
+        });
+    }
+}
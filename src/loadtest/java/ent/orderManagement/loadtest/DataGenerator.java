@@ -0,0 +1,282 @@
+package ent.orderManagement.loadtest;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * Bulk-loads synthetic customers, users, orders and order items with {@code COPY}.
+ *
+ * The first {@code loadtest.users} customers also get a login ({@code <prefix>-<n>}, role USER,
+ * same id as the customer, as the application expects), plus one ADMIN {@code <prefix>-admin};
+ * all share {@code loadtest.password}. Orders per customer follow a Zipf distribution, dates
+ * lean towards the recent past and old orders are mostly COMPLETED.
+ *
+ * Orders are generated twice (once for 'orders', once for 'order_items') from a per-order
+ * seed, so nothing but the Zipf table is held in memory, whatever the volume.
+ *
+ * {@code ./gradlew seedLoadTestData -Ploadtest.customers=1000000 -Ploadtest.orders=5000000}
+ */
+public final class DataGenerator {
+
+    private static final String[] FIRST_NAMES = {
+            "Ana", "Ivan", "Marko", "Petra", "Luka", "Iva", "Josip", "Maja", "Tomislav", "Katarina",
+            "Nikola", "Lucija", "Filip", "Sara", "Matej", "Ema", "Karlo", "Lana", "Jurica", "Nina"};
+    private static final String[] LAST_NAMES = {
+            "Horvat", "Kovačević", "Babić", "Marić", "Jurić", "Novak", "Kovačić", "Knežević", "Vuković", "Marković",
+            "Petrović", "Matić", "Tomić", "Pavlović", "Kovač", "Božić", "Blažević", "Grgić", "Pavić", "Radić"};
+
+    private static final int PRODUCTS = 5000;
+    private static final int FLUSH_CHARS = 1 << 20;
+    private static final long ORDER_TAG = 0x6f72646572L;   // keeps order and item ids apart from customer ids
+    private static final long ITEM_TAG = 0x6974656d73L;
+
+    private final int customers;
+    private final int users;
+    private final int orders;
+    private final int maxItemsPerOrder;
+    private final int days;
+    private final long seed;
+    private final long runMsb;
+    private final LocalDate today = LocalDate.now();
+    private final double[] customerCdf;
+    private final long scatter;
+
+    private DataGenerator() {
+        this.customers = Settings.integer("loadtest.customers", 1_000_000);
+        this.users = Math.min(customers, Settings.integer("loadtest.users", 10_000));
+        this.orders = Settings.integer("loadtest.orders", 5_000_000);
+        this.maxItemsPerOrder = Settings.integer("loadtest.max-items-per-order", 4);
+        this.days = Settings.integer("loadtest.days", 730);
+        this.seed = Settings.integer("loadtest.seed", 42);
+        this.runMsb = new SplittableRandom().nextLong();
+        this.customerCdf = zipfCdf(customers, Settings.decimal("loadtest.skew", 1.1));
+        this.scatter = coprimeMultiplier(customers);
+    }
+
+    public static void main(String[] args) throws Exception {
+        String url = Settings.string("loadtest.db.url", "jdbc:postgresql://localhost:5432/orders");
+        Settings.requireLocal(url);
+        DataGenerator generator = new DataGenerator();
+
+        try (Connection connection = DriverManager.getConnection(url,
+                Settings.string("loadtest.db.username", "postgres"),
+                Settings.string("loadtest.db.password", "postgres"))) {
+            connection.setAutoCommit(false);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SET synchronous_commit = off");
+                if (Settings.bool("loadtest.truncate", false)) {
+                    statement.execute("TRUNCATE order_items, orders, customers, users");
+                }
+            }
+            CopyManager copy = connection.unwrap(PGConnection.class).getCopyAPI();
+
+            generator.timed(connection, "customers", () -> generator.copyCustomers(copy));
+            generator.timed(connection, "users", () -> generator.copyUsers(copy));
+            generator.timed(connection, "orders", () -> generator.copyOrders(copy, false));
+            if (generator.maxItemsPerOrder > 0) {
+                generator.timed(connection, "order_items", () -> generator.copyOrders(copy, true));
+            }
+
+            connection.setAutoCommit(true);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("ANALYZE customers, users, orders, order_items");
+            }
+        }
+    }
+
+    private interface Load {
+        long run() throws SQLException;
+    }
+
+    private void timed(Connection connection, String table, Load load) throws SQLException {
+        long start = System.nanoTime();
+        long rows = load.run();
+        connection.commit();
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%-12s %,12d rows in %6.1f s (%,.0f rows/s)%n", table, rows, seconds, rows / seconds);
+    }
+
+    private long copyCustomers(CopyManager copy) throws SQLException {
+        try (CsvCopy out = new CsvCopy(copy, "COPY customers (id, name, email, created_at) FROM STDIN WITH (FORMAT csv)")) {
+            SplittableRandom random = new SplittableRandom(seed);
+            for (int i = 0; i < customers; i++) {
+                String first = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+                String last = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+                out.field(customerId(i)).field(first + " " + last + " " + i)
+                   .field((first + "." + last + "." + i + "@example.com").toLowerCase())
+                   .field(today.minusDays(days + random.nextInt(days)) + " 09:00:00").endRow();
+            }
+            return out.finish();
+        }
+    }
+
+    private long copyUsers(CopyManager copy) throws SQLException {
+        String prefix = Settings.string("loadtest.user-prefix", "loadtest");
+        // Hashed once: BCrypt per row would dominate the load time
+        String hash = new BCryptPasswordEncoder().encode(Settings.string("loadtest.password", "loadtest"));
+        try (CsvCopy out = new CsvCopy(copy, "COPY users (id, username, password, role) FROM STDIN WITH (FORMAT csv)")) {
+            for (int i = 0; i < users; i++) {
+                out.field(customerId(i)).field(prefix + "-" + i).field(hash).field("USER").endRow();
+            }
+            out.field(UUID.randomUUID()).field(prefix + "-admin").field(hash).field("ADMIN").endRow();
+            return out.finish();
+        }
+    }
+
+    private long copyOrders(CopyManager copy, boolean items) throws SQLException {
+        String sql = items
+                ? "COPY order_items (id, order_id, line_number, product_code, name, quantity, unit_price) FROM STDIN WITH (FORMAT csv)"
+                : "COPY orders (id, customer_id, order_date, total_amount, status, created_at) FROM STDIN WITH (FORMAT csv)";
+        try (CsvCopy out = new CsvCopy(copy, sql)) {
+            for (int i = 0; i < orders; i++) {
+                SplittableRandom random = new SplittableRandom(seed * 0x9E3779B97F4A7C15L + i);
+                UUID orderId = new UUID(runMsb ^ ORDER_TAG, i);
+                int customer = sampleCustomer(random.nextDouble());
+                int age = (int) (days * Math.pow(random.nextDouble(), 2));  // recent dates are more common
+                LocalDate orderDate = today.minusDays(age);
+                String status = status(age, random.nextInt(100));
+
+                int itemCount = maxItemsPerOrder > 0 ? 1 + random.nextInt(maxItemsPerOrder) : 0;
+                long totalCents = itemCount == 0 ? 500 + (long) (Math.exp(random.nextDouble() * 8) * 10) : 0;
+                for (int line = 1; line <= itemCount; line++) {
+                    int product = (int) (PRODUCTS * Math.pow(random.nextDouble(), 3));  // a few best sellers
+                    int quantity = 1 + random.nextInt(random.nextInt(10) == 0 ? 20 : 3);
+                    long unitCents = 199 + (product * 7919L) % 20_000;
+                    totalCents += quantity * unitCents;
+                    if (items) {
+                        out.field(new UUID(runMsb ^ ITEM_TAG, (long) i * 64 + line)).field(orderId).field(line)
+                           .field(String.format("SKU-%05d", product)).field("Product " + product)
+                           .field(quantity).field(cents(unitCents)).endRow();
+                    }
+                }
+                if (!items) {
+                    out.field(orderId).field(customerId(customer)).field(orderDate).field(cents(totalCents))
+                       .field(status).field(orderDate + " 12:00:00").endRow();
+                }
+            }
+            return out.finish();
+        }
+    }
+
+    private UUID customerId(int index) {
+        return new UUID(runMsb, index);
+    }
+
+    private static String status(int ageDays, int roll) {
+        if (ageDays > 30) {
+            return roll < 90 ? "COMPLETED" : roll < 98 ? "IN_PROGRESS" : "NEW";
+        }
+        return roll < 40 ? "NEW" : roll < 75 ? "IN_PROGRESS" : "COMPLETED";
+    }
+
+    private static String cents(long cents) {
+        return cents / 100 + "." + (cents % 100 < 10 ? "0" : "") + cents % 100;
+    }
+
+    /**
+     * Customer for a uniform {@code u}: the Zipf rank from the CDF, scattered over the index
+     * range so the heaviest customers are not all among the first ones (which have logins).
+     */
+    private int sampleCustomer(double u) {
+        int lo = 0;
+        int hi = customerCdf.length - 1;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (customerCdf[mid] < u) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return (int) ((lo * scatter) % customers);
+    }
+
+    private static double[] zipfCdf(int n, double exponent) {
+        double[] cdf = new double[n];
+        double sum = 0;
+        for (int rank = 0; rank < n; rank++) {
+            sum += 1 / Math.pow(rank + 1, exponent);
+            cdf[rank] = sum;
+        }
+        for (int rank = 0; rank < n; rank++) {
+            cdf[rank] /= sum;
+        }
+        return cdf;
+    }
+
+    private static long coprimeMultiplier(int n) {
+        long multiplier = 1_000_003;
+        while (gcd(multiplier, n) != 1) {
+            multiplier += 2;
+        }
+        return multiplier;
+    }
+
+    private static long gcd(long a, long b) {
+        return b == 0 ? a : gcd(b, a % b);
+    }
+
+    /**
+     * Streams CSV rows into a COPY in 1 MB writes. Generated values never contain commas,
+     * quotes or newlines, so no quoting is needed.
+     */
+    private static final class CsvCopy implements AutoCloseable {
+
+        private final CopyIn copyIn;
+        private final StringBuilder buffer = new StringBuilder(FLUSH_CHARS + 1024);
+        private boolean rowStarted;
+        private long rows;
+
+        CsvCopy(CopyManager copy, String sql) throws SQLException {
+            this.copyIn = copy.copyIn(sql);
+        }
+
+        CsvCopy field(Object value) {
+            if (rowStarted) {
+                buffer.append(',');
+            }
+            buffer.append(value);
+            rowStarted = true;
+            return this;
+        }
+
+        void endRow() throws SQLException {
+            buffer.append('\n');
+            rowStarted = false;
+            rows++;
+            if (buffer.length() >= FLUSH_CHARS) {
+                flush();
+            }
+        }
+
+        long finish() throws SQLException {
+            flush();
+            copyIn.endCopy();
+            return rows;
+        }
+
+        private void flush() throws SQLException {
+            byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+            copyIn.writeToCopy(bytes, 0, bytes.length);
+            buffer.setLength(0);
+        }
+
+        @Override
+        public void close() throws SQLException {
+            if (copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+        }
+    }
+}
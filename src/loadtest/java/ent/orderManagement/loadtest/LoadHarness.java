@@ -0,0 +1,412 @@
+package ent.orderManagement.loadtest;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Closed-loop HTTP load against a running application. Each virtual user logs in through
+ * {@code /auth/login} as one of the users created by {@link DataGenerator}, then issues a
+ * weighted mix of order reads and writes; customer reads use the generated admin.
+ *
+ * Latencies after the warm-up are recorded per operation in HDR histograms. Requests
+ * rejected with 429 are counted separately (start the application with
+ * {@code --rate-limit.enabled=false} to measure without the per-user limit).
+ *
+ * {@code ./gradlew loadTest -Ploadtest.vus=64 -Ploadtest.duration-s=120}
+ *
+ * Logins may go to a different application than the measured traffic ({@code loadtest.auth-url}),
+ * e.g. when measuring the reactive stack, which accepts the servlet application's tokens.
+ */
+public final class LoadHarness {
+
+    enum Operation { LOGIN, LIST_ORDERS, GET_ORDER, CREATE_ORDER, UPDATE_ORDER, GET_CUSTOMER, SEARCH_CUSTOMERS }
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+    private static final int KNOWN_ORDERS = 100;
+    private static final String[] SEARCH_TERMS = {"ana", "iva", "mar", "luk", "horvat", "kovač", "novak", "babic"};
+
+    private final String baseUrl;
+    private final String authUrl;
+    private final Path reportDir;
+    private final String userPrefix = Settings.string("loadtest.user-prefix", "loadtest");
+    private final String password = Settings.string("loadtest.password", "loadtest");
+    private final int users = Settings.integer("loadtest.users", 10_000);
+    private final int virtualUsers = Settings.integer("loadtest.vus", 32);
+    private final Duration warmup = Duration.ofSeconds(Settings.integer("loadtest.warmup-s", 15));
+    private final Duration duration = Duration.ofSeconds(Settings.integer("loadtest.duration-s", 60));
+    private final Operation[] mix = parseMix(Settings.string("loadtest.mix",
+            "list=40,get=25,create=10,update=10,customer=10,search=5"));
+
+    private final HttpClient http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    private final Map<Operation, Histogram> latencies = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> throttled = new EnumMap<>(Operation.class);
+
+    private volatile boolean running = true;
+    private volatile boolean measuring;
+
+    LoadHarness(String baseUrl, String authUrl, Path reportDir) {
+        this.baseUrl = baseUrl;
+        this.authUrl = authUrl;
+        this.reportDir = reportDir;
+        for (Operation operation : Operation.values()) {
+            latencies.put(operation, new ConcurrentHistogram(3));
+            errors.put(operation, new LongAdder());
+            throttled.put(operation, new LongAdder());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = Settings.string("loadtest.base-url", "http://localhost:8080");
+        new LoadHarness(baseUrl, Settings.string("loadtest.auth-url", baseUrl),
+                Path.of(Settings.string("loadtest.report-dir", "build/loadtest"))).run();
+    }
+
+    /**
+     * Throughput and latency of all measured requests of one run (logins excluded).
+     */
+    record Summary(String baseUrl, double throughput, long ok, long errors, long throttled,
+                   double p50Ms, double p99Ms, double p999Ms, double maxMs) {}
+
+    Summary run() throws Exception {
+        Session admin = new Session(userPrefix + "-admin");
+        if (admin.token() == null) {
+            throw new IllegalStateException("Admin login failed; seed the database first (./gradlew seedLoadTestData)");
+        }
+
+        System.out.printf("%d virtual users against %s: %ds warm-up, %ds measured%n",
+                virtualUsers, baseUrl, warmup.toSeconds(), duration.toSeconds());
+        ExecutorService executor = Executors.newFixedThreadPool(virtualUsers);
+        for (int i = 0; i < virtualUsers; i++) {
+            String username = userPrefix + "-" + (i * 7919L % users);
+            executor.execute(new VirtualUser(new Session(username), admin, new SplittableRandom(i)));
+        }
+
+        Thread.sleep(warmup.toMillis());
+        measuring = true;
+        long start = System.nanoTime();
+        Thread.sleep(duration.toMillis());
+        measuring = false;
+        double seconds = (System.nanoTime() - start) / 1e9;
+        running = false;
+        executor.shutdown();
+        executor.awaitTermination(30, TimeUnit.SECONDS);
+
+        Summary summary = report(System.out, seconds);
+        writeHistograms(reportDir);
+        return summary;
+    }
+
+    private final class VirtualUser implements Runnable {
+
+        private final Session session;
+        private final Session adminSession;
+        private final SplittableRandom random;
+        private final List<ObjectNode> knownOrders = new ArrayList<>();
+        private String token;
+        private String adminToken;
+
+        VirtualUser(Session session, Session adminSession, SplittableRandom random) {
+            this.session = session;
+            this.adminSession = adminSession;
+            this.random = random;
+        }
+
+        @Override
+        public void run() {
+            while (running) {
+                // Access tokens are short-lived; these refresh them shortly before they expire
+                token = session.token();
+                adminToken = adminSession.token();
+                if (token == null || adminToken == null) {
+                    try {
+                        Thread.sleep(1000);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    continue;
+                }
+                Operation operation = mix[random.nextInt(mix.length)];
+                try {
+                    execute(operation);
+                } catch (IOException e) {
+                    errors.get(operation).increment();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+
+        private void execute(Operation operation) throws IOException, InterruptedException {
+            if (knownOrders.isEmpty() && operation != Operation.CREATE_ORDER && operation != Operation.SEARCH_CUSTOMERS) {
+                operation = Operation.LIST_ORDERS;
+            }
+            switch (operation) {
+                case LIST_ORDERS -> {
+                    JsonNode page = call(operation, get("/orders?page=" + random.nextInt(5) + "&size=20", token));
+                    if (page != null) {
+                        // a Spring Data page from the servlet stack, a plain array from the reactive one
+                        (page.isArray() ? page : page.path("content")).forEach(order -> remember((ObjectNode) order));
+                    }
+                }
+                case GET_ORDER -> call(operation, get("/orders/" + someOrder().get("id").asText(), token));
+                case CREATE_ORDER -> {
+                    int product = random.nextInt(5000);
+                    String body = "{\"orderDate\":\"" + LocalDate.now() + "\",\"status\":\"NEW\",\"items\":[{"
+                            + "\"productCode\":\"SKU-" + String.format("%05d", product) + "\",\"name\":\"Product " + product
+                            + "\",\"quantity\":" + (1 + random.nextInt(3)) + ",\"unitPrice\":" + (2 + random.nextInt(200)) + ".99}]}";
+                    JsonNode created = call(operation, send("POST", "/orders", token, body));
+                    if (created != null) {
+                        remember((ObjectNode) created);
+                    }
+                }
+                case UPDATE_ORDER -> {
+                    ObjectNode order = someOrder().deepCopy();
+                    String id = order.get("id").asText();
+                    String status = order.path("status").asText();
+                    order.put("status", status.equals("NEW") ? "IN_PROGRESS" : "COMPLETED");
+                    order.remove(List.of("id", "createdAt", "customerId", "items")); // stored items are kept
+                    call(operation, send("PUT", "/orders/" + id, token, JSON.writeValueAsString(order)));
+                }
+                case GET_CUSTOMER -> call(operation, get("/customers/" + someOrder().get("customerId").asText(), adminToken));
+                case SEARCH_CUSTOMERS -> call(operation, get("/customers/search?size=20&q="
+                        + URLEncoder.encode(SEARCH_TERMS[random.nextInt(SEARCH_TERMS.length)], StandardCharsets.UTF_8),
+                        adminToken));
+                default -> throw new IllegalStateException("Not part of the mix: " + operation);
+            }
+        }
+
+        private void remember(ObjectNode order) {
+            if (knownOrders.size() == KNOWN_ORDERS) {
+                knownOrders.set(random.nextInt(KNOWN_ORDERS), order);
+            } else {
+                knownOrders.add(order);
+            }
+        }
+
+        private ObjectNode someOrder() {
+            return knownOrders.get(random.nextInt(knownOrders.size()));
+        }
+    }
+
+    /**
+     * Send the request, record its latency (2xx), throttling (429) or error, and return the parsed body of a 2xx.
+     */
+    private JsonNode call(Operation operation, HttpRequest request) throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+        long micros = (System.nanoTime() - start) / 1000;
+
+        int status = response.statusCode();
+        if (status == 429) {
+            if (measuring) {
+                throttled.get(operation).increment();
+            }
+            return null;
+        }
+        if (status / 100 != 2) {
+            if (measuring) {
+                errors.get(operation).increment();
+            }
+            return null;
+        }
+        if (measuring) {
+            latencies.get(operation).recordValue(micros);
+        }
+        String body = response.body();
+        return body.isEmpty() || !(body.startsWith("{") || body.startsWith("[")) ? null : JSON.readTree(body);
+    }
+
+    /**
+     * Tokens of one user: logs in on first use and refreshes the access token shortly before it expires.
+     * Shared by all virtual users in the case of the admin, hence synchronized.
+     */
+    private final class Session {
+
+        private static final long REFRESH_MARGIN_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+        private final String username;
+        private String accessToken;
+        private String refreshToken;
+        private long refreshAt;
+
+        Session(String username) {
+            this.username = username;
+        }
+
+        /**
+         * A usable access token, or null if neither refresh nor login succeeded.
+         */
+        synchronized String token() {
+            if (accessToken != null && System.nanoTime() - refreshAt < 0) {
+                return accessToken;
+            }
+            JsonNode tokens = refreshToken != null
+                    ? authenticate("/auth/refresh", "{\"refreshToken\":\"" + refreshToken + "\"}")
+                    : null;
+            if (tokens == null) {
+                tokens = authenticate("/auth/login",
+                        "{\"username\":\"" + username + "\",\"password\":\"" + password + "\"}");
+            }
+            if (tokens == null) {
+                accessToken = null;
+                return null;
+            }
+            accessToken = tokens.get("accessToken").asText();
+            refreshToken = tokens.get("refreshToken").asText();
+            refreshAt = System.nanoTime() + TimeUnit.SECONDS.toNanos(tokens.get("expiresIn").asLong()) - REFRESH_MARGIN_NANOS;
+            return accessToken;
+        }
+    }
+
+    /**
+     * Log in or refresh (both count as LOGIN) and return the issued tokens.
+     */
+    private JsonNode authenticate(String path, String body) {
+        try {
+            long start = System.nanoTime();
+            HttpResponse<String> response = http.send(send(authUrl, "POST", path, null, body),
+                    HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                errors.get(Operation.LOGIN).increment();
+                return null;
+            }
+            latencies.get(Operation.LOGIN).recordValue((System.nanoTime() - start) / 1000);
+            return JSON.readTree(response.body());
+        } catch (IOException e) {
+            errors.get(Operation.LOGIN).increment();
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private HttpRequest get(String path, String token) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Authorization", "Bearer " + token)
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+    }
+
+    private HttpRequest send(String method, String path, String token, String json) {
+        return send(baseUrl, method, path, token, json);
+    }
+
+    private HttpRequest send(String url, String method, String path, String token, String json) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url + path))
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofSeconds(30))
+                .method(method, HttpRequest.BodyPublishers.ofString(json));
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder.build();
+    }
+
+    private Summary report(PrintStream out, double seconds) {
+        out.printf("%n%-17s %9s %7s %9s %9s %8s %8s %8s %8s %8s%n",
+                "operation", "ok", "errors", "throttled", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        Histogram total = new Histogram(3);
+        long totalErrors = 0;
+        long totalThrottled = 0;
+        for (Operation operation : Operation.values()) {
+            Histogram histogram = latencies.get(operation);
+            // Logins happen during warm-up and are reported as a whole
+            if (operation != Operation.LOGIN) {
+                total.add(histogram);
+                totalErrors += errors.get(operation).sum();
+                totalThrottled += throttled.get(operation).sum();
+            }
+            printRow(out, operation.name(), histogram, errors.get(operation).sum(), throttled.get(operation).sum(),
+                    operation == Operation.LOGIN ? Double.NaN : histogram.getTotalCount() / seconds);
+        }
+        printRow(out, "TOTAL", total, totalErrors, totalThrottled, total.getTotalCount() / seconds);
+        return new Summary(baseUrl, total.getTotalCount() / seconds, total.getTotalCount(), totalErrors, totalThrottled,
+                millis(total.getValueAtPercentile(50)), millis(total.getValueAtPercentile(99)),
+                millis(total.getValueAtPercentile(99.9)), millis(total.getMaxValue()));
+    }
+
+    private static void printRow(PrintStream out, String name, Histogram histogram, long errors, long throttled,
+                                 double throughput) {
+        out.printf("%-17s %9d %7d %9d %9.1f %8.2f %8.2f %8.2f %8.2f %8.2f%n", name, histogram.getTotalCount(),
+                errors, throttled, throughput,
+                millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(90)),
+                millis(histogram.getValueAtPercentile(99)), millis(histogram.getValueAtPercentile(99.9)),
+                millis(histogram.getMaxValue()));
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+
+    /**
+     * Full percentile distributions, one .hgrm file per operation (plottable with HdrHistogram's plotter).
+     */
+    private void writeHistograms(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        for (Map.Entry<Operation, Histogram> entry : latencies.entrySet()) {
+            if (entry.getValue().getTotalCount() == 0) {
+                continue;
+            }
+            try (PrintStream out = new PrintStream(Files.newOutputStream(
+                    directory.resolve(entry.getKey().name().toLowerCase() + ".hgrm")))) {
+                entry.getValue().outputPercentileDistribution(out, 1000.0); // in milliseconds
+            }
+        }
+        System.out.println("Percentile distributions written to " + directory.toAbsolutePath());
+    }
+
+    /**
+     * "list=40,get=25,..." as an array where each operation appears as often as its weight.
+     */
+    private static Operation[] parseMix(String mix) {
+        Map<String, Operation> names = Map.of(
+                "list", Operation.LIST_ORDERS, "get", Operation.GET_ORDER, "create", Operation.CREATE_ORDER,
+                "update", Operation.UPDATE_ORDER, "customer", Operation.GET_CUSTOMER, "search", Operation.SEARCH_CUSTOMERS);
+        List<Operation> weighted = new ArrayList<>();
+        for (String part : mix.split(",")) {
+            String[] nameAndWeight = part.trim().split("=");
+            Operation operation = names.get(nameAndWeight[0]);
+            if (operation == null) {
+                throw new IllegalArgumentException("Unknown operation '" + nameAndWeight[0] + "', expected one of " + names.keySet());
+            }
+            for (int i = Integer.parseInt(nameAndWeight[1]); i > 0; i--) {
+                weighted.add(operation);
+            }
+        }
+        return weighted.toArray(new Operation[0]);
+    }
+}
@@ -0,0 +1,44 @@
+package ent.orderManagement.loadtest;
+
+import java.net.URI;
+
+/**
+ * Load-test settings, read from {@code -Dloadtest.*} system properties
+ * (the Gradle tasks forward {@code -Ploadtest.*} project properties).
+ */
+final class Settings {
+
+    private Settings() {}
+
+    static String string(String key, String defaultValue) {
+        return System.getProperty(key, defaultValue);
+    }
+
+    static int integer(String key, int defaultValue) {
+        String value = System.getProperty(key);
+        return value != null ? Integer.parseInt(value.replace("_", "")) : defaultValue;
+    }
+
+    static double decimal(String key, double defaultValue) {
+        String value = System.getProperty(key);
+        return value != null ? Double.parseDouble(value) : defaultValue;
+    }
+
+    static boolean bool(String key, boolean defaultValue) {
+        String value = System.getProperty(key);
+        return value != null ? Boolean.parseBoolean(value) : defaultValue;
+    }
+
+    /**
+     * Refuse to write to anything but a local database unless explicitly allowed:
+     * application.yml points at a shared database.
+     */
+    static void requireLocal(String jdbcUrl) {
+        String host = URI.create(jdbcUrl.substring("jdbc:".length())).getHost();
+        boolean local = host == null || host.equals("localhost") || host.equals("127.0.0.1") || host.equals("::1");
+        if (!local && !bool("loadtest.allow-remote", false)) {
+            throw new IllegalStateException("Refusing to seed non-local database " + host
+                    + " (set -Ploadtest.allow-remote=true to override)");
+        }
+    }
+}
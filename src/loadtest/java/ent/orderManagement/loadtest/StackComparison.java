@@ -0,0 +1,45 @@
+package ent.orderManagement.loadtest;
+
+import java.nio.file.Path;
+
+import ent.orderManagement.loadtest.LoadHarness.Summary;
+
+/**
+ * Runs the same {@link LoadHarness} workload against the servlet and the reactive application,
+ * one after the other, and prints both totals side by side. Both applications must be running
+ * on the same seeded database; logins always go to the servlet one.
+ *
+ * {@code ./gradlew compareStacks -Ploadtest.vus=256 -Ploadtest.duration-s=120}
+ */
+public final class StackComparison {
+
+    // Operations both stacks implement (no customer search on the reactive side)
+    static final String DEFAULT_MIX = "list=40,get=30,create=10,update=10,customer=10";
+
+    private StackComparison() {}
+
+    public static void main(String[] args) throws Exception {
+        if (System.getProperty("loadtest.mix") == null) {
+            System.setProperty("loadtest.mix", DEFAULT_MIX);
+        }
+        String servletUrl = Settings.string("loadtest.servlet-url", "http://localhost:8080");
+        String reactiveUrl = Settings.string("loadtest.reactive-url", "http://localhost:8081");
+        Path reportDir = Path.of(Settings.string("loadtest.report-dir", "build/loadtest"));
+
+        System.out.println("== servlet (Spring MVC + JPA/JDBC) ==");
+        Summary servlet = new LoadHarness(servletUrl, servletUrl, reportDir.resolve("servlet")).run();
+        System.out.println();
+        System.out.println("== reactive (WebFlux + R2DBC) ==");
+        Summary reactive = new LoadHarness(reactiveUrl, servletUrl, reportDir.resolve("reactive")).run();
+
+        System.out.printf("%n%-10s %9s %9s %7s %9s %8s %8s %8s %8s%n",
+                "stack", "req/s", "ok", "errors", "throttled", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+        print("servlet", servlet);
+        print("reactive", reactive);
+    }
+
+    private static void print(String name, Summary summary) {
+        System.out.printf("%-10s %9.1f %9d %7d %9d %8.2f %8.2f %8.2f %8.2f%n", name, summary.throughput(), summary.ok(),
+                summary.errors(), summary.throttled(), summary.p50Ms(), summary.p99Ms(), summary.p999Ms(), summary.maxMs());
+    }
+}
@@ -0,0 +1,54 @@
+package ent.orderManagement.analytics;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Dictionary encoding of customer ids: each distinct UUID gets a dense int so the
+ * order columns store 4 bytes per row instead of a 16 byte UUID object reference,
+ * and per-customer aggregates can use a plain array indexed by that int.
+ *
+ * Readers see an immutable view published after every new customer and never lock; the
+ * backing array is only appended to, and copied when it is full.
+ */
+public final class CustomerDictionary {
+
+    private record View(UUID[] customers, int size) {}
+
+    // Writer only
+    private final Map<UUID, Integer> indexes = new HashMap<>();
+    private UUID[] customers = new UUID[16];
+
+    private volatile View view = new View(customers, 0);
+
+    /**
+     * Index of the customer, assigning the next one if it is new. Single writer: callers
+     * must not call this concurrently.
+     */
+    public int indexOf(UUID customerId) {
+        Integer index = indexes.get(customerId);
+        if (index != null) {
+            return index;
+        }
+        int next = indexes.size();
+        if (next == customers.length) {
+            customers = Arrays.copyOf(customers, next * 2);
+        }
+        customers[next] = customerId;
+        indexes.put(customerId, next);
+        view = new View(customers, next + 1);
+        return next;
+    }
+
+    public UUID customerAt(int index) {
+        View current = view;
+        return current.customers()[Objects.checkIndex(index, current.size())];
+    }
+
+    public int size() {
+        return view.size();
+    }
+}
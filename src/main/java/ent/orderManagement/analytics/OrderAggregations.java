@@ -0,0 +1,131 @@
+package ent.orderManagement.analytics;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Parallel scans over {@link OrderColumns}. The row range is split with fork/join;
+ * every leaf sums into one primitive accumulator array and the halves are added
+ * together on join, so the scan loops themselves allocate nothing.
+ *
+ * Results are flat arrays of {@code [count, cents]} pairs: pair {@code i} is at
+ * {@code 2 * i} and {@code 2 * i + 1}, where {@code i} is a status ordinal or a
+ * customer dictionary index.
+ */
+public final class OrderAggregations {
+
+    /** No status filter. */
+    public static final int ANY_STATUS = -1;
+
+    // Below this a leaf is cheaper than the fork
+    static final int MIN_LEAF_ROWS = 1 << 15;
+
+    private OrderAggregations() {}
+
+    /**
+     * Order count and revenue per status over the first {@code rows} rows, for orders dated
+     * within {@code [fromDay, toDay]}.
+     */
+    public static long[] byStatus(OrderColumns columns, int rows, int statusCount, int fromDay, int toDay,
+                                  ForkJoinPool pool) {
+        return pool.invoke(new Scan(columns, false, statusCount, fromDay, toDay, ANY_STATUS,
+                0, rows, MIN_LEAF_ROWS));
+    }
+
+    /**
+     * Order count and revenue per customer over the first {@code rows} rows, for orders dated
+     * within {@code [fromDay, toDay]}, optionally only those in one status. {@code customerCount}
+     * must cover every dictionary index used by those rows.
+     *
+     * Each leaf needs an accumulator as large as the dictionary, so the range is cut into
+     * about two leaves per worker rather than many small ones.
+     */
+    public static long[] byCustomer(OrderColumns columns, int rows, int customerCount, int fromDay, int toDay,
+                                    int statusOrdinal, ForkJoinPool pool) {
+        int leafRows = Math.max(MIN_LEAF_ROWS, rows / (pool.getParallelism() * 2) + 1);
+        return pool.invoke(new Scan(columns, true, customerCount, fromDay, toDay, statusOrdinal,
+                0, rows, leafRows));
+    }
+
+    private static final class Scan extends RecursiveTask<long[]> {
+
+        private final OrderColumns columns;
+        private final boolean byCustomer;
+        private final int keyCount;
+        private final int fromDay;
+        private final int toDay;
+        private final int statusOrdinal;
+        private final int lo;
+        private final int hi;
+        private final int leafRows;
+
+        Scan(OrderColumns columns, boolean byCustomer, int keyCount, int fromDay, int toDay,
+             int statusOrdinal, int lo, int hi, int leafRows) {
+            this.columns = columns;
+            this.byCustomer = byCustomer;
+            this.keyCount = keyCount;
+            this.fromDay = fromDay;
+            this.toDay = toDay;
+            this.statusOrdinal = statusOrdinal;
+            this.lo = lo;
+            this.hi = hi;
+            this.leafRows = leafRows;
+        }
+
+        @Override
+        protected long[] compute() {
+            if (hi - lo <= leafRows) {
+                long[] totals = new long[keyCount * 2];
+                if (byCustomer) {
+                    sumByCustomer(totals);
+                } else {
+                    sumByStatus(totals);
+                }
+                return totals;
+            }
+            int mid = (lo + hi) >>> 1;
+            Scan left = new Scan(columns, byCustomer, keyCount, fromDay, toDay, statusOrdinal, lo, mid, leafRows);
+            Scan right = new Scan(columns, byCustomer, keyCount, fromDay, toDay, statusOrdinal, mid, hi, leafRows);
+            left.fork();
+            long[] totals = right.compute();
+            long[] leftTotals = left.join();
+            for (int i = 0; i < totals.length; i++) {
+                totals[i] += leftTotals[i];
+            }
+            return totals;
+        }
+
+        private void sumByStatus(long[] totals) {
+            int[] days = columns.epochDay;
+            byte[] statuses = columns.status;
+            byte[] weights = columns.weight;
+            long[] amounts = columns.amountCents;
+            for (int i = lo; i < hi; i++) {
+                int day = days[i];
+                if (day < fromDay || day > toDay) {
+                    continue;
+                }
+                int slot = statuses[i] << 1;
+                totals[slot] += weights[i];
+                totals[slot + 1] += amounts[i];
+            }
+        }
+
+        private void sumByCustomer(long[] totals) {
+            int[] days = columns.epochDay;
+            byte[] statuses = columns.status;
+            int[] customers = columns.customer;
+            byte[] weights = columns.weight;
+            long[] amounts = columns.amountCents;
+            for (int i = lo; i < hi; i++) {
+                int day = days[i];
+                if (day < fromDay || day > toDay || (statusOrdinal >= 0 && statuses[i] != statusOrdinal)) {
+                    continue;
+                }
+                int slot = customers[i] << 1;
+                totals[slot] += weights[i];
+                totals[slot + 1] += amounts[i];
+            }
+        }
+    }
+}
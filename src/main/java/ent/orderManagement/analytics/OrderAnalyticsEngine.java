@@ -0,0 +1,341 @@
+package ent.orderManagement.analytics;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import ent.orderManagement.exception.AnalyticsUnavailableException;
+import ent.orderManagement.model.Order.StatusEnum;
+import ent.orderManagement.payload.CustomerRevenue;
+import ent.orderManagement.payload.StatusRevenue;
+import ent.orderManagement.service.TransactionHooks;
+import ent.orderManagement.sharding.Shards;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Opt-in ({@code analytics.enabled}) in-memory analytics over all orders.
+ *
+ * Keeps a columnar snapshot ({@link OrderColumns}) that is loaded in full at startup and
+ * every {@code analytics.reload-interval-ms}, and kept fresh in between by appending
+ * the changes {@code OrderService} reports after each commit. Aggregations scan the
+ * snapshot in parallel on a dedicated fork/join pool and never touch the database.
+ *
+ * Figures are exact right after a reload. Each change carries the id of the transaction
+ * that made it, and each shard is loaded in a repeatable-read transaction whose snapshot is
+ * recorded; changes reported during a reload are replayed onto the new snapshot only if
+ * that load could not see them, so none is counted twice. Recording a change costs one
+ * {@code txid_current()} round trip in its transaction. Bulk status transitions trigger a
+ * reload instead of being applied row by row. With sharding, the shards are loaded one
+ * after another into the same snapshot.
+ */
+@Component
+public class OrderAnalyticsEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderAnalyticsEngine.class);
+
+    private static final String LOAD_SQL = "SELECT customer_id, order_date, total_amount, status FROM orders";
+    private static final int FETCH_SIZE = 10_000;
+    private static final int INITIAL_CAPACITY = 1 << 16;
+    private static final StatusEnum[] STATUSES = StatusEnum.values();
+
+    private record Snapshot(OrderColumns columns, CustomerDictionary customers, Instant loadedAt) {}
+
+    // txid is null for a change made outside a transaction, which is always replayed
+    private record Change(String shard, Long txid, OrderFact before, OrderFact after) {}
+
+    private final boolean enabled;
+    private final JdbcTemplate streamingJdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Shards shards;
+    private final ForkJoinPool pool;
+    private final ExecutorService reloadExecutor;
+    private final AtomicBoolean reloading = new AtomicBoolean();
+
+    private final Object writeLock = new Object();
+    private volatile Snapshot snapshot;
+    // Changes seen while a reload runs, replayed onto the new snapshot (guarded by writeLock)
+    private List<Change> changesDuringReload;
+
+    public OrderAnalyticsEngine(DataSource dataSource, PlatformTransactionManager transactionManager, Shards shards,
+                                @Value("${analytics.enabled:false}") boolean enabled,
+                                @Value("${analytics.parallelism:0}") int parallelism) {
+        this.enabled = enabled;
+
+        // PostgreSQL only streams with a fetch size inside a transaction
+        this.streamingJdbcTemplate = new JdbcTemplate(dataSource);
+        this.streamingJdbcTemplate.setFetchSize(FETCH_SIZE);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        // The recorded snapshot must be the one the load query reads with
+        this.readOnlyTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.shards = shards;
+
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.reloadExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "order-analytics-reload");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Record an order change: {@code before} is null for a new order, {@code after} is null
+     * for a deleted one. Applied after the surrounding transaction commits.
+     */
+    public void recordChange(OrderFact before, OrderFact after) {
+        if (!enabled) {
+            return;
+        }
+        Change change = new Change(shards.selected(), currentTransactionId(), before, after);
+        TransactionHooks.afterCommit(() -> apply(change));
+    }
+
+    private Long currentTransactionId() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return null;
+        }
+        return streamingJdbcTemplate.queryForObject("SELECT txid_current()", Long.class);
+    }
+
+    /**
+     * Reload in the background after the surrounding transaction commits, for changes too
+     * broad to record one by one.
+     */
+    public void requestReload() {
+        if (!enabled) {
+            return;
+        }
+        TransactionHooks.afterCommit(() -> reloadExecutor.execute(this::reload));
+    }
+
+    private void apply(Change change) {
+        synchronized (writeLock) {
+            Snapshot current = snapshot;
+            if (current != null) {
+                snapshot = append(current, change.before(), change.after());
+            }
+            if (changesDuringReload != null) {
+                changesDuringReload.add(change);
+            }
+        }
+    }
+
+    /**
+     * Replace the snapshot with a fresh full load, streamed from the database.
+     */
+    @Scheduled(initialDelayString = "${analytics.initial-delay-ms:0}",
+               fixedDelayString = "${analytics.reload-interval-ms:900000}")
+    public void reload() {
+        if (!enabled || !reloading.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            synchronized (writeLock) {
+                changesDuringReload = new ArrayList<>();
+            }
+            long started = System.nanoTime();
+            Map<String, TransactionSnapshot> seen = new HashMap<>();
+            Snapshot loaded = load(seen);
+            int replayed = 0;
+            synchronized (writeLock) {
+                for (Change change : changesDuringReload) {
+                    if (!loadedAlready(change, seen)) {
+                        loaded = append(loaded, change.before(), change.after());
+                        replayed++;
+                    }
+                }
+                changesDuringReload = null;
+                snapshot = loaded;
+            }
+            logger.info("Order analytics snapshot loaded: {} orders, {} customers, {} changes replayed in {} ms",
+                    loaded.columns().size(), loaded.customers().size(), replayed,
+                    (System.nanoTime() - started) / 1_000_000);
+        } catch (RuntimeException e) {
+            synchronized (writeLock) {
+                changesDuringReload = null;
+            }
+            logger.warn("Order analytics reload failed, keeping the previous snapshot: {}", e.getMessage());
+        } finally {
+            reloading.set(false);
+        }
+    }
+
+    private static boolean loadedAlready(Change change, Map<String, TransactionSnapshot> seen) {
+        TransactionSnapshot load = seen.get(change.shard());
+        return change.txid() != null && load != null && load.sees(change.txid());
+    }
+
+    /**
+     * Load every shard, putting the snapshot each shard was read with into {@code seen}.
+     */
+    private Snapshot load(Map<String, TransactionSnapshot> seen) {
+        CustomerDictionary customers = new CustomerDictionary();
+        OrderColumns[] columns = {new OrderColumns(INITIAL_CAPACITY)};
+        for (String shard : shards.names()) {
+            shards.on(shard, () -> readOnlyTransaction.execute(status -> {
+                seen.put(shard, TransactionSnapshot.parse(streamingJdbcTemplate.queryForObject(
+                        "SELECT txid_current_snapshot()::text", String.class)));
+                streamingJdbcTemplate.query(LOAD_SQL, (RowCallbackHandler) rs -> {
+                    BigDecimal amount = rs.getBigDecimal("total_amount");
+                    LocalDate orderDate = rs.getObject("order_date", LocalDate.class);
+                    columns[0] = appendRow(columns[0],
+                            amount == null ? 0 : OrderColumns.cents(amount),
+                            epochDay(orderDate),
+                            StatusEnum.valueOf(rs.getString("status")).ordinal(),
+                            customers.indexOf(rs.getObject("customer_id", UUID.class)),
+                            1);
+                });
+                return null;
+            }));
+        }
+        return new Snapshot(columns[0], customers, Instant.now());
+    }
+
+    private static Snapshot append(Snapshot target, OrderFact before, OrderFact after) {
+        OrderColumns columns = target.columns();
+        if (before != null) {
+            columns = appendFact(columns, target.customers(), before, -1);
+        }
+        if (after != null) {
+            columns = appendFact(columns, target.customers(), after, 1);
+        }
+        return columns == target.columns() ? target : new Snapshot(columns, target.customers(), target.loadedAt());
+    }
+
+    private static OrderColumns appendFact(OrderColumns columns, CustomerDictionary customers, OrderFact fact, int weight) {
+        long cents = fact.totalCents();
+        int status = fact.status() != null ? fact.status().ordinal() : StatusEnum.NEW.ordinal();
+        return appendRow(columns, weight * cents, epochDay(fact.orderDate()), status,
+                customers.indexOf(fact.customerId()), weight);
+    }
+
+    private static OrderColumns appendRow(OrderColumns columns, long cents, int day, int status, int customer, int weight) {
+        if (columns.append(cents, day, status, customer, weight)) {
+            return columns;
+        }
+        OrderColumns grown = columns.grow(columns.size() + 1);
+        grown.append(cents, day, status, customer, weight);
+        return grown;
+    }
+
+    // Orders without a date are left out of every window
+    private static int epochDay(LocalDate date) {
+        return date == null ? Integer.MIN_VALUE : (int) date.toEpochDay();
+    }
+
+    /**
+     * Order count and revenue per status for orders dated within {@code [from, to]} (both optional).
+     */
+    public List<StatusRevenue> revenueByStatus(LocalDate from, LocalDate to) {
+        Snapshot current = requireSnapshot();
+        OrderColumns columns = current.columns();
+        long[] totals = OrderAggregations.byStatus(columns, columns.size(), STATUSES.length,
+                fromDay(from), toDay(to), pool);
+
+        List<StatusRevenue> result = new ArrayList<>(STATUSES.length);
+        for (StatusEnum status : STATUSES) {
+            int slot = status.ordinal() * 2;
+            result.add(new StatusRevenue(status, totals[slot], BigDecimal.valueOf(totals[slot + 1], 2)));
+        }
+        return result;
+    }
+
+    /**
+     * The {@code limit} customers with the highest revenue for orders dated within
+     * {@code [from, to]}, optionally only orders in one status.
+     */
+    public List<CustomerRevenue> topCustomersByRevenue(LocalDate from, LocalDate to, StatusEnum status, int limit) {
+        Snapshot current = requireSnapshot();
+        OrderColumns columns = current.columns();
+        // Rows first: every customer index they use is then below the dictionary size
+        int rows = columns.size();
+        int customerCount = current.customers().size();
+        long[] totals = OrderAggregations.byCustomer(columns, rows, customerCount, fromDay(from), toDay(to),
+                status != null ? status.ordinal() : OrderAggregations.ANY_STATUS, pool);
+
+        // Min-heap of the best 'limit' customers seen so far
+        Comparator<Integer> byRevenue = Comparator.comparingLong(customer -> totals[customer * 2 + 1]);
+        PriorityQueue<Integer> top = new PriorityQueue<>(limit + 1, byRevenue);
+        for (int customer = 0; customer < customerCount; customer++) {
+            if (totals[customer * 2] <= 0) {
+                continue;
+            }
+            top.add(customer);
+            if (top.size() > limit) {
+                top.poll();
+            }
+        }
+
+        List<CustomerRevenue> result = new ArrayList<>(top.size());
+        while (!top.isEmpty()) {
+            int customer = top.poll();
+            result.add(new CustomerRevenue(current.customers().customerAt(customer), totals[customer * 2],
+                    BigDecimal.valueOf(totals[customer * 2 + 1], 2)));
+        }
+        Collections.reverse(result);
+        return result;
+    }
+
+    /**
+     * When the current snapshot was loaded, or null before the first load.
+     */
+    public Instant loadedAt() {
+        Snapshot current = snapshot;
+        return current != null ? current.loadedAt() : null;
+    }
+
+    private Snapshot requireSnapshot() {
+        if (!enabled) {
+            throw new AnalyticsUnavailableException("Order analytics are disabled (analytics.enabled=false)");
+        }
+        Snapshot current = snapshot;
+        if (current == null) {
+            throw new AnalyticsUnavailableException("Order analytics snapshot is still loading");
+        }
+        return current;
+    }
+
+    private static int fromDay(LocalDate from) {
+        return from != null ? (int) from.toEpochDay() : Integer.MIN_VALUE + 1;
+    }
+
+    private static int toDay(LocalDate to) {
+        return to != null ? (int) to.toEpochDay() : Integer.MAX_VALUE;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        reloadExecutor.shutdownNow();
+        pool.shutdownNow();
+    }
+}
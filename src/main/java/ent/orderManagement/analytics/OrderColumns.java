@@ -0,0 +1,89 @@
+package ent.orderManagement.analytics;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+
+/**
+ * Column-oriented copy of the analytic fields of the 'orders' table, one primitive
+ * array per column so a scan touches only the columns it needs and allocates nothing.
+ *
+ * Each row has a weight of +1 or -1: an update is recorded as a -1 row with the old
+ * values followed by a +1 row with the new ones, a delete as a single -1 row. Amounts
+ * are stored already signed, so every aggregate is a plain sum. A full reload
+ * compacts this back to one +1 row per order.
+ *
+ * Single writer: {@link #append} must not be called concurrently. Readers may scan
+ * concurrently; rows below {@link #size()} are always complete.
+ */
+public final class OrderColumns {
+
+    final long[] amountCents;
+    final int[] epochDay;
+    final byte[] status;
+    final int[] customer;
+    final byte[] weight;
+
+    // Written after the row, so a reader that sees the new size also sees the row
+    private volatile int size;
+
+    /**
+     * An amount in whole cents, rounded half up as PostgreSQL rounds a value stored into the
+     * DECIMAL(10,2) column, so an order counts the same whether it was loaded or replayed.
+     */
+    public static long cents(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_UP).movePointRight(2).longValueExact();
+    }
+
+    public OrderColumns(int capacity) {
+        this.amountCents = new long[capacity];
+        this.epochDay = new int[capacity];
+        this.status = new byte[capacity];
+        this.customer = new int[capacity];
+        this.weight = new byte[capacity];
+    }
+
+    private OrderColumns(OrderColumns source, int capacity) {
+        int n = source.size;
+        this.amountCents = Arrays.copyOf(source.amountCents, capacity);
+        this.epochDay = Arrays.copyOf(source.epochDay, capacity);
+        this.status = Arrays.copyOf(source.status, capacity);
+        this.customer = Arrays.copyOf(source.customer, capacity);
+        this.weight = Arrays.copyOf(source.weight, capacity);
+        this.size = n;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return amountCents.length;
+    }
+
+    /**
+     * Add a row.
+     * @return false if the columns are full; use {@link #grow} and append to the copy
+     */
+    public boolean append(long signedAmountCents, int day, int statusOrdinal, int customerIndex, int rowWeight) {
+        int n = size;
+        if (n == amountCents.length) {
+            return false;
+        }
+        amountCents[n] = signedAmountCents;
+        epochDay[n] = day;
+        status[n] = (byte) statusOrdinal;
+        customer[n] = customerIndex;
+        weight[n] = (byte) rowWeight;
+        size = n + 1;
+        return true;
+    }
+
+    /**
+     * Copy with room for at least {@code minCapacity} rows (grows by half to amortize copies).
+     */
+    public OrderColumns grow(int minCapacity) {
+        int capacity = Math.max(minCapacity, capacity() + (capacity() >> 1) + 16);
+        return new OrderColumns(this, capacity);
+    }
+}
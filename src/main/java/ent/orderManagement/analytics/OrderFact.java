@@ -0,0 +1,24 @@
+package ent.orderManagement.analytics;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import ent.orderManagement.model.Order.StatusEnum;
+import ent.orderManagement.model.OrderEntity;
+
+/**
+ * The fields of an order the analytics snapshot keeps, copied at one point in time
+ * (entities are mutated in place, so the "before" image must be taken before that).
+ */
+public record OrderFact(UUID customerId, LocalDate orderDate, Float totalAmount, StatusEnum status) {
+
+    public static OrderFact of(OrderEntity order) {
+        return new OrderFact(order.getCustomerId(), order.getOrderDate(), order.getTotalAmount(), order.getStatus());
+    }
+
+    // Float.toString is the shortest decimal that reads back as the same float: 10.1f is 10.1, not 10.0999...
+    public long totalCents() {
+        return totalAmount == null ? 0 : OrderColumns.cents(new BigDecimal(totalAmount.toString()));
+    }
+}
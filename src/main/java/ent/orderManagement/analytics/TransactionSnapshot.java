@@ -0,0 +1,33 @@
+package ent.orderManagement.analytics;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * A PostgreSQL {@code txid_snapshot} ("xmin:xmax:xip,..."): which transactions the statements
+ * that took it could see.
+ */
+public record TransactionSnapshot(long xmin, long xmax, Set<Long> inProgress) {
+
+    public static TransactionSnapshot parse(String text) {
+        String[] parts = text.split(":", -1);
+        if (parts.length != 3) {
+            throw new IllegalArgumentException("Not a transaction snapshot: " + text);
+        }
+        Set<Long> inProgress = new HashSet<>();
+        if (!parts[2].isEmpty()) {
+            for (String txid : parts[2].split(",")) {
+                inProgress.add(Long.parseLong(txid));
+            }
+        }
+        return new TransactionSnapshot(Long.parseLong(parts[0]), Long.parseLong(parts[1]), Set.copyOf(inProgress));
+    }
+
+    /**
+     * Whether the changes of transaction {@code txid} (as returned by {@code txid_current()})
+     * were committed when the snapshot was taken.
+     */
+    public boolean sees(long txid) {
+        return txid < xmin || (txid < xmax && !inProgress.contains(txid));
+    }
+}
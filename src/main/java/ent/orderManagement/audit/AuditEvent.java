@@ -0,0 +1,17 @@
+package ent.orderManagement.audit;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * One committed change: who changed which order or customer when, with the state before and
+ * after it ({@code after} is null for deletions). The images are the API representations
+ * ({@code Order}, {@code Customer}) and are serialized by the audit writer, not the caller.
+ */
+public record AuditEvent(Instant at, EntityType entity, UUID entityId, Action action, String actor,
+                         Object before, Object after) {
+
+    public enum EntityType { ORDER, CUSTOMER }
+
+    public enum Action { UPDATE, DELETE }
+}
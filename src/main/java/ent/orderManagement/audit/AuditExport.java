@@ -0,0 +1,118 @@
+package ent.orderManagement.audit;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Query and export tool for the audit log; runs without the application (and without a
+ * database), on the machine that holds the log:
+ *
+ * <pre>
+ * ./gradlew auditExport --args='--dir=logs/audit --entity=order --id=&lt;uuid&gt;
+ *     --from=2024-05-01T00:00:00Z --to=2024-06-01T00:00:00Z --actor=jane --out=orders.jsonl'
+ * </pre>
+ *
+ * Every filter is optional. Matching records are written as JSON lines, oldest first, to
+ * {@code --out} or standard output.
+ */
+public final class AuditExport {
+
+    /**
+     * Which records to export; null fields match everything.
+     */
+    public record Filter(AuditEvent.EntityType entity, UUID entityId, String actor, Instant from, Instant to) {
+
+        public static Filter all() {
+            return new Filter(null, null, null, null, null);
+        }
+
+        boolean matches(JsonNode record) {
+            if (entity != null && !entity.name().equals(record.path("entity").asText())) {
+                return false;
+            }
+            if (entityId != null && !entityId.toString().equals(record.path("entityId").asText())) {
+                return false;
+            }
+            if (actor != null && !actor.equals(record.path("actor").asText(null))) {
+                return false;
+            }
+            if (from == null && to == null) {
+                return true;
+            }
+            JsonNode atNode = record.path("at");
+            // ISO-8601 as written by the application; epoch seconds if dates are configured as timestamps
+            Instant at = atNode.isNumber() ? Instant.ofEpochMilli((long) (atNode.asDouble() * 1000))
+                    : Instant.parse(atNode.asText());
+            return (from == null || !at.isBefore(from)) && (to == null || at.isBefore(to));
+        }
+    }
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private AuditExport() {}
+
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got: " + arg);
+            }
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        Filter filter = new Filter(
+                options.containsKey("entity") ? AuditEvent.EntityType.valueOf(options.get("entity").toUpperCase(Locale.ROOT)) : null,
+                options.containsKey("id") ? UUID.fromString(options.get("id")) : null,
+                options.get("actor"),
+                options.containsKey("from") ? Instant.parse(options.get("from")) : null,
+                options.containsKey("to") ? Instant.parse(options.get("to")) : null);
+        Path directory = Path.of(options.getOrDefault("dir", "logs/audit"));
+
+        long exported;
+        if (options.containsKey("out")) {
+            try (OutputStream out = Files.newOutputStream(Path.of(options.get("out")))) {
+                exported = export(directory, filter, out);
+            }
+        } else {
+            exported = export(directory, filter, System.out);
+        }
+        System.err.println(exported + " audit records exported");
+    }
+
+    /**
+     * Write the matching records of the log in {@code directory} to {@code out}, one JSON document per line.
+     * @return how many records were written
+     */
+    public static long export(Path directory, Filter filter, OutputStream out) throws IOException {
+        OutputStream lines = new BufferedOutputStream(out);
+        long[] exported = {0};
+        try {
+            AuditLogReader.read(directory, filter.from() != null ? filter.from().toEpochMilli() : Long.MIN_VALUE, payload -> {
+                try {
+                    if (filter.matches(JSON.readTree(payload))) {
+                        lines.write(payload);
+                        lines.write('\n');
+                        exported[0]++;
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        lines.flush();
+        return exported[0];
+    }
+}
@@ -0,0 +1,131 @@
+package ent.orderManagement.audit;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Reads the records of an audit log directory in the order they were written, from both
+ * compressed and open segments. Safe to use while the application is writing: a record that
+ * is only partly written fails its checksum and ends the read of that segment.
+ *
+ * Record layout: length (int), CRC32 of the payload (int), payload (JSON, UTF-8). A length of
+ * 0 marks the end of the data in a segment that is still being written.
+ */
+public final class AuditLogReader {
+
+    static final String PREFIX = "audit-";
+    static final String OPEN_SUFFIX = ".log";
+    static final String COMPRESSED_SUFFIX = ".log.gz";
+    static final int HEADER_BYTES = 8;
+
+    private AuditLogReader() {}
+
+    /**
+     * A segment file and the time it was started, which every record in the previous segment predates.
+     */
+    record Segment(Path path, long startedAtMillis) {
+        boolean compressed() {
+            return path.getFileName().toString().endsWith(COMPRESSED_SUFFIX);
+        }
+    }
+
+    /**
+     * Pass every record payload to {@code consumer}, skipping segments that only hold records
+     * from before {@code fromMillis}.
+     */
+    public static void read(Path directory, long fromMillis, Consumer<byte[]> consumer) throws IOException {
+        List<Segment> segments = segments(directory);
+        for (int i = 0; i < segments.size(); i++) {
+            if (i + 1 < segments.size() && segments.get(i + 1).startedAtMillis() <= fromMillis) {
+                continue;
+            }
+            readSegment(segments.get(i), consumer);
+        }
+    }
+
+    /**
+     * The segments in the directory, oldest first; where a segment exists both open and compressed
+     * (compression had not removed the original yet), the compressed one.
+     */
+    static List<Segment> segments(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        Map<Long, Segment> byStart = new TreeMap<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path path : (Iterable<Path>) files::iterator) {
+                String name = path.getFileName().toString();
+                if (!name.startsWith(PREFIX)) {
+                    continue;
+                }
+                String suffix = name.endsWith(COMPRESSED_SUFFIX) ? COMPRESSED_SUFFIX
+                        : name.endsWith(OPEN_SUFFIX) ? OPEN_SUFFIX : null;
+                if (suffix == null) {
+                    continue;
+                }
+                long startedAt = Long.parseLong(name.substring(PREFIX.length(), name.length() - suffix.length()));
+                Segment segment = new Segment(path, startedAt);
+                byStart.merge(startedAt, segment, (existing, other) -> existing.compressed() ? existing : other);
+            }
+        }
+        return new ArrayList<>(byStart.values());
+    }
+
+    static void readSegment(Segment segment, Consumer<byte[]> consumer) throws IOException {
+        ByteBuffer data;
+        if (segment.compressed()) {
+            try (InputStream in = new GZIPInputStream(Files.newInputStream(segment.path()))) {
+                data = ByteBuffer.wrap(in.readAllBytes());
+            }
+        } else {
+            try {
+                // Copied rather than mapped: the writer cuts the file when it closes the segment
+                data = ByteBuffer.wrap(Files.readAllBytes(segment.path()));
+            } catch (NoSuchFileException compressedMeanwhile) {
+                String name = segment.path().getFileName().toString();
+                Path compressed = segment.path().resolveSibling(
+                        name.substring(0, name.length() - OPEN_SUFFIX.length()) + COMPRESSED_SUFFIX);
+                readSegment(new Segment(compressed, segment.startedAtMillis()), consumer);
+                return;
+            }
+        }
+        readRecords(data, consumer);
+    }
+
+    /**
+     * Read records from the buffer's position up to the end of the valid data.
+     * @return the position after the last valid record
+     */
+    static int readRecords(ByteBuffer data, Consumer<byte[]> consumer) {
+        CRC32 crc = new CRC32();
+        int position = data.position();
+        while (data.limit() - position >= HEADER_BYTES) {
+            int length = data.getInt(position);
+            if (length <= 0 || length > data.limit() - position - HEADER_BYTES) {
+                break;
+            }
+            byte[] payload = new byte[length];
+            data.get(position + HEADER_BYTES, payload);
+            crc.reset();
+            crc.update(payload);
+            if ((int) crc.getValue() != data.getInt(position + 4)) {
+                break;
+            }
+            consumer.accept(payload);
+            position += HEADER_BYTES + length;
+        }
+        return position;
+    }
+}
@@ -0,0 +1,175 @@
+package ent.orderManagement.audit;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+import java.util.zip.GZIPOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import ent.orderManagement.audit.AuditLogReader.Segment;
+
+/**
+ * Append-only log of audit records in memory-mapped segment files
+ * ({@code audit-<start millis>.log}, record layout in {@link AuditLogReader}). A full segment
+ * is cut to its data and gzipped in the background; segments left open by a crash are
+ * recovered (cut after their last intact record) and compressed when the log is opened.
+ *
+ * Appended records are in the page cache at once, so they survive a crash of the JVM;
+ * {@link #force()} makes them survive a crash of the machine. Not thread-safe: one writer.
+ */
+public final class AuditSegmentLog implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditSegmentLog.class);
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final boolean compress;
+    private final ExecutorService compressor;
+    private final CRC32 crc = new CRC32();
+
+    private Path segment;
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private long lastStartedAt;
+    private boolean dirty;
+
+    public AuditSegmentLog(Path directory, int segmentBytes, boolean compress) throws IOException {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.compress = compress;
+        this.compressor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "audit-compressor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Files.createDirectories(directory);
+        for (Segment open : AuditLogReader.segments(directory)) {
+            if (!open.compressed()) {
+                lastStartedAt = Math.max(lastStartedAt, open.startedAtMillis());
+                seal(open.path(), recoveredLength(open.path()));
+            }
+        }
+    }
+
+    /**
+     * Append one record, starting a new segment if it does not fit into the current one.
+     */
+    public void append(byte[] payload) throws IOException {
+        int length = AuditLogReader.HEADER_BYTES + payload.length;
+        if (buffer == null || buffer.remaining() < length) {
+            rotate(length);
+        }
+        crc.reset();
+        crc.update(payload);
+        int position = buffer.position();
+        buffer.put(position + AuditLogReader.HEADER_BYTES, payload);
+        buffer.putInt(position + 4, (int) crc.getValue());
+        // The length goes last: until it is there, readers see the end of the data
+        buffer.putInt(position, payload.length);
+        buffer.position(position + length);
+        dirty = true;
+    }
+
+    /**
+     * Write everything appended so far through to the disk.
+     */
+    public void force() {
+        if (dirty && buffer != null) {
+            buffer.force();
+            dirty = false;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        closeSegment();
+        compressor.shutdown();
+        try {
+            compressor.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void rotate(int needed) throws IOException {
+        closeSegment();
+        // Segment names must grow even if two segments are started within the same millisecond
+        long startedAt = Math.max(System.currentTimeMillis(), lastStartedAt + 1);
+        lastStartedAt = startedAt;
+        segment = directory.resolve(String.format("%s%015d%s", AuditLogReader.PREFIX, startedAt, AuditLogReader.OPEN_SUFFIX));
+        channel = FileChannel.open(segment, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(segmentBytes, needed + AuditLogReader.HEADER_BYTES));
+    }
+
+    private void closeSegment() throws IOException {
+        if (buffer == null) {
+            return;
+        }
+        buffer.force();
+        int length = buffer.position();
+        buffer = null;
+        channel.close();
+        channel = null;
+        seal(segment, length);
+        segment = null;
+        dirty = false;
+    }
+
+    /**
+     * Cut a segment to its data and, if configured, compress it in the background.
+     */
+    private void seal(Path path, int length) throws IOException {
+        try (FileChannel file = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            file.truncate(length);
+            file.force(true);
+        }
+        if (compress) {
+            compressor.execute(() -> compress(path));
+        }
+    }
+
+    private static int recoveredLength(Path path) throws IOException {
+        try (FileChannel file = FileChannel.open(path, StandardOpenOption.READ)) {
+            int length = AuditLogReader.readRecords(file.map(FileChannel.MapMode.READ_ONLY, 0, file.size()), payload -> {});
+            if (length < file.size()) {
+                logger.warn("Audit segment {} was not closed; recovered {} of {} bytes", path, length, file.size());
+            }
+            return length;
+        }
+    }
+
+    private static void compress(Path path) {
+        String name = path.getFileName().toString();
+        Path compressed = path.resolveSibling(name.substring(0, name.length() - AuditLogReader.OPEN_SUFFIX.length())
+                + AuditLogReader.COMPRESSED_SUFFIX);
+        Path temporary = path.resolveSibling(compressed.getFileName() + ".tmp");
+        try {
+            try (InputStream in = Files.newInputStream(path);
+                 OutputStream out = new GZIPOutputStream(Files.newOutputStream(temporary))) {
+                in.transferTo(out);
+            }
+            try (FileChannel file = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+                file.force(true);
+            }
+            // Readers prefer the compressed segment once it exists, so the original can go after it
+            Files.move(temporary, compressed, StandardCopyOption.ATOMIC_MOVE);
+            Files.delete(path);
+        } catch (IOException e) {
+            logger.error("Could not compress audit segment {}; it stays uncompressed", path, e);
+        }
+    }
+}
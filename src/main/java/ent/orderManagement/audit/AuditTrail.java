@@ -0,0 +1,222 @@
+package ent.orderManagement.audit;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import ent.orderManagement.audit.AuditEvent.Action;
+import ent.orderManagement.audit.AuditEvent.EntityType;
+import ent.orderManagement.service.TransactionHooks;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Change history of orders and customers, kept off the write path: a mutation only puts its
+ * before/after images into a lock-free ring buffer once its transaction has committed. One
+ * writer thread serializes them and appends them in batches to the local segment log in
+ * {@code audit.directory} ({@link AuditSegmentLog}); read it with {@code ./gradlew auditExport}.
+ *
+ * Durability ({@code audit.durability}): {@code batch} forces every batch to disk before taking
+ * the next, {@code periodic} every {@code audit.fsync-interval-ms}. Either way a record is only
+ * lost if the machine fails before it was forced. If the buffer is full, a mutation waits up to
+ * {@code audit.offer-timeout-ms} for space and then drops its record (metric
+ * {@code audit.events.dropped}) rather than failing a change that is already committed.
+ */
+@Component
+public class AuditTrail implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditTrail.class);
+    private static final long IDLE_WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long FULL_WAIT_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    public enum Durability { BATCH, PERIODIC }
+
+    private final boolean enabled;
+    private final ObjectMapper objectMapper;
+    private final Path directory;
+    private final int segmentBytes;
+    private final boolean compress;
+    private final Durability durability;
+    private final long fsyncIntervalNanos;
+    private final int batchSize;
+    private final long offerTimeoutNanos;
+    private final AuditRingBuffer<AuditEvent> buffer;
+    private final Counter written;
+    private final Counter dropped;
+    private final Counter failed;
+
+    private volatile boolean running;
+    private Thread writer;
+    private AuditSegmentLog log;
+
+    public AuditTrail(ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                      @Value("${audit.enabled:false}") boolean enabled,
+                      @Value("${audit.directory:logs/audit}") String directory,
+                      @Value("${audit.buffer-size:65536}") int bufferSize,
+                      @Value("${audit.batch-size:512}") int batchSize,
+                      @Value("${audit.segment-size-mb:64}") int segmentSizeMb,
+                      @Value("${audit.compress:true}") boolean compress,
+                      @Value("${audit.durability:batch}") String durability,
+                      @Value("${audit.fsync-interval-ms:1000}") long fsyncIntervalMs,
+                      @Value("${audit.offer-timeout-ms:100}") long offerTimeoutMs) {
+        this.enabled = enabled;
+        this.objectMapper = objectMapper;
+        this.directory = Path.of(directory);
+        this.segmentBytes = segmentSizeMb * 1024 * 1024;
+        this.compress = compress;
+        this.durability = Durability.valueOf(durability.trim().toUpperCase(Locale.ROOT));
+        this.fsyncIntervalNanos = TimeUnit.MILLISECONDS.toNanos(fsyncIntervalMs);
+        this.batchSize = batchSize;
+        this.offerTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(offerTimeoutMs);
+        this.buffer = new AuditRingBuffer<>(enabled ? bufferSize : 1);
+        this.written = Counter.builder("audit.events.written").register(meterRegistry);
+        this.dropped = Counter.builder("audit.events.dropped")
+                .description("Audit records lost because the buffer stayed full")
+                .register(meterRegistry);
+        this.failed = Counter.builder("audit.events.failed")
+                .description("Audit records that could not be serialized or written")
+                .register(meterRegistry);
+        Gauge.builder("audit.backlog", buffer, AuditRingBuffer::size).register(meterRegistry);
+    }
+
+    /**
+     * An audit trail that records nothing (tests, tools).
+     */
+    public static AuditTrail disabled() {
+        return new AuditTrail(new ObjectMapper(), new SimpleMeterRegistry(), false, "logs/audit",
+                1, 1, 1, false, "batch", 1000, 0);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void recordUpdate(EntityType entity, UUID entityId, Object before, Object after) {
+        record(entity, entityId, Action.UPDATE, before, after);
+    }
+
+    public void recordDelete(EntityType entity, UUID entityId, Object before) {
+        record(entity, entityId, Action.DELETE, before, null);
+    }
+
+    private void record(EntityType entity, UUID entityId, Action action, Object before, Object after) {
+        if (!enabled) {
+            return;
+        }
+        AuditEvent event = new AuditEvent(Instant.now(), entity, entityId, action, currentActor(), before, after);
+        TransactionHooks.afterCommit(() -> enqueue(event));
+    }
+
+    private void enqueue(AuditEvent event) {
+        if (buffer.offer(event)) {
+            return;
+        }
+        long deadline = System.nanoTime() + offerTimeoutNanos;
+        while (System.nanoTime() < deadline) {
+            LockSupport.parkNanos(FULL_WAIT_NANOS);
+            if (buffer.offer(event)) {
+                return;
+            }
+        }
+        dropped.increment();
+        logger.error("Audit buffer full, record dropped: {} {} {} by {}",
+                event.action(), event.entity(), event.entityId(), event.actor());
+    }
+
+    private static String currentActor() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null ? authentication.getName() : null;
+    }
+
+    @Override
+    public void start() {
+        if (!enabled || running) {
+            return;
+        }
+        try {
+            log = new AuditSegmentLog(directory, segmentBytes, compress);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot open the audit log in " + directory.toAbsolutePath(), e);
+        }
+        running = true;
+        writer = new Thread(this::writeLoop, "audit-writer");
+        writer.setDaemon(true);
+        writer.start();
+        logger.info("Audit trail writing to {} (durability {})", directory.toAbsolutePath(), durability);
+    }
+
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            log.close();
+        } catch (IOException e) {
+            logger.error("Could not close the audit log", e);
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Starts before and stops after the web server, so every request that changed something can still record it
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void writeLoop() {
+        long lastForce = System.nanoTime();
+        while (running || buffer.size() > 0) {
+            int drained = buffer.drain(this::write, batchSize);
+            if (drained > 0 && durability == Durability.BATCH) {
+                log.force();
+                lastForce = System.nanoTime();
+            } else if (System.nanoTime() - lastForce >= fsyncIntervalNanos) {
+                log.force();
+                lastForce = System.nanoTime();
+            }
+            if (drained == 0 && running) {
+                LockSupport.parkNanos(IDLE_WAIT_NANOS);
+            }
+        }
+        log.force();
+    }
+
+    private void write(AuditEvent event) {
+        try {
+            log.append(objectMapper.writeValueAsBytes(event));
+            written.increment();
+        } catch (IOException | RuntimeException e) {
+            failed.increment();
+            logger.error("Could not write audit record: {} {} {} by {}",
+                    event.action(), event.entity(), event.entityId(), event.actor(), e);
+        }
+    }
+}
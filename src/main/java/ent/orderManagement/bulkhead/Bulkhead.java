@@ -0,0 +1,131 @@
+package ent.orderManagement.bulkhead;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Concurrency bulkhead with an adaptive limit: at most {@link VegasLimit#limit()} requests
+ * hold a permit at once, at most {@code maxQueue} more wait for one, and none waits longer
+ * than the queue timeout. Everything beyond that is rejected straight away, so a slow
+ * database costs callers a quick 503 instead of a blocked server thread.
+ */
+public final class Bulkhead {
+
+    private final EndpointClass endpointClass;
+    private final VegasLimit limit;
+    private final int maxQueue;
+    private final long queueTimeoutNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition released = lock.newCondition();
+    private int inFlight;
+    private int queued;
+
+    private final LongAdder rejectedQueueFull = new LongAdder();
+    private final LongAdder rejectedTimeout = new LongAdder();
+
+    public Bulkhead(EndpointClass endpointClass, VegasLimit limit, int maxQueue, long queueTimeoutMs) {
+        this.endpointClass = endpointClass;
+        this.limit = limit;
+        this.maxQueue = maxQueue;
+        this.queueTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(queueTimeoutMs);
+    }
+
+    /**
+     * Take a permit, waiting at most the queue timeout.
+     * @return the permit, or {@code null} if the request should be rejected
+     */
+    public Permit tryAcquire() throws InterruptedException {
+        lock.lock();
+        try {
+            if (inFlight >= limit.limit()) {
+                if (queued >= maxQueue) {
+                    rejectedQueueFull.increment();
+                    return null;
+                }
+                queued++;
+                try {
+                    long remaining = queueTimeoutNanos;
+                    while (inFlight >= limit.limit()) {
+                        if (remaining <= 0) {
+                            rejectedTimeout.increment();
+                            return null;
+                        }
+                        remaining = released.awaitNanos(remaining);
+                    }
+                } finally {
+                    queued--;
+                }
+            }
+            return new Permit(++inFlight);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public EndpointClass endpointClass() {
+        return endpointClass;
+    }
+
+    public int limit() {
+        return limit.limit();
+    }
+
+    public int inFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int queued() {
+        lock.lock();
+        try {
+            return queued;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long rejectedQueueFull() {
+        return rejectedQueueFull.sum();
+    }
+
+    public long rejectedTimeout() {
+        return rejectedTimeout.sum();
+    }
+
+    public final class Permit {
+
+        private final long startNanos = System.nanoTime();
+        private final int inFlightAtStart;
+        private boolean released;
+
+        private Permit(int inFlightAtStart) {
+            this.inFlightAtStart = inFlightAtStart;
+        }
+
+        /**
+         * Give the permit back and feed its latency into the limit. Only the first call counts.
+         */
+        public void release(boolean dropped) {
+            if (released) {
+                return;
+            }
+            released = true;
+            limit.onSample(System.nanoTime() - startNanos, inFlightAtStart, dropped);
+            lock.lock();
+            try {
+                inFlight--;
+                // The limit may have grown as well, so wake every waiter to re-check
+                Bulkhead.this.released.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package ent.orderManagement.bulkhead;
+
+import java.io.IOException;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Puts every request into the bulkhead of its {@link EndpointClass} before anything touches
+ * the database. Runs ahead of Spring Security, so login and token refresh are limited too.
+ * The time a request holds its permit is dominated by its database work, so that is the
+ * latency the adaptive limit follows; 5xx responses and exceptions count as drops.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)  // just after the flight recorder
+public class BulkheadFilter extends OncePerRequestFilter {
+
+    private final BulkheadRegistry registry;
+    private final boolean enabled;
+
+    public BulkheadFilter(BulkheadRegistry registry, @Value("${bulkhead.enabled:true}") boolean enabled) {
+        this.registry = registry;
+        this.enabled = enabled;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || request.getRequestURI().startsWith("/actuator/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+
+        EndpointClass endpointClass = EndpointClass.of(request.getMethod(), request.getRequestURI());
+        Bulkhead.Permit permit;
+        try {
+            permit = registry.get(endpointClass).tryAcquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            permit = null;
+        }
+        if (permit == null) {
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader("Retry-After", "1");
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"error\": \"Server busy (" + endpointClass.tag() + "), try again later\"}");
+            return;
+        }
+
+        boolean dropped = true;
+        try {
+            chain.doFilter(request, response);
+            dropped = response.getStatus() >= 500;
+        } finally {
+            permit.release(dropped);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package ent.orderManagement.bulkhead;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * One {@link Bulkhead} per {@link EndpointClass}, with its state published as metrics
+ * ({@code /actuator/metrics/bulkhead.limit?tag=class:read} etc.).
+ */
+@Component
+public class BulkheadRegistry {
+
+    private final Map<EndpointClass, Bulkhead> bulkheads = new EnumMap<>(EndpointClass.class);
+
+    public BulkheadRegistry(MeterRegistry meterRegistry,
+                            @Value("${bulkhead.read.max-limit:20}") int readMaxLimit,
+                            @Value("${bulkhead.write.max-limit:10}") int writeMaxLimit,
+                            @Value("${bulkhead.auth.max-limit:5}") int authMaxLimit,
+                            @Value("${bulkhead.export.max-limit:2}") int exportMaxLimit,
+                            @Value("${bulkhead.max-queue:20}") int maxQueue,
+                            @Value("${bulkhead.queue-timeout-ms:250}") long queueTimeoutMs,
+                            @Value("${bulkhead.probe-interval:1000}") int probeInterval) {
+        register(EndpointClass.READ, readMaxLimit, maxQueue, queueTimeoutMs, probeInterval);
+        register(EndpointClass.WRITE, writeMaxLimit, maxQueue, queueTimeoutMs, probeInterval);
+        register(EndpointClass.AUTH, authMaxLimit, maxQueue, queueTimeoutMs, probeInterval);
+        register(EndpointClass.EXPORT, exportMaxLimit, maxQueue, queueTimeoutMs, probeInterval);
+        bulkheads.values().forEach(bulkhead -> bindMetrics(meterRegistry, bulkhead));
+    }
+
+    public Bulkhead get(EndpointClass endpointClass) {
+        return bulkheads.get(endpointClass);
+    }
+
+    private void register(EndpointClass endpointClass, int maxLimit, int maxQueue, long queueTimeoutMs, int probeInterval) {
+        bulkheads.put(endpointClass, new Bulkhead(endpointClass,
+                new VegasLimit(maxLimit, 1, maxLimit, probeInterval), maxQueue, queueTimeoutMs));
+    }
+
+    private static void bindMetrics(MeterRegistry registry, Bulkhead bulkhead) {
+        String tag = bulkhead.endpointClass().tag();
+        Gauge.builder("bulkhead.limit", bulkhead, Bulkhead::limit)
+                .description("Current adaptive concurrency limit").tag("class", tag).register(registry);
+        Gauge.builder("bulkhead.in.flight", bulkhead, Bulkhead::inFlight)
+                .description("Requests holding a permit").tag("class", tag).register(registry);
+        Gauge.builder("bulkhead.queued", bulkhead, Bulkhead::queued)
+                .description("Requests waiting for a permit").tag("class", tag).register(registry);
+        FunctionCounter.builder("bulkhead.rejected", bulkhead, Bulkhead::rejectedQueueFull)
+                .description("Requests rejected with 503").tags("class", tag, "reason", "queue_full").register(registry);
+        FunctionCounter.builder("bulkhead.rejected", bulkhead, Bulkhead::rejectedTimeout)
+                .description("Requests rejected with 503").tags("class", tag, "reason", "queue_timeout").register(registry);
+    }
+}
@@ -0,0 +1,27 @@
+package ent.orderManagement.bulkhead;
+
+/**
+ * Groups of endpoints that get their own database bulkhead, so a flood of one kind
+ * (e.g. slow exports) cannot take the connections another kind (e.g. login) needs.
+ */
+public enum EndpointClass {
+    READ,
+    WRITE,
+    AUTH,
+    EXPORT;
+
+    public static EndpointClass of(String method, String uri) {
+        if (uri.startsWith("/auth/")) {
+            return AUTH;
+        }
+        // A GraphQL query reads as many rows as a batch request, although it is a POST
+        if (uri.startsWith("/analytics/") || uri.endsWith("/batch") || uri.equals("/graphql")) {
+            return EXPORT;
+        }
+        return "GET".equals(method) || "HEAD".equals(method) ? READ : WRITE;
+    }
+
+    public String tag() {
+        return name().toLowerCase();
+    }
+}
@@ -0,0 +1,72 @@
+package ent.orderManagement.bulkhead;
+
+/**
+ * Adaptive concurrency limit in the style of TCP Vegas.
+ *
+ * The lowest latency seen so far is taken as the "no load" latency. From each sample the
+ * number of requests queueing in the database is estimated as
+ * {@code limit * (1 - noLoadRtt / rtt)}: while it is small the limit grows by one, once it
+ * is large the limit shrinks by one. A dropped request (error or timeout) cuts the limit
+ * multiplicatively, as in AIMD. The no-load latency is re-measured every
+ * {@code probeInterval} samples so a permanently slower database does not pin the limit
+ * at its minimum.
+ */
+public final class VegasLimit {
+
+    private static final double BACKOFF_RATIO = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final int probeInterval;
+
+    private double limit;
+    private long noLoadRttNanos = Long.MAX_VALUE;
+    private int samplesSinceProbe;
+
+    public VegasLimit(int initialLimit, int minLimit, int maxLimit, int probeInterval) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Limits must satisfy 1 <= min <= max");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.probeInterval = probeInterval;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    public synchronized int limit() {
+        return (int) limit;
+    }
+
+    /**
+     * Update the limit after a request finished.
+     * @param rttNanos time the request held its permit
+     * @param inFlight requests holding a permit when this one started
+     * @param dropped whether the request failed or timed out
+     */
+    public synchronized void onSample(long rttNanos, int inFlight, boolean dropped) {
+        if (++samplesSinceProbe >= probeInterval) {
+            samplesSinceProbe = 0;
+            noLoadRttNanos = rttNanos;
+        } else if (rttNanos < noLoadRttNanos) {
+            noLoadRttNanos = rttNanos;
+        }
+
+        double next;
+        if (dropped) {
+            next = limit * BACKOFF_RATIO;
+        } else if (inFlight * 2 < limit) {
+            return; // not using the limit, so the sample says nothing about it
+        } else {
+            double queued = limit * (1 - (double) noLoadRttNanos / Math.max(rttNanos, 1L));
+            double threshold = Math.max(1.0, Math.log10(limit));
+            if (queued <= 3 * threshold) {
+                next = limit + 1;
+            } else if (queued >= 6 * threshold) {
+                next = limit - 1;
+            } else {
+                return;
+            }
+        }
+        limit = Math.max(minLimit, Math.min(maxLimit, next));
+    }
+}
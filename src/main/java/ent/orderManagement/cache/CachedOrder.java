@@ -0,0 +1,12 @@
+package ent.orderManagement.cache;
+
+import java.util.List;
+
+import ent.orderManagement.model.OrderEntity;
+import ent.orderManagement.model.OrderItemEntity;
+
+/**
+ * An order as read from the database. Instances are shared between threads (coalesced
+ * loads, cache hits) and must be treated as read-only; callers build their own DTO from it.
+ */
+public record CachedOrder(OrderEntity entity, List<OrderItemEntity> items) {}
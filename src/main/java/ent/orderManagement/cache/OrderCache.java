@@ -0,0 +1,97 @@
+package ent.orderManagement.cache;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Node-local, size-bounded cache of orders with a TTL.
+ *
+ * Entries are only served while this node is subscribed to cross-node invalidations
+ * ({@link OrderCacheInvalidator}); while it is not, the cache is bypassed entirely.
+ * An invalidation epoch guards against a load that started before a write putting
+ * the old value back after the write's eviction.
+ */
+@Component
+public class OrderCache {
+
+    private final boolean enabled;
+    private final Cache<UUID, CachedOrder> cache;
+    private final AtomicLong epoch = new AtomicLong();
+    private volatile boolean available;
+
+    public OrderCache(@Value("${orders.cache.enabled:false}") boolean enabled,
+                      @Value("${orders.cache.max-size:100000}") long maxSize,
+                      @Value("${orders.cache.ttl-ms:60000}") long ttlMs) {
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .recordStats()
+                .build();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public CachedOrder get(UUID orderId) {
+        return available ? cache.getIfPresent(orderId) : null;
+    }
+
+    /**
+     * Read before loading from the database and pass to {@link #put}.
+     */
+    public long epoch() {
+        return epoch.get();
+    }
+
+    /**
+     * Cache a value loaded after {@code epochBeforeLoad} was read; dropped again if
+     * any invalidation happened in the meantime.
+     */
+    public void put(UUID orderId, CachedOrder order, long epochBeforeLoad) {
+        if (!available || epoch.get() != epochBeforeLoad) {
+            return;
+        }
+        cache.put(orderId, order);
+        if (epoch.get() != epochBeforeLoad) {
+            cache.invalidate(orderId);
+        }
+    }
+
+    public void evict(Collection<UUID> orderIds) {
+        epoch.incrementAndGet();
+        cache.invalidateAll(orderIds);
+    }
+
+    public void clear() {
+        epoch.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    /**
+     * Called by the invalidation listener: the cache may only be used while it is subscribed.
+     */
+    void setAvailable(boolean available) {
+        this.available = enabled && available;
+        if (!available) {
+            clear();
+        }
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    public double hitRate() {
+        return cache.stats().hitRate();
+    }
+}
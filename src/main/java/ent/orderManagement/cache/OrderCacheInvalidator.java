@@ -0,0 +1,249 @@
+package ent.orderManagement.cache;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import ent.orderManagement.service.TransactionHooks;
+
+/**
+ * Keeps the {@link OrderCache} of every node consistent through PostgreSQL LISTEN/NOTIFY.
+ *
+ * Writers call {@link #invalidate}: after the transaction commits, the ids are evicted
+ * locally and queued; the queue is flushed periodically as a few NOTIFY messages of up
+ * to {@code MAX_IDS_PER_MESSAGE} ids each. A dedicated connection LISTENs and evicts on
+ * receipt. Whenever that connection is down the cache is disabled, and it is cleared
+ * after every (re)connect because notifications sent in between were missed.
+ *
+ * A connection that died without a FIN (a restarted proxy, a dropped NAT entry) would just
+ * stay silent, so every {@code orders.cache.listen-check-ms} the listener runs a
+ * {@code SELECT 1} on it under a network timeout; if that fails it reconnects like for any
+ * other error.
+ */
+@Component
+public class OrderCacheInvalidator implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderCacheInvalidator.class);
+
+    // Payload: "<sender node id>:<order id>,<order id>,..."; the reactive application sends it too
+    public static final String CHANNEL = "order_cache_invalidation";
+
+    // NOTIFY payloads are limited to 8000 bytes; a UUID plus separator is 37
+    private static final int MAX_IDS_PER_MESSAGE = 200;
+    private static final long MAX_BACKOFF_MS = 30_000;
+    // Also the socket read timeout of the listen connection; getNotifications sets its own for the wait
+    private static final int CHECK_TIMEOUT_MS = 5_000;
+    public static final String LISTENER_APPLICATION_NAME = "order-cache-listener";
+
+    private final OrderCache orderCache;
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSourceProperties dataSourceProperties;
+    private final long checkIntervalNanos;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final ConcurrentLinkedQueue<UUID> pending = new ConcurrentLinkedQueue<>();
+
+    private volatile boolean running;
+    private volatile Connection listenConnection;
+    private Thread listener;
+
+    public OrderCacheInvalidator(OrderCache orderCache, JdbcTemplate jdbcTemplate,
+                                 DataSourceProperties dataSourceProperties,
+                                 @Value("${orders.cache.listen-check-ms:5000}") long checkIntervalMs) {
+        this.orderCache = orderCache;
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSourceProperties = dataSourceProperties;
+        this.checkIntervalNanos = TimeUnit.MILLISECONDS.toNanos(checkIntervalMs);
+    }
+
+    /**
+     * Evict the given orders on every node. Inside a transaction this happens after commit,
+     * so no node can reload the old row once it has been told to evict it.
+     */
+    public void invalidate(Collection<UUID> orderIds) {
+        if (!orderCache.isEnabled() || orderIds.isEmpty()) {
+            return;
+        }
+        List<UUID> ids = List.copyOf(orderIds);
+        TransactionHooks.afterCommit(() -> evictAndQueue(ids));
+    }
+
+    private void evictAndQueue(List<UUID> ids) {
+        orderCache.evict(ids);
+        pending.addAll(ids);
+    }
+
+    /**
+     * Send queued invalidations, batched into as few NOTIFY messages as possible.
+     */
+    @Scheduled(fixedDelayString = "${orders.cache.invalidation-flush-ms:50}")
+    public void flush() {
+        List<UUID> batch = new ArrayList<>(MAX_IDS_PER_MESSAGE);
+        UUID id;
+        while ((id = pending.poll()) != null) {
+            batch.add(id);
+            if (batch.size() == MAX_IDS_PER_MESSAGE) {
+                notifyNodes(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            notifyNodes(batch);
+        }
+    }
+
+    private void notifyNodes(List<UUID> ids) {
+        StringBuilder payload = new StringBuilder(nodeId).append(':');
+        for (int i = 0; i < ids.size(); i++) {
+            if (i > 0) {
+                payload.append(',');
+            }
+            payload.append(ids.get(i));
+        }
+        try {
+            jdbcTemplate.query("SELECT pg_notify(?, ?)", (ResultSetExtractor<Void>) rs -> null, CHANNEL, payload.toString());
+        } catch (RuntimeException e) {
+            // Other nodes may now serve stale entries until their TTL expires
+            logger.warn("Could not publish invalidation of {} orders: {}", ids.size(), e.getMessage());
+        }
+    }
+
+    void handle(String payload) {
+        int separator = payload.indexOf(':');
+        if (separator < 0 || payload.startsWith(nodeId)) {
+            return; // evicted locally already
+        }
+        List<UUID> ids = new ArrayList<>();
+        for (String id : payload.substring(separator + 1).split(",")) {
+            ids.add(UUID.fromString(id));
+        }
+        orderCache.evict(ids);
+    }
+
+    private void listen() {
+        long backoffMs = 500;
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    listenProperties())) {
+                listenConnection = connection;
+                connection.setNetworkTimeout(Runnable::run, CHECK_TIMEOUT_MS);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+
+                // Anything that changed while we were not listening is unknown: start empty
+                orderCache.clear();
+                orderCache.setAvailable(true);
+                logger.info("Order cache listening for invalidations on '{}'", CHANNEL);
+                backoffMs = 500;
+
+                long checkAt = System.nanoTime() + checkIntervalNanos;
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(1000);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            handle(notification.getParameter());
+                        }
+                    }
+                    if (System.nanoTime() - checkAt >= 0) {
+                        checkAlive(connection);
+                        checkAt = System.nanoTime() + checkIntervalNanos;
+                    }
+                }
+            } catch (SQLException | RuntimeException e) {
+                orderCache.setAvailable(false);
+                if (running) {
+                    logger.warn("Order cache invalidation listener disconnected, cache disabled: {}", e.getMessage());
+                    sleep(backoffMs);
+                    backoffMs = Math.min(backoffMs * 2, MAX_BACKOFF_MS);
+                }
+            } finally {
+                listenConnection = null;
+            }
+        }
+        orderCache.setAvailable(false);
+    }
+
+    private Properties listenProperties() {
+        Properties properties = new Properties();
+        if (dataSourceProperties.determineUsername() != null) {
+            properties.setProperty("user", dataSourceProperties.determineUsername());
+        }
+        if (dataSourceProperties.determinePassword() != null) {
+            properties.setProperty("password", dataSourceProperties.determinePassword());
+        }
+        // Lets operators (and tests) find the listener in pg_stat_activity
+        properties.setProperty("ApplicationName", LISTENER_APPLICATION_NAME);
+        return properties;
+    }
+
+    /**
+     * Round trip on the listen connection; throws if it does not answer within {@code CHECK_TIMEOUT_MS}.
+     */
+    private static void checkAlive(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SELECT 1");
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void start() {
+        if (!orderCache.isEnabled() || running) {
+            return;
+        }
+        running = true;
+        listener = new Thread(this::listen, "order-cache-listener");
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        Connection connection = listenConnection;
+        if (connection != null) {
+            try {
+                connection.close();
+            } catch (SQLException ignored) {
+                // shutting down anyway
+            }
+        }
+        if (listener != null) {
+            listener.interrupt();
+        }
+        flush();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
@@ -0,0 +1,118 @@
+package ent.orderManagement.compression;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.WebUtils;
+
+import com.aayushatharva.brotli4j.Brotli4jLoader;
+import com.aayushatharva.brotli4j.encoder.Encoder;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Brotli for clients that accept it. Tomcat only knows gzip ({@code server.compression.*}),
+ * so this filter takes over when {@code Accept-Encoding} contains {@code br}, using the same
+ * size threshold and mime types. Tomcat does not compress a response that already has a
+ * {@code Content-Encoding}, so the two never stack. Without the native library every client
+ * gets gzip.
+ *
+ * A request that goes async (Callable, DeferredResult, streaming) keeps its wrapper: the async
+ * dispatch passes through this filter again and the Brotli stream is ended once the response is
+ * complete, not when the first dispatch returns.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 3)  // after the query budget, so it sees the finished body
+public class BrotliCompressionFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(BrotliCompressionFilter.class);
+
+    private final boolean enabled;
+    private final int threshold;
+    private final Set<String> mimeTypes;
+    private final Encoder.Parameters parameters;
+
+    public BrotliCompressionFilter(@Value("${compression.brotli.enabled:true}") boolean enabled,
+                                   @Value("${compression.brotli.quality:4}") int quality,
+                                   @Value("${server.compression.min-response-size:2KB}") DataSize threshold,
+                                   @Value("${server.compression.mime-types:application/json}") String[] mimeTypes) {
+        this.enabled = enabled && brotliAvailable();
+        this.threshold = (int) threshold.toBytes();
+        this.mimeTypes = Arrays.stream(mimeTypes).map(String::trim).collect(Collectors.toUnmodifiableSet());
+        this.parameters = new Encoder.Parameters().setQuality(quality);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!enabled || "HEAD".equals(request.getMethod())) {
+            return true;
+        }
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        return acceptEncoding == null || !acceptsBrotli(acceptEncoding);
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+
+        // On an async dispatch the response is the wrapper handed to startAsync() by the first dispatch
+        BrotliResponseWrapper wrapper = WebUtils.getNativeResponse(response, BrotliResponseWrapper.class);
+        if (wrapper == null) {
+            wrapper = new BrotliResponseWrapper(response, threshold, mimeTypes, parameters);
+        }
+        chain.doFilter(request, wrapper);
+        if (!isAsyncStarted(request)) {
+            wrapper.finish();
+        }
+    }
+
+    // "br", "br;q=0.8" but not "br;q=0"
+    static boolean acceptsBrotli(String acceptEncoding) {
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            if (parts[0].trim().equalsIgnoreCase("br")) {
+                for (int i = 1; i < parts.length; i++) {
+                    String parameter = parts[i].trim();
+                    if (parameter.startsWith("q=")) {
+                        try {
+                            return Double.parseDouble(parameter.substring(2)) > 0;
+                        } catch (NumberFormatException e) {
+                            return false;
+                        }
+                    }
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean brotliAvailable() {
+        try {
+            Brotli4jLoader.ensureAvailability();
+            return true;
+        } catch (Throwable e) {
+            logger.warn("Brotli native library not available, responses will only be gzip compressed: {}", e.toString());
+            return false;
+        }
+    }
+}
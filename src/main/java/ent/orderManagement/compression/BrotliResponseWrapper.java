@@ -0,0 +1,229 @@
+package ent.orderManagement.compression;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.util.Set;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+import com.aayushatharva.brotli4j.encoder.BrotliOutputStream;
+import com.aayushatharva.brotli4j.encoder.Encoder;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+/**
+ * Holds back the first {@code threshold} bytes of the body. A body that stays below it, or is
+ * not of a compressible type, goes out unchanged; anything larger is streamed through a
+ * Brotli encoder from then on, with {@code Content-Encoding: br}.
+ *
+ * Non-blocking writes (a {@link WriteListener}) go out uncompressed: the listener has to see the
+ * readiness of the servlet stream itself, which a Brotli encoder in between would hide.
+ */
+class BrotliResponseWrapper extends HttpServletResponseWrapper {
+
+    private final int threshold;
+    private final Set<String> compressibleTypes;
+    private final Encoder.Parameters parameters;
+
+    private ByteArrayOutputStream pending;
+    private OutputStream target; // decided once: raw response or Brotli stream
+    private ServletOutputStream outputStream;
+    private PrintWriter writer;
+
+    BrotliResponseWrapper(HttpServletResponse response, int threshold, Set<String> compressibleTypes,
+                          Encoder.Parameters parameters) {
+        super(response);
+        this.threshold = threshold;
+        this.compressibleTypes = compressibleTypes;
+        this.parameters = parameters;
+    }
+
+    // The length of the compressed body is not known up front
+    @Override
+    public void setContentLength(int len) {
+    }
+
+    @Override
+    public void setContentLengthLong(long len) {
+    }
+
+    @Override
+    public void setHeader(String name, String value) {
+        if (!HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+            super.setHeader(name, value);
+        }
+    }
+
+    @Override
+    public void addHeader(String name, String value) {
+        if (!HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+            super.addHeader(name, value);
+        }
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        if (writer != null) {
+            throw new IllegalStateException("getWriter() has already been called");
+        }
+        if (outputStream == null) {
+            outputStream = new BufferingOutputStream();
+        }
+        return outputStream;
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (writer == null) {
+            if (outputStream != null) {
+                throw new IllegalStateException("getOutputStream() has already been called");
+            }
+            outputStream = new BufferingOutputStream();
+            writer = new PrintWriter(new OutputStreamWriter(outputStream, Charset.forName(getCharacterEncoding())));
+        }
+        return writer;
+    }
+
+    // Flushing before the threshold would commit an uncompressed response; the data is sent on finish()
+    @Override
+    public void flushBuffer() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+        if (target != null) {
+            target.flush();
+            super.flushBuffer();
+        }
+    }
+
+    /**
+     * Send what is still held back and end the Brotli stream.
+     */
+    void finish() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+        if (target == null) {
+            target = getResponse().getOutputStream();
+            if (pending != null) {
+                getResponse().setContentLength(pending.size());
+                pending.writeTo(target);
+            }
+        }
+        if (target instanceof BrotliOutputStream brotli) {
+            brotli.close(); // writes the final block; the servlet stream itself stays open
+        }
+    }
+
+    /**
+     * Send everything from now on to the servlet stream unchanged. Only possible while nothing has
+     * been compressed yet.
+     */
+    private ServletOutputStream passThrough() throws IOException {
+        if (target instanceof BrotliOutputStream) {
+            throw new IllegalStateException("The response is already being compressed");
+        }
+        ServletOutputStream raw = getResponse().getOutputStream();
+        if (target == null) {
+            target = raw;
+            if (pending != null) {
+                pending.writeTo(raw);
+                pending = null;
+            }
+        }
+        return raw;
+    }
+
+    private void write(byte[] bytes, int offset, int length) throws IOException {
+        if (target == null) {
+            if (pending == null) {
+                pending = new ByteArrayOutputStream(Math.min(threshold, 8192));
+            }
+            if (pending.size() + length < threshold) {
+                pending.write(bytes, offset, length);
+                return;
+            }
+            target = compressible() ? startCompression() : getResponse().getOutputStream();
+            pending.writeTo(target);
+            pending = null;
+        }
+        target.write(bytes, offset, length);
+    }
+
+    private boolean compressible() {
+        HttpServletResponse response = (HttpServletResponse) getResponse();
+        if (response.getHeader(HttpHeaders.CONTENT_ENCODING) != null || getContentType() == null) {
+            return false;
+        }
+        MediaType type = MediaType.parseMediaType(getContentType());
+        return compressibleTypes.contains(type.getType() + "/" + type.getSubtype());
+    }
+
+    private OutputStream startCompression() throws IOException {
+        HttpServletResponse response = (HttpServletResponse) getResponse();
+        response.setHeader(HttpHeaders.CONTENT_ENCODING, "br");
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        OutputStream raw = response.getOutputStream();
+        // Closing the Brotli stream must not close the servlet stream
+        return new BrotliOutputStream(new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                raw.write(b);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                raw.write(b, off, len);
+            }
+
+            @Override
+            public void flush() throws IOException {
+                raw.flush();
+            }
+        }, parameters);
+    }
+
+    private final class BufferingOutputStream extends ServletOutputStream {
+
+        private ServletOutputStream nonBlocking;
+
+        @Override
+        public void write(int b) throws IOException {
+            BrotliResponseWrapper.this.write(new byte[] {(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            BrotliResponseWrapper.this.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            flushBuffer();
+        }
+
+        @Override
+        public boolean isReady() {
+            return nonBlocking == null || nonBlocking.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            try {
+                nonBlocking = passThrough();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            nonBlocking.setWriteListener(writeListener);
+        }
+    }
+}
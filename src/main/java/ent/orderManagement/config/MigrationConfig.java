@@ -0,0 +1,107 @@
+package ent.orderManagement.config;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import javax.sql.DataSource;
+
+import org.flywaydb.core.Flyway;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import ent.orderManagement.sharding.ShardDataSources;
+
+@Configuration
+public class MigrationConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(MigrationConfig.class);
+
+    // Written by the schemaVersion Gradle task: the highest migration version in the build
+    private static final String SCHEMA_VERSION_RESOURCE = "db/schema-version.properties";
+
+    /**
+     * Skips Flyway entirely when the last successful migration is already the newest one
+     * in the build. A full migrate resolves and checksums every migration, so its cost grows
+     * with the history; this check is one indexed query. If the version file is missing
+     * (e.g. running from an IDE without the Gradle build) Flyway always runs.
+     *
+     * With sharding on, the other shards get the same migrations (placeholder
+     * {@code shardRole=secondary}) after the main database.
+     *
+     * {@code spring.flyway.enabled=false} is checked here as well: with Spring AOT the
+     * auto-configuration conditions are fixed at build time, so the migration initializer
+     * exists even when a profile switches Flyway off.
+     */
+    @Bean
+    public FlywayMigrationStrategy skipWhenCurrentMigrationStrategy(ObjectProvider<ShardDataSources> shardDataSources,
+                                                                    @Value("${spring.flyway.enabled:true}") boolean enabled) {
+        return flyway -> {
+            if (!enabled) {
+                logger.info("Flyway is disabled, not checking or migrating any schema");
+                return;
+            }
+            String latest = latestAvailableVersion();
+            migrateIfBehind(flyway, latest, "Database");
+            ShardDataSources shards = shardDataSources.getIfAvailable();
+            if (shards != null) {
+                shards.secondaries().forEach((name, dataSource) ->
+                        migrateIfBehind(secondary(flyway, dataSource), latest, "Shard " + name));
+            }
+        };
+    }
+
+    private static void migrateIfBehind(Flyway flyway, String latest, String database) {
+        String applied = appliedVersion(flyway);
+        if (latest != null && latest.equals(applied)) {
+            logger.info("{} schema is current (version {}), skipping migrations", database, applied);
+            return;
+        }
+        logger.info("Migrating {} schema from version {} to {}", database.toLowerCase(), applied,
+                latest != null ? latest : "latest");
+        flyway.migrate();
+    }
+
+    private static Flyway secondary(Flyway flyway, DataSource dataSource) {
+        Map<String, String> placeholders = new HashMap<>(flyway.getConfiguration().getPlaceholders());
+        placeholders.put("shardRole", "secondary");
+        return Flyway.configure()
+                .configuration(flyway.getConfiguration())
+                .dataSource(dataSource)
+                .placeholders(placeholders)
+                .load();
+    }
+
+    private static String latestAvailableVersion() {
+        try (InputStream in = MigrationConfig.class.getClassLoader().getResourceAsStream(SCHEMA_VERSION_RESOURCE)) {
+            if (in == null) {
+                return null;
+            }
+            Properties properties = new Properties();
+            properties.load(in);
+            return properties.getProperty("latest");
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static String appliedVersion(Flyway flyway) {
+        String table = flyway.getConfiguration().getTable();
+        try {
+            return new JdbcTemplate(flyway.getConfiguration().getDataSource()).query(
+                    "SELECT version FROM " + table + " WHERE success AND version IS NOT NULL"
+                  + " ORDER BY installed_rank DESC LIMIT 1",
+                    rs -> rs.next() ? rs.getString(1) : null);
+        } catch (RuntimeException e) {
+            return null; // no history table yet
+        }
+    }
+}
@@ -52,8 +52,13 @@ public class SecurityConfig {
             .authorizeHttpRequests()
             .requestMatchers("/auth/**").permitAll()  // Public endpoints
             .requestMatchers("/customers/**").hasRole("ADMIN")  // Only ADMIN can manage customers
+            .requestMatchers("/analytics/**").hasRole("ADMIN")  // Revenue over all customers
+            .requestMatchers("/actuator/health/liveness", "/actuator/health/readiness").permitAll()  // Probes of the orchestrator / load balancer
+            .requestMatchers("/actuator/**").hasRole("ADMIN")  // Metrics, incl. bulkhead limits
+            .requestMatchers("/diagnostics/**").hasRole("ADMIN")  // Flight recordings
             .requestMatchers(HttpMethod.GET, "/orders/**").authenticated()  // All authenticated users can GET orders
             .requestMatchers("/orders/**").hasAnyRole("ADMIN", "USER")  // Users can create/update their own orders
+            .requestMatchers("/graphql").authenticated()  // Read-only queries, same visibility as GET /orders
             .anyRequest().authenticated()
             .and()
             .sessionManagement().sessionCreationPolicy(SessionCreationPolicy.STATELESS)
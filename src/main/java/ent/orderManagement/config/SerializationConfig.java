@@ -0,0 +1,45 @@
+package ent.orderManagement.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+
+import ent.orderManagement.jfr.TracingJackson2CborHttpMessageConverter;
+import ent.orderManagement.jfr.TracingJackson2SmileHttpMessageConverter;
+
+/**
+ * Response formats besides JSON, chosen by the {@code Accept} header:
+ * {@code application/x-jackson-smile} and {@code application/cbor}. JSON stays first, so
+ * clients that accept anything still get JSON.
+ */
+@Configuration
+public class SerializationConfig {
+
+    /**
+     * Generated accessors instead of reflection for every ObjectMapper Spring Boot builds.
+     */
+    @Bean
+    public Module blackbirdModule() {
+        return new BlackbirdModule();
+    }
+
+    // Same settings and modules as the JSON ObjectMapper; these take the place of Spring's defaults
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter mappingJackson2SmileHttpMessageConverter(
+            Jackson2ObjectMapperBuilder builder) {
+        return new TracingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter mappingJackson2CborHttpMessageConverter(
+            Jackson2ObjectMapperBuilder builder) {
+        return new TracingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+}
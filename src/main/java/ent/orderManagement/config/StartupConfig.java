@@ -0,0 +1,32 @@
+package ent.orderManagement.config;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationInitializer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import ent.orderManagement.repository.OrderRepository;
+import ent.orderManagement.repository.UserRepository;
+import ent.orderManagement.security.JwtRequestFilter;
+import ent.orderManagement.security.JwtUtil;
+import ent.orderManagement.service.UserService;
+
+@Configuration
+public class StartupConfig {
+
+    /**
+     * Beans on the authenticated request path stay eager when the startup profile
+     * turns on lazy initialization, so the first request does not pay for JPA bootstrap.
+     * The migration initializer must stay eager or migrations would never run.
+     */
+    @Bean
+    public static LazyInitializationExcludeFilter criticalBeansExcludeFilter() {
+        return LazyInitializationExcludeFilter.forBeanTypes(
+                JwtRequestFilter.class,
+                JwtUtil.class,
+                UserService.class,
+                UserRepository.class,
+                OrderRepository.class,
+                FlywayMigrationInitializer.class);
+    }
+}
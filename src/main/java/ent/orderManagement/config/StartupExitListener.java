@@ -0,0 +1,31 @@
+package ent.orderManagement.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Shuts the application down once it is ready when {@code app.startup.exit-after-start} is set.
+ * Used by one-shot runs such as the AppCDS training run and the schema migration step.
+ * The property is read at runtime (not through a condition) so it also works with Spring AOT.
+ */
+@Component
+public class StartupExitListener implements ApplicationListener<ApplicationReadyEvent> {
+
+    private static final Logger logger = LoggerFactory.getLogger(StartupExitListener.class);
+
+    @Value("${app.startup.exit-after-start:false}")
+    private boolean exitAfterStart;
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        if (exitAfterStart) {
+            logger.info("Startup finished, exiting (app.startup.exit-after-start=true)");
+            System.exit(SpringApplication.exit(event.getApplicationContext()));
+        }
+    }
+}
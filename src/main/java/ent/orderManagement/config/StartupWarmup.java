@@ -0,0 +1,240 @@
+package ent.orderManagement.config;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariDataSource;
+
+import ent.orderManagement.model.Customer;
+import ent.orderManagement.model.Order;
+import ent.orderManagement.model.OrderItem;
+import ent.orderManagement.model.Role;
+import ent.orderManagement.model.User;
+import ent.orderManagement.repository.CustomerRepository;
+import ent.orderManagement.repository.OrderJdbcRepository;
+import ent.orderManagement.repository.OrderRepository;
+import ent.orderManagement.repository.UserRepository;
+import ent.orderManagement.security.JwtUtil;
+import ent.orderManagement.service.OrderService;
+import ent.orderManagement.sharding.ShardDataSources;
+import ent.orderManagement.sharding.Shards;
+
+/**
+ * Warms a fresh instance up before it takes traffic: fills the connection pools, runs the hot
+ * repository queries (Hibernate query plans, server-side prepared statements, JIT), signs and
+ * verifies tokens, serializes the common responses and optionally preloads the order cache.
+ *
+ * Application runners finish before the application is reported ready, so the readiness probe
+ * ({@code /actuator/health/readiness}) says REFUSING_TRAFFIC until the warmup is done. Each step
+ * is timed and logged; a failing step is logged and skipped, it never stops the startup.
+ */
+@Component
+public class StartupWarmup implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(StartupWarmup.class);
+
+    private final ShardDataSources dataSources;
+    private final Shards shards;
+    private final OrderRepository orderRepository;
+    private final OrderJdbcRepository orderJdbcRepository;
+    private final CustomerRepository customerRepository;
+    private final UserRepository userRepository;
+    private final JwtUtil jwtUtil;
+    private final ObjectMapper objectMapper;
+    private final OrderService orderService;
+    private final boolean enabled;
+    private final int poolConnections;
+    private final int iterations;
+    private final int threads;
+    private final long maxDurationMs;
+    private final int cachePreload;
+
+    public StartupWarmup(ShardDataSources dataSources, Shards shards, OrderRepository orderRepository,
+                         OrderJdbcRepository orderJdbcRepository, CustomerRepository customerRepository,
+                         UserRepository userRepository, JwtUtil jwtUtil, ObjectMapper objectMapper,
+                         OrderService orderService,
+                         @Value("${warmup.enabled:false}") boolean enabled,
+                         @Value("${warmup.pool-connections:0}") int poolConnections,
+                         @Value("${warmup.iterations:200}") int iterations,
+                         @Value("${warmup.threads:4}") int threads,
+                         @Value("${warmup.max-duration-ms:30000}") long maxDurationMs,
+                         @Value("${warmup.cache-preload:0}") int cachePreload) {
+        this.dataSources = dataSources;
+        this.shards = shards;
+        this.orderRepository = orderRepository;
+        this.orderJdbcRepository = orderJdbcRepository;
+        this.customerRepository = customerRepository;
+        this.userRepository = userRepository;
+        this.jwtUtil = jwtUtil;
+        this.objectMapper = objectMapper;
+        this.orderService = orderService;
+        this.enabled = enabled;
+        this.poolConnections = poolConnections;
+        this.iterations = iterations;
+        this.threads = Math.max(1, threads);
+        this.maxDurationMs = maxDurationMs;
+        this.cachePreload = cachePreload;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(maxDurationMs);
+        step("connection pools", () -> dataSources.names().forEach(this::fillPool));
+        step("database queries", () -> repeat(deadline, this::queries));
+        step("JWT", () -> repeat(deadline, this::tokens));
+        step("JSON", () -> repeat(deadline, this::json));
+        if (cachePreload > 0) {
+            step("order cache", () -> logger.info("Warmup: {} orders preloaded", orderService.preloadCache(cachePreload)));
+        }
+        logger.info("Warmup finished in {} ms", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private void step(String name, Runnable step) {
+        long start = System.nanoTime();
+        try {
+            step.run();
+            logger.info("Warmup of {} took {} ms", name, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } catch (RuntimeException e) {
+            logger.warn("Warmup of {} failed, skipped", name, e);
+        }
+    }
+
+    /**
+     * Hold as many connections as the pool keeps idle at once, so they are all opened now
+     * instead of while the first requests wait for them.
+     */
+    private void fillPool(String shard) {
+        DataSource dataSource = dataSources.dataSource(shard);
+        int connections = poolConnections;
+        try {
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                HikariDataSource hikari = dataSource.unwrap(HikariDataSource.class);
+                connections = Math.min(connections > 0 ? connections : hikari.getMinimumIdle(),
+                        hikari.getMaximumPoolSize());
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Cannot inspect the pool of shard " + shard, e);
+        }
+        List<Connection> held = new ArrayList<>(connections);
+        try {
+            for (int i = 0; i < connections; i++) {
+                held.add(dataSource.getConnection());
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Opened only " + held.size() + " connections to shard " + shard, e);
+        } finally {
+            for (Connection connection : held) {
+                try {
+                    connection.close();
+                } catch (SQLException ignored) {
+                    // Already broken; the pool replaces it
+                }
+            }
+        }
+        logger.info("Warmup: {} connections open to shard {}", held.size(), shard);
+    }
+
+    /**
+     * The queries behind GET /orders, GET /orders/{id}, the customer endpoints and login.
+     * Random ids find nothing, which exercises the same statements without touching real data.
+     */
+    private void queries() {
+        UUID customerId = UUID.randomUUID();
+        shards.onCustomer(customerId, () -> orderRepository.findAllByCustomerId(customerId, PageRequest.of(0, 20)));
+        shards.onCustomer(customerId, () -> orderJdbcRepository.countByCustomerIdUpTo(customerId, 1));
+        shards.mergePages(PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "orderDate")), "id",
+                page -> new PageImpl<>(orderRepository.findAllBy(page)));
+        UUID orderId = UUID.randomUUID();
+        shards.findFirst(() -> orderJdbcRepository.findByIdWithItems(orderId));
+        shards.collect(null, () -> orderJdbcRepository.findByIds(List.of(orderId, UUID.randomUUID()), null));
+        customerRepository.findById(customerId);
+        customerRepository.findAllById(List.of(customerId, UUID.randomUUID()));
+        userRepository.findByUsername("warmup-" + customerId);
+    }
+
+    private void tokens() {
+        User user = new User("warmup", null, Role.USER);
+        user.setId(UUID.randomUUID());
+        String token = jwtUtil.generateAccessToken(user).token();
+        jwtUtil.extractUser(jwtUtil.extractClaims(token));
+    }
+
+    private void json() {
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            orders.add(new Order().id(UUID.randomUUID()).customerId(UUID.randomUUID())
+                    .orderDate(LocalDate.now()).totalAmount(10f + i).status(Order.StatusEnum.NEW)
+                    .createdAt(OffsetDateTime.now())
+                    .items(List.of(new OrderItem().productCode("SKU-" + i).quantity(1).unitPrice(BigDecimal.TEN))));
+        }
+        Customer customer = new Customer();
+        customer.setId(UUID.randomUUID());
+        customer.setName("Warmup");
+        customer.setEmail("warmup@example.com");
+        try {
+            objectMapper.writeValueAsBytes(new PageImpl<>(orders, PageRequest.of(0, 20), 1000));
+            objectMapper.readValue(objectMapper.writeValueAsBytes(orders.get(0)), Order.class);
+            objectMapper.readValue(objectMapper.writeValueAsBytes(customer), Customer.class);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Run {@code work} {@code warmup.iterations} times over {@code warmup.threads} threads,
+     * or until the warmup's time budget is used up.
+     */
+    private void repeat(long deadline, Runnable work) {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> workers = new ArrayList<>(threads);
+            for (int t = 0; t < threads; t++) {
+                int rounds = iterations / threads + (t < iterations % threads ? 1 : 0);
+                workers.add(executor.submit(() -> {
+                    for (int i = 0; i < rounds && System.nanoTime() < deadline; i++) {
+                        work.run();
+                    }
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package ent.orderManagement.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import ent.orderManagement.security.RateLimitInterceptor;
+
+/**
+ * Interceptors of every handler mapping (controllers and the GraphQL route alike).
+ */
+@Configuration
+public class WebMvcConfig implements WebMvcConfigurer {
+
+    private final RateLimitInterceptor rateLimitInterceptor;
+
+    public WebMvcConfig(RateLimitInterceptor rateLimitInterceptor) {
+        this.rateLimitInterceptor = rateLimitInterceptor;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // Runs after security, so the authenticated user is known, and after matching, so the route is
+        registry.addInterceptor(rateLimitInterceptor);
+    }
+}
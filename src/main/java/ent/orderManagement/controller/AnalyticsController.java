@@ -0,0 +1,53 @@
+package ent.orderManagement.controller;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import ent.orderManagement.analytics.OrderAnalyticsEngine;
+import ent.orderManagement.model.Order;
+import ent.orderManagement.payload.CustomerRevenue;
+import ent.orderManagement.payload.StatusRevenue;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+
+@RestController
+@RequestMapping("/analytics")
+@Validated
+public class AnalyticsController {
+
+    private final OrderAnalyticsEngine analyticsEngine;
+
+    public AnalyticsController(OrderAnalyticsEngine analyticsEngine) {
+        this.analyticsEngine = analyticsEngine;
+    }
+
+    // GET /analytics/revenue/by-status?from=2024-01-01&to=2024-12-31
+    @GetMapping("/revenue/by-status")
+    @PreAuthorize("hasRole('ADMIN')")
+    public List<StatusRevenue> revenueByStatus(
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        return analyticsEngine.revenueByStatus(from, to);
+    }
+
+    // GET /analytics/revenue/by-customer?from=2024-01-01&status=COMPLETED&limit=10
+    @GetMapping("/revenue/by-customer")
+    @PreAuthorize("hasRole('ADMIN')")
+    public List<CustomerRevenue> revenueByCustomer(
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+        @RequestParam(required = false) Order.StatusEnum status,
+        @RequestParam(defaultValue = "10") @Min(1) @Max(1000) int limit
+    ) {
+        return analyticsEngine.topCustomersByRevenue(from, to, status, limit);
+    }
+}
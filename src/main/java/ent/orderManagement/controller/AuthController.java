@@ -1,12 +1,14 @@
 package ent.orderManagement.controller;
 
 import ent.orderManagement.model.User;
+import ent.orderManagement.payload.AuthResponse;
+import ent.orderManagement.payload.RefreshRequest;
+import ent.orderManagement.service.AuthTokenService;
 import ent.orderManagement.service.UserService;
-import ent.orderManagement.security.JwtUtil;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
@@ -14,12 +16,13 @@ import org.springframework.web.bind.annotation.*;
 public class AuthController {
 
     private final UserService userService;
-    private final JwtUtil jwtUtil;
+    private final AuthTokenService authTokenService;
     private final AuthenticationManager authenticationManager;
 
-    public AuthController(UserService userService, JwtUtil jwtUtil, AuthenticationManager authenticationManager) {
+    public AuthController(UserService userService, AuthTokenService authTokenService,
+                          AuthenticationManager authenticationManager) {
         this.userService = userService;
-        this.jwtUtil = jwtUtil;
+        this.authTokenService = authTokenService;
         this.authenticationManager = authenticationManager;
     }
 
@@ -33,15 +36,32 @@ public class AuthController {
     }
 
     /**
-     * 🔑 Authenticate user & return JWT Token
+     * 🔑 Authenticate user & return a short-lived access token and a refresh token
      */
     @PostMapping("/login")
-    public ResponseEntity<String> login(@RequestBody User request) {
-        authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(request.getUsername(), request.getPassword()));
+    public ResponseEntity<AuthResponse> login(@RequestBody User request) {
+        Authentication authentication = authenticationManager.authenticate(
+                new UsernamePasswordAuthenticationToken(request.getUsername(), request.getPassword()));
 
-        UserDetails userDetails = userService.loadUserByUsername(request.getUsername());
-        String token = jwtUtil.generateToken(userDetails.getUsername(), ((User) userDetails).getRole().name());
+        // The principal is the user the authentication manager just loaded
+        User user = (User) authentication.getPrincipal();
+        return ResponseEntity.ok(authTokenService.login(user));
+    }
 
-        return ResponseEntity.ok(token);
+    /**
+     * 🔄 Exchange a refresh token for a new token pair (each refresh token works once)
+     */
+    @PostMapping("/refresh")
+    public ResponseEntity<AuthResponse> refresh(@RequestBody RefreshRequest request) {
+        return ResponseEntity.ok(authTokenService.refresh(request.getRefreshToken()));
+    }
+
+    /**
+     * 🚪 Revoke the session of the refresh token, including access tokens already issued
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestBody RefreshRequest request) {
+        authTokenService.logout(request.getRefreshToken());
+        return ResponseEntity.noContent().build();
     }
 }
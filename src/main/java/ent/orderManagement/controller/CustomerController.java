@@ -1,5 +1,6 @@
 package ent.orderManagement.controller;
 
+import java.net.URI;
 import java.util.List;
 import java.util.UUID;
 
@@ -8,6 +9,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -15,21 +17,34 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import ent.orderManagement.model.Customer;
+import ent.orderManagement.payload.BatchGetRequest;
+import ent.orderManagement.payload.BatchGetResponse;
+import ent.orderManagement.payload.CustomerDeletionJob;
+import ent.orderManagement.payload.CustomerOverview;
+import ent.orderManagement.payload.CustomerSearchResponse;
+import ent.orderManagement.service.CustomerOverviewService;
 import ent.orderManagement.service.CustomerService;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Size;
 
 @RestController
 @RequestMapping("/customers")
+@Validated
 public class CustomerController {
 
     private static final Logger logger = LoggerFactory.getLogger(CustomerController.class);
     private final CustomerService customerService;
+    private final CustomerOverviewService customerOverviewService;
 
-    public CustomerController(CustomerService customerService) {
+    public CustomerController(CustomerService customerService, CustomerOverviewService customerOverviewService) {
         this.customerService = customerService;
+        this.customerOverviewService = customerOverviewService;
     }
 
     // GET /customers
@@ -39,6 +54,31 @@ public class CustomerController {
         return customerService.getAllCustomers();
     }
 
+    // GET /customers/search?q=ana&page=0&size=20 (prefix and fuzzy match on name and email)
+    @GetMapping("/search")
+    @PreAuthorize("hasRole('ADMIN')")
+    public CustomerSearchResponse searchCustomers(
+        @RequestParam @Size(min = 1, max = 100) String q,
+        @RequestParam(defaultValue = "0") @Min(0) int page,
+        @RequestParam(defaultValue = "20") @Min(1) @Max(100) int size
+    ) {
+        return customerService.searchCustomers(q, page, size);
+    }
+
+    // GET /customers/batch?ids=a,b,c
+    @GetMapping("/batch")
+    @PreAuthorize("hasRole('ADMIN')")
+    public BatchGetResponse<Customer> getCustomersBatch(@RequestParam List<UUID> ids) {
+        return customerService.getCustomersByIds(ids);
+    }
+
+    // POST /customers/batch (for id lists too long for a query string)
+    @PostMapping("/batch")
+    @PreAuthorize("hasRole('ADMIN')")
+    public BatchGetResponse<Customer> postCustomersBatch(@Valid @RequestBody BatchGetRequest request) {
+        return customerService.getCustomersByIds(request.getIds());
+    }
+
     // GET /customers/{id}
     @GetMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
@@ -49,6 +89,16 @@ public class CustomerController {
         return ResponseEntity.ok(c);
     }
 
+    // GET /customers/{id}/overview?recentOrders=10 (customer, totals per status and latest orders in one call)
+    @GetMapping("/{id}/overview")
+    @PreAuthorize("hasRole('ADMIN')")
+    public CustomerOverview getCustomerOverview(
+        @PathVariable UUID id,
+        @RequestParam(defaultValue = "10") @Min(0) @Max(50) int recentOrders
+    ) {
+        return customerOverviewService.getOverview(id, recentOrders);
+    }
+
     // POST /customers
     @PostMapping
     @PreAuthorize("hasRole('ADMIN')")
@@ -68,12 +118,26 @@ public class CustomerController {
         return ResponseEntity.ok(updated);
     }
 
-    // DELETE /customers/{id}
+    // DELETE /customers/{id} (hidden at once, orders deleted in the background; 202 with the job)
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<Void> deleteCustomer(@PathVariable UUID id) {
-        customerService.deleteCustomer(id);
-        return ResponseEntity.noContent().build();
+    public ResponseEntity<CustomerDeletionJob> deleteCustomer(@PathVariable UUID id) {
+        CustomerDeletionJob job = customerService.deleteCustomer(id);
+        return ResponseEntity.accepted().location(URI.create("/customers/deletion-jobs/" + job.getId())).body(job);
+    }
+
+    // GET /customers/deletion-jobs (unfinished deletions)
+    @GetMapping("/deletion-jobs")
+    @PreAuthorize("hasRole('ADMIN')")
+    public List<CustomerDeletionJob> getActiveDeletionJobs() {
+        return customerService.getActiveDeletionJobs();
+    }
+
+    // GET /customers/deletion-jobs/{jobId}
+    @GetMapping("/deletion-jobs/{jobId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public CustomerDeletionJob getDeletionJob(@PathVariable UUID jobId) {
+        return customerService.getDeletionJob(jobId);
     }
 }
 
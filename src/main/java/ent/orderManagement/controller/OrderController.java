@@ -15,15 +15,19 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.server.ResponseStatusException;
 
 import ent.orderManagement.model.Order;
-import ent.orderManagement.model.User;
-import ent.orderManagement.repository.UserRepository;
+import ent.orderManagement.payload.BatchGetRequest;
+import ent.orderManagement.payload.BatchGetResponse;
+import ent.orderManagement.payload.CountMode;
+import ent.orderManagement.payload.StatusTransitionRequest;
+import ent.orderManagement.payload.StatusTransitionResponse;
 import ent.orderManagement.service.OrderService;
-import io.swagger.v3.oas.annotations.parameters.RequestBody;
 import jakarta.validation.Valid;
 
 @RestController
@@ -33,17 +37,30 @@ public class OrderController {
 
 
     private final OrderService orderService;
-    private final UserRepository userRepository;
 
-    public OrderController(OrderService orderService, UserRepository userRepository) {
+    public OrderController(OrderService orderService) {
         this.orderService = orderService;
-        this.userRepository = userRepository;
     }
 
-    // GET /orders
+    // GET /orders?count=EXACT|CACHED|ESTIMATED (how totalElements is computed, reported as countMode)
     @GetMapping
-    public Page<Order> getAllOrders(Pageable pageable) {
-        return orderService.getOrders(pageable);
+    public Page<Order> getAllOrders(Pageable pageable, @RequestParam(defaultValue = "true") boolean includeItems,
+                                    @RequestParam(required = false) CountMode count) {
+        return orderService.getOrders(pageable, includeItems, count);
+    }
+
+    // GET /orders/batch?ids=a,b,c
+    @GetMapping("/batch")
+    public BatchGetResponse<Order> getOrdersBatch(@RequestParam List<UUID> ids,
+                                                  @RequestParam(defaultValue = "true") boolean includeItems) {
+        return orderService.getOrdersByIds(ids, includeItems);
+    }
+
+    // POST /orders/batch (for id lists too long for a query string)
+    @PostMapping("/batch")
+    public BatchGetResponse<Order> postOrdersBatch(@Valid @RequestBody BatchGetRequest request,
+                                                   @RequestParam(defaultValue = "true") boolean includeItems) {
+        return orderService.getOrdersByIds(request.getIds(), includeItems);
     }
 
     // GET /orders/{id}
@@ -63,12 +80,8 @@ public class OrderController {
         throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Order request cannot be empty");
     }
 
-        User currentUser = getCurrentUser(); 
-        order.setCustomerId(currentUser.getId()); 
-
-        logger.info("🔹 Order assigned to user: {}", currentUser.getUsername());  // ✅ Log assigned use
-
-        Order savedOrder = orderService.createOrder(order);
+        Order savedOrder = orderService.createOrder(order);  // assigns the current user as customer
+        logger.info("🔹 Order assigned to user: {}", SecurityContextHolder.getContext().getAuthentication().getName());
         return ResponseEntity.status(HttpStatus.CREATED).body(savedOrder);
     }
 
@@ -86,10 +99,13 @@ public class OrderController {
         return ResponseEntity.noContent().build();
     }
 
-    private User getCurrentUser() {
-        String username = SecurityContextHolder.getContext().getAuthentication().getName();
-        return userRepository.findByUsername(username)
-                .orElseThrow(() -> new RuntimeException("User not found: " + username));
+    // POST /orders/status-transitions
+    @PostMapping("/status-transitions")
+    public ResponseEntity<StatusTransitionResponse> transitionStatuses(@Valid @RequestBody StatusTransitionRequest request) {
+        if ((request.getIds() == null) == (request.getFilter() == null)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Provide either 'ids' or 'filter'");
+        }
+        return ResponseEntity.ok(orderService.transitionStatuses(request));
     }
 }
 
@@ -0,0 +1,11 @@
+package ent.orderManagement.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class BatchSizeExceededException extends RuntimeException {
+    public BatchSizeExceededException(int size, int maxSize) {
+        super("Batch of " + size + " ids exceeds the maximum of " + maxSize);
+    }
+}
@@ -0,0 +1,13 @@
+package ent.orderManagement.exception;
+
+import java.util.UUID;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.NOT_FOUND)
+public class DeletionJobNotFoundException extends RuntimeException {
+    public DeletionJobNotFoundException(UUID id) {
+        super("Deletion job not found: " + id);
+    }
+}
@@ -3,11 +3,16 @@ package ent.orderManagement.exception;
 import java.util.HashMap;
 import java.util.Map;
 
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.transaction.TransactionException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 
+import ent.orderManagement.sharding.CustomerMover;
+
 @ControllerAdvice
 public class GlobalExceptionHandler {
 
@@ -23,6 +28,22 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
     }
 
+    /**
+     * A write to a customer whose orders are being moved to another shard; retrying shortly
+     * reaches the new shard. Any other database error is rethrown and handled as before.
+     */
+    @ExceptionHandler({DataAccessException.class, TransactionException.class})
+    public ResponseEntity<Map<String, String>> handleShardFence(RuntimeException ex) {
+        if (!CustomerMover.isFenced(ex)) {
+            throw ex;
+        }
+        Map<String, String> errorResponse = new HashMap<>();
+        errorResponse.put("error", "The customer's orders are being moved, retry shortly");
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(errorResponse);
+    }
+
    /*  @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<Map<String, String>> handleValidationExceptions(MethodArgumentNotValidException ex) {
         Map<String, String> errors = new HashMap<>();
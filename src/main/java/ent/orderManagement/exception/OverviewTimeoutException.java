@@ -0,0 +1,11 @@
+package ent.orderManagement.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class OverviewTimeoutException extends RuntimeException {
+    public OverviewTimeoutException(String message) {
+        super(message);
+    }
+}
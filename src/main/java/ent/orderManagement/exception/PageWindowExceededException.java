@@ -0,0 +1,11 @@
+package ent.orderManagement.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class PageWindowExceededException extends RuntimeException {
+    public PageWindowExceededException(long window, int maxWindow) {
+        super("Page ends at row " + window + ", beyond the maximum of " + maxWindow + " across shards");
+    }
+}
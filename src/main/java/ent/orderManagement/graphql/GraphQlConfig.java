@@ -0,0 +1,31 @@
+package ent.orderManagement.graphql;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import graphql.analysis.MaxQueryComplexityInstrumentation;
+import graphql.analysis.MaxQueryDepthInstrumentation;
+import graphql.execution.instrumentation.Instrumentation;
+
+/**
+ * Limits checked before a GraphQL query runs, so a query nested through
+ * customer → orders → customer → ... or multiplied by large pages is rejected without
+ * touching the database. Spring Boot adds every {@link Instrumentation} bean to the engine.
+ */
+@Configuration
+public class GraphQlConfig {
+
+    @Bean
+    public Instrumentation maxQueryDepthInstrumentation(@Value("${graphql.max-depth:5}") int maxDepth) {
+        return new MaxQueryDepthInstrumentation(maxDepth);
+    }
+
+    @Bean
+    public Instrumentation maxQueryComplexityInstrumentation(
+            @Value("${graphql.max-complexity:5000}") int maxComplexity,
+            @Value("${graphql.orders-per-customer:10}") int ordersPerCustomer,
+            @Value("${graphql.list-weight:10}") int listWeight) {
+        return new MaxQueryComplexityInstrumentation(maxComplexity, new QueryComplexity(ordersPerCustomer, listWeight));
+    }
+}
@@ -0,0 +1,137 @@
+package ent.orderManagement.graphql;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.BatchMapping;
+import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Controller;
+
+import ent.orderManagement.model.Customer;
+import ent.orderManagement.model.Order;
+import ent.orderManagement.model.OrderItem;
+import ent.orderManagement.model.User;
+import ent.orderManagement.payload.BatchGetResponse;
+import ent.orderManagement.payload.CountMode;
+import ent.orderManagement.payload.CountedPage;
+import ent.orderManagement.service.CustomerService;
+import ent.orderManagement.service.OrderRules;
+import ent.orderManagement.service.OrderService;
+
+/**
+ * GraphQL queries over customers and orders (schema: graphql/schema.graphqls). Nested fields
+ * are {@link BatchMapping}s: the DataLoader collects the parents of one level and each field
+ * is loaded for all of them with one {@code ANY(?)} query, so the number of statements depends
+ * on the shape of the query, not on how many rows it returns.
+ *
+ * Orders follow the rules of {@link OrderService}; a customer record is visible to admins
+ * and to the user it belongs to (a customer's id is the user's id).
+ */
+@Controller
+public class OrderGraphQlController {
+
+    private final OrderService orderService;
+    private final CustomerService customerService;
+    private final int ordersPerCustomer;
+
+    public OrderGraphQlController(OrderService orderService, CustomerService customerService,
+                                  @Value("${graphql.orders-per-customer:10}") int ordersPerCustomer) {
+        this.orderService = orderService;
+        this.customerService = customerService;
+        this.ordersPerCustomer = ordersPerCustomer;
+    }
+
+    @QueryMapping
+    public Order order(@Argument UUID id) {
+        BatchGetResponse<Order> result = orderService.getOrdersByIds(List.of(id), true);
+        if (!result.getForbidden().isEmpty()) {
+            throw new AccessDeniedException("You can only view your own orders.");
+        }
+        return result.getFound().isEmpty() ? null : result.getFound().get(0);
+    }
+
+    @QueryMapping
+    public CountedPage<Order> orders(@Argument int page, @Argument int size, @Argument CountMode count) {
+        // Items are left to the batch mapping, so they are only read when selected
+        return orderService.getOrders(PageRequest.of(page, size), false, count);
+    }
+
+    @QueryMapping
+    public Customer customer(@Argument UUID id) {
+        User currentUser = currentUser();
+        if (!OrderRules.canAccess(currentUser.getRole(), currentUser.getId(), id)) {
+            throw new AccessDeniedException("You can only view your own customer record.");
+        }
+        List<Customer> found = customerService.getCustomersByIds(List.of(id)).getFound();
+        return found.isEmpty() ? null : found.get(0);
+    }
+
+    @QueryMapping
+    public List<Customer> customers(@Argument List<UUID> ids) {
+        return visibleCustomers(ids);
+    }
+
+    @BatchMapping(typeName = "Customer", field = "orders")
+    public List<List<Order>> customerOrders(List<Customer> customers) {
+        Map<UUID, List<Order>> orders = orderService.getRecentOrdersByCustomers(
+                customers.stream().map(Customer::getId).collect(Collectors.toList()), ordersPerCustomer);
+        return customers.stream()
+                .map(customer -> orders.getOrDefault(customer.getId(), List.of()))
+                .collect(Collectors.toList());
+    }
+
+    @BatchMapping(typeName = "Order", field = "items")
+    public List<List<OrderItem>> items(List<Order> orders) {
+        // Orders fetched by id already come with their items
+        List<Order> withoutItems = orders.stream().filter(order -> order.getItems() == null).collect(Collectors.toList());
+        Map<UUID, List<OrderItem>> items = withoutItems.isEmpty() ? Map.of() : orderService.getItemsByOrders(withoutItems);
+        return orders.stream()
+                .map(order -> order.getItems() != null ? order.getItems() : items.getOrDefault(order.getId(), List.of()))
+                .collect(Collectors.toList());
+    }
+
+    @BatchMapping(typeName = "Order", field = "customer")
+    public List<Customer> orderCustomer(List<Order> orders) {
+        Map<UUID, Customer> customers = visibleCustomers(orders.stream().map(Order::getCustomerId).collect(Collectors.toList()))
+                .stream()
+                .collect(Collectors.toMap(Customer::getId, Function.identity()));
+        List<Customer> result = new ArrayList<>(orders.size());
+        orders.forEach(order -> result.add(customers.get(order.getCustomerId())));
+        return result;
+    }
+
+    /**
+     * The customers the current user may see, in the order of {@code ids}, with one query.
+     */
+    private List<Customer> visibleCustomers(List<UUID> ids) {
+        User currentUser = currentUser();
+        Set<UUID> visible = ids.stream()
+                .filter(id -> OrderRules.canAccess(currentUser.getRole(), currentUser.getId(), id))
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        if (visible.isEmpty()) {
+            return List.of();
+        }
+        return customerService.getCustomersByIds(new ArrayList<>(visible)).getFound();
+    }
+
+    // JwtRequestFilter authenticates every request with the user built from the token's claims
+    private static User currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof User user) {
+            return user;
+        }
+        throw new AccessDeniedException("Authentication required");
+    }
+}
@@ -0,0 +1,48 @@
+package ent.orderManagement.graphql;
+
+import java.util.Collection;
+
+import graphql.analysis.FieldComplexityCalculator;
+import graphql.analysis.FieldComplexityEnvironment;
+import graphql.schema.GraphQLNamedType;
+import graphql.schema.GraphQLTypeUtil;
+
+/**
+ * Estimated cost of a field: 1 plus its selection, times the number of objects it may return.
+ * That number is the {@code size} argument of a page, the length of an {@code ids} argument,
+ * {@code graphql.orders-per-customer} for a customer's orders and {@code graphql.list-weight}
+ * for any other list. A page's content is already counted by the page's size.
+ */
+public class QueryComplexity implements FieldComplexityCalculator {
+
+    private final int ordersPerCustomer;
+    private final int listWeight;
+
+    public QueryComplexity(int ordersPerCustomer, int listWeight) {
+        this.ordersPerCustomer = ordersPerCustomer;
+        this.listWeight = listWeight;
+    }
+
+    @Override
+    public int calculate(FieldComplexityEnvironment environment, int childComplexity) {
+        long cost = (long) multiplier(environment) * (1 + childComplexity);
+        return (int) Math.min(cost, Integer.MAX_VALUE);
+    }
+
+    private int multiplier(FieldComplexityEnvironment environment) {
+        Object size = environment.getArguments().get("size");
+        if (size instanceof Integer pageSize) {
+            return Math.max(pageSize, 1);
+        }
+        if (environment.getArguments().get("ids") instanceof Collection<?> ids) {
+            return Math.max(ids.size(), 1);
+        }
+        String parent = ((GraphQLNamedType) environment.getParentType()).getName();
+        String field = environment.getField().getName();
+        if (parent.equals("Customer") && field.equals("orders")) {
+            return ordersPerCustomer;
+        }
+        boolean list = GraphQLTypeUtil.isList(GraphQLTypeUtil.unwrapNonNull(environment.getFieldDefinition().getType()));
+        return list && !parent.endsWith("Page") ? listWeight : 1;
+    }
+}
@@ -0,0 +1,69 @@
+package ent.orderManagement.jfr;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Records a {@link RequestEvent} for every request while JFR is recording, and commits the
+ * request's breakdown (JWT parse, user lookup, SQL, serialization) only when it took at least
+ * {@code jfr.slow-request-threshold-ms}. Runs first so the time spent waiting in a bulkhead
+ * is part of the request.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class FlightRecorderFilter extends OncePerRequestFilter {
+
+    private final long slowThresholdNanos;
+    private final int maxEventsPerRequest;
+
+    public FlightRecorderFilter(@Value("${jfr.slow-request-threshold-ms:500}") long slowThresholdMs,
+                                @Value("${jfr.max-events-per-request:2000}") int maxEventsPerRequest) {
+        this.slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowThresholdMs);
+        this.maxEventsPerRequest = maxEventsPerRequest;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+
+        RequestEvent event = new RequestEvent();
+        if (!event.isEnabled()) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        RequestTrace trace = RequestTrace.open(maxEventsPerRequest);
+        long started = System.nanoTime();
+        event.begin();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            event.end();
+            RequestTrace.close();
+            boolean slow = System.nanoTime() - started >= slowThresholdNanos;
+            if (slow) {
+                trace.commitAll();
+            }
+            event.requestId = trace.id();
+            event.method = request.getMethod();
+            event.path = request.getRequestURI();
+            event.status = response.getStatus();
+            event.slow = slow;
+            event.statements = trace.statements();
+            event.rows = trace.rows();
+            event.droppedEvents = trace.dropped();
+            event.commit();
+        }
+    }
+}
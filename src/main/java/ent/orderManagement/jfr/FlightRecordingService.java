@@ -0,0 +1,92 @@
+package ent.orderManagement.jfr;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+
+/**
+ * Keeps a rolling in-process recording (the last {@code jfr.max-age} / {@code jfr.max-size-mb})
+ * that can be dumped on demand, so a slow request can be examined after it happened without
+ * restarting the JVM with -XX:StartFlightRecording. Off unless {@code jfr.enabled=true}.
+ */
+@Service
+public class FlightRecordingService implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(FlightRecordingService.class);
+
+    private final boolean enabled;
+    private final String settings;
+    private final Duration maxAge;
+    private final long maxSizeBytes;
+    private volatile Recording recording;
+
+    public FlightRecordingService(@Value("${jfr.enabled:false}") boolean enabled,
+                                  @Value("${jfr.settings:default}") String settings,
+                                  @Value("${jfr.max-age-minutes:10}") long maxAgeMinutes,
+                                  @Value("${jfr.max-size-mb:100}") long maxSizeMb) {
+        this.enabled = enabled;
+        this.settings = settings;
+        this.maxAge = Duration.ofMinutes(maxAgeMinutes);
+        this.maxSizeBytes = maxSizeMb * 1024 * 1024;
+    }
+
+    @Override
+    public void start() {
+        if (!enabled || !FlightRecorder.isAvailable()) {
+            return;
+        }
+        try {
+            Recording rolling = new Recording(Configuration.getConfiguration(settings));
+            rolling.setName("order-management-rolling");
+            rolling.setToDisk(true);
+            rolling.setMaxAge(maxAge);
+            rolling.setMaxSize(maxSizeBytes);
+            rolling.start();
+            recording = rolling;
+            logger.info("Rolling flight recording started (max age {}, max size {} bytes)", maxAge, maxSizeBytes);
+        } catch (IOException | ParseException e) {
+            logger.warn("Could not start the rolling flight recording", e);
+        }
+    }
+
+    @Override
+    public void stop() {
+        Recording rolling = recording;
+        recording = null;
+        if (rolling != null) {
+            rolling.close();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return recording != null;
+    }
+
+    /**
+     * Copy what the rolling recording currently holds to a new temporary .jfr file; the caller
+     * deletes it.
+     * @throws IllegalStateException if no recording is running
+     */
+    public Path dump() throws IOException {
+        Recording rolling = recording;
+        if (rolling == null) {
+            throw new IllegalStateException("No flight recording is running (set jfr.enabled=true)");
+        }
+        Path file = Files.createTempFile("order-management-", ".jfr");
+        rolling.dump(file);
+        return file;
+    }
+}
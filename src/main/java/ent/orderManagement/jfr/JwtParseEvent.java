@@ -0,0 +1,12 @@
+package ent.orderManagement.jfr;
+
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("ent.orderManagement.JwtParse")
+@Label("JWT Parse")
+public class JwtParseEvent extends TracedEvent {
+
+    @Label("Valid")
+    public boolean valid;
+}
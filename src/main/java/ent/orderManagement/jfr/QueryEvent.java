@@ -0,0 +1,18 @@
+package ent.orderManagement.jfr;
+
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * One JDBC statement, from execution until its result set was closed (so row fetching is included).
+ */
+@Name("ent.orderManagement.Query")
+@Label("SQL Statement")
+public class QueryEvent extends TracedEvent {
+
+    @Label("SQL")
+    String sql;
+
+    @Label("Rows")
+    long rows;
+}
@@ -0,0 +1,40 @@
+package ent.orderManagement.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("ent.orderManagement.Request")
+@Label("HTTP Request")
+@Description("One HTTP request; requests over the slow threshold also have their breakdown events recorded")
+@Category("Order Management")
+@StackTrace(false)
+public class RequestEvent extends Event {
+
+    @Label("Request Id")
+    long requestId;
+
+    @Label("Method")
+    String method;
+
+    @Label("Path")
+    String path;
+
+    @Label("Status")
+    int status;
+
+    @Label("Slow")
+    boolean slow;
+
+    @Label("Statements")
+    int statements;
+
+    @Label("Rows")
+    long rows;
+
+    @Label("Dropped Breakdown Events")
+    int droppedEvents;
+}
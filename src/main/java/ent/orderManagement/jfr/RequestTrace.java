@@ -0,0 +1,95 @@
+package ent.orderManagement.jfr;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Breakdown events of the request running on the current thread. A trace only exists while
+ * JFR records {@link RequestEvent}s, so with JFR off every probe is one ThreadLocal read.
+ *
+ * Probes follow one pattern:
+ * <pre>
+ * RequestTrace trace = RequestTrace.current();
+ * JwtParseEvent event = trace != null ? trace.begin(new JwtParseEvent()) : null;
+ * ...
+ * if (event != null) { event.valid = ...; trace.end(event); }
+ * </pre>
+ */
+public final class RequestTrace {
+
+    private static final ThreadLocal<RequestTrace> CURRENT = new ThreadLocal<>();
+    private static final AtomicLong IDS = new AtomicLong();
+
+    private final long id = IDS.incrementAndGet();
+    private final int maxEvents;
+    private final List<TracedEvent> events = new ArrayList<>();
+    private int dropped;
+    private int statements;
+    private long rows;
+
+    private RequestTrace(int maxEvents) {
+        this.maxEvents = maxEvents;
+    }
+
+    public static RequestTrace current() {
+        return CURRENT.get();
+    }
+
+    static RequestTrace open(int maxEvents) {
+        RequestTrace trace = new RequestTrace(maxEvents);
+        CURRENT.set(trace);
+        return trace;
+    }
+
+    static void close() {
+        CURRENT.remove();
+    }
+
+    public <E extends TracedEvent> E begin(E event) {
+        event.requestId = id;
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Stop the event's clock and keep it until the request has finished.
+     */
+    public void end(TracedEvent event) {
+        event.end();
+        if (event instanceof QueryEvent query) {
+            statements++;
+            rows += Math.max(query.rows, 0);
+        }
+        if (events.size() < maxEvents) {
+            events.add(event);
+        } else {
+            dropped++;
+        }
+    }
+
+    long id() {
+        return id;
+    }
+
+    int statements() {
+        return statements;
+    }
+
+    long rows() {
+        return rows;
+    }
+
+    int dropped() {
+        return dropped;
+    }
+
+    /**
+     * Record the whole breakdown (the events keep the times they were measured at).
+     */
+    void commitAll() {
+        for (TracedEvent event : events) {
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package ent.orderManagement.jfr;
+
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("ent.orderManagement.Serialization")
+@Label("Response Serialization")
+public class SerializationEvent extends TracedEvent {
+
+    @Label("Type")
+    String type;
+
+    @Label("Media Type")
+    String mediaType;
+}
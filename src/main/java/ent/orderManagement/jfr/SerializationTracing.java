@@ -0,0 +1,36 @@
+package ent.orderManagement.jfr;
+
+import java.io.IOException;
+
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+
+/**
+ * Wraps a converter write in a {@link SerializationEvent} when the request is being traced.
+ */
+final class SerializationTracing {
+
+    interface Write {
+        void run() throws IOException;
+    }
+
+    private SerializationTracing() {
+    }
+
+    static void trace(Object object, HttpOutputMessage outputMessage, Write write) throws IOException {
+        RequestTrace trace = RequestTrace.current();
+        if (trace == null) {
+            write.run();
+            return;
+        }
+        SerializationEvent event = trace.begin(new SerializationEvent());
+        try {
+            write.run();
+        } finally {
+            MediaType contentType = outputMessage.getHeaders().getContentType();
+            event.type = object.getClass().getName();
+            event.mediaType = contentType != null ? contentType.toString() : null;
+            trace.end(event);
+        }
+    }
+}
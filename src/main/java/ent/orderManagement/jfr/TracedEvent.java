@@ -0,0 +1,18 @@
+package ent.orderManagement.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+
+/**
+ * Part of one request's breakdown. Such events are buffered by the {@link RequestTrace} of
+ * their request and only committed if the request turns out to be slow.
+ */
+@Category({"Order Management", "Request breakdown"})
+@StackTrace(false)
+public abstract class TracedEvent extends Event {
+
+    @Label("Request Id")
+    long requestId;
+}
@@ -0,0 +1,165 @@
+package ent.orderManagement.jfr;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import ent.orderManagement.querybudget.StatementLog;
+
+/**
+ * Records a {@link QueryEvent} per statement for both the JdbcTemplate repositories and
+ * Hibernate, and adds each statement to the open {@link StatementLog} (query budgets).
+ * Connections handed out while neither is open are returned unwrapped, so nothing is
+ * proxied unless JFR is recording requests or statements are being counted.
+ */
+public class TracingDataSource extends DelegatingDataSource {
+
+    public TracingDataSource(DataSource target) {
+        super(target);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return trace(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return trace(super.getConnection(username, password));
+    }
+
+    private static Connection trace(Connection connection) {
+        if (RequestTrace.current() == null && StatementLog.current() == null) {
+            return connection;
+        }
+        return proxy(Connection.class, (proxy, method, args) -> {
+            Object result = invoke(connection, method, args);
+            // Callable statements are left alone; nothing in this application uses them
+            return switch (method.getName()) {
+                case "prepareStatement" -> traceStatement((Statement) result, (String) args[0]);
+                case "createStatement" -> traceStatement((Statement) result, null);
+                default -> result;
+            };
+        });
+    }
+
+    private static Statement traceStatement(Statement statement, String preparedSql) {
+        Class<? extends Statement> type = statement instanceof PreparedStatement
+                ? PreparedStatement.class : Statement.class;
+        return proxy(type, new InvocationHandler() {
+            // A query stays open until its result set (or the statement) is closed
+            private QueryEvent open;
+            private RequestTrace openTrace;
+
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                String name = method.getName();
+                if (name.equals("close")) {
+                    finish();
+                    return TracingDataSource.invoke(statement, method, args);
+                }
+                if (!name.startsWith("execute")) {
+                    return TracingDataSource.invoke(statement, method, args);
+                }
+
+                finish();
+                String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : preparedSql;
+                StatementLog log = StatementLog.current();
+                if (log != null) {
+                    log.record(sql);
+                }
+                RequestTrace trace = RequestTrace.current();
+                if (trace == null) {
+                    return TracingDataSource.invoke(statement, method, args);
+                }
+                QueryEvent event = trace.begin(new QueryEvent());
+                event.sql = sql;
+                event.rows = -1;
+                Object result;
+                try {
+                    result = TracingDataSource.invoke(statement, method, args);
+                } catch (Throwable e) {
+                    trace.end(event);
+                    throw e;
+                }
+
+                if (result instanceof ResultSet resultSet) {
+                    event.rows = 0;
+                    open = event;
+                    openTrace = trace;
+                    return countRows(resultSet, event, this::finish);
+                }
+                if (result instanceof Number count) {
+                    event.rows = count.longValue();
+                } else if (result instanceof int[] counts) {
+                    event.rows = sum(counts);
+                } else if (result instanceof long[] counts) {
+                    event.rows = sum(counts);
+                } else if (Boolean.FALSE.equals(result)) {
+                    event.rows = statement.getUpdateCount();
+                }
+                trace.end(event);
+                return result;
+            }
+
+            private void finish() {
+                if (open != null) {
+                    openTrace.end(open);
+                    open = null;
+                    openTrace = null;
+                }
+            }
+        });
+    }
+
+    private static ResultSet countRows(ResultSet resultSet, QueryEvent event, Runnable onClose) {
+        return proxy(ResultSet.class, (proxy, method, args) -> {
+            Object result = invoke(resultSet, method, args);
+            if (method.getName().equals("next") && Boolean.TRUE.equals(result)) {
+                event.rows++;
+            } else if (method.getName().equals("close")) {
+                onClose.run();
+            }
+            return result;
+        });
+    }
+
+    private static long sum(int[] counts) {
+        long total = 0;
+        for (int count : counts) {
+            total += Math.max(count, 0);
+        }
+        return total;
+    }
+
+    private static long sum(long[] counts) {
+        long total = 0;
+        for (long count : counts) {
+            total += Math.max(count, 0);
+        }
+        return total;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(TracingDataSource.class.getClassLoader(), new Class<?>[] {type}, handler);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package ent.orderManagement.jfr;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * The CBOR converter of the application, with a {@link SerializationEvent} around each write.
+ */
+public class TracingJackson2CborHttpMessageConverter extends MappingJackson2CborHttpMessageConverter {
+
+    public TracingJackson2CborHttpMessageConverter(ObjectMapper objectMapper) {
+        super(objectMapper);
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+
+        SerializationTracing.trace(object, outputMessage, () -> super.writeInternal(object, type, outputMessage));
+    }
+}
@@ -0,0 +1,27 @@
+package ent.orderManagement.jfr;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * The Smile converter of the application, with a {@link SerializationEvent} around each write.
+ */
+public class TracingJackson2SmileHttpMessageConverter extends MappingJackson2SmileHttpMessageConverter {
+
+    public TracingJackson2SmileHttpMessageConverter(ObjectMapper objectMapper) {
+        super(objectMapper);
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+
+        SerializationTracing.trace(object, outputMessage, () -> super.writeInternal(object, type, outputMessage));
+    }
+}
@@ -0,0 +1,34 @@
+package ent.orderManagement.jfr;
+
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("ent.orderManagement.UserLookup")
+@Label("User Lookup")
+public class UserLookupEvent extends TracedEvent {
+
+    @Label("Username")
+    String username;
+
+    @Label("Found")
+    boolean found;
+
+    /**
+     * Run a lookup of the user by name, as part of the current request's breakdown if it is traced.
+     */
+    public static <T> Optional<T> record(String username, Supplier<Optional<T>> lookup) {
+        RequestTrace trace = RequestTrace.current();
+        if (trace == null) {
+            return lookup.get();
+        }
+        UserLookupEvent event = trace.begin(new UserLookupEvent());
+        Optional<T> user = lookup.get();
+        event.username = username;
+        event.found = user.isPresent();
+        trace.end(event);
+        return user;
+    }
+}
@@ -0,0 +1,98 @@
+package ent.orderManagement.migration;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.UUID;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Updates a large table in small committed batches instead of one long UPDATE, so row
+ * locks are held only for one batch, vacuum can keep up and concurrent writers are
+ * never blocked for long.
+ *
+ * Batches walk the primary key (keyset pagination on {@code id}), so each batch costs the
+ * same however far the backfill has progressed, and an interrupted run simply starts over
+ * with the rows that still match {@link #condition()}.
+ */
+public abstract class BatchedBackfillMigration extends BaseJavaMigration {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchedBackfillMigration.class);
+
+    // PostgreSQL orders UUIDs bytewise, so the nil UUID sorts first
+    private static final UUID FIRST_KEY = new UUID(0, 0);
+
+    private final int batchSize;
+    private final long pauseMillis;
+
+    protected BatchedBackfillMigration(int batchSize, long pauseMillis) {
+        this.batchSize = batchSize;
+        this.pauseMillis = pauseMillis;
+    }
+
+    /** Table to backfill; must have a UUID primary key named {@code id}. */
+    protected abstract String table();
+
+    /** SET clause; the right-hand side refers to the row's columns as {@code t.<column>} */
+    protected abstract String assignments();
+
+    /** Rows that still need the backfill, qualified with {@code t.} */
+    protected abstract String condition();
+
+    @Override
+    public boolean canExecuteInTransaction() {
+        return false;
+    }
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        String sql = "WITH batch AS (SELECT id FROM " + table() + " WHERE id > ? ORDER BY id LIMIT ?),"
+                   + " updated AS (UPDATE " + table() + " t SET " + assignments()
+                   + " FROM batch WHERE t.id = batch.id AND " + condition() + " RETURNING 1)"
+                   + " SELECT (SELECT id FROM batch ORDER BY id DESC LIMIT 1), (SELECT count(*) FROM updated)";
+
+        Connection connection = context.getConnection();
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(true); // every batch commits on its own
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            UUID lastKey = FIRST_KEY;
+            long updated = 0;
+            long batches = 0;
+            long start = System.nanoTime();
+            while (lastKey != null) {
+                statement.setObject(1, lastKey);
+                statement.setInt(2, batchSize);
+                try (ResultSet rs = statement.executeQuery()) {
+                    rs.next();
+                    lastKey = rs.getObject(1, UUID.class);
+                    updated += rs.getLong(2);
+                }
+                if (++batches % 100 == 0) {
+                    logger.info("Backfill of {}: {} rows updated after {} batches", table(), updated, batches);
+                }
+                pause();
+            }
+            logger.info("Backfill of {} done: {} rows updated in {} ms", table(), updated,
+                    (System.nanoTime() - start) / 1_000_000);
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    private void pause() {
+        if (pauseMillis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(pauseMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Backfill of " + table() + " interrupted", e);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package ent.orderManagement.migration;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Builds indexes with {@code CREATE INDEX CONCURRENTLY}, so writes to the table continue
+ * while the index is built. That statement cannot run inside a transaction, hence the
+ * migration is non-transactional.
+ *
+ * A concurrent build that fails (lock timeout, deadlock, duplicate key) leaves an INVALID
+ * index behind that {@code IF NOT EXISTS} would happily skip, so invalid leftovers are
+ * dropped and rebuilt; indexes that already exist and are valid are left alone, which
+ * makes a retried migration resume where it stopped.
+ */
+public abstract class ConcurrentIndexMigration extends BaseJavaMigration {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConcurrentIndexMigration.class);
+
+    private final Map<String, String> indexes = new LinkedHashMap<>();
+
+    /**
+     * Register an index, e.g. {@code index("idx_orders_status", "orders (status)")}.
+     */
+    protected final void index(String name, String definition) {
+        indexes.put(name, definition);
+    }
+
+    @Override
+    public boolean canExecuteInTransaction() {
+        return false;
+    }
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        Connection connection = context.getConnection();
+        for (Map.Entry<String, String> index : indexes.entrySet()) {
+            String name = index.getKey();
+            Boolean valid = indexValidity(connection, name);
+            if (Boolean.TRUE.equals(valid)) {
+                logger.info("Index {} already exists", name);
+                continue;
+            }
+            try (Statement statement = connection.createStatement()) {
+                if (valid != null) {
+                    logger.warn("Dropping invalid index {} left by an earlier failed build", name);
+                    statement.execute("DROP INDEX CONCURRENTLY IF EXISTS " + name);
+                }
+                long start = System.nanoTime();
+                statement.execute("CREATE INDEX CONCURRENTLY " + name + " ON " + index.getValue());
+                logger.info("Built index {} in {} ms", name, (System.nanoTime() - start) / 1_000_000);
+            }
+        }
+    }
+
+    /**
+     * True if the index exists and is valid, false if it exists but is invalid, null if absent.
+     */
+    private static Boolean indexValidity(Connection connection, String name) throws SQLException {
+        String sql = "SELECT i.indisvalid FROM pg_index i JOIN pg_class c ON c.oid = i.indexrelid"
+                   + " WHERE c.relname = ? AND pg_catalog.pg_table_is_visible(c.oid)";
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, name);
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next() ? rs.getBoolean(1) : null;
+            }
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package ent.orderManagement.migration;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Indexes for customer search (prefix B-tree in the "C" collation, trigram GIN) and for
+ * the per-customer order listing, built without blocking writes.
+ */
+@Component
+public class V4__PerformanceIndexes extends ConcurrentIndexMigration {
+
+    public V4__PerformanceIndexes() {
+        index("idx_customers_name_prefix", "customers ((lower(name) COLLATE \"C\"))");
+        index("idx_customers_email_prefix", "customers ((lower(email) COLLATE \"C\"))");
+        index("idx_customers_name_trgm", "customers USING gin (lower(name) gin_trgm_ops)");
+        index("idx_customers_email_trgm", "customers USING gin (lower(email) gin_trgm_ops)");
+        index("idx_orders_customer_id_order_date", "orders (customer_id, order_date)");
+    }
+}
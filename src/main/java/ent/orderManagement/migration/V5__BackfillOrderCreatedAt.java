@@ -0,0 +1,32 @@
+package ent.orderManagement.migration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Orders saved through JPA used to get {@code created_at = NULL} (the entity wrote the
+ * column explicitly, bypassing its default). Those rows get their order date instead.
+ */
+@Component
+public class V5__BackfillOrderCreatedAt extends BatchedBackfillMigration {
+
+    public V5__BackfillOrderCreatedAt(@Value("${app.migrations.backfill-batch-size:5000}") int batchSize,
+                                      @Value("${app.migrations.backfill-pause-ms:20}") long pauseMillis) {
+        super(batchSize, pauseMillis);
+    }
+
+    @Override
+    protected String table() {
+        return "orders";
+    }
+
+    @Override
+    protected String assignments() {
+        return "created_at = t.order_date";
+    }
+
+    @Override
+    protected String condition() {
+        return "t.created_at IS NULL";
+    }
+}
@@ -0,0 +1,15 @@
+package ent.orderManagement.migration;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Partial index over the NEW orders only, so the expiry worker finds stale ones by age
+ * without scanning the (much larger) rest of the table.
+ */
+@Component
+public class V7__StaleOrderIndex extends ConcurrentIndexMigration {
+
+    public V7__StaleOrderIndex() {
+        index("idx_orders_new_created_at", "orders (created_at) WHERE status = 'NEW'");
+    }
+}
@@ -0,0 +1,66 @@
+package ent.orderManagement.migration;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.springframework.stereotype.Component;
+
+import ent.orderManagement.sharding.CustomerMover;
+
+/**
+ * Tables and the trigger sharding needs; harmless on an unsharded database.
+ *
+ * <ul>
+ *   <li>{@code customer_shards}: customers placed off the consistent-hash ring (read from the
+ *       main database only).</li>
+ *   <li>{@code shard_fences} and a trigger on 'orders': writes for a customer listed there
+ *       fail with SQLSTATE {@value CustomerMover#FENCED_SQLSTATE}, so nothing is written to a
+ *       shard a customer is being moved away from. The trigger takes a shared advisory lock
+ *       that the resharding tool takes exclusively while fencing, so no write that started
+ *       before the fence can commit after it.</li>
+ * </ul>
+ *
+ * On the other shards (placeholder {@code shardRole=secondary}) the foreign key from orders
+ * to customers is dropped, because the customers only exist in the main database.
+ */
+@Component
+public class V9__ShardSupport extends BaseJavaMigration {
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        try (Statement statement = context.getConnection().createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS customer_shards ("
+                    + " customer_id UUID PRIMARY KEY,"
+                    + " shard VARCHAR(64) NOT NULL,"
+                    + " updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP)");
+            statement.execute("CREATE INDEX IF NOT EXISTS idx_customer_shards_updated_at ON customer_shards (updated_at)");
+
+            statement.execute("CREATE TABLE IF NOT EXISTS shard_fences ("
+                    + " customer_id UUID PRIMARY KEY,"
+                    + " fenced_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP)");
+            statement.execute("CREATE OR REPLACE FUNCTION reject_fenced_order_write() RETURNS trigger AS $$"
+                    + " DECLARE"
+                    + "   fenced_customer UUID := CASE WHEN TG_OP = 'DELETE' THEN OLD.customer_id ELSE NEW.customer_id END;"
+                    + " BEGIN"
+                    + "   IF current_setting('" + CustomerMover.MOVING_SETTING + "', true) IS DISTINCT FROM 'on' THEN"
+                    + "     PERFORM pg_advisory_xact_lock_shared(" + CustomerMover.FENCE_LOCK + ");"
+                    + "     IF EXISTS (SELECT 1 FROM shard_fences WHERE customer_id = fenced_customer) THEN"
+                    + "       RAISE EXCEPTION 'Orders of customer % are being moved to another shard', fenced_customer"
+                    + "         USING ERRCODE = '" + CustomerMover.FENCED_SQLSTATE + "';"
+                    + "     END IF;"
+                    + "   END IF;"
+                    + "   IF TG_OP = 'DELETE' THEN RETURN OLD; END IF;"
+                    + "   RETURN NEW;"
+                    + " END $$ LANGUAGE plpgsql");
+            statement.execute("DROP TRIGGER IF EXISTS orders_shard_fence ON orders");
+            statement.execute("CREATE TRIGGER orders_shard_fence BEFORE INSERT OR UPDATE OR DELETE ON orders"
+                    + " FOR EACH ROW EXECUTE FUNCTION reject_fenced_order_write()");
+
+            if ("secondary".equals(context.getConfiguration().getPlaceholders().get("shardRole"))) {
+                statement.execute("ALTER TABLE orders DROP CONSTRAINT IF EXISTS orders_customer_id_fkey");
+            }
+        }
+    }
+}
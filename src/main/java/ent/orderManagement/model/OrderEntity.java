@@ -41,6 +41,14 @@ public class OrderEntity {
         this.createdAt = order.getCreatedAt();
     }
 
+    // The column default does not apply when Hibernate writes the column explicitly
+    @PrePersist
+    void onCreate() {
+        if (createdAt == null) {
+            createdAt = OffsetDateTime.now();
+        }
+    }
+
     // Convert Entity to DTO
     public Order toOrder() {
         return new Order()
@@ -0,0 +1,100 @@
+package ent.orderManagement.model;
+
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Line item of an order. Mapped by plain {@code orderId} rather than a JPA association,
+ * so items are always loaded explicitly and in bulk (see {@code OrderItemRepository.findByOrderIdIn}).
+ */
+@Entity
+@Table(name = "order_items")
+public class OrderItemEntity implements Persistable<UUID> {
+
+    @Id
+    private UUID id;
+
+    @Column(nullable = false)
+    private UUID orderId;
+
+    @Column(nullable = false)
+    private int lineNumber;
+
+    @Column(nullable = false)
+    private String productCode;
+
+    private String name;
+
+    @Column(nullable = false)
+    private int quantity;
+
+    @Column(nullable = false)
+    private BigDecimal unitPrice;
+
+    // Ids are assigned here, so tell Spring Data when to persist instead of merge (saves a SELECT per item)
+    @Transient
+    private boolean isNew;
+
+    // Constructors
+    public OrderItemEntity() {}
+
+    public OrderItemEntity(UUID orderId, int lineNumber, OrderItem item) {
+        this.id = UUID.randomUUID();
+        this.orderId = orderId;
+        this.lineNumber = lineNumber;
+        this.productCode = item.getProductCode();
+        this.name = item.getName();
+        this.quantity = item.getQuantity();
+        this.unitPrice = item.getUnitPrice();
+        this.isNew = true;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    // Convert Entity to DTO
+    public OrderItem toOrderItem() {
+        return new OrderItem()
+                .id(this.id)
+                .productCode(this.productCode)
+                .name(this.name)
+                .quantity(this.quantity)
+                .unitPrice(this.unitPrice);
+    }
+
+    public BigDecimal lineTotal() {
+        return unitPrice.multiply(BigDecimal.valueOf(quantity));
+    }
+
+    // Getters and Setters
+    public UUID getId() { return id; }
+    public void setId(UUID id) { this.id = id; }
+
+    public UUID getOrderId() { return orderId; }
+    public void setOrderId(UUID orderId) { this.orderId = orderId; }
+
+    public int getLineNumber() { return lineNumber; }
+    public void setLineNumber(int lineNumber) { this.lineNumber = lineNumber; }
+
+    public String getProductCode() { return productCode; }
+    public void setProductCode(String productCode) { this.productCode = productCode; }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public int getQuantity() { return quantity; }
+    public void setQuantity(int quantity) { this.quantity = quantity; }
+
+    public BigDecimal getUnitPrice() { return unitPrice; }
+    public void setUnitPrice(BigDecimal unitPrice) { this.unitPrice = unitPrice; }
+}
@@ -3,8 +3,15 @@ package ent.orderManagement.payload;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 
+/**
+ * Tokens issued by login and refresh. The access token goes into the Authorization header
+ * until it expires ({@code expiresIn} seconds); the refresh token is exchanged once for a new pair.
+ */
 @AllArgsConstructor
 @Getter
 public class AuthResponse {
-    private String token;
+    private String accessToken;
+    private String refreshToken;
+    private String tokenType;
+    private long expiresIn;
 }
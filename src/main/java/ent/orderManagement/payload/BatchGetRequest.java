@@ -0,0 +1,18 @@
+package ent.orderManagement.payload;
+
+import java.util.List;
+import java.util.UUID;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Body of the {@code POST .../batch} multi-get endpoints.
+ */
+@Getter @Setter
+public class BatchGetRequest {
+
+    @NotEmpty
+    private List<UUID> ids;
+}
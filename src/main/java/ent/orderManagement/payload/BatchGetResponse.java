@@ -0,0 +1,19 @@
+package ent.orderManagement.payload;
+
+import java.util.List;
+import java.util.UUID;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Result of a multi-get: the visible entities (in request order) plus the ids
+ * that do not exist and the ids that exist but belong to someone else.
+ */
+@AllArgsConstructor
+@Getter
+public class BatchGetResponse<T> {
+    private List<T> found;
+    private List<UUID> missing;
+    private List<UUID> forbidden;
+}
@@ -0,0 +1,13 @@
+package ent.orderManagement.payload;
+
+/**
+ * How {@code totalElements} of an order page is computed ({@code GET /orders?count=...}).
+ */
+public enum CountMode {
+    /** COUNT(*) over the matching orders: always right, costs a scan of all of them. */
+    EXACT,
+    /** Counters kept per customer and overall, adjusted on create and delete and recounted periodically. */
+    CACHED,
+    /** Table statistics for all orders, the planner's estimate for one customer; exact for small results. */
+    ESTIMATED
+}
@@ -0,0 +1,24 @@
+package ent.orderManagement.payload;
+
+import java.util.List;
+
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * A page that also tells how its total was computed, so clients know whether
+ * {@code totalElements} (and with it {@code totalPages}) is exact.
+ */
+public class CountedPage<T> extends PageImpl<T> {
+
+    private final CountMode countMode;
+
+    public CountedPage(List<T> content, Pageable pageable, long total, CountMode countMode) {
+        super(content, pageable, total);
+        this.countMode = countMode;
+    }
+
+    public CountMode getCountMode() {
+        return countMode;
+    }
+}
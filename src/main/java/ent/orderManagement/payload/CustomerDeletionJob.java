@@ -0,0 +1,31 @@
+package ent.orderManagement.payload;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Progress of the background deletion of one customer and its orders.
+ */
+@AllArgsConstructor
+@Getter
+public class CustomerDeletionJob {
+
+    public enum Status {
+        PENDING,    // customer hidden, nothing deleted yet
+        RUNNING,    // orders being deleted in chunks
+        COMPLETED   // orders and customer row gone
+    }
+
+    private UUID id;
+    private UUID customerId;
+    private Status status;
+    private long ordersDeleted;
+    private int attempts;
+    private String lastError;
+    private OffsetDateTime createdAt;
+    private OffsetDateTime updatedAt;
+    private OffsetDateTime finishedAt;
+}
@@ -0,0 +1,20 @@
+package ent.orderManagement.payload;
+
+import ent.orderManagement.model.Customer;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@AllArgsConstructor
+@Getter
+public class CustomerMatch {
+
+    public enum MatchType {
+        EXACT,   // name or email equals the query
+        PREFIX,  // name or email starts with the query
+        FUZZY    // a word of the name or email is similar to the query
+    }
+
+    private Customer customer;
+    private MatchType matchType;
+    private double score;
+}
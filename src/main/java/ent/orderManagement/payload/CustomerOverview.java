@@ -0,0 +1,25 @@
+package ent.orderManagement.payload;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import ent.orderManagement.model.Customer;
+import ent.orderManagement.model.Order;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Everything the account page shows about a customer: the customer, order counts and totals
+ * per status, and the latest orders (without items).
+ */
+@AllArgsConstructor
+@Getter
+public class CustomerOverview {
+    private Customer customer;
+    private long orderCount;
+    // Orders that are neither COMPLETED nor CANCELLED
+    private long openOrderCount;
+    private BigDecimal totalAmount;
+    private List<StatusRevenue> statuses;
+    private List<Order> recentOrders;
+}
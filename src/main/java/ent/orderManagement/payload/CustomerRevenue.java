@@ -0,0 +1,15 @@
+package ent.orderManagement.payload;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@AllArgsConstructor
+@Getter
+public class CustomerRevenue {
+    private UUID customerId;
+    private long orderCount;
+    private BigDecimal revenue;
+}
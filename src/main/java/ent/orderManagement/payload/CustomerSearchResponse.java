@@ -0,0 +1,20 @@
+package ent.orderManagement.payload;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * One page of customer search results, best matches first. There is no total count:
+ * counting every fuzzy match would cost more than finding the page itself.
+ */
+@AllArgsConstructor
+@Getter
+public class CustomerSearchResponse {
+    private String query;
+    private int page;
+    private int size;
+    private boolean hasNext;
+    private List<CustomerMatch> results;
+}
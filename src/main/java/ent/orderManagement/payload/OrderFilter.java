@@ -0,0 +1,19 @@
+package ent.orderManagement.payload;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+import ent.orderManagement.model.Order;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Optional criteria selecting a set of orders; every field left null matches all.
+ */
+@Getter @Setter
+public class OrderFilter {
+    private Order.StatusEnum status;
+    private UUID customerId;
+    private LocalDate orderDateFrom;
+    private LocalDate orderDateTo;
+}
@@ -0,0 +1,9 @@
+package ent.orderManagement.payload;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter @Setter
+public class RefreshRequest {
+    private String refreshToken;
+}
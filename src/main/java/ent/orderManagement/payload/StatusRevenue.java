@@ -0,0 +1,15 @@
+package ent.orderManagement.payload;
+
+import java.math.BigDecimal;
+
+import ent.orderManagement.model.Order;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@AllArgsConstructor
+@Getter
+public class StatusRevenue {
+    private Order.StatusEnum status;
+    private long orderCount;
+    private BigDecimal revenue;
+}
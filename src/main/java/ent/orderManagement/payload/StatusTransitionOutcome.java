@@ -0,0 +1,25 @@
+package ent.orderManagement.payload;
+
+import java.util.UUID;
+
+import ent.orderManagement.model.Order;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@AllArgsConstructor
+@Getter
+public class StatusTransitionOutcome {
+
+    public enum Result {
+        UPDATED,
+        UNCHANGED,           // already in the target status
+        INVALID_TRANSITION,  // rejected by the status transition rules
+        NOT_FOUND,
+        FORBIDDEN,           // order belongs to another user
+        CONFLICT             // changed concurrently, retry
+    }
+
+    private UUID id;
+    private Result result;
+    private Order.StatusEnum currentStatus;
+}
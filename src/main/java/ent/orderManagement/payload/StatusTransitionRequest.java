@@ -0,0 +1,35 @@
+package ent.orderManagement.payload;
+
+import java.util.List;
+import java.util.UUID;
+
+import ent.orderManagement.model.Order;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Body of {@code POST /orders/status-transitions}: a target status plus either
+ * explicit order ids or a filter (exactly one of the two).
+ */
+@Getter @Setter
+public class StatusTransitionRequest {
+
+    @NotNull
+    private Order.StatusEnum targetStatus;
+
+    @Size(max = 5000)
+    private List<UUID> ids;
+
+    @Valid
+    private OrderFilter filter;
+
+    // Upper bound on orders changed through a filter
+    @Min(1)
+    @Max(10000)
+    private Integer limit;
+}
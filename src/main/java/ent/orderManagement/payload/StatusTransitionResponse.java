@@ -0,0 +1,16 @@
+package ent.orderManagement.payload;
+
+import java.util.List;
+
+import ent.orderManagement.model.Order;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@AllArgsConstructor
+@Getter
+public class StatusTransitionResponse {
+    private Order.StatusEnum targetStatus;
+    private int updated;
+    private int rejected;
+    private List<StatusTransitionOutcome> results;
+}
@@ -0,0 +1,82 @@
+package ent.orderManagement.querybudget;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.OptionalInt;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Counts the SQL statements of each request (authentication included) and, with
+ * {@code query-budget.enabled=true}, logs requests that exceed their endpoint's budget or send
+ * the same statement twice. Meant for staging; the tests enforce the same budgets strictly.
+ * The endpoint and its {@link StatementLog} are left on the request as attributes.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)  // after the flight recorder and the bulkhead
+public class QueryBudgetFilter extends OncePerRequestFilter {
+
+    public static final String ENDPOINT_ATTRIBUTE = QueryBudgetFilter.class.getName() + ".endpoint";
+    public static final String LOG_ATTRIBUTE = QueryBudgetFilter.class.getName() + ".log";
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryBudgetFilter.class);
+
+    private final boolean enabled;
+    private final QueryBudgets budgets;
+
+    public QueryBudgetFilter(@Value("${query-budget.enabled:false}") boolean enabled) {
+        this.enabled = enabled;
+        this.budgets = enabled ? QueryBudgets.load() : null;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+
+        StatementLog log = StatementLog.open();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            StatementLog.close();
+            // Only set once a handler was matched; unmatched requests have no budget
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            if (pattern != null) {
+                String endpoint = QueryBudgets.endpoint(request.getMethod(), pattern.toString());
+                request.setAttribute(ENDPOINT_ATTRIBUTE, endpoint);
+                request.setAttribute(LOG_ATTRIBUTE, log);
+                check(endpoint, log);
+            }
+        }
+    }
+
+    private void check(String endpoint, StatementLog log) {
+        OptionalInt limit = budgets.limitFor(endpoint);
+        if (limit.isEmpty()) {
+            logger.warn("No query budget for {} ({} statements)", endpoint, log.count());
+        } else if (log.count() > limit.getAsInt()) {
+            logger.warn("Query budget exceeded for {}: {} statements, budget {}: {}",
+                    endpoint, log.count(), limit.getAsInt(), log.statements());
+        }
+        Map<String, Integer> repeated = log.repeated();
+        if (!repeated.isEmpty()) {
+            logger.warn("Repeated statements in {}: {}", endpoint, repeated);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package ent.orderManagement.querybudget;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.OptionalInt;
+
+/**
+ * Maximum number of SQL statements per endpoint, read from {@code query-budgets.txt} on the
+ * classpath. Each line is {@code METHOD /path/{pattern} limit}; the same file is enforced by
+ * the tests and, optionally, logged against at runtime by {@link QueryBudgetFilter}.
+ */
+public final class QueryBudgets {
+
+    public static final String RESOURCE = "query-budgets.txt";
+
+    private final Map<String, Integer> limits;
+
+    QueryBudgets(Map<String, Integer> limits) {
+        this.limits = Collections.unmodifiableMap(limits);
+    }
+
+    public static QueryBudgets load() {
+        InputStream in = QueryBudgets.class.getClassLoader().getResourceAsStream(RESOURCE);
+        if (in == null) {
+            throw new IllegalStateException(RESOURCE + " not found on the classpath");
+        }
+        Map<String, Integer> limits = new LinkedHashMap<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.strip();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] parts = line.split("\\s+");
+                if (parts.length != 3) {
+                    throw new IllegalStateException("Invalid line in " + RESOURCE + ": " + line);
+                }
+                limits.put(endpoint(parts[0], parts[1]), Integer.parseInt(parts[2]));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new QueryBudgets(limits);
+    }
+
+    public static String endpoint(String method, String pattern) {
+        return method + " " + pattern;
+    }
+
+    public OptionalInt limitFor(String endpoint) {
+        Integer limit = limits.get(endpoint);
+        return limit != null ? OptionalInt.of(limit) : OptionalInt.empty();
+    }
+
+    public Map<String, Integer> limits() {
+        return limits;
+    }
+}
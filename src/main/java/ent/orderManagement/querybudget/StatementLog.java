@@ -0,0 +1,72 @@
+package ent.orderManagement.querybudget;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The SQL statements one request sent to the database, filled in by the DataSource proxy
+ * while a log is open on the current thread. A batch counts as one statement (one round trip).
+ * Subtasks the request runs on other threads can {@link #attach} to its log.
+ */
+public final class StatementLog {
+
+    private static final ThreadLocal<StatementLog> CURRENT = new ThreadLocal<>();
+
+    private final List<String> statements = Collections.synchronizedList(new ArrayList<>());
+
+    public static StatementLog current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Start counting the statements of the current thread (replacing any log already open).
+     */
+    public static StatementLog open() {
+        StatementLog log = new StatementLog();
+        CURRENT.set(log);
+        return log;
+    }
+
+    public static void close() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Count the statements of the current thread into an existing log, or stop counting if {@code log} is null.
+     */
+    public static void attach(StatementLog log) {
+        if (log == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(log);
+        }
+    }
+
+    public void record(String sql) {
+        statements.add(sql);
+    }
+
+    public int count() {
+        return statements.size();
+    }
+
+    public List<String> statements() {
+        synchronized (statements) {
+            return List.copyOf(statements);
+        }
+    }
+
+    /**
+     * Statements whose SQL text was sent more than once, with how often. Parameters are not
+     * compared, so this also catches N+1 loops that differ only in the bound id.
+     */
+    public Map<String, Integer> repeated() {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        statements().forEach(sql -> counts.merge(sql, 1, Integer::sum));
+        counts.values().removeIf(count -> count == 1);
+        return counts;
+    }
+}
@@ -0,0 +1,104 @@
+package ent.orderManagement.repository;
+
+import java.sql.Timestamp;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import ent.orderManagement.payload.CustomerDeletionJob;
+import ent.orderManagement.payload.CustomerDeletionJob.Status;
+
+/**
+ * The 'customer_deletion_jobs' table. A job is worked on by whichever node holds its lease;
+ * an expired lease (crash, restart, shutdown) makes it claimable again, so work resumes
+ * where the last committed chunk left off.
+ */
+@Repository
+public class CustomerDeletionJobRepository {
+
+    private static final String COLUMNS =
+            "id, customer_id, status, orders_deleted, attempts, last_error, created_at, updated_at, finished_at";
+
+    private static final RowMapper<CustomerDeletionJob> JOB_ROW_MAPPER = (rs, rowNum) -> new CustomerDeletionJob(
+            rs.getObject("id", UUID.class),
+            rs.getObject("customer_id", UUID.class),
+            Status.valueOf(rs.getString("status")),
+            rs.getLong("orders_deleted"),
+            rs.getInt("attempts"),
+            rs.getString("last_error"),
+            toOffset(rs.getTimestamp("created_at")),
+            toOffset(rs.getTimestamp("updated_at")),
+            toOffset(rs.getTimestamp("finished_at")));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CustomerDeletionJobRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public CustomerDeletionJob create(UUID customerId) {
+        return jdbcTemplate.queryForObject("INSERT INTO customer_deletion_jobs (id, customer_id, status)"
+                + " VALUES (?, ?, 'PENDING') RETURNING " + COLUMNS, JOB_ROW_MAPPER, UUID.randomUUID(), customerId);
+    }
+
+    public Optional<CustomerDeletionJob> findById(UUID id) {
+        return jdbcTemplate.query("SELECT " + COLUMNS + " FROM customer_deletion_jobs WHERE id = ?", JOB_ROW_MAPPER, id)
+                .stream().findFirst();
+    }
+
+    public Optional<CustomerDeletionJob> findActiveByCustomerId(UUID customerId) {
+        return jdbcTemplate.query("SELECT " + COLUMNS + " FROM customer_deletion_jobs"
+                + " WHERE customer_id = ? AND status <> 'COMPLETED'", JOB_ROW_MAPPER, customerId).stream().findFirst();
+    }
+
+    public List<CustomerDeletionJob> findActive() {
+        return jdbcTemplate.query("SELECT " + COLUMNS + " FROM customer_deletion_jobs"
+                + " WHERE status <> 'COMPLETED' ORDER BY created_at", JOB_ROW_MAPPER);
+    }
+
+    /**
+     * Take the oldest unfinished job whose lease is free or expired. SKIP LOCKED lets
+     * several nodes claim different jobs at the same time without waiting for each other.
+     */
+    public Optional<CustomerDeletionJob> claimNext(long leaseMs) {
+        return jdbcTemplate.query("UPDATE customer_deletion_jobs SET status = 'RUNNING', attempts = attempts + 1,"
+                + " lease_until = now() + ? * interval '1 millisecond', updated_at = now()"
+                + " WHERE id = (SELECT id FROM customer_deletion_jobs"
+                + "   WHERE status <> 'COMPLETED' AND (lease_until IS NULL OR lease_until < now())"
+                + "   ORDER BY created_at LIMIT 1 FOR UPDATE SKIP LOCKED)"
+                + " RETURNING " + COLUMNS, JOB_ROW_MAPPER, leaseMs).stream().findFirst();
+    }
+
+    /**
+     * Count a deleted chunk and extend the lease.
+     */
+    public void recordProgress(UUID id, int ordersDeleted, long leaseMs) {
+        jdbcTemplate.update("UPDATE customer_deletion_jobs SET orders_deleted = orders_deleted + ?,"
+                + " lease_until = now() + ? * interval '1 millisecond', updated_at = now() WHERE id = ?",
+                ordersDeleted, leaseMs, id);
+    }
+
+    public void complete(UUID id) {
+        jdbcTemplate.update("UPDATE customer_deletion_jobs SET status = 'COMPLETED', lease_until = NULL,"
+                + " last_error = NULL, updated_at = now(), finished_at = now() WHERE id = ?", id);
+    }
+
+    /**
+     * Remember the error and leave the job to be retried once {@code retryDelayMs} have passed.
+     */
+    public void fail(UUID id, String error, long retryDelayMs) {
+        jdbcTemplate.update("UPDATE customer_deletion_jobs SET last_error = ?,"
+                + " lease_until = now() + ? * interval '1 millisecond', updated_at = now() WHERE id = ?",
+                error, retryDelayMs, id);
+    }
+
+    private static OffsetDateTime toOffset(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime().atOffset(ZoneOffset.UTC) : null;
+    }
+}
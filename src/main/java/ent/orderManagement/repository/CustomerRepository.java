@@ -1,14 +1,17 @@
 package ent.orderManagement.repository;
 
+import java.sql.PreparedStatement;
 import java.sql.Timestamp;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Repository;
@@ -16,6 +19,7 @@ import org.springframework.stereotype.Repository;
 import ent.orderManagement.exception.DuplicateEmailException;
 import ent.orderManagement.exception.DuplicateUuidException;
 import ent.orderManagement.model.Customer;
+import ent.orderManagement.service.FanOut;
 
 @Repository
 public class CustomerRepository {
@@ -50,10 +54,10 @@ public class CustomerRepository {
     };
 
     /**
-     * Retrieve all customers from the 'customers' table.
+     * Retrieve all customers from the 'customers' table (soft-deleted ones are hidden everywhere).
      */
     public List<Customer> findAll() {
-        String sql = "SELECT * FROM customers";
+        String sql = "SELECT * FROM customers WHERE deleted_at IS NULL";
         return jdbcTemplate.query(sql, CUSTOMER_ROW_MAPPER);
     }
 
@@ -63,77 +67,137 @@ public class CustomerRepository {
      * @return Optional containing the Customer if found, or empty if not found
      */
     public Optional<Customer> findById(UUID id) {
-        String sql = "SELECT * FROM customers WHERE id = ?";
+        String sql = "SELECT * FROM customers WHERE id = ? AND deleted_at IS NULL";
         logger.debug("Customer id: ", id);
-        List<Customer> results = jdbcTemplate.query(sql, CUSTOMER_ROW_MAPPER, id);
+        // Cancellable when loaded as part of a FanOut (customer overview)
+        List<Customer> results = jdbcTemplate.query(con -> {
+            PreparedStatement ps = FanOut.cancellable(con.prepareStatement(sql));
+            ps.setObject(1, id);
+            return ps;
+        }, CUSTOMER_ROW_MAPPER);
         logger.debug("Results: ", results);
         return results.isEmpty() ? Optional.empty() : Optional.of(results.get(0));
     }
 
     /**
-     * Create a new Customer record.
-     * Uses 'RETURNING id' if supported by PostgreSQL driver 
-     * to retrieve the inserted ID. 
+     * Retrieve many Customers in one query.
+     * @param ids UUIDs of the customers; ids that do not exist are simply absent from the result
+     */
+    public List<Customer> findAllById(Collection<UUID> ids) {
+        String sql = "SELECT * FROM customers WHERE id = ANY(?) AND deleted_at IS NULL";
+        return jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql);
+            ps.setArray(1, con.createArrayOf("uuid", ids.toArray(new UUID[0])));
+            return ps;
+        }, CUSTOMER_ROW_MAPPER);
+    }
+
+    /**
+     * A search match: the customer, the lower-cased field value it matched on, and its similarity
+     * to the query (1 for prefix matches).
+     */
+    public record SearchHit(Customer customer, String key, double score) {}
+
+    private static final RowMapper<SearchHit> SEARCH_HIT_MAPPER = (rs, rowNum) -> new SearchHit(
+            CUSTOMER_ROW_MAPPER.mapRow(rs, rowNum), rs.getString("match_key"), rs.getDouble("score"));
+
+    /**
+     * Customers whose name or email starts with {@code prefix} (already lower-cased), at most
+     * {@code limit} per field, each list in byte order of the matched value. Both halves are
+     * ordered range scans of the (lower(...) COLLATE "C") indexes, so the cost depends on
+     * {@code limit}, not on how many customers share the prefix.
+     */
+    public List<SearchHit> findByPrefix(String prefix, int limit) {
+        String pattern = escapeLike(prefix) + "%";
+        String sql = "(SELECT c.*, lower(c.name) AS match_key, 1.0 AS score FROM customers c"
+                   + " WHERE lower(c.name) COLLATE \"C\" LIKE ? AND c.deleted_at IS NULL ORDER BY lower(c.name) COLLATE \"C\" LIMIT ?)"
+                   + " UNION ALL"
+                   + " (SELECT c.*, lower(c.email) AS match_key, 1.0 AS score FROM customers c"
+                   + " WHERE lower(c.email) COLLATE \"C\" LIKE ? AND c.deleted_at IS NULL ORDER BY lower(c.email) COLLATE \"C\" LIMIT ?)";
+        return jdbcTemplate.query(sql, SEARCH_HIT_MAPPER, pattern, limit, pattern, limit);
+    }
+
+    /**
+     * Customers whose name or email contains a word similar to {@code query} (pg_trgm word
+     * similarity, served by the trigram GIN indexes), best matches first.
+     */
+    public List<SearchHit> findSimilar(String query, int limit) {
+        String sql = "SELECT c.*, lower(c.name) AS match_key,"
+                   + " GREATEST(word_similarity(?, lower(c.name)), word_similarity(?, lower(c.email))) AS score"
+                   + " FROM customers c WHERE (? <% lower(c.name) OR ? <% lower(c.email)) AND c.deleted_at IS NULL"
+                   + " ORDER BY score DESC, lower(c.name) COLLATE \"C\", c.id LIMIT ?";
+        return jdbcTemplate.query(sql, SEARCH_HIT_MAPPER, query, query, query, query, limit);
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    /**
+     * Create a new Customer record in one statement: an id that is already taken inserts
+     * nothing (ON CONFLICT DO NOTHING), a taken email violates the unique constraint.
      * @param customer The customer to save (name, email set; id may be null).
      * @return The saved Customer, with generated ID and createdAt set.
      */
     public Customer save(Customer customer) {
         String sql = "INSERT INTO customers (id, name, email, created_at) "
-                   + "VALUES (?, ?, ?, ?) RETURNING id";
+                   + "VALUES (?, ?, ?, ?) ON CONFLICT (id) DO NOTHING RETURNING id";
 
         logger.debug("Customer : ", customer);
 
-
         // If the Customer doesn't have an ID yet, generate one
         UUID newId = (customer.getId() == null) ? UUID.randomUUID() : customer.getId();
         
         logger.debug("Customer id: ", newId);
 
-        Integer count = jdbcTemplate.queryForObject(
-        "SELECT COUNT(*) FROM customers WHERE id = ?", 
-        Integer.class, 
-        newId
-        );
-
-        if (count != null && count > 0) {
-            throw new DuplicateUuidException("Duplicate UUID: Customer with ID " + newId + " already exists.");
-        }
-
         Timestamp now = Timestamp.valueOf(LocalDateTime.now());
 
+        List<UUID> returnedIds;
         try {
-        UUID returnedId = jdbcTemplate.queryForObject(
-        sql,
-        (rs, rowNum) -> UUID.fromString(rs.getString("id")),  // Convert returned String to UUID
-        newId,  // Pass UUID directly
-        customer.getName(),
-        customer.getEmail(),
-        now
-        );
+            returnedIds = jdbcTemplate.query(
+                sql,
+                (rs, rowNum) -> UUID.fromString(rs.getString("id")),  // Convert returned String to UUID
+                newId,  // Pass UUID directly
+                customer.getName(),
+                customer.getEmail(),
+                now
+            );
+        } catch (DuplicateKeyException ex) {
+            throw new DuplicateEmailException("Customer with the same Email already exists.");
+        }
+        if (returnedIds.isEmpty()) {
+            throw new DuplicateUuidException("Duplicate UUID: Customer with ID " + newId + " already exists.");
+        }
 
         // Set the generated ID and timestamp
-        customer.setId(returnedId);
+        customer.setId(returnedIds.get(0));
         customer.setCreatedAt(now.toLocalDateTime().atOffset(ZoneOffset.UTC));
         return customer;
-        } catch (DuplicateEmailException ex) {
-        throw new DuplicateEmailException("Customer with the same Email already exists.");
-        }
     }
 
     /**
-     * Update an existing Customer record.
-     * @param customer The updated Customer (must have a valid id)
-     * @return The same customer object (assuming successful update)
+     * A customer before and after an update.
      */
-    public Customer update(Customer customer) {
-        String sql = "UPDATE customers SET name = ?, email = ? WHERE id = ?";
-        jdbcTemplate.update(
-            sql,
-            customer.getName(),
-            customer.getEmail(),
-            customer.getId()
-        );
-        return customer;
+    public record CustomerChange(Customer before, Customer after) {}
+
+    /**
+     * Update the name and/or email of a visible customer in one statement; null fields are
+     * left as they are. The row as it was comes back from the same statement (the subquery
+     * locks it, so nothing changes it in between).
+     * @return the customer before and after the update, or empty if there is no such customer
+     */
+    public Optional<CustomerChange> update(UUID id, String name, String email) {
+        String sql = "UPDATE customers c SET name = COALESCE(?, c.name), email = COALESCE(?, c.email)"
+                   + " FROM (SELECT id, name, email FROM customers WHERE id = ? AND deleted_at IS NULL FOR UPDATE) old"
+                   + " WHERE c.id = old.id RETURNING c.*, old.name AS old_name, old.email AS old_email";
+        List<CustomerChange> results = jdbcTemplate.query(sql, (rs, rowNum) -> {
+            Customer after = CUSTOMER_ROW_MAPPER.mapRow(rs, rowNum);
+            Customer before = CUSTOMER_ROW_MAPPER.mapRow(rs, rowNum);
+            before.setName(rs.getString("old_name"));
+            before.setEmail(rs.getString("old_email"));
+            return new CustomerChange(before, after);
+        }, name, email, id);
+        return results.isEmpty() ? Optional.empty() : Optional.of(results.get(0));
     }
 
     /**
@@ -144,12 +208,31 @@ public class CustomerRepository {
         jdbcTemplate.update(sql, id);
     }
 
+    /**
+     * Hide a customer from all reads; its rows are removed later by the deletion job.
+     * @return the customer as it was hidden, or empty if there is no visible customer with this id
+     */
+    public Optional<Customer> softDelete(UUID id) {
+        String sql = "UPDATE customers SET deleted_at = now() WHERE id = ? AND deleted_at IS NULL RETURNING *";
+        List<Customer> results = jdbcTemplate.query(sql, CUSTOMER_ROW_MAPPER, id);
+        return results.isEmpty() ? Optional.empty() : Optional.of(results.get(0));
+    }
+
+    /**
+     * Remove the row of a soft-deleted customer. Fails with a DataIntegrityViolationException
+     * while orders still reference it.
+     */
+    public void purgeSoftDeleted(UUID id) {
+        String sql = "DELETE FROM customers WHERE id = ? AND deleted_at IS NOT NULL";
+        jdbcTemplate.update(sql, id);
+    }
+
     /**
      * Check if a Customer with a given ID exists.
      * @return true if found, false otherwise
      */
     public boolean existsById(UUID id) {
-        String sql = "SELECT COUNT(*) FROM customers WHERE id = ?";
+        String sql = "SELECT COUNT(*) FROM customers WHERE id = ? AND deleted_at IS NULL";
         Integer count = jdbcTemplate.queryForObject(sql, Integer.class, id.toString());
         return (count != null && count > 0);
     }
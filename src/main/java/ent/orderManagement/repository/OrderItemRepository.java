@@ -0,0 +1,20 @@
+package ent.orderManagement.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import ent.orderManagement.model.OrderItemEntity;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface OrderItemRepository extends JpaRepository<OrderItemEntity, UUID> {
+
+    // Items of a single order, in line order
+    List<OrderItemEntity> findByOrderIdOrderByLineNumber(UUID orderId);
+
+    // Items of a whole page of orders in one query
+    List<OrderItemEntity> findByOrderIdInOrderByOrderIdAscLineNumberAsc(Collection<UUID> orderIds);
+}
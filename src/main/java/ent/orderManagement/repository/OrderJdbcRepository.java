@@ -0,0 +1,386 @@
+package ent.orderManagement.repository;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import ent.orderManagement.model.Order;
+import ent.orderManagement.model.OrderEntity;
+import ent.orderManagement.model.OrderItemEntity;
+import ent.orderManagement.model.Order.StatusEnum;
+import ent.orderManagement.payload.OrderFilter;
+import ent.orderManagement.payload.StatusRevenue;
+import ent.orderManagement.service.FanOut;
+
+/**
+ * Set-based operations on the 'orders' table that JPA cannot express efficiently
+ * (multi-row updates with RETURNING, array parameters).
+ */
+@Repository
+public class OrderJdbcRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public OrderJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Minimal projection used to explain why a row was not updated.
+     */
+    public record OrderStatusRow(UUID id, UUID customerId, StatusEnum status) {}
+
+    private static final RowMapper<OrderStatusRow> STATUS_ROW_MAPPER = (rs, rowNum) -> new OrderStatusRow(
+            rs.getObject("id", UUID.class),
+            rs.getObject("customer_id", UUID.class),
+            StatusEnum.valueOf(rs.getString("status")));
+
+    // Row estimate of the top plan node in EXPLAIN (FORMAT JSON)
+    private static final Pattern PLAN_ROWS = Pattern.compile("\"Plan Rows\":\\s*(\\d+)");
+
+    private static final RowMapper<OrderEntity> ORDER_ROW_MAPPER = (rs, rowNum) -> {
+        OrderEntity order = new OrderEntity();
+        order.setId(rs.getObject("id", UUID.class));
+        order.setCustomerId(rs.getObject("customer_id", UUID.class));
+        order.setOrderDate(rs.getObject("order_date", LocalDate.class));
+        order.setTotalAmount(rs.getFloat("total_amount"));
+        order.setStatus(StatusEnum.valueOf(rs.getString("status")));
+
+        Timestamp createdAtTs = rs.getTimestamp("created_at");
+        if (createdAtTs != null) {
+            order.setCreatedAt(createdAtTs.toLocalDateTime().atOffset(ZoneOffset.UTC));
+        }
+        return order;
+    };
+
+    /**
+     * An order before and after a set-based status change (without items, which it does not touch).
+     */
+    public record OrderStatusChange(Order before, Order after) {
+        public UUID id() {
+            return after.getId();
+        }
+    }
+
+    // Locks the rows in the CTE, so 'previous' holds the status each row had right before this UPDATE
+    private static final String UPDATE_STATUS_RETURNING = " UPDATE orders o SET status = ? FROM previous"
+            + " WHERE o.id = previous.id"
+            + " RETURNING o.id, o.customer_id, o.order_date, o.total_amount, o.status, o.created_at,"
+            + " previous.status AS previous_status";
+
+    private static final RowMapper<OrderStatusChange> STATUS_CHANGE_MAPPER = (rs, rowNum) -> new OrderStatusChange(
+            ORDER_ROW_MAPPER.mapRow(rs, rowNum).toOrder().status(StatusEnum.valueOf(rs.getString("previous_status"))),
+            ORDER_ROW_MAPPER.mapRow(rs, rowNum).toOrder());
+
+    /**
+     * Load many orders in one query. If {@code ownerId} is set, only that customer's
+     * orders are returned; the ownership filter is part of the WHERE clause.
+     */
+    public List<OrderEntity> findByIds(Collection<UUID> ids, UUID ownerId) {
+        String sql = "SELECT id, customer_id, order_date, total_amount, status, created_at FROM orders WHERE id = ANY(?)";
+        List<Object> args = new ArrayList<>(List.of((Object) ids.toArray(new UUID[0])));
+        if (ownerId != null) {
+            sql += " AND customer_id = ?";
+            args.add(ownerId);
+        }
+        return query(sql, ORDER_ROW_MAPPER, args);
+    }
+
+    /**
+     * An order with its items, in line order.
+     */
+    public record OrderWithItems(OrderEntity order, List<OrderItemEntity> items) {}
+
+    /**
+     * Load one order and its items with a single round trip (LEFT JOIN, one row per item).
+     */
+    public Optional<OrderWithItems> findByIdWithItems(UUID id) {
+        String sql = "SELECT o.id, o.customer_id, o.order_date, o.total_amount, o.status, o.created_at,"
+                   + " i.id AS item_id, i.line_number, i.product_code, i.name, i.quantity, i.unit_price"
+                   + " FROM orders o LEFT JOIN order_items i ON i.order_id = o.id"
+                   + " WHERE o.id = ? ORDER BY i.line_number";
+        return Optional.ofNullable(jdbcTemplate.query(sql, rs -> {
+            OrderWithItems result = null;
+            while (rs.next()) {
+                if (result == null) {
+                    result = new OrderWithItems(ORDER_ROW_MAPPER.mapRow(rs, 0), new ArrayList<>());
+                }
+                UUID itemId = rs.getObject("item_id", UUID.class);
+                if (itemId != null) {
+                    result.items().add(mapItem(rs, itemId, id));
+                }
+            }
+            return result;
+        }, id));
+    }
+
+    private static OrderItemEntity mapItem(ResultSet rs, UUID itemId, UUID orderId) throws SQLException {
+        OrderItemEntity item = new OrderItemEntity();
+        item.setId(itemId);
+        item.setOrderId(orderId);
+        item.setLineNumber(rs.getInt("line_number"));
+        item.setProductCode(rs.getString("product_code"));
+        item.setName(rs.getString("name"));
+        item.setQuantity(rs.getInt("quantity"));
+        item.setUnitPrice(rs.getBigDecimal("unit_price"));
+        return item;
+    }
+
+    /**
+     * Delete one order (its items go with it through ON DELETE CASCADE).
+     * @return the order as it was when deleted, or empty if there was none
+     */
+    public Optional<OrderEntity> deleteById(UUID id) {
+        return jdbcTemplate.query("DELETE FROM orders WHERE id = ?"
+                        + " RETURNING id, customer_id, order_date, total_amount, status, created_at",
+                ORDER_ROW_MAPPER, id).stream().findFirst();
+    }
+
+    /**
+     * Delete the items of one order.
+     * @return the deleted items, in line order
+     */
+    public List<OrderItemEntity> deleteItemsByOrderId(UUID orderId) {
+        List<OrderItemEntity> items = jdbcTemplate.query("DELETE FROM order_items WHERE order_id = ?"
+                        + " RETURNING id, line_number, product_code, name, quantity, unit_price",
+                (rs, rowNum) -> mapItem(rs, rs.getObject("id", UUID.class), orderId), orderId);
+        items.sort(Comparator.comparingInt(OrderItemEntity::getLineNumber));
+        return items;
+    }
+
+    /**
+     * Number and total amount of one customer's orders per status (statuses without orders are absent).
+     */
+    public List<StatusRevenue> findStatusTotalsByCustomerId(UUID customerId) {
+        return query("SELECT status, count(*) AS order_count, COALESCE(sum(total_amount), 0) AS revenue"
+                        + " FROM orders WHERE customer_id = ? GROUP BY status ORDER BY status",
+                (rs, rowNum) -> new StatusRevenue(StatusEnum.valueOf(rs.getString("status")), rs.getLong("order_count"),
+                        rs.getBigDecimal("revenue") != null ? rs.getBigDecimal("revenue") : BigDecimal.ZERO),
+                List.of(customerId));
+    }
+
+    /**
+     * One customer's latest {@code limit} orders (without items), newest first; a backward
+     * scan of idx_orders_customer_id_order_date.
+     */
+    public List<OrderEntity> findRecentByCustomerId(UUID customerId, int limit) {
+        return query("SELECT id, customer_id, order_date, total_amount, status, created_at FROM orders"
+                        + " WHERE customer_id = ? ORDER BY order_date DESC, created_at DESC LIMIT ?",
+                ORDER_ROW_MAPPER, List.of(customerId, limit));
+    }
+
+    /**
+     * The latest {@code limit} orders (without items) of each of many customers in one query,
+     * grouped by customer and newest first within each. The LATERAL subquery is the same
+     * bounded backward index scan as {@link #findRecentByCustomerId}, once per customer, so
+     * customers with long histories cost no more than the rows returned.
+     */
+    public List<OrderEntity> findRecentByCustomerIds(Collection<UUID> customerIds, int limit) {
+        return query("SELECT o.id, o.customer_id, o.order_date, o.total_amount, o.status, o.created_at"
+                        + " FROM unnest(?) AS c(id) CROSS JOIN LATERAL (SELECT * FROM orders"
+                        + " WHERE customer_id = c.id ORDER BY order_date DESC, created_at DESC LIMIT ?) o"
+                        + " ORDER BY o.customer_id, o.order_date DESC, o.created_at DESC",
+                ORDER_ROW_MAPPER, List.of(customerIds.toArray(new UUID[0]), limit));
+    }
+
+    /**
+     * Which of the given ids exist at all (index-only lookup).
+     */
+    public List<UUID> findExistingIds(Collection<UUID> ids) {
+        return query("SELECT id FROM orders WHERE id = ANY(?)",
+                (rs, rowNum) -> rs.getObject("id", UUID.class), List.of((Object) ids.toArray(new UUID[0])));
+    }
+
+    /**
+     * How many orders one customer has.
+     */
+    public record CustomerOrderCount(UUID customerId, long orders) {}
+
+    /**
+     * Order counts of the given customers in one grouped query; customers without orders are absent.
+     */
+    public List<CustomerOrderCount> countByCustomerIds(Collection<UUID> customerIds) {
+        return query("SELECT customer_id, count(*) AS order_count FROM orders WHERE customer_id = ANY(?)"
+                        + " GROUP BY customer_id",
+                (rs, rowNum) -> new CustomerOrderCount(rs.getObject("customer_id", UUID.class), rs.getLong("order_count")),
+                List.of((Object) customerIds.toArray(new UUID[0])));
+    }
+
+    /**
+     * One customer's orders, counted up to {@code limit}: reads at most that many index entries.
+     */
+    public long countByCustomerIdUpTo(UUID customerId, long limit) {
+        return query("SELECT count(*) FROM (SELECT 1 FROM orders WHERE customer_id = ? LIMIT ?) capped",
+                (rs, rowNum) -> rs.getLong(1), List.of(customerId, limit)).get(0);
+    }
+
+    /**
+     * Rows in 'orders' as of the last VACUUM or ANALYZE (pg_class.reltuples), without touching
+     * the table; negative if it was never analyzed.
+     */
+    public long estimateCount() {
+        return query("SELECT reltuples::bigint FROM pg_class WHERE oid = 'orders'::regclass",
+                (rs, rowNum) -> rs.getLong(1), List.of()).get(0);
+    }
+
+    /**
+     * The planner's estimate of one customer's orders, from the statistics of customer_id
+     * (exact for customers among the most common values); negative if the plan has none.
+     */
+    public long estimateCountByCustomerId(UUID customerId) {
+        String plan = query("EXPLAIN (FORMAT JSON) SELECT 1 FROM orders WHERE customer_id = ?",
+                (rs, rowNum) -> rs.getString(1), List.of(customerId)).get(0);
+        Matcher rows = PLAN_ROWS.matcher(plan);
+        return rows.find() ? Long.parseLong(rows.group(1)) : -1;
+    }
+
+    /**
+     * Delete up to {@code limit} orders of one customer (their items go with them through
+     * ON DELETE CASCADE). Bounded so each call is a short transaction with bounded WAL.
+     * @return ids of the deleted orders
+     */
+    public List<UUID> deleteChunkByCustomerId(UUID customerId, int limit) {
+        return jdbcTemplate.query("DELETE FROM orders WHERE id IN"
+                        + " (SELECT id FROM orders WHERE customer_id = ? LIMIT ?) RETURNING id",
+                (rs, rowNum) -> rs.getObject("id", UUID.class), customerId, limit);
+    }
+
+    /**
+     * Move up to {@code limit} orders that are still NEW and were created before {@code cutoff}
+     * to {@code target}, oldest first. Rows locked by another worker (or a user editing the
+     * order) are skipped, so several nodes can expire concurrently without waiting on each
+     * other; the statement commits on its own.
+     * @return the expired orders
+     */
+    public List<OrderStatusChange> expireStaleNewOrders(Timestamp cutoff, StatusEnum target, int limit) {
+        return jdbcTemplate.query("WITH previous AS (SELECT id, status FROM orders WHERE status = 'NEW' AND created_at < ?"
+                        + " ORDER BY created_at LIMIT ? FOR UPDATE SKIP LOCKED)" + UPDATE_STATUS_RETURNING,
+                STATUS_CHANGE_MAPPER, cutoff, limit, target.name());
+    }
+
+    /**
+     * Move the given orders to {@code target} in one statement, but only those currently in
+     * one of {@code allowedFrom} and, if {@code ownerId} is set, owned by that customer.
+     * @return the orders that were actually updated
+     */
+    public List<OrderStatusChange> updateStatusByIds(Collection<UUID> ids, StatusEnum target,
+                                                     Collection<StatusEnum> allowedFrom, UUID ownerId) {
+        StringBuilder sql = new StringBuilder(
+                "WITH previous AS (SELECT id, status FROM orders WHERE id = ANY(?) AND status = ANY(?)");
+        List<Object> args = new ArrayList<>(List.of(ids.toArray(new UUID[0]), statusNames(allowedFrom)));
+        if (ownerId != null) {
+            sql.append(" AND customer_id = ?");
+            args.add(ownerId);
+        }
+        sql.append(" FOR UPDATE)").append(UPDATE_STATUS_RETURNING);
+        args.add(target.name());
+        return query(sql.toString(), STATUS_CHANGE_MAPPER, args);
+    }
+
+    /**
+     * Move up to {@code chunkSize} orders matching the filter to {@code target}.
+     * Rows locked by a concurrent transaction are skipped rather than waited for.
+     * @return the orders that were updated
+     */
+    public List<OrderStatusChange> updateStatusByFilter(OrderFilter filter, StatusEnum target,
+                                                        Collection<StatusEnum> allowedFrom, UUID ownerId, int chunkSize) {
+        StringBuilder sql = new StringBuilder(
+                "WITH previous AS (SELECT id, status FROM orders WHERE status = ANY(?)");
+        List<Object> args = new ArrayList<>(List.of((Object) statusNames(allowedFrom)));
+        appendFilter(sql, args, filter, ownerId);
+        sql.append(" LIMIT ? FOR UPDATE SKIP LOCKED)").append(UPDATE_STATUS_RETURNING);
+        args.add(chunkSize);
+        args.add(target.name());
+        return query(sql.toString(), STATUS_CHANGE_MAPPER, args);
+    }
+
+    /**
+     * Current owner and status of the given orders (missing ids are simply absent).
+     */
+    public List<OrderStatusRow> findStatusRows(Collection<UUID> ids) {
+        return query("SELECT id, customer_id, status FROM orders WHERE id = ANY(?)",
+                STATUS_ROW_MAPPER, List.of((Object) ids.toArray(new UUID[0])));
+    }
+
+    /**
+     * Orders matching the filter whose status is NOT one of {@code statuses}, up to {@code limit} rows.
+     */
+    public List<OrderStatusRow> findByFilterExcludingStatuses(OrderFilter filter, Collection<StatusEnum> statuses,
+                                                              UUID ownerId, int limit) {
+        StringBuilder sql = new StringBuilder(
+                "SELECT id, customer_id, status FROM orders WHERE NOT (status = ANY(?))");
+        List<Object> args = new ArrayList<>(List.of((Object) statusNames(statuses)));
+        appendFilter(sql, args, filter, ownerId);
+        sql.append(" LIMIT ?");
+        args.add(limit);
+        return query(sql.toString(), STATUS_ROW_MAPPER, args);
+    }
+
+    private static void appendFilter(StringBuilder sql, List<Object> args, OrderFilter filter, UUID ownerId) {
+        if (ownerId != null) {
+            sql.append(" AND customer_id = ?");
+            args.add(ownerId);
+        }
+        if (filter.getCustomerId() != null) {
+            sql.append(" AND customer_id = ?");
+            args.add(filter.getCustomerId());
+        }
+        if (filter.getStatus() != null) {
+            sql.append(" AND status = ?");
+            args.add(filter.getStatus().name());
+        }
+        if (filter.getOrderDateFrom() != null) {
+            sql.append(" AND order_date >= ?");
+            args.add(filter.getOrderDateFrom());
+        }
+        if (filter.getOrderDateTo() != null) {
+            sql.append(" AND order_date <= ?");
+            args.add(filter.getOrderDateTo());
+        }
+    }
+
+    private static String[] statusNames(Collection<StatusEnum> statuses) {
+        return statuses.stream().map(StatusEnum::name).toArray(String[]::new);
+    }
+
+    /**
+     * Run a query, binding UUID[] / String[] arguments as PostgreSQL arrays for {@code = ANY(?)}.
+     * Inside a {@link FanOut} subtask the statement is cancelled together with the subtask.
+     */
+    private <T> List<T> query(String sql, RowMapper<T> rowMapper, List<Object> args) {
+        return jdbcTemplate.query(con -> {
+            PreparedStatement ps = FanOut.cancellable(con.prepareStatement(sql));
+            for (int i = 0; i < args.size(); i++) {
+                ps.setObject(i + 1, toSqlValue(con, args.get(i)));
+            }
+            return ps;
+        }, rowMapper);
+    }
+
+    private static Object toSqlValue(Connection con, Object value) throws SQLException {
+        if (value instanceof UUID[] uuids) {
+            return con.createArrayOf("uuid", uuids);
+        }
+        if (value instanceof String[] strings) {
+            return con.createArrayOf("varchar", strings);
+        }
+        return value;
+    }
+}
@@ -19,6 +19,13 @@ public interface OrderRepository extends JpaRepository<OrderEntity, UUID> {
     // Fetch orders for a specific customer with pagination
     Page<OrderEntity> findByCustomerId(UUID customerId, Pageable pageable);
 
+    // The same pages without the count query; OrderCounts supplies the total
+    List<OrderEntity> findAllBy(Pageable pageable);
+
+    List<OrderEntity> findAllByCustomerId(UUID customerId, Pageable pageable);
+
+    long countByCustomerId(UUID customerId);
+
     // Check if an order exists by ID
     boolean existsById(UUID id);
 }
@@ -0,0 +1,94 @@
+package ent.orderManagement.repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import ent.orderManagement.model.Role;
+import ent.orderManagement.model.User;
+
+/**
+ * Refresh tokens (stored as SHA-256 hashes) and revoked access tokens. Every operation is a
+ * single statement, so it needs no surrounding transaction.
+ */
+@Repository
+public class RefreshTokenRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public RefreshTokenRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * A refresh token about to be stored, with the access token issued alongside it.
+     */
+    public record NewRefreshToken(UUID id, String tokenHash, Instant expiresAt, UUID accessJti, Instant accessExpiresAt) {}
+
+    private static final RowMapper<User> USER_MAPPER = (rs, rowNum) -> {
+        User user = new User(rs.getString("username"), null, Role.valueOf(rs.getString("role")));
+        user.setId(rs.getObject("id", UUID.class));
+        return user;
+    };
+
+    /**
+     * Store the first refresh token of a new family (a login).
+     */
+    public void insert(UUID userId, NewRefreshToken token) {
+        jdbcTemplate.update("INSERT INTO refresh_tokens (id, user_id, token_hash, family_id, expires_at, access_jti, access_expires_at)"
+                        + " VALUES (?, ?, ?, ?, ?, ?, ?)",
+                token.id(), userId, token.tokenHash(), token.id(), Timestamp.from(token.expiresAt()),
+                token.accessJti(), Timestamp.from(token.accessExpiresAt()));
+    }
+
+    /**
+     * Exchange a valid refresh token for {@code replacement} in one statement: the old token is
+     * marked as used and the new one joins its family. Nothing happens if the old token is
+     * unknown, expired or already used.
+     * @return the owner of the token, or empty if it could not be rotated
+     */
+    public Optional<User> rotate(String tokenHash, NewRefreshToken replacement) {
+        List<User> users = jdbcTemplate.query("WITH used AS ("
+                        + "  UPDATE refresh_tokens SET revoked_at = now(), replaced_by = ?"
+                        + "  WHERE token_hash = ? AND revoked_at IS NULL AND expires_at > now()"
+                        + "  RETURNING user_id, family_id"
+                        + "), issued AS ("
+                        + "  INSERT INTO refresh_tokens (id, user_id, token_hash, family_id, expires_at, access_jti, access_expires_at)"
+                        + "  SELECT ?, user_id, ?, family_id, ?, ?, ? FROM used RETURNING user_id"
+                        + ") SELECT u.id, u.username, u.role FROM issued JOIN users u ON u.id = issued.user_id",
+                USER_MAPPER,
+                replacement.id(), tokenHash,
+                replacement.id(), replacement.tokenHash(), Timestamp.from(replacement.expiresAt()),
+                replacement.accessJti(), Timestamp.from(replacement.accessExpiresAt()));
+        return users.isEmpty() ? Optional.empty() : Optional.of(users.get(0));
+    }
+
+    /**
+     * Revoke every refresh token of the family the given token belongs to, together with the
+     * access tokens issued alongside them that have not expired yet.
+     * @return ids of the newly revoked access tokens
+     */
+    public List<UUID> revokeFamily(String tokenHash) {
+        return jdbcTemplate.query("WITH family AS ("
+                        + "  UPDATE refresh_tokens SET revoked_at = COALESCE(revoked_at, now())"
+                        + "  WHERE family_id = (SELECT family_id FROM refresh_tokens WHERE token_hash = ?)"
+                        + "  RETURNING access_jti, access_expires_at"
+                        + ") INSERT INTO revoked_tokens (jti, expires_at)"
+                        + " SELECT access_jti, access_expires_at FROM family WHERE access_expires_at > now()"
+                        + " ON CONFLICT (jti) DO NOTHING RETURNING jti",
+                (rs, rowNum) -> rs.getObject("jti", UUID.class), tokenHash);
+    }
+
+    /**
+     * Delete refresh tokens that expired before {@code cutoff}; used ones stay until then so reuse is still detected.
+     */
+    public int deleteExpired(Instant cutoff) {
+        return jdbcTemplate.update("DELETE FROM refresh_tokens WHERE expires_at < ?", Timestamp.from(cutoff));
+    }
+}
@@ -1,27 +1,37 @@
 package ent.orderManagement.security;
 
-import ent.orderManagement.service.UserService;
+import ent.orderManagement.model.User;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import org.springframework.context.annotation.Lazy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 import java.io.IOException;
 
+/**
+ * Authenticates requests from the access token alone: signature and expiry check, then a
+ * lookup in the in-memory {@link RevokedTokenRegistry}. The principal is built from the token's
+ * claims, so no request touches the database to authenticate. An invalid, expired or revoked
+ * token leaves the request unauthenticated.
+ */
 @Component
 public class JwtRequestFilter extends OncePerRequestFilter {
 
-    private final UserService userService;
+    private static final Logger logger = LoggerFactory.getLogger(JwtRequestFilter.class);
+
     private final JwtUtil jwtUtil;
+    private final RevokedTokenRegistry revokedTokens;
 
-    public JwtRequestFilter(@Lazy UserService userService, JwtUtil jwtUtil) {
-        this.userService = userService;
+    public JwtRequestFilter(JwtUtil jwtUtil, RevokedTokenRegistry revokedTokens) {
         this.jwtUtil = jwtUtil;
+        this.revokedTokens = revokedTokens;
     }
 
     @Override
@@ -30,19 +40,30 @@ public class JwtRequestFilter extends OncePerRequestFilter {
 
         String authorizationHeader = request.getHeader("Authorization");
 
-        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-            String token = authorizationHeader.substring(7);
-            Claims claims = jwtUtil.extractClaims(token);
-            String username = claims.getSubject();
-
-            if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = userService.loadUserByUsername(username);
+        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
+            User user = authenticate(authorizationHeader.substring(7));
+            if (user != null) {
                 SecurityContextHolder.getContext().setAuthentication(
-                        new org.springframework.security.authentication.UsernamePasswordAuthenticationToken(
-                                userDetails, null, userDetails.getAuthorities()
-                        ));
+                        new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
             }
         }
         chain.doFilter(request, response);
     }
+
+    /**
+     * The user the token was issued to, or null if it must not be accepted.
+     */
+    public User authenticate(String token) {
+        try {
+            Claims claims = jwtUtil.extractClaims(token);
+            if (revokedTokens.isRevoked(jwtUtil.extractTokenId(claims))) {
+                return null;
+            }
+            return jwtUtil.extractUser(claims);
+        } catch (JwtException | IllegalArgumentException e) {
+            logger.debug("Rejected access token: {}", e.getMessage());
+            return null;
+        }
+    }
 }
@@ -2,14 +2,26 @@ package ent.orderManagement.security;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import ent.orderManagement.jfr.JwtParseEvent;
+import ent.orderManagement.jfr.RequestTrace;
+import ent.orderManagement.model.Role;
+import ent.orderManagement.model.User;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.time.Instant;
 import java.util.Date;
 import java.util.Map;
+import java.util.UUID;
 
+/**
+ * Issues and verifies short-lived access tokens. Besides the username and role they carry
+ * the user id and a unique id (jti), so a request can be authenticated from the token alone
+ * and a single token can be revoked (see {@link RevokedTokenRegistry}).
+ */
 @Component
 public class JwtUtil {
 
@@ -19,31 +31,101 @@ public class JwtUtil {
     @Value("${jwt.expiration-ms}")
     private long jwtExpirationMs;
 
-    
-    private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
-        }
-    
+    // Built once: deriving the key and the parser per request showed up in the auth benchmark
+    private Key signingKey;
+    private JwtParser parser;
+
+    public JwtUtil() {
+    }
+
+    // For use outside Spring (benchmarks)
+    public JwtUtil(String jwtSecret, long jwtExpirationMs) {
+        this.jwtSecret = jwtSecret;
+        this.jwtExpirationMs = jwtExpirationMs;
+        init();
+    }
 
-    public String generateToken(String username, String role) {
-        return Jwts.builder()
-                .setSubject(username)
-                .addClaims(Map.of("role", role)) // Store role inside JWT
-                .setIssuedAt(new Date())
-                .setExpiration(new Date(System.currentTimeMillis() + jwtExpirationMs))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+    }
+
+    /**
+     * A signed access token and what is needed to revoke it later.
+     */
+    public record AccessToken(String token, UUID jti, Instant expiresAt) {}
+
+    public AccessToken generateAccessToken(User user) {
+        return generateAccessToken(user, UUID.randomUUID(), Instant.now().plusMillis(jwtExpirationMs));
+    }
+
+    /**
+     * An access token with an id and expiry chosen up front, e.g. to store them before signing.
+     */
+    public AccessToken generateAccessToken(User user, UUID jti, Instant expiresAt) {
+        Instant issuedAt = expiresAt.minusMillis(jwtExpirationMs);
+        String token = Jwts.builder()
+                .setId(jti.toString())
+                .setSubject(user.getUsername())
+                .addClaims(Map.of("uid", user.getId().toString(), "role", user.getRole().name()))
+                .setIssuedAt(Date.from(issuedAt))
+                .setExpiration(Date.from(expiresAt))
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
-        }
-    
+        return new AccessToken(token, jti, expiresAt);
+    }
+
+    public long getExpirationMs() {
+        return jwtExpirationMs;
+    }
 
+    /**
+     * Verify the signature and expiry and return the claims.
+     * @throws JwtException if the token is malformed, tampered with or expired
+     */
     public Claims extractClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        RequestTrace trace = RequestTrace.current();
+        JwtParseEvent event = trace != null ? trace.begin(new JwtParseEvent()) : null;
+        boolean valid = false;
+        try {
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            valid = true;
+            return claims;
+        } finally {
+            if (event != null) {
+                event.valid = valid;
+                trace.end(event);
+            }
         }
-    
+        }
+
+    /**
+     * The user a verified access token was issued to, without a database lookup.
+     * The password is not part of the token, so the returned user cannot re-authenticate.
+     * @throws IllegalArgumentException if a claim is missing (e.g. a token of the old format)
+     */
+    public User extractUser(Claims claims) {
+        String uid = claims.get("uid", String.class);
+        String role = claims.get("role", String.class);
+        if (claims.getSubject() == null || uid == null || role == null) {
+            throw new IllegalArgumentException("Token lacks user claims");
+        }
+        User user = new User(claims.getSubject(), null, Role.valueOf(role));
+        user.setId(UUID.fromString(uid));
+        return user;
+    }
+
+    /**
+     * The token id (jti) of verified claims.
+     * @throws IllegalArgumentException if the token has none
+     */
+    public UUID extractTokenId(Claims claims) {
+        if (claims.getId() == null) {
+            throw new IllegalArgumentException("Token has no id");
+        }
+        return UUID.fromString(claims.getId());
+    }
 
     public boolean validateToken(String token, String username) {
         return extractClaims(token).getSubject().equals(username) &&
@@ -59,4 +141,3 @@ public class JwtUtil {
         return extractClaims(token).get("role", String.class);
     }
     }
-       
\ No newline at end of file
@@ -0,0 +1,80 @@
+package ent.orderManagement.security;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-user, per-endpoint rate limiting. Runs once the handler is matched, so the endpoint is
+ * the route pattern ({@code GET /orders/{id}}) and the number of endpoints is fixed by the
+ * application, not by the URLs clients send; requests no route matched share one "other"
+ * endpoint. Only authenticated requests are limited; everything else passes through.
+ */
+@Component
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    static final String OTHER_ENDPOINT = "other";
+
+    private final RateLimiter rateLimiter;
+    private final boolean enabled;
+
+    public RateLimitInterceptor(RateLimiter rateLimiter, @Value("${rate-limit.enabled:true}") boolean enabled) {
+        this.rateLimiter = rateLimiter;
+        this.enabled = enabled;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws IOException {
+
+        // Error and async dispatches belong to a request that was already counted
+        if (!enabled || request.getDispatcherType() != DispatcherType.REQUEST) {
+            return true;
+        }
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+
+        if (authentication != null && authentication.isAuthenticated()) {
+            String endpoint = endpoint(request);
+            long waitNanos = rateLimiter.tryAcquire(authentication.getName(), isAdmin(authentication), endpoint);
+
+            if (waitNanos > 0) {
+                long retryAfterSeconds = Math.max(1L, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+                response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+                response.setHeader("Retry-After", Long.toString(retryAfterSeconds));
+                response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+                response.getWriter().write("{\"error\": \"Rate limit exceeded for " + endpoint + "\"}");
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static String endpoint(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        // Static resources match "/**", the catch-all for unknown paths
+        if (pattern == null || "/**".equals(pattern.toString())) {
+            return OTHER_ENDPOINT;
+        }
+        return request.getMethod() + ' ' + pattern;
+    }
+
+    private static boolean isAdmin(Authentication authentication) {
+        for (GrantedAuthority authority : authentication.getAuthorities()) {
+            if ("ROLE_ADMIN".equals(authority.getAuthority())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,85 @@
+package ent.orderManagement.security;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps one {@link TokenBucket} per (username, endpoint) with limits chosen by role.
+ * Idle buckets are evicted periodically. Memory is capped at {@code rate-limit.max-buckets}:
+ * while the map is full, users without a bucket of their own share one overflow bucket
+ * per role until the next eviction makes room.
+ */
+@Component
+public class RateLimiter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RateLimiter.class);
+
+    private final ConcurrentHashMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    private final long adminCapacity;
+    private final double adminRefillPerSecond;
+    private final long userCapacity;
+    private final double userRefillPerSecond;
+    private final long idleNanos;
+    private final int maxBuckets;
+    private final TokenBucket adminOverflow;
+    private final TokenBucket userOverflow;
+
+    public RateLimiter(@Value("${rate-limit.admin.capacity:200}") long adminCapacity,
+                       @Value("${rate-limit.admin.refill-per-second:100}") double adminRefillPerSecond,
+                       @Value("${rate-limit.user.capacity:50}") long userCapacity,
+                       @Value("${rate-limit.user.refill-per-second:20}") double userRefillPerSecond,
+                       @Value("${rate-limit.idle-eviction-ms:300000}") long idleEvictionMs,
+                       @Value("${rate-limit.max-buckets:100000}") int maxBuckets) {
+        this.adminCapacity = adminCapacity;
+        this.adminRefillPerSecond = adminRefillPerSecond;
+        this.userCapacity = userCapacity;
+        this.userRefillPerSecond = userRefillPerSecond;
+        this.idleNanos = TimeUnit.MILLISECONDS.toNanos(idleEvictionMs);
+        this.maxBuckets = maxBuckets;
+        long now = System.nanoTime();
+        this.adminOverflow = new TokenBucket(adminCapacity, adminRefillPerSecond, now);
+        this.userOverflow = new TokenBucket(userCapacity, userRefillPerSecond, now);
+    }
+
+    /**
+     * Take one token for the given user and endpoint.
+     * @return 0 if the request may proceed, otherwise nanoseconds until it may be retried
+     */
+    public long tryAcquire(String username, boolean admin, String endpoint) {
+        long now = System.nanoTime();
+        String key = username + ' ' + endpoint;
+        TokenBucket bucket = buckets.get(key);
+        if (bucket == null) {
+            if (buckets.size() >= maxBuckets) {
+                bucket = admin ? adminOverflow : userOverflow;
+            } else {
+                bucket = buckets.computeIfAbsent(key, k -> admin
+                        ? new TokenBucket(adminCapacity, adminRefillPerSecond, now)
+                        : new TokenBucket(userCapacity, userRefillPerSecond, now));
+            }
+        }
+        return bucket.tryConsume(now);
+    }
+
+    /**
+     * Periodically drop buckets that have been full for longer than the idle timeout.
+     */
+    @Scheduled(fixedDelayString = "${rate-limit.eviction-interval-ms:60000}")
+    public void evictIdleBuckets() {
+        int before = buckets.size();
+        long now = System.nanoTime();
+        buckets.values().removeIf(bucket -> bucket.isIdle(now, idleNanos));
+        logger.debug("Rate limit buckets evicted: {}, remaining: {}", before - buckets.size(), buckets.size());
+    }
+
+    public int bucketCount() {
+        return buckets.size();
+    }
+}
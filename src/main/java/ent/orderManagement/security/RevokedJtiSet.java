@@ -0,0 +1,142 @@
+package ent.orderManagement.security;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Immutable set of revoked token ids, checked on every authenticated request.
+ *
+ * A Bloom filter (about 16 bits and 4 probes per id, well under 1% false positives) sits in
+ * front of an open-addressing table of the ids as two parallel long arrays. Almost every
+ * token is not revoked, so a lookup is usually a few bit tests on a small array; only a
+ * Bloom hit probes the table, which holds no objects and no boxing. Changes build a new set.
+ * Shared by the servlet {@link RevokedTokenRegistry} and the reactive application.
+ */
+public final class RevokedJtiSet {
+
+    public static final RevokedJtiSet EMPTY = of(List.of());
+
+    private static final int BLOOM_PROBES = 4;
+    private static final int BLOOM_BITS_PER_ID = 16;
+
+    private final long[] bloom;
+    private final int bloomMask;
+    // Random (version 4) UUIDs are never all zero, which marks a free slot
+    private final long[] msbs;
+    private final long[] lsbs;
+    private final int tableMask;
+    private final int size;
+
+    private RevokedJtiSet(int expected) {
+        int bloomBits = powerOfTwo(Math.max(1024, expected * BLOOM_BITS_PER_ID));
+        bloom = new long[bloomBits / 64];
+        bloomMask = bloomBits - 1;
+        int capacity = powerOfTwo(Math.max(16, expected * 2)); // load factor at most 0.5
+        msbs = new long[capacity];
+        lsbs = new long[capacity];
+        tableMask = capacity - 1;
+        size = 0;
+    }
+
+    private RevokedJtiSet(RevokedJtiSet built, int size) {
+        bloom = built.bloom;
+        bloomMask = built.bloomMask;
+        msbs = built.msbs;
+        lsbs = built.lsbs;
+        tableMask = built.tableMask;
+        this.size = size;
+    }
+
+    public static RevokedJtiSet of(Collection<UUID> jtis) {
+        RevokedJtiSet set = new RevokedJtiSet(jtis.size());
+        int size = 0;
+        for (UUID jti : jtis) {
+            if (set.insert(jti.getMostSignificantBits(), jti.getLeastSignificantBits())) {
+                size++;
+            }
+        }
+        return new RevokedJtiSet(set, size);
+    }
+
+    /**
+     * A new set with the given ids added.
+     */
+    public RevokedJtiSet with(Collection<UUID> jtis) {
+        RevokedJtiSet set = new RevokedJtiSet(size + jtis.size());
+        int count = 0;
+        for (int slot = 0; slot < msbs.length; slot++) {
+            if (msbs[slot] != 0 || lsbs[slot] != 0) {
+                set.insert(msbs[slot], lsbs[slot]);
+                count++;
+            }
+        }
+        for (UUID jti : jtis) {
+            if (set.insert(jti.getMostSignificantBits(), jti.getLeastSignificantBits())) {
+                count++;
+            }
+        }
+        return new RevokedJtiSet(set, count);
+    }
+
+    public boolean contains(UUID jti) {
+        long msb = jti.getMostSignificantBits();
+        long lsb = jti.getLeastSignificantBits();
+        long h1 = mix(msb ^ lsb);
+        long h2 = mix(lsb) | 1;
+        for (int i = 0; i < BLOOM_PROBES; i++) {
+            int bit = (int) (h1 + i * h2) & bloomMask;
+            if ((bloom[bit >>> 6] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        for (int slot = (int) (h1 >>> 32) & tableMask; ; slot = (slot + 1) & tableMask) {
+            if (msbs[slot] == msb && lsbs[slot] == lsb) {
+                return true;
+            }
+            if (msbs[slot] == 0 && lsbs[slot] == 0) {
+                return false;
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Only used while building; returns false if the id was already present.
+     */
+    private boolean insert(long msb, long lsb) {
+        long h1 = mix(msb ^ lsb);
+        long h2 = mix(lsb) | 1;
+        int slot = (int) (h1 >>> 32) & tableMask;
+        while (msbs[slot] != 0 || lsbs[slot] != 0) {
+            if (msbs[slot] == msb && lsbs[slot] == lsb) {
+                return false;
+            }
+            slot = (slot + 1) & tableMask;
+        }
+        msbs[slot] = msb;
+        lsbs[slot] = lsb;
+        for (int i = 0; i < BLOOM_PROBES; i++) {
+            int bit = (int) (h1 + i * h2) & bloomMask;
+            bloom[bit >>> 6] |= 1L << bit;
+        }
+        return true;
+    }
+
+    // MurmurHash3 finalizer
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private static int powerOfTwo(int atLeast) {
+        return Integer.highestOneBit(Math.max(1, atLeast - 1)) << 1;
+    }
+}
@@ -0,0 +1,148 @@
+package ent.orderManagement.security;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * In-memory copy of the 'revoked_tokens' table, so that checking an access token for
+ * revocation never touches the database.
+ *
+ * Every {@code jwt.revocation.refresh-ms} only rows revoked since the last refresh are read
+ * (minus a small overlap for statements that committed out of order); every
+ * {@code jwt.revocation.full-reload-ms} the table is purged of expired tokens and read in
+ * full. Revocations made by this node apply at once. If the copy could not be refreshed for
+ * longer than {@code jwt.revocation.max-staleness-ms}, every token is treated as revoked:
+ * a revocation must not go unnoticed just because the database is unreachable.
+ *
+ * With {@code jwt.revocation.enabled=false} the table is never read and, since the copy is
+ * then never loaded, every token is rejected; only for runs that serve no requests (the
+ * AppCDS training run).
+ */
+@Component
+public class RevokedTokenRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(RevokedTokenRegistry.class);
+
+    private record Revocation(UUID jti, Timestamp revokedAt) {}
+
+    private static final RowMapper<Revocation> REVOCATION_MAPPER = (rs, rowNum) -> new Revocation(
+            rs.getObject("jti", UUID.class), rs.getTimestamp("revoked_at"));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final long overlapMs;
+    private final long fullReloadNanos;
+    private final long maxStalenessNanos;
+
+    private volatile RevokedJtiSet revoked = RevokedJtiSet.EMPTY;
+    private volatile long refreshedAt;
+    private volatile boolean loaded;
+
+    // Guarded by this
+    private Timestamp cursor;
+    private long fullReloadAt;
+
+    public RevokedTokenRegistry(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry,
+                                @Value("${jwt.revocation.enabled:true}") boolean enabled,
+                                @Value("${jwt.revocation.refresh-overlap-ms:5000}") long overlapMs,
+                                @Value("${jwt.revocation.full-reload-ms:300000}") long fullReloadMs,
+                                @Value("${jwt.revocation.max-staleness-ms:30000}") long maxStalenessMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.overlapMs = overlapMs;
+        this.fullReloadNanos = TimeUnit.MILLISECONDS.toNanos(fullReloadMs);
+        this.maxStalenessNanos = TimeUnit.MILLISECONDS.toNanos(maxStalenessMs);
+        Gauge.builder("auth.revoked-tokens", this, registry -> registry.revoked.size())
+                .description("Revoked, not yet expired access tokens held in memory")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Whether the access token with this id must be rejected. No I/O and no allocation.
+     */
+    public boolean isRevoked(UUID jti) {
+        if (!loaded || System.nanoTime() - refreshedAt > maxStalenessNanos) {
+            return true;
+        }
+        return revoked.contains(jti);
+    }
+
+    /**
+     * Apply revocations this node has just written to the database without waiting for the next refresh.
+     */
+    public synchronized void revokeLocally(Collection<UUID> jtis) {
+        if (!jtis.isEmpty()) {
+            revoked = revoked.with(jtis);
+        }
+    }
+
+    @PostConstruct
+    void load() {
+        refresh();
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.revocation.refresh-ms:1000}")
+    public synchronized void refresh() {
+        if (!enabled) {
+            return;
+        }
+        long now = System.nanoTime();
+        try {
+            if (cursor == null || now - fullReloadAt > fullReloadNanos) {
+                reload();
+                fullReloadAt = now;
+            } else {
+                List<Revocation> rows = jdbcTemplate.query(
+                        "SELECT jti, revoked_at FROM revoked_tokens WHERE revoked_at > ?", REVOCATION_MAPPER,
+                        new Timestamp(cursor.getTime() - overlapMs));
+                List<UUID> added = new ArrayList<>();
+                for (Revocation row : rows) {
+                    advanceCursor(row);
+                    if (!revoked.contains(row.jti())) {
+                        added.add(row.jti());
+                    }
+                }
+                revokeLocally(added);
+            }
+            refreshedAt = now;
+            loaded = true;
+        } catch (RuntimeException e) {
+            logger.warn("Could not refresh revoked tokens: {}", e.getMessage());
+        }
+    }
+
+    private void reload() {
+        int purged = jdbcTemplate.update("DELETE FROM revoked_tokens WHERE expires_at < now()");
+        List<Revocation> rows = jdbcTemplate.query("SELECT jti, revoked_at FROM revoked_tokens", REVOCATION_MAPPER);
+        List<UUID> jtis = new ArrayList<>(rows.size());
+        cursor = new Timestamp(0);
+        for (Revocation row : rows) {
+            advanceCursor(row);
+            jtis.add(row.jti());
+        }
+        revoked = RevokedJtiSet.of(jtis);
+        logger.debug("Revoked tokens reloaded: {}, expired ones purged: {}", jtis.size(), purged);
+    }
+
+    private void advanceCursor(Revocation row) {
+        if (row.revokedAt().after(cursor)) {
+            cursor = row.revokedAt();
+        }
+    }
+}
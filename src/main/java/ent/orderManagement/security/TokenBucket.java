@@ -0,0 +1,51 @@
+package ent.orderManagement.security;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket in its GCRA form (generic cell rate algorithm).
+ * The whole state is one "theoretical arrival time", so a decision is a
+ * clock read plus a single compare-and-set, with no lock and no allocation.
+ */
+public final class TokenBucket {
+
+    private final long emissionIntervalNanos;   // time to refill one token
+    private final long burstNanos;              // capacity * emission interval
+    private final AtomicLong theoreticalArrival;
+
+    public TokenBucket(long capacity, double refillPerSecond, long nowNanos) {
+        if (capacity < 1 || refillPerSecond <= 0) {
+            throw new IllegalArgumentException("Capacity and refill rate must be positive");
+        }
+        this.emissionIntervalNanos = Math.max(1L, (long) (1_000_000_000L / refillPerSecond));
+        this.burstNanos = capacity * emissionIntervalNanos;
+        this.theoreticalArrival = new AtomicLong(nowNanos); // starts full
+    }
+
+    /**
+     * Try to take one token.
+     * @return 0 if the token was granted, otherwise the nanoseconds until one is available
+     */
+    public long tryConsume(long nowNanos) {
+        while (true) {
+            long tat = theoreticalArrival.get();
+            long start = (tat - nowNanos > 0) ? tat : nowNanos;
+            long next = start + emissionIntervalNanos;
+            long wait = next - nowNanos - burstNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (theoreticalArrival.compareAndSet(tat, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * A bucket that has been full for at least {@code idleNanos} behaves exactly
+     * like a freshly created one, so it can be dropped without changing any decision.
+     */
+    public boolean isIdle(long nowNanos, long idleNanos) {
+        return nowNanos - theoreticalArrival.get() >= idleNanos;
+    }
+}
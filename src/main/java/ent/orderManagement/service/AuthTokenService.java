@@ -0,0 +1,139 @@
+package ent.orderManagement.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import ent.orderManagement.exception.InvalidRefreshTokenException;
+import ent.orderManagement.model.User;
+import ent.orderManagement.payload.AuthResponse;
+import ent.orderManagement.repository.RefreshTokenRepository;
+import ent.orderManagement.repository.RefreshTokenRepository.NewRefreshToken;
+import ent.orderManagement.security.JwtUtil;
+import ent.orderManagement.security.JwtUtil.AccessToken;
+import ent.orderManagement.security.RevokedTokenRegistry;
+
+/**
+ * Issues access/refresh token pairs and rotates refresh tokens.
+ *
+ * A refresh token can be used once; using it returns a new pair. Presenting a token that has
+ * already been used means it was copied, so the whole family (every token descended from the
+ * same login) is revoked, including the access tokens issued with it.
+ */
+@Service
+public class AuthTokenService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuthTokenService.class);
+
+    private static final int REFRESH_TOKEN_BYTES = 32;
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final RevokedTokenRegistry revokedTokens;
+    private final JwtUtil jwtUtil;
+    private final Duration refreshLifetime;
+    private final SecureRandom random = new SecureRandom();
+
+    public AuthTokenService(RefreshTokenRepository refreshTokenRepository, RevokedTokenRegistry revokedTokens,
+                            JwtUtil jwtUtil, @Value("${jwt.refresh-expiration-ms:1209600000}") long refreshExpirationMs) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.revokedTokens = revokedTokens;
+        this.jwtUtil = jwtUtil;
+        this.refreshLifetime = Duration.ofMillis(refreshExpirationMs);
+    }
+
+    /**
+     * A new token pair for a user who has just logged in.
+     */
+    public AuthResponse login(User user) {
+        AccessToken access = jwtUtil.generateAccessToken(user);
+        String refreshToken = newRefreshToken();
+        refreshTokenRepository.insert(user.getId(), pending(refreshToken, access));
+        return response(access, refreshToken);
+    }
+
+    /**
+     * Exchange a refresh token for a new pair.
+     * @throws InvalidRefreshTokenException if the token is unknown, expired or was used before
+     */
+    public AuthResponse refresh(String refreshToken) {
+        if (refreshToken == null || refreshToken.isBlank()) {
+            throw new InvalidRefreshTokenException();
+        }
+        String hash = hash(refreshToken);
+        UUID accessJti = UUID.randomUUID();
+        String nextToken = newRefreshToken();
+        Instant accessExpiresAt = Instant.now().plusMillis(jwtUtil.getExpirationMs());
+        User user = refreshTokenRepository.rotate(hash, new NewRefreshToken(UUID.randomUUID(), hash(nextToken),
+                        Instant.now().plus(refreshLifetime), accessJti, accessExpiresAt))
+                .orElseThrow(() -> {
+                    // Used, expired or unknown: in the first case someone else holds a copy
+                    List<UUID> revoked = revokeFamily(hash);
+                    if (!revoked.isEmpty()) {
+                        logger.warn("Refresh token reused; revoked its family with {} access tokens", revoked.size());
+                    }
+                    return new InvalidRefreshTokenException();
+                });
+        return response(jwtUtil.generateAccessToken(user, accessJti, accessExpiresAt), nextToken);
+    }
+
+    /**
+     * End the session the refresh token belongs to: it, its descendants and their access tokens stop working.
+     */
+    public void logout(String refreshToken) {
+        if (refreshToken != null && !refreshToken.isBlank()) {
+            revokeFamily(hash(refreshToken));
+        }
+    }
+
+    // Not at startup: short-lived runs (migration, AppCDS training) must not write
+    @Scheduled(initialDelayString = "${jwt.refresh-cleanup-ms:3600000}",
+               fixedDelayString = "${jwt.refresh-cleanup-ms:3600000}")
+    public void deleteExpiredRefreshTokens() {
+        int deleted = refreshTokenRepository.deleteExpired(Instant.now());
+        logger.debug("Expired refresh tokens deleted: {}", deleted);
+    }
+
+    private List<UUID> revokeFamily(String hash) {
+        List<UUID> revoked = refreshTokenRepository.revokeFamily(hash);
+        revokedTokens.revokeLocally(revoked);
+        return revoked;
+    }
+
+    private NewRefreshToken pending(String refreshToken, AccessToken access) {
+        return new NewRefreshToken(UUID.randomUUID(), hash(refreshToken), Instant.now().plus(refreshLifetime),
+                access.jti(), access.expiresAt());
+    }
+
+    private AuthResponse response(AccessToken access, String refreshToken) {
+        return new AuthResponse(access.token(), refreshToken, "Bearer", jwtUtil.getExpirationMs() / 1000);
+    }
+
+    private String newRefreshToken() {
+        byte[] bytes = new byte[REFRESH_TOKEN_BYTES];
+        random.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    // The token has 256 random bits, so a plain hash is enough (no salt or key stretching)
+    private static String hash(String refreshToken) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(refreshToken.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package ent.orderManagement.service;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import ent.orderManagement.analytics.OrderAnalyticsEngine;
+import ent.orderManagement.cache.OrderCacheInvalidator;
+import ent.orderManagement.payload.CustomerDeletionJob;
+import ent.orderManagement.repository.CustomerDeletionJobRepository;
+import ent.orderManagement.repository.CustomerRepository;
+import ent.orderManagement.repository.OrderJdbcRepository;
+import ent.orderManagement.sharding.OrderDirectory;
+import ent.orderManagement.sharding.Shards;
+
+/**
+ * Works off customer deletion jobs: deletes the customer's orders in chunks of
+ * {@code customers.deletion.chunk-size}, each its own short transaction, pausing between
+ * chunks so the deletion never competes with regular traffic for long, then removes the
+ * customer row. Progress is committed with every chunk, so a job interrupted by a crash or
+ * restart simply continues once its lease expires.
+ *
+ * With sharding, only the main database protects the customer row by foreign key: an order
+ * created on another shard while the customer is purged is not noticed.
+ */
+@Component
+public class CustomerDeletionWorker {
+
+    private static final Logger logger = LoggerFactory.getLogger(CustomerDeletionWorker.class);
+
+    private final CustomerDeletionJobRepository jobRepository;
+    private final CustomerRepository customerRepository;
+    private final OrderJdbcRepository orderJdbcRepository;
+    private final OrderCacheInvalidator orderCacheInvalidator;
+    private final OrderAnalyticsEngine analyticsEngine;
+    private final OrderCounts orderCounts;
+    private final Shards shards;
+    private final OrderDirectory orderDirectory;
+    private final boolean enabled;
+    private final int chunkSize;
+    private final long pauseMs;
+    private final long leaseMs;
+    private final long retryDelayMs;
+
+    public CustomerDeletionWorker(CustomerDeletionJobRepository jobRepository, CustomerRepository customerRepository,
+                                  OrderJdbcRepository orderJdbcRepository, OrderCacheInvalidator orderCacheInvalidator,
+                                  OrderAnalyticsEngine analyticsEngine, OrderCounts orderCounts, Shards shards,
+                                  OrderDirectory orderDirectory,
+                                  @Value("${customers.deletion.enabled:true}") boolean enabled,
+                                  @Value("${customers.deletion.chunk-size:1000}") int chunkSize,
+                                  @Value("${customers.deletion.pause-ms:50}") long pauseMs,
+                                  @Value("${customers.deletion.lease-ms:60000}") long leaseMs,
+                                  @Value("${customers.deletion.retry-delay-ms:30000}") long retryDelayMs) {
+        this.jobRepository = jobRepository;
+        this.customerRepository = customerRepository;
+        this.orderJdbcRepository = orderJdbcRepository;
+        this.orderCacheInvalidator = orderCacheInvalidator;
+        this.analyticsEngine = analyticsEngine;
+        this.orderCounts = orderCounts;
+        this.shards = shards;
+        this.orderDirectory = orderDirectory;
+        this.enabled = enabled;
+        this.chunkSize = chunkSize;
+        this.pauseMs = pauseMs;
+        this.leaseMs = leaseMs;
+        this.retryDelayMs = retryDelayMs;
+    }
+
+    /**
+     * Claim and run jobs until none is left (or this node is shutting down).
+     */
+    @Scheduled(fixedDelayString = "${customers.deletion.poll-ms:2000}")
+    public void runPendingJobs() {
+        if (!enabled) {
+            return;
+        }
+        Optional<CustomerDeletionJob> job;
+        while (!Thread.currentThread().isInterrupted() && (job = jobRepository.claimNext(leaseMs)).isPresent()) {
+            run(job.get());
+        }
+    }
+
+    void run(CustomerDeletionJob job) {
+        UUID customerId = job.getCustomerId();
+        logger.info("Deleting customer {} (job {}, attempt {}, {} orders deleted so far)",
+                customerId, job.getId(), job.getAttempts(), job.getOrdersDeleted());
+        long deletedNow = 0;
+        try {
+            while (true) {
+                List<UUID> deleted = shards.onCustomer(customerId,
+                        () -> orderJdbcRepository.deleteChunkByCustomerId(customerId, chunkSize));
+                if (deleted.isEmpty() && purgeCustomer(customerId)) {
+                    jobRepository.complete(job.getId());
+                    logger.info("Customer {} deleted (job {})", customerId, job.getId());
+                    break;
+                }
+                orderCacheInvalidator.invalidate(deleted);
+                orderCounts.recordChange(customerId, -deleted.size());
+                jobRepository.recordProgress(job.getId(), deleted.size(), leaseMs);
+                deletedNow += deleted.size();
+                if (!pause()) {
+                    return; // shutting down; the lease runs out and the job resumes elsewhere or after restart
+                }
+            }
+        } catch (DataAccessException e) {
+            logger.warn("Deletion of customer {} failed, retrying in {} ms: {}", customerId, retryDelayMs, e.getMessage());
+            jobRepository.fail(job.getId(), e.getMessage(), retryDelayMs);
+        } finally {
+            if (deletedNow > 0) {
+                analyticsEngine.requestReload();
+            }
+        }
+    }
+
+    /**
+     * Remove the customer row once no order references it.
+     * @return false if an order was created meanwhile, so another chunk is needed
+     */
+    private boolean purgeCustomer(UUID customerId) {
+        orderDirectory.forgetCustomer(customerId);
+        try {
+            customerRepository.purgeSoftDeleted(customerId);
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            return false;
+        }
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(pauseMs);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
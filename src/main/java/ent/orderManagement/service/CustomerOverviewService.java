@@ -0,0 +1,102 @@
+package ent.orderManagement.service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import ent.orderManagement.exception.CustomerNotFoundException;
+import ent.orderManagement.exception.OverviewTimeoutException;
+import ent.orderManagement.model.Customer;
+import ent.orderManagement.model.Order;
+import ent.orderManagement.model.Order.StatusEnum;
+import ent.orderManagement.model.OrderEntity;
+import ent.orderManagement.payload.CustomerOverview;
+import ent.orderManagement.payload.StatusRevenue;
+import ent.orderManagement.repository.CustomerRepository;
+import ent.orderManagement.repository.OrderJdbcRepository;
+import ent.orderManagement.sharding.Shards;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Builds the customer overview from three independent queries run at the same time, so the
+ * response takes about as long as the slowest of them. They share the deadline
+ * {@code customers.overview.deadline-ms}; a missing customer, a failed query or the deadline
+ * cancels the queries still running. At most {@code customers.overview.threads} of these
+ * queries (and pooled connections) are in use at once; the rest wait for a thread.
+ */
+@Service
+public class CustomerOverviewService {
+
+    private final CustomerRepository customerRepository;
+    private final OrderJdbcRepository orderJdbcRepository;
+    private final Shards shards;
+    private final Duration deadline;
+    private final ExecutorService queries;
+
+    public CustomerOverviewService(CustomerRepository customerRepository, OrderJdbcRepository orderJdbcRepository,
+                                   Shards shards,
+                                   @Value("${customers.overview.deadline-ms:1000}") long deadlineMs,
+                                   @Value("${customers.overview.threads:16}") int threads) {
+        this.customerRepository = customerRepository;
+        this.orderJdbcRepository = orderJdbcRepository;
+        this.shards = shards;
+        this.deadline = Duration.ofMillis(deadlineMs);
+        AtomicInteger count = new AtomicInteger();
+        this.queries = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "customer-overview-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public CustomerOverview getOverview(UUID customerId, int recentOrders) {
+        try (FanOut scope = new FanOut(queries, deadline)) {
+            Supplier<Customer> customer = scope.fork(() -> customerRepository.findById(customerId)
+                    .orElseThrow(() -> new CustomerNotFoundException("Customer with ID " + customerId + " not found")));
+            Supplier<List<StatusRevenue>> statuses = scope.fork(() -> shards.onCustomer(customerId,
+                    () -> orderJdbcRepository.findStatusTotalsByCustomerId(customerId)));
+            Supplier<List<OrderEntity>> recent = scope.fork(() -> recentOrders == 0
+                    ? List.of()
+                    : shards.onCustomer(customerId, () -> orderJdbcRepository.findRecentByCustomerId(customerId, recentOrders)));
+            scope.join();
+
+            long orderCount = 0;
+            long openOrderCount = 0;
+            BigDecimal totalAmount = BigDecimal.ZERO;
+            for (StatusRevenue status : statuses.get()) {
+                orderCount += status.getOrderCount();
+                totalAmount = totalAmount.add(status.getRevenue());
+                if (status.getStatus() != StatusEnum.COMPLETED && status.getStatus() != StatusEnum.CANCELLED) {
+                    openOrderCount += status.getOrderCount();
+                }
+            }
+            List<Order> orders = recent.get().stream().map(OrderEntity::toOrder).toList();
+            return new CustomerOverview(customer.get(), orderCount, openOrderCount, totalAmount, statuses.get(), orders);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new OverviewTimeoutException("Customer overview took longer than " + deadline.toMillis() + " ms");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OverviewTimeoutException("Interrupted while loading the customer overview");
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        queries.shutdownNow();
+    }
+}
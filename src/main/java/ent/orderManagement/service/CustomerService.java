@@ -1,23 +1,70 @@
 package ent.orderManagement.service;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import ent.orderManagement.audit.AuditTrail;
+import ent.orderManagement.audit.AuditEvent.EntityType;
 import ent.orderManagement.model.Customer;
+import ent.orderManagement.payload.BatchGetResponse;
+import ent.orderManagement.payload.CustomerMatch;
+import ent.orderManagement.payload.CustomerMatch.MatchType;
+import ent.orderManagement.payload.CustomerDeletionJob;
+import ent.orderManagement.payload.CustomerSearchResponse;
+import ent.orderManagement.repository.CustomerDeletionJobRepository;
 import ent.orderManagement.repository.CustomerRepository;
+import ent.orderManagement.repository.CustomerRepository.CustomerChange;
+import ent.orderManagement.repository.CustomerRepository.SearchHit;
+import ent.orderManagement.exception.BatchSizeExceededException;
 import ent.orderManagement.exception.CustomerNotFoundException;
+import ent.orderManagement.exception.DeletionJobNotFoundException;
 import ent.orderManagement.exception.DuplicateUuidException;
+import ent.orderManagement.exception.InvalidSearchException;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class CustomerService {
 
     private final CustomerRepository customerRepository;
+    private final CustomerDeletionJobRepository deletionJobRepository;
+    private final AuditTrail auditTrail;
+    private final int maxBatchSize;
+    private final int maxSearchResults;
+
+    // Trigrams need at least this many characters to say anything useful
+    private static final int MIN_FUZZY_QUERY_LENGTH = 3;
+
+    private static final Comparator<SearchHit> PREFIX_ORDER = Comparator
+            .comparing(SearchHit::key)
+            .thenComparing(hit -> hit.customer().getId());
+
+    // Concurrent reads of the same customer share one DB round trip
+    private final SingleFlight<UUID, Optional<Customer>> customerLoads = new SingleFlight<>();
 
     // Constructor injection: Spring will provide the repository
-    public CustomerService(CustomerRepository customerRepository) {
+    public CustomerService(CustomerRepository customerRepository,
+                           CustomerDeletionJobRepository deletionJobRepository,
+                           AuditTrail auditTrail,
+                           @Value("${customers.batch.max-size:500}") int maxBatchSize,
+                           @Value("${customers.search.max-results:1000}") int maxSearchResults) {
         this.customerRepository = customerRepository;
+        this.deletionJobRepository = deletionJobRepository;
+        this.auditTrail = auditTrail;
+        this.maxBatchSize = maxBatchSize;
+        this.maxSearchResults = maxSearchResults;
     }
 
     /**
@@ -35,13 +82,99 @@ public class CustomerService {
     }
 
     /**
-     * Retrieve a single customer by UUID.
+     * Retrieve a single customer by UUID. Coalesced callers share one load, but each gets its
+     * own copy, so one caller changing the result cannot affect another.
      */
     public Customer getCustomer(UUID customerId) {
-        return customerRepository.findById(customerId)
+        return customerLoads.load(customerId, () -> customerRepository.findById(customerId))
+                .map(CustomerService::copy)
                 .orElseThrow(() -> new CustomerNotFoundException("Customer with ID " + customerId + " not found"));
     }
 
+    private static Customer copy(Customer customer) {
+        Customer copy = new Customer();
+        copy.setId(customer.getId());
+        copy.setName(customer.getName());
+        copy.setEmail(customer.getEmail());
+        copy.setCreatedAt(customer.getCreatedAt());
+        return copy;
+    }
+
+    /**
+     * Retrieve many customers by UUID with one query.
+     * Customers are admin-only, so nothing is ever reported as forbidden.
+     */
+    public BatchGetResponse<Customer> getCustomersByIds(List<UUID> customerIds) {
+        List<UUID> ids = new ArrayList<>(new LinkedHashSet<>(customerIds));
+        if (ids.size() > maxBatchSize) {
+            throw new BatchSizeExceededException(ids.size(), maxBatchSize);
+        }
+
+        Map<UUID, Customer> byId = customerRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Customer::getId, Function.identity()));
+
+        List<Customer> found = new ArrayList<>(byId.size());
+        List<UUID> missing = new ArrayList<>();
+        for (UUID id : ids) {
+            Customer customer = byId.get(id);
+            if (customer != null) {
+                found.add(customer);
+            } else {
+                missing.add(id);
+            }
+        }
+        return new BatchGetResponse<>(found, missing, List.of());
+    }
+
+    /**
+     * Search customers by name or email. Ranking: exact matches, then prefix matches in
+     * alphabetical order, then fuzzy matches by similarity. Only the rows up to the
+     * requested page are read, so deep pages are capped at {@code customers.search.max-results}.
+     */
+    public CustomerSearchResponse searchCustomers(String query, int page, int size) {
+        String q = query.trim().toLowerCase(Locale.ROOT);
+        if (q.isEmpty()) {
+            throw new InvalidSearchException("Search query must not be blank");
+        }
+        int end = (page + 1) * size;
+        if (end > maxSearchResults) {
+            throw new InvalidSearchException("Search results are limited to the first " + maxSearchResults);
+        }
+        int wanted = end + 1; // one more tells whether there is a next page
+
+        List<SearchHit> prefixHits = new ArrayList<>(customerRepository.findByPrefix(q, wanted));
+        prefixHits.sort(PREFIX_ORDER);
+
+        List<CustomerMatch> matches = new ArrayList<>(wanted);
+        Set<UUID> seen = new HashSet<>();
+        for (SearchHit hit : prefixHits) {
+            if (matches.size() == wanted) {
+                break;
+            }
+            if (seen.add(hit.customer().getId())) {
+                MatchType type = hit.key().equals(q) ? MatchType.EXACT : MatchType.PREFIX;
+                matches.add(new CustomerMatch(hit.customer(), type, hit.score()));
+            }
+        }
+        // Exact matches sort first within their field already; this also orders them across fields
+        matches.sort(Comparator.comparing(match -> match.getMatchType() != MatchType.EXACT));
+
+        if (matches.size() < wanted && q.length() >= MIN_FUZZY_QUERY_LENGTH) {
+            for (SearchHit hit : customerRepository.findSimilar(q, wanted + seen.size())) {
+                if (matches.size() == wanted) {
+                    break;
+                }
+                if (seen.add(hit.customer().getId())) {
+                    matches.add(new CustomerMatch(hit.customer(), MatchType.FUZZY, hit.score()));
+                }
+            }
+        }
+
+        int from = Math.min(page * size, matches.size());
+        List<CustomerMatch> results = new ArrayList<>(matches.subList(from, Math.min(end, matches.size())));
+        return new CustomerSearchResponse(query, page, size, matches.size() > end, results);
+    }
+
     /**
      * Retrieve all customers.
      */
@@ -56,28 +189,45 @@ public class CustomerService {
      * @param newData    the new customer data (name, email, etc.)
      */
     public Customer updateCustomer(UUID customerId, Customer newData) {
-         Customer existingCustomer = customerRepository.findById(customerId)
-                .orElseThrow(() -> new CustomerNotFoundException("Customer with ID " + customerId + " not found"));
-
-
-        if (newData.getName() != null) existingCustomer.setName(newData.getName());
-        if (newData.getEmail() != null) existingCustomer.setEmail(newData.getEmail());
-
         try {
-            return customerRepository.update(existingCustomer);
+            CustomerChange change = customerRepository.update(customerId, newData.getName(), newData.getEmail())
+                    .orElseThrow(() -> new CustomerNotFoundException("Customer with ID " + customerId + " not found"));
+            auditTrail.recordUpdate(EntityType.CUSTOMER, customerId, change.before(), change.after());
+            return change.after();
         } catch (DataIntegrityViolationException e) {
             throw new DuplicateUuidException("Cannot update customer due to a database constraint violation.");
-        }}
+        }
+    }
+
+    /**
+     * Delete a customer by ID. The customer is hidden at once; its orders and then the row
+     * itself are deleted in the background by {@link CustomerDeletionWorker}. Deleting a
+     * customer that is already being deleted returns the running job.
+     */
+    @Transactional
+    public CustomerDeletionJob deleteCustomer(UUID customerId) {
+        Optional<Customer> deleted = customerRepository.softDelete(customerId);
+        if (deleted.isEmpty()) {
+            return deletionJobRepository.findActiveByCustomerId(customerId)
+                    .orElseThrow(() -> new CustomerNotFoundException("Customer with ID " + customerId + " not found"));
+        }
+        // Recorded once the customer is hidden; the background purge of its rows is not audited again
+        auditTrail.recordDelete(EntityType.CUSTOMER, customerId, deleted.get());
+        return deletionJobRepository.create(customerId);
+    }
 
     /**
-     * Delete a customer by ID.
+     * Progress of a customer deletion.
      */
-    public void deleteCustomer(UUID customerId) {
-        // Possibly check if customer has active orders, etc.
-        // If you want to prevent deletion in certain scenarios, 
-        // you can do additional checks here.
+    public CustomerDeletionJob getDeletionJob(UUID jobId) {
+        return deletionJobRepository.findById(jobId).orElseThrow(() -> new DeletionJobNotFoundException(jobId));
+    }
 
-        customerRepository.deleteById(customerId);
+    /**
+     * Deletions that have not finished yet, oldest first.
+     */
+    public List<CustomerDeletionJob> getActiveDeletionJobs() {
+        return deletionJobRepository.findActive();
     }
 
     /**
@@ -0,0 +1,165 @@
+package ent.orderManagement.service;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import ent.orderManagement.querybudget.StatementLog;
+
+/**
+ * Runs independent subtasks of one request concurrently under a shared deadline, in the shape
+ * of {@code StructuredTaskScope.ShutdownOnFailure} (which needs a newer Java than this project):
+ * <pre>
+ * try (FanOut scope = new FanOut(executor, deadline)) {
+ *     Supplier&lt;A&gt; a = scope.fork(() -> ...);
+ *     Supplier&lt;B&gt; b = scope.fork(() -> ...);
+ *     scope.join();
+ *     return new Result(a.get(), b.get());
+ * }
+ * </pre>
+ * The first failure or the deadline cancels every other subtask: queued ones never start,
+ * running ones are interrupted and the SQL statement they registered through
+ * {@link #cancellable} is cancelled on the server. Leaving the scope cancels whatever is
+ * still running, so no subtask outlives the request. Statements of subtasks count towards
+ * the query budget of the request that forked them.
+ */
+public final class FanOut implements AutoCloseable {
+
+    private static final ThreadLocal<Subtask<?>> CURRENT = new ThreadLocal<>();
+
+    private final ExecutorService executor;
+    private final long deadline;
+    private final List<Subtask<?>> subtasks = new ArrayList<>();
+    private final BlockingQueue<Subtask<?>> completed = new LinkedBlockingQueue<>();
+    private final StatementLog statementLog = StatementLog.current();
+
+    public FanOut(ExecutorService executor, Duration timeout) {
+        this.executor = executor;
+        this.deadline = System.nanoTime() + timeout.toNanos();
+    }
+
+    /**
+     * Start a subtask. Its result is available from the returned supplier after a successful {@link #join()}.
+     */
+    public <T> Supplier<T> fork(Callable<T> task) {
+        Subtask<T> subtask = new Subtask<>(task);
+        subtasks.add(subtask);
+        subtask.future = executor.submit(subtask::run);
+        return subtask;
+    }
+
+    /**
+     * Wait until every subtask has succeeded.
+     * @throws ExecutionException with the cause of the first subtask that failed
+     * @throws TimeoutException if the deadline passed first
+     */
+    public void join() throws InterruptedException, ExecutionException, TimeoutException {
+        try {
+            for (int remaining = subtasks.size(); remaining > 0; remaining--) {
+                Subtask<?> done = completed.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                if (done == null) {
+                    throw new TimeoutException("Deadline passed with " + remaining + " of " + subtasks.size()
+                            + " subtasks unfinished");
+                }
+                if (done.failure != null) {
+                    throw new ExecutionException(done.failure);
+                }
+            }
+        } finally {
+            close();
+        }
+    }
+
+    /**
+     * Cancel all unfinished subtasks.
+     */
+    @Override
+    public void close() {
+        subtasks.forEach(Subtask::cancel);
+    }
+
+    /**
+     * Register the statement about to be executed by the current subtask, so that cancelling
+     * the subtask cancels the statement too. Outside a subtask the statement is returned as is.
+     */
+    public static <S extends Statement> S cancellable(S statement) throws SQLException {
+        Subtask<?> subtask = CURRENT.get();
+        if (subtask != null) {
+            subtask.statement = statement;
+            if (subtask.cancelled) {
+                statement.cancel();
+            }
+        }
+        return statement;
+    }
+
+    private final class Subtask<T> implements Supplier<T> {
+
+        private final Callable<T> task;
+        private volatile Future<?> future;
+        private volatile Statement statement;
+        private volatile boolean cancelled;
+        private volatile boolean finished;
+        // Published to join() through the completed queue
+        private T result;
+        private Throwable failure;
+
+        Subtask(Callable<T> task) {
+            this.task = task;
+        }
+
+        void run() {
+            CURRENT.set(this);
+            StatementLog.attach(statementLog);
+            try {
+                result = task.call();
+            } catch (Throwable e) {
+                failure = e;
+            } finally {
+                finished = true;
+                statement = null;
+                StatementLog.attach(null);
+                CURRENT.remove();
+                completed.add(this);
+            }
+        }
+
+        void cancel() {
+            if (finished) {
+                return;
+            }
+            cancelled = true;
+            Statement running = statement;
+            if (running != null) {
+                try {
+                    running.cancel();
+                } catch (SQLException e) {
+                    // Already finished or closed
+                }
+            }
+            Future<?> started = future;
+            if (started != null) {
+                started.cancel(true);
+            }
+        }
+
+        @Override
+        public T get() {
+            if (!finished || failure != null) {
+                throw new IllegalStateException("Subtask has not completed successfully");
+            }
+            return result;
+        }
+    }
+}
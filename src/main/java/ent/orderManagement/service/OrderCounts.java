@@ -0,0 +1,198 @@
+package ent.orderManagement.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import ent.orderManagement.payload.CountMode;
+import ent.orderManagement.repository.OrderJdbcRepository;
+import ent.orderManagement.repository.OrderJdbcRepository.CustomerOrderCount;
+import ent.orderManagement.repository.OrderRepository;
+import ent.orderManagement.sharding.Shards;
+
+/**
+ * Totals for order pages, by {@link CountMode}. In every mode a page that is not full ends the
+ * result, and then its total is known without counting.
+ *
+ * CACHED counters (one for all orders, one per recently listed customer) start from an exact
+ * count and follow creates and deletes of this node after commit. Changes made on other nodes
+ * only show up at the next reconciliation, every {@code orders.count.reconcile-ms}.
+ * ESTIMATED counts exactly up to {@code orders.count.exact-below} orders and estimates beyond.
+ */
+@Component
+public class OrderCounts {
+
+    private static final int RECONCILE_CHUNK = 1000;
+
+    private final OrderRepository orderRepository;
+    private final OrderJdbcRepository orderJdbcRepository;
+    private final Shards shards;
+    private final CountMode defaultMode;
+    private final long exactBelow;
+    private final Cache<UUID, AtomicLong> customerCounts;
+    private final AtomicReference<AtomicLong> allOrders = new AtomicReference<>();
+
+    public OrderCounts(OrderRepository orderRepository, OrderJdbcRepository orderJdbcRepository, Shards shards,
+                       @Value("${orders.count.default-mode:EXACT}") String defaultMode,
+                       @Value("${orders.count.exact-below:10000}") long exactBelow,
+                       @Value("${orders.count.cached-customers:100000}") long cachedCustomers,
+                       @Value("${orders.count.customer-idle-ms:3600000}") long customerIdleMs) {
+        this.orderRepository = orderRepository;
+        this.orderJdbcRepository = orderJdbcRepository;
+        this.shards = shards;
+        this.defaultMode = CountMode.valueOf(defaultMode.trim().toUpperCase(Locale.ROOT));
+        this.exactBelow = exactBelow;
+        this.customerCounts = Caffeine.newBuilder()
+                .maximumSize(cachedCustomers)
+                .expireAfterAccess(Duration.ofMillis(customerIdleMs))
+                .build();
+    }
+
+    /**
+     * The mode a request asked for, or the configured default.
+     */
+    public CountMode resolve(CountMode requested) {
+        return requested != null ? requested : defaultMode;
+    }
+
+    /**
+     * A page of the current shard. For CACHED the total only covers what the rows themselves
+     * prove; {@link #total} replaces it with the counter afterwards.
+     * @param customerId whose orders the page lists, null for all orders
+     */
+    public <T> Page<T> shardPage(UUID customerId, Pageable pageable, CountMode mode, List<T> content) {
+        return PageableExecutionUtils.getPage(content, pageable, () -> switch (mode) {
+            case EXACT -> customerId != null ? orderRepository.countByCustomerId(customerId) : orderRepository.count();
+            case ESTIMATED -> Math.max(estimate(customerId), pageable.getOffset() + content.size());
+            case CACHED -> 0;
+        });
+    }
+
+    /**
+     * The total of a page put together from {@link #shardPage}s.
+     */
+    public long total(UUID customerId, CountMode mode, Page<?> page) {
+        if (mode != CountMode.CACHED || endsResult(page)) {
+            return page.getTotalElements();
+        }
+        return Math.max(cached(customerId), page.getPageable().getOffset() + page.getNumberOfElements());
+    }
+
+    /**
+     * Adjust the counters by {@code delta} orders of {@code customerId} once the surrounding
+     * transaction commits.
+     */
+    public void recordChange(UUID customerId, long delta) {
+        if (delta == 0) {
+            return;
+        }
+        TransactionHooks.afterCommit(() -> {
+            AtomicLong customer = customerCounts.getIfPresent(customerId);
+            if (customer != null) {
+                customer.addAndGet(delta);
+            }
+            AtomicLong all = allOrders.get();
+            if (all != null) {
+                all.addAndGet(delta);
+            }
+        });
+    }
+
+    /**
+     * Recount every counter in use. A change applied while its count runs is kept, so a
+     * counter may still be off by the changes committed at that moment, until the next run.
+     */
+    @Scheduled(initialDelayString = "${orders.count.reconcile-ms:60000}",
+               fixedDelayString = "${orders.count.reconcile-ms:60000}")
+    public void reconcile() {
+        AtomicLong all = allOrders.get();
+        if (all != null) {
+            long seen = all.get();
+            all.addAndGet(exactCount(null) - seen);
+        }
+        List<UUID> customers = new ArrayList<>(customerCounts.asMap().keySet());
+        for (int from = 0; from < customers.size(); from += RECONCILE_CHUNK) {
+            reconcile(customers.subList(from, Math.min(from + RECONCILE_CHUNK, customers.size())));
+        }
+    }
+
+    private void reconcile(List<UUID> customers) {
+        Map<UUID, Long> seen = new HashMap<>();
+        customers.forEach(id -> {
+            AtomicLong counter = customerCounts.getIfPresent(id);
+            if (counter != null) {
+                seen.put(id, counter.get());
+            }
+        });
+        // Each customer is counted on its own shard only, as the orders are read
+        Map<UUID, Long> exact = new HashMap<>();
+        shards.onEach(shard -> {
+            List<UUID> here = seen.keySet().stream().filter(id -> shard.equals(shards.shardOf(id))).toList();
+            return here.isEmpty() ? List.<CustomerOrderCount>of() : orderJdbcRepository.countByCustomerIds(here);
+        }).forEach(counts -> counts.forEach(count -> exact.put(count.customerId(), count.orders())));
+        seen.forEach((id, before) -> {
+            AtomicLong counter = customerCounts.getIfPresent(id);
+            if (counter != null) {
+                counter.addAndGet(exact.getOrDefault(id, 0L) - before);
+            }
+        });
+    }
+
+    private long cached(UUID customerId) {
+        if (customerId != null) {
+            return customerCounts.get(customerId, id -> new AtomicLong(exactCount(id))).get();
+        }
+        AtomicLong all = allOrders.get();
+        if (all == null) {
+            allOrders.compareAndSet(null, new AtomicLong(exactCount(null)));
+            all = allOrders.get();
+        }
+        return all.get();
+    }
+
+    private long exactCount(UUID customerId) {
+        if (customerId != null) {
+            return shards.onCustomer(customerId, () -> orderRepository.countByCustomerId(customerId));
+        }
+        return shards.onEach(shard -> orderRepository.count()).stream().mapToLong(Long::longValue).sum();
+    }
+
+    /**
+     * Estimate on the current shard: statistics only where counting would be expensive.
+     */
+    private long estimate(UUID customerId) {
+        if (customerId == null) {
+            long estimated = orderJdbcRepository.estimateCount();
+            return estimated >= exactBelow ? estimated : orderRepository.count();
+        }
+        long counted = orderJdbcRepository.countByCustomerIdUpTo(customerId, exactBelow);
+        return counted < exactBelow ? counted
+                : Math.max(orderJdbcRepository.estimateCountByCustomerId(customerId), exactBelow);
+    }
+
+    // As PageableExecutionUtils decides: a page that is not full is the last one
+    private static boolean endsResult(Page<?> page) {
+        Pageable pageable = page.getPageable();
+        int size = page.getNumberOfElements();
+        if (pageable.isUnpaged()) {
+            return true;
+        }
+        return size < pageable.getPageSize() && (pageable.getOffset() == 0 || size > 0);
+    }
+}
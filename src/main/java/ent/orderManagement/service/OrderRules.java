@@ -0,0 +1,103 @@
+package ent.orderManagement.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import ent.orderManagement.exception.InvalidOrderException;
+import ent.orderManagement.model.Order.StatusEnum;
+import ent.orderManagement.model.OrderItem;
+import ent.orderManagement.model.Role;
+
+/**
+ * Ownership, status transition and total amount rules for orders. Free of any data access,
+ * so the servlet {@link OrderService} and the reactive stack apply exactly the same rules.
+ */
+public final class OrderRules {
+
+    private OrderRules() {
+    }
+
+    /**
+     * Admins may access every order, users only the orders they own.
+     */
+    public static boolean canAccess(Role role, UUID userId, UUID orderCustomerId) {
+        return role == Role.ADMIN || orderCustomerId.equals(userId);
+    }
+
+    /**
+     * Owner to restrict queries to: {@code null} for admins, the user's id otherwise.
+     */
+    public static UUID ownerFilter(Role role, UUID userId) {
+        return role == Role.ADMIN ? null : userId;
+    }
+
+    /**
+     * Example logic for allowed status transitions:
+     *  - If the old status is NEW, we can go to IN_PROGRESS, COMPLETED or CANCELLED.
+     *  - CANCELLED is terminal: a cancelled order keeps that status.
+     *  - Otherwise, no restriction (you can refine logic as needed).
+     */
+    public static boolean canTransitionStatus(StatusEnum oldStatus, StatusEnum newStatus) {
+        if (oldStatus == StatusEnum.NEW) {
+            return (newStatus == StatusEnum.IN_PROGRESS || newStatus == StatusEnum.COMPLETED
+                    || newStatus == StatusEnum.CANCELLED);
+        }
+        if (oldStatus == StatusEnum.CANCELLED) {
+            return newStatus == StatusEnum.CANCELLED;
+        }
+        return true;
+    }
+
+    /**
+     * Statuses an order may be in for a move to {@code target}, derived from {@link #canTransitionStatus}.
+     * The target itself is excluded so a bulk move never rewrites unchanged rows.
+     */
+    public static Set<StatusEnum> allowedSourceStatuses(StatusEnum target) {
+        Set<StatusEnum> allowed = EnumSet.noneOf(StatusEnum.class);
+        for (StatusEnum status : StatusEnum.values()) {
+            if (status != target && canTransitionStatus(status, target)) {
+                allowed.add(status);
+            }
+        }
+        return allowed;
+    }
+
+    /**
+     * Sum of quantity * unitPrice, or null when there are no items.
+     */
+    public static BigDecimal itemsTotal(List<OrderItem> items) {
+        if (items == null || items.isEmpty()) {
+            return null;
+        }
+        BigDecimal total = BigDecimal.ZERO;
+        for (OrderItem item : items) {
+            total = total.add(item.getUnitPrice().multiply(BigDecimal.valueOf(item.getQuantity())));
+        }
+        return total;
+    }
+
+    /**
+     * totalAmount is derived from the items when there are any (a supplied amount must match
+     * to the cent); without items it must be supplied.
+     */
+    public static Float resolveTotalAmount(BigDecimal itemsTotal, Float requested) {
+        if (itemsTotal == null) {
+            if (requested == null) {
+                throw new InvalidOrderException("totalAmount is required for an order without items");
+            }
+            return requested;
+        }
+        BigDecimal total = itemsTotal.setScale(2, RoundingMode.HALF_UP);
+        if (total.signum() <= 0) {
+            throw new InvalidOrderException("Order total must be greater than 0");
+        }
+        if (requested != null && new BigDecimal(requested.toString()).setScale(2, RoundingMode.HALF_UP).compareTo(total) != 0) {
+            throw new InvalidOrderException("totalAmount " + requested + " does not match the sum of items " + total);
+        }
+        return total.floatValue();
+    }
+}
@@ -1,76 +1,258 @@
 package ent.orderManagement.service;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import ent.orderManagement.analytics.OrderAnalyticsEngine;
+import ent.orderManagement.audit.AuditTrail;
+import ent.orderManagement.audit.AuditEvent.EntityType;
+import ent.orderManagement.analytics.OrderFact;
+import ent.orderManagement.cache.CachedOrder;
+import ent.orderManagement.cache.OrderCache;
+import ent.orderManagement.cache.OrderCacheInvalidator;
+import ent.orderManagement.exception.BatchSizeExceededException;
+import ent.orderManagement.exception.InvalidOrderException;
+import ent.orderManagement.jfr.UserLookupEvent;
 import ent.orderManagement.model.*;
 import ent.orderManagement.model.Order.StatusEnum;
+import ent.orderManagement.payload.BatchGetResponse;
+import ent.orderManagement.payload.CountMode;
+import ent.orderManagement.payload.CountedPage;
+import ent.orderManagement.payload.OrderFilter;
+import ent.orderManagement.payload.StatusTransitionOutcome;
+import ent.orderManagement.payload.StatusTransitionOutcome.Result;
+import ent.orderManagement.payload.StatusTransitionRequest;
+import ent.orderManagement.payload.StatusTransitionResponse;
 import ent.orderManagement.repository.CustomerRepository;
+import ent.orderManagement.repository.OrderJdbcRepository;
+import ent.orderManagement.repository.OrderJdbcRepository.OrderStatusChange;
+import ent.orderManagement.repository.OrderJdbcRepository.OrderStatusRow;
+import ent.orderManagement.repository.OrderJdbcRepository.OrderWithItems;
+import ent.orderManagement.repository.OrderItemRepository;
 import ent.orderManagement.repository.OrderRepository;
 import ent.orderManagement.repository.UserRepository;
+import ent.orderManagement.sharding.OrderDirectory;
+import ent.orderManagement.sharding.Shards;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
 public class OrderService {
 
     private final OrderRepository orderRepository;
+    private final OrderJdbcRepository orderJdbcRepository;
+    private final OrderItemRepository orderItemRepository;
     private final CustomerRepository customerRepository;
     private final UserRepository userRepository;
+    private final OrderCache orderCache;
+    private final OrderCacheInvalidator orderCacheInvalidator;
+    private final OrderAnalyticsEngine analyticsEngine;
+    private final Shards shards;
+    private final OrderDirectory orderDirectory;
+    private final AuditTrail auditTrail;
+    private final OrderCounts orderCounts;
+    private final int transitionChunkSize;
+    private final int maxBatchSize;
 
-    public OrderService(OrderRepository orderRepository, CustomerRepository customerRepository, UserRepository userRepository) {
+    // Concurrent identical reads share one DB round trip; authorization still runs per caller
+    private final SingleFlight<UUID, Optional<CachedOrder>> orderLoads = new SingleFlight<>();
+    private final SingleFlight<String, Optional<User>> userLoads = new SingleFlight<>();
+
+    public OrderService(OrderRepository orderRepository, OrderJdbcRepository orderJdbcRepository,
+                        OrderItemRepository orderItemRepository,
+                        CustomerRepository customerRepository, UserRepository userRepository,
+                        OrderCache orderCache, OrderCacheInvalidator orderCacheInvalidator,
+                        OrderAnalyticsEngine analyticsEngine, Shards shards, OrderDirectory orderDirectory,
+                        AuditTrail auditTrail,
+                        OrderCounts orderCounts,
+                        @Value("${orders.status-transition.chunk-size:500}") int transitionChunkSize,
+                        @Value("${orders.batch.max-size:500}") int maxBatchSize) {
         this.orderRepository = orderRepository;
+        this.orderJdbcRepository = orderJdbcRepository;
+        this.orderItemRepository = orderItemRepository;
         this.customerRepository = customerRepository;
         this.userRepository = userRepository;
+        this.orderCache = orderCache;
+        this.orderCacheInvalidator = orderCacheInvalidator;
+        this.analyticsEngine = analyticsEngine;
+        this.shards = shards;
+        this.orderDirectory = orderDirectory;
+        this.auditTrail = auditTrail;
+        this.orderCounts = orderCounts;
+        this.transitionChunkSize = transitionChunkSize;
+        this.maxBatchSize = maxBatchSize;
     }
 
     /**
      * 📝 Get a single order by ID (Admins can see all, Users only their own).
      */
     public Order getOrderById(UUID orderId) {
-        OrderEntity orderEntity = orderRepository.findById(orderId)
-                .orElseThrow(() -> new RuntimeException("Order not found"));
+        CachedOrder loaded = orderCache.get(orderId);
+        if (loaded == null) {
+            loaded = orderLoads.load(orderId, () -> loadOrder(orderId))
+                    .orElseThrow(() -> new RuntimeException("Order not found"));
+        }
+        OrderEntity orderEntity = loaded.entity();
 
         User currentUser = getCurrentUser();
 
-        if (currentUser.getRole() == Role.ADMIN || orderEntity.getCustomerId().equals(currentUser.getId())) {
-            return orderEntity.toOrder(); // Convert Entity -> DTO
+        if (OrderRules.canAccess(currentUser.getRole(), currentUser.getId(), orderEntity.getCustomerId())) {
+            return orderEntity.toOrder() // Convert Entity -> DTO
+                    .items(toOrderItems(loaded.items()));
         } else {
             throw new RuntimeException("Access denied: You can only view your own orders.");
         }
     }
 
+    private Optional<CachedOrder> loadOrder(UUID orderId) {
+        long epoch = orderCache.epoch();
+        Supplier<Optional<OrderWithItems>> lookup = () -> orderJdbcRepository.findByIdWithItems(orderId);
+        Optional<UUID> customerId = orderDirectory.customerOf(orderId);
+        Optional<CachedOrder> loaded = (customerId.isPresent() ? shards.onCustomer(customerId.get(), lookup)
+                : shards.findFirst(lookup))
+                .map(row -> new CachedOrder(row.order(), row.items()));
+        loaded.ifPresent(order -> orderCache.put(orderId, order, epoch));
+        return loaded;
+    }
+
+    /**
+     * Put the most recent orders (by order date, across all shards) into the order cache.
+     * Used by the startup warmup; does nothing if the cache is disabled.
+     * @return how many orders were loaded
+     */
+    public int preloadCache(int limit) {
+        if (!orderCache.isEnabled() || limit <= 0) {
+            return 0;
+        }
+        long epoch = orderCache.epoch();
+        List<OrderEntity> recent = shards.mergePages(
+                PageRequest.of(0, limit, Sort.by(Sort.Direction.DESC, "orderDate")), "id", orderRepository::findAll)
+                .getContent();
+        if (recent.isEmpty()) {
+            return 0;
+        }
+        List<UUID> orderIds = recent.stream().map(OrderEntity::getId).collect(Collectors.toList());
+        Map<UUID, List<OrderItemEntity>> itemsByOrder = shards.collect(null,
+                        () -> orderItemRepository.findByOrderIdInOrderByOrderIdAscLineNumberAsc(orderIds)).stream()
+                .collect(Collectors.groupingBy(OrderItemEntity::getOrderId));
+        recent.forEach(order -> orderCache.put(order.getId(),
+                new CachedOrder(order, itemsByOrder.getOrDefault(order.getId(), List.of())), epoch));
+        return recent.size();
+    }
+
+    /**
+     * 📝 Get many orders by ID with one query (Admins can see all, Users only their own).
+     * Orders of other users are reported as forbidden, unknown ids as missing.
+     */
+    public BatchGetResponse<Order> getOrdersByIds(List<UUID> orderIds, boolean includeItems) {
+        List<UUID> ids = new ArrayList<>(new LinkedHashSet<>(orderIds));
+        if (ids.size() > maxBatchSize) {
+            throw new BatchSizeExceededException(ids.size(), maxBatchSize);
+        }
+
+        User currentUser = getCurrentUser();
+        UUID ownerId = OrderRules.ownerFilter(currentUser.getRole(), currentUser.getId());
+
+        Map<UUID, Order> visible = shards.collect(ownerId, () -> orderJdbcRepository.findByIds(ids, ownerId)).stream()
+                .map(OrderEntity::toOrder)
+                .collect(Collectors.toMap(Order::getId, Function.identity()));
+
+        List<Order> found = new ArrayList<>(visible.size());
+        List<UUID> notVisible = new ArrayList<>();
+        for (UUID id : ids) {
+            Order order = visible.get(id);
+            if (order != null) {
+                found.add(order);
+            } else {
+                notVisible.add(id);
+            }
+        }
+        attachItems(found, ownerId, includeItems);
+
+        // Only users can be denied, so admins never pay for the existence check
+        Set<UUID> forbidden = ownerId == null || notVisible.isEmpty() ? Set.of()
+                : new HashSet<>(shards.collect(null, () -> orderJdbcRepository.findExistingIds(notVisible)));
+        List<UUID> missing = notVisible.stream().filter(id -> !forbidden.contains(id)).collect(Collectors.toList());
+        List<UUID> forbiddenInOrder = notVisible.stream().filter(forbidden::contains).collect(Collectors.toList());
+
+        return new BatchGetResponse<>(found, missing, forbiddenInOrder);
+    }
+
     /**
      * 📝 Create an order (Users can only create orders for themselves).
+     * With items, totalAmount is derived from them (or must match them if given).
      */
     public Order createOrder(Order order) {
         User currentUser = getCurrentUser();
         order.setCustomerId(currentUser.getId()); // Assign current user as customer
 
-        OrderEntity orderEntity = new OrderEntity(order);
-        OrderEntity savedOrder = orderRepository.save(orderEntity);
-        return savedOrder.toOrder();  // Convert Entity -> DTO
+        List<OrderItem> items = order.getItems();
+        order.setTotalAmount(OrderRules.resolveTotalAmount(OrderRules.itemsTotal(items), order.getTotalAmount()));
+
+        return shards.writeFor(currentUser.getId(), () -> {
+            OrderEntity orderEntity = new OrderEntity(order);
+            orderDirectory.record(orderEntity.getId(), orderEntity.getCustomerId());
+            OrderEntity savedOrder = orderRepository.save(orderEntity);
+            orderCacheInvalidator.invalidate(List.of(savedOrder.getId()));
+            analyticsEngine.recordChange(null, OrderFact.of(savedOrder));
+            orderCounts.recordChange(savedOrder.getCustomerId(), 1);
+            return savedOrder.toOrder()  // Convert Entity -> DTO
+                    .items(toOrderItems(saveItems(savedOrder.getId(), items)));
+        });
     }
 
     /**
      * 📝 Update an order (Users can only update their own, Admins can update all).
+     * Supplied items replace the stored ones; without items the stored ones are kept.
      */
     public Order updateOrder(UUID orderId, Order newOrder) {
+        User currentUser = getCurrentUser();
+        return shards.writeOn(locateOrder(orderId, currentUser), () -> updateOrder(orderId, newOrder, currentUser));
+    }
+
+    private Order updateOrder(UUID orderId, Order newOrder, User currentUser) {
         OrderEntity existingOrder = orderRepository.findById(orderId)
                 .orElseThrow(() -> new RuntimeException("Order not found"));
-        
-        User currentUser = getCurrentUser();
 
-        if (currentUser.getRole() == Role.ADMIN || existingOrder.getCustomerId().equals(currentUser.getId())) {
+        if (OrderRules.canAccess(currentUser.getRole(), currentUser.getId(), existingOrder.getCustomerId())) {
+            OrderFact before = OrderFact.of(existingOrder);
+            Order previous = existingOrder.toOrder();
             existingOrder.setOrderDate(newOrder.getOrderDate());
-            existingOrder.setTotalAmount(newOrder.getTotalAmount());
+
+            List<OrderItemEntity> items;
+            List<OrderItemEntity> previousItems;
+            if (newOrder.getItems() != null && !newOrder.getItems().isEmpty()) {
+                existingOrder.setTotalAmount(OrderRules.resolveTotalAmount(OrderRules.itemsTotal(newOrder.getItems()), newOrder.getTotalAmount()));
+                previousItems = orderJdbcRepository.deleteItemsByOrderId(orderId);
+                items = saveItems(orderId, newOrder.getItems());
+            } else {
+                items = orderItemRepository.findByOrderIdOrderByLineNumber(orderId);
+                previousItems = items;
+                BigDecimal storedTotal = items.isEmpty() ? null
+                        : items.stream().map(OrderItemEntity::lineTotal).reduce(BigDecimal.ZERO, BigDecimal::add);
+                existingOrder.setTotalAmount(OrderRules.resolveTotalAmount(storedTotal, newOrder.getTotalAmount()));
+            }
 
             // Validate status transition
-            if (!canTransitionStatus(existingOrder.getStatus(), newOrder.getStatus())) {
+            if (!OrderRules.canTransitionStatus(existingOrder.getStatus(), newOrder.getStatus())) {
                 throw new IllegalStateException(
                     "Invalid status transition: " + existingOrder.getStatus() + " -> " + newOrder.getStatus()
                 );
@@ -78,7 +260,11 @@ public class OrderService {
 
             existingOrder.setStatus(newOrder.getStatus());
             OrderEntity updatedOrder = orderRepository.save(existingOrder);
-            return updatedOrder.toOrder(); // Convert Entity -> DTO
+            orderCacheInvalidator.invalidate(List.of(orderId));
+            analyticsEngine.recordChange(before, OrderFact.of(updatedOrder));
+            Order updated = updatedOrder.toOrder().items(toOrderItems(items)); // Convert Entity -> DTO
+            auditTrail.recordUpdate(EntityType.ORDER, orderId, previous.items(toOrderItems(previousItems)), updated);
+            return updated;
         } else {
             throw new RuntimeException("Access denied: You can only update your own orders.");
         }
@@ -88,55 +274,266 @@ public class OrderService {
      * 📝 Delete an order (Users can only delete their own, Admins can delete all).
      */
     public void deleteOrder(UUID orderId) {
-        OrderEntity order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new RuntimeException("Order not found"));
         User currentUser = getCurrentUser();
+        shards.writeOn(locateOrder(orderId, currentUser), () -> {
+            OrderWithItems found = orderJdbcRepository.findByIdWithItems(orderId)
+                    .orElseThrow(() -> new RuntimeException("Order not found"));
 
-        if (currentUser.getRole() == Role.ADMIN || order.getCustomerId().equals(currentUser.getId())) {
-            orderRepository.deleteById(orderId);
-        } else {
-            throw new RuntimeException("Access denied: You can only delete your own orders.");
+            if (OrderRules.canAccess(currentUser.getRole(), currentUser.getId(), found.order().getCustomerId())) {
+                // The order as deleted, so changes made since it was read are part of the record
+                OrderEntity order = orderJdbcRepository.deleteById(orderId)
+                        .orElseThrow(() -> new RuntimeException("Order not found"));
+                orderCacheInvalidator.invalidate(List.of(orderId));
+                TransactionHooks.afterCommit(() -> orderDirectory.forget(List.of(orderId)));
+                analyticsEngine.recordChange(OrderFact.of(order), null);
+                orderCounts.recordChange(order.getCustomerId(), -1);
+                auditTrail.recordDelete(EntityType.ORDER, orderId, order.toOrder().items(toOrderItems(found.items())));
+            } else {
+                throw new RuntimeException("Access denied: You can only delete your own orders.");
+            }
+            return null;
+        });
+    }
+
+    /**
+     * The shard to change an order known only by its id on. A USER can only change their own
+     * orders, so that is their shard; otherwise the shard of the order's customer, or, for an
+     * order the order directory does not know, whichever shard has it.
+     */
+    private String locateOrder(UUID orderId, User currentUser) {
+        UUID ownerId = OrderRules.ownerFilter(currentUser.getRole(), currentUser.getId());
+        if (ownerId != null) {
+            return shards.shardOf(ownerId);
+        }
+        Optional<UUID> customerId = orderDirectory.customerOf(orderId);
+        if (customerId.isPresent()) {
+            return shards.shardOf(customerId.get());
         }
+        return shards.locate(() -> !orderJdbcRepository.findExistingIds(List.of(orderId)).isEmpty())
+                .orElseThrow(() -> new RuntimeException("Order not found"));
     }
 
     /**
-     * 📝 Get all orders with pagination (Admins see all, Users see their own).
+     * 📝 Get all orders with pagination (Admins see all, Users see their own), including their items.
      */
     public Page<Order> getOrders(Pageable pageable) {
+        return getOrders(pageable, true, null);
+    }
+
+    /**
+     * 📝 Get all orders with pagination. Items of the whole page are loaded with one query,
+     * or left out entirely ({@code items == null}) when {@code includeItems} is false.
+     * The total is computed as {@code countMode} says (null: orders.count.default-mode).
+     */
+    public CountedPage<Order> getOrders(Pageable pageable, boolean includeItems, CountMode countMode) {
         User currentUser = getCurrentUser();
         Page<OrderEntity> orderPage;
+        UUID ownerId = OrderRules.ownerFilter(currentUser.getRole(), currentUser.getId());
+        CountMode mode = orderCounts.resolve(countMode);
 
-        if (currentUser.getRole() == Role.ADMIN) {
-            orderPage = orderRepository.findAll(pageable); // Admin sees all orders
+        if (ownerId == null) {
+            orderPage = shards.mergePages(pageable, "id", page ->
+                    orderCounts.shardPage(null, page, mode, orderRepository.findAllBy(page))); // Admin sees all orders
         } else {
-            orderPage = orderRepository.findByCustomerId(currentUser.getId(), pageable); // Users see only their orders
+            orderPage = shards.onCustomer(ownerId, () -> orderCounts.shardPage(ownerId, pageable, mode,
+                    orderRepository.findAllByCustomerId(ownerId, pageable))); // Users see only their orders
         }
 
         List<Order> orderList = orderPage.getContent().stream()
                 .map(OrderEntity::toOrder) // Convert Entities -> DTOs
                 .collect(Collectors.toList());
 
-        return new PageImpl<>(orderList, pageable, orderPage.getTotalElements());
+        attachItems(orderList, ownerId, includeItems);
+
+        return new CountedPage<>(orderList, pageable, orderCounts.total(ownerId, mode, orderPage), mode);
     }
 
     /**
-     * 🛑 Get the currently authenticated user.
+     * Load the items of all given orders with one query (per shard), or set them to null when not wanted.
      */
-    private User getCurrentUser() {
-        String username = SecurityContextHolder.getContext().getAuthentication().getName();
-        return userRepository.findByUsername(username)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
+    private void attachItems(List<Order> orders, UUID ownerId, boolean includeItems) {
+        if (!includeItems) {
+            orders.forEach(order -> order.setItems(null));
+            return;
+        }
+        if (orders.isEmpty()) {
+            return;
+        }
+        Map<UUID, List<OrderItem>> itemsByOrder = itemsByOrder(orders, ownerId);
+        orders.forEach(order -> order.setItems(itemsByOrder.getOrDefault(order.getId(), List.of())));
+    }
+
+    private Map<UUID, List<OrderItem>> itemsByOrder(List<Order> orders, UUID ownerId) {
+        List<UUID> orderIds = orders.stream().map(Order::getId).collect(Collectors.toList());
+        return shards.collect(ownerId,
+                        () -> orderItemRepository.findByOrderIdInOrderByOrderIdAscLineNumberAsc(orderIds)).stream()
+                .collect(Collectors.groupingBy(OrderItemEntity::getOrderId,
+                        Collectors.mapping(OrderItemEntity::toOrderItem, Collectors.toList())));
     }
 
     /**
-     * Example logic for allowed status transitions:
-     *  - If the old status is NEW, we can go to IN_PROGRESS or COMPLETED.
-     *  - Otherwise, no restriction (you can refine logic as needed).
+     * 📝 Items of many orders with one query (per shard), by order id, leaving the orders
+     * themselves untouched. Orders the current user may not access get no items.
      */
-    private boolean canTransitionStatus(StatusEnum oldStatus, StatusEnum newStatus) {
-        if (oldStatus == StatusEnum.NEW) {
-            return (newStatus == StatusEnum.IN_PROGRESS || newStatus == StatusEnum.COMPLETED);
+    public Map<UUID, List<OrderItem>> getItemsByOrders(List<Order> orders) {
+        User currentUser = getCurrentUser();
+        List<Order> accessible = orders.stream()
+                .filter(order -> OrderRules.canAccess(currentUser.getRole(), currentUser.getId(), order.getCustomerId()))
+                .collect(Collectors.toList());
+        if (accessible.isEmpty()) {
+            return Map.of();
         }
-        return true;
+        return itemsByOrder(accessible, OrderRules.ownerFilter(currentUser.getRole(), currentUser.getId()));
+    }
+
+    /**
+     * 📝 The latest {@code perCustomer} orders (without items) of each given customer, newest
+     * first, with one query (per shard). Users only get their own; other customers have none.
+     */
+    public Map<UUID, List<Order>> getRecentOrdersByCustomers(Collection<UUID> customerIds, int perCustomer) {
+        User currentUser = getCurrentUser();
+        UUID ownerId = OrderRules.ownerFilter(currentUser.getRole(), currentUser.getId());
+        List<UUID> ids = customerIds.stream()
+                .distinct()
+                .filter(id -> ownerId == null || id.equals(ownerId))
+                .collect(Collectors.toList());
+        if (ids.isEmpty() || perCustomer <= 0) {
+            return Map.of();
+        }
+        return shards.collect(ownerId, () -> orderJdbcRepository.findRecentByCustomerIds(ids, perCustomer)).stream()
+                .map(OrderEntity::toOrder)
+                .collect(Collectors.groupingBy(Order::getCustomerId, Collectors.toList()));
+    }
+
+    private List<OrderItemEntity> saveItems(UUID orderId, List<OrderItem> items) {
+        if (items == null || items.isEmpty()) {
+            return List.of();
+        }
+        List<OrderItemEntity> entities = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            entities.add(new OrderItemEntity(orderId, i + 1, items.get(i)));
+        }
+        return orderItemRepository.saveAll(entities);
+    }
+
+    private static List<OrderItem> toOrderItems(List<OrderItemEntity> entities) {
+        return entities.stream().map(OrderItemEntity::toOrderItem).collect(Collectors.toList());
+    }
+
+    /**
+     * 📝 Move many orders to one status at once (Users only their own, Admins all).
+     * Each chunk is a single set-based UPDATE that only touches rows whose current status
+     * may transition to the target; rows it did not touch are explained per id. Every
+     * updated order gets its own audit record, with the status it had before.
+     */
+    public StatusTransitionResponse transitionStatuses(StatusTransitionRequest request) {
+        User currentUser = getCurrentUser();
+        UUID ownerId = OrderRules.ownerFilter(currentUser.getRole(), currentUser.getId());
+        StatusEnum target = request.getTargetStatus();
+        Set<StatusEnum> allowedFrom = OrderRules.allowedSourceStatuses(target);
+
+        List<OrderStatusChange> changes = new ArrayList<>();
+        List<StatusTransitionOutcome> results = request.getIds() != null
+                ? transitionByIds(request.getIds(), target, allowedFrom, ownerId, changes)
+                : transitionByFilter(request.getFilter(), request.getLimit() != null ? request.getLimit() : 1000,
+                        target, allowedFrom, ownerId, changes);
+
+        List<UUID> updatedIds = results.stream()
+                .filter(r -> r.getResult() == Result.UPDATED)
+                .map(StatusTransitionOutcome::getId)
+                .collect(Collectors.toList());
+        orderCacheInvalidator.invalidate(updatedIds);
+        if (!updatedIds.isEmpty()) {
+            analyticsEngine.requestReload(); // one reload instead of a change per row
+        }
+        changes.forEach(change -> auditTrail.recordUpdate(EntityType.ORDER, change.id(), change.before(), change.after()));
+
+        int updated = updatedIds.size();
+        return new StatusTransitionResponse(target, updated, results.size() - updated, results);
+    }
+
+    private List<StatusTransitionOutcome> transitionByIds(List<UUID> requestedIds, StatusEnum target,
+                                                          Set<StatusEnum> allowedFrom, UUID ownerId,
+                                                          List<OrderStatusChange> changes) {
+        List<UUID> ids = new ArrayList<>(new LinkedHashSet<>(requestedIds));
+        Set<UUID> updatedIds = new HashSet<>();
+        for (int from = 0; from < ids.size(); from += transitionChunkSize) {
+            List<UUID> chunk = ids.subList(from, Math.min(from + transitionChunkSize, ids.size()));
+            List<OrderStatusChange> updated = shards.collect(ownerId,
+                    () -> orderJdbcRepository.updateStatusByIds(chunk, target, allowedFrom, ownerId));
+            updated.forEach(change -> updatedIds.add(change.id()));
+            changes.addAll(updated);
+        }
+
+        List<UUID> notUpdated = ids.stream().filter(id -> !updatedIds.contains(id)).collect(Collectors.toList());
+        Map<UUID, OrderStatusRow> rows = notUpdated.isEmpty() ? Map.of()
+                : shards.collect(null, () -> orderJdbcRepository.findStatusRows(notUpdated)).stream()
+                        .collect(Collectors.toMap(OrderStatusRow::id, Function.identity()));
+
+        List<StatusTransitionOutcome> results = new ArrayList<>(ids.size());
+        for (UUID id : ids) {
+            if (updatedIds.contains(id)) {
+                results.add(new StatusTransitionOutcome(id, Result.UPDATED, target));
+                continue;
+            }
+            OrderStatusRow row = rows.get(id);
+            if (row == null) {
+                results.add(new StatusTransitionOutcome(id, Result.NOT_FOUND, null));
+            } else if (ownerId != null && !row.customerId().equals(ownerId)) {
+                results.add(new StatusTransitionOutcome(id, Result.FORBIDDEN, null));
+            } else if (row.status() == target) {
+                results.add(new StatusTransitionOutcome(id, Result.UNCHANGED, row.status()));
+            } else if (!allowedFrom.contains(row.status())) {
+                results.add(new StatusTransitionOutcome(id, Result.INVALID_TRANSITION, row.status()));
+            } else {
+                results.add(new StatusTransitionOutcome(id, Result.CONFLICT, row.status()));
+            }
+        }
+        return results;
+    }
+
+    private List<StatusTransitionOutcome> transitionByFilter(OrderFilter filter, int limit, StatusEnum target,
+                                                             Set<StatusEnum> allowedFrom, UUID ownerId,
+                                                             List<OrderStatusChange> changes) {
+        List<StatusTransitionOutcome> results = new ArrayList<>();
+        int remaining = limit;
+        UUID customerId = ownerId != null ? ownerId : filter.getCustomerId();
+        // Shard by shard, so the limit holds across all of them
+        for (String shard : shards.targets(customerId)) {
+            while (remaining > 0) {
+                int chunkSize = Math.min(transitionChunkSize, remaining);
+                List<OrderStatusChange> updated = shards.on(shard,
+                        () -> orderJdbcRepository.updateStatusByFilter(filter, target, allowedFrom, ownerId, chunkSize));
+                updated.forEach(change -> results.add(new StatusTransitionOutcome(change.id(), Result.UPDATED, target)));
+                changes.addAll(updated);
+                remaining -= updated.size();
+                if (updated.size() < chunkSize) {
+                    break;
+                }
+            }
+        }
+
+        // Matching orders the rules do not allow to move (orders already in the target status are not reported)
+        Set<StatusEnum> skipped = EnumSet.copyOf(allowedFrom);
+        skipped.add(target);
+        shards.collect(customerId, () -> orderJdbcRepository.findByFilterExcludingStatuses(filter, skipped, ownerId, limit))
+                .stream().limit(limit).forEach(row ->
+                        results.add(new StatusTransitionOutcome(row.id(), Result.INVALID_TRANSITION, row.status())));
+        return results;
+    }
+
+    /**
+     * 🛑 Get the currently authenticated user.
+     */
+    private User getCurrentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        // JwtRequestFilter built the user from the token's claims, without a database lookup
+        if (authentication.getPrincipal() instanceof User user) {
+            return user;
+        }
+        String username = authentication.getName();
+        return userLoads.load(username,
+                        () -> UserLookupEvent.record(username, () -> userRepository.findByUsername(username)))
+                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
     }
 }
@@ -0,0 +1,109 @@
+package ent.orderManagement.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Request coalescing ("single flight"): concurrent {@link #load} calls for the same key
+ * share one execution of the loader. The first caller runs it on its own thread, the
+ * others wait for its result. Nothing is cached, the entry is removed as soon as the
+ * load finishes, so the next caller after that triggers a fresh load.
+ *
+ * Keys are spread over independent stripes so unrelated keys never contend, and no
+ * lock is held by this class. Memory is bounded: when a stripe already has
+ * {@code maxInFlightPerStripe} loads in flight, further keys load without coalescing.
+ */
+public final class SingleFlight<K, V> {
+
+    public static final int DEFAULT_STRIPES = 32;
+    public static final int DEFAULT_MAX_IN_FLIGHT_PER_STRIPE = 256;
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>>[] stripes;
+    private final int mask;
+    private final int maxInFlightPerStripe;
+
+    public SingleFlight() {
+        this(DEFAULT_STRIPES, DEFAULT_MAX_IN_FLIGHT_PER_STRIPE);
+    }
+
+    @SuppressWarnings("unchecked")
+    public SingleFlight(int stripeCount, int maxInFlightPerStripe) {
+        int n = 1;
+        while (n < stripeCount) {
+            n <<= 1;
+        }
+        this.stripes = new ConcurrentHashMap[n];
+        for (int i = 0; i < n; i++) {
+            stripes[i] = new ConcurrentHashMap<>();
+        }
+        this.mask = n - 1;
+        this.maxInFlightPerStripe = maxInFlightPerStripe;
+    }
+
+    /**
+     * Return the loader's result, sharing an in-flight execution for the same key if there is one.
+     * Exceptions thrown by the loader are rethrown to every caller that waited for it.
+     */
+    public V load(K key, Supplier<V> loader) {
+        ConcurrentHashMap<K, CompletableFuture<V>> stripe = stripes[spread(key.hashCode()) & mask];
+
+        CompletableFuture<V> inFlight = stripe.get(key);
+        if (inFlight == null) {
+            if (stripe.size() >= maxInFlightPerStripe) {
+                return loader.get();
+            }
+            CompletableFuture<V> mine = new CompletableFuture<>();
+            inFlight = stripe.putIfAbsent(key, mine);
+            if (inFlight == null) {
+                return lead(stripe, key, mine, loader);
+            }
+        }
+        return await(inFlight);
+    }
+
+    /**
+     * Number of loads currently in flight (for tests and metrics).
+     */
+    public int inFlight() {
+        int total = 0;
+        for (ConcurrentHashMap<K, CompletableFuture<V>> stripe : stripes) {
+            total += stripe.size();
+        }
+        return total;
+    }
+
+    private V lead(ConcurrentHashMap<K, CompletableFuture<V>> stripe, K key,
+                   CompletableFuture<V> mine, Supplier<V> loader) {
+        try {
+            V value = loader.get();
+            mine.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            stripe.remove(key, mine);
+        }
+    }
+
+    private static <V> V await(CompletableFuture<V> inFlight) {
+        try {
+            return inFlight.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -0,0 +1,189 @@
+package ent.orderManagement.service;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import ent.orderManagement.analytics.OrderAnalyticsEngine;
+import ent.orderManagement.audit.AuditEvent.EntityType;
+import ent.orderManagement.audit.AuditTrail;
+import ent.orderManagement.cache.OrderCacheInvalidator;
+import ent.orderManagement.model.Order.StatusEnum;
+import ent.orderManagement.repository.OrderJdbcRepository;
+import ent.orderManagement.repository.OrderJdbcRepository.OrderStatusChange;
+import ent.orderManagement.sharding.Shards;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Moves orders that stayed NEW for longer than {@code orders.expiry.max-age-minutes} to
+ * {@code orders.expiry.target-status}. Each run starts {@code orders.expiry.concurrency}
+ * workers that claim batches of {@code orders.expiry.batch-size} with FOR UPDATE SKIP LOCKED
+ * and commit every batch on its own, so any number of nodes can run it at the same time:
+ * they split the work instead of blocking on each other, and a crash loses at most one batch
+ * (which is simply claimed again). Every expired order is audited like any other status
+ * change. Opt-in through {@code orders.expiry.enabled}.
+ */
+@Component
+public class StaleOrderExpiryWorker {
+
+    private static final Logger logger = LoggerFactory.getLogger(StaleOrderExpiryWorker.class);
+
+    private final OrderJdbcRepository orderJdbcRepository;
+    private final OrderCacheInvalidator orderCacheInvalidator;
+    private final OrderAnalyticsEngine analyticsEngine;
+    private final Shards shards;
+    private final AuditTrail auditTrail;
+    private final boolean enabled;
+    private final StatusEnum targetStatus;
+    private final Duration maxAge;
+    private final int batchSize;
+    private final int concurrency;
+    private final long pauseMs;
+    private final ExecutorService workers;
+    private final Counter expired;
+    private final Timer batchTimer;
+
+    public StaleOrderExpiryWorker(OrderJdbcRepository orderJdbcRepository, OrderCacheInvalidator orderCacheInvalidator,
+                                  OrderAnalyticsEngine analyticsEngine, Shards shards, AuditTrail auditTrail,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${orders.expiry.enabled:false}") boolean enabled,
+                                  @Value("${orders.expiry.target-status:CANCELLED}") StatusEnum targetStatus,
+                                  @Value("${orders.expiry.max-age-minutes:4320}") long maxAgeMinutes,
+                                  @Value("${orders.expiry.batch-size:500}") int batchSize,
+                                  @Value("${orders.expiry.concurrency:2}") int concurrency,
+                                  @Value("${orders.expiry.pause-ms:20}") long pauseMs) {
+        // Expiring is a regular status change, so it must be one the order rules allow
+        if (targetStatus == StatusEnum.NEW || !OrderRules.canTransitionStatus(StatusEnum.NEW, targetStatus)) {
+            throw new IllegalArgumentException("orders.expiry.target-status: NEW orders cannot move to " + targetStatus);
+        }
+        this.orderJdbcRepository = orderJdbcRepository;
+        this.orderCacheInvalidator = orderCacheInvalidator;
+        this.analyticsEngine = analyticsEngine;
+        this.shards = shards;
+        this.auditTrail = auditTrail;
+        this.enabled = enabled;
+        this.targetStatus = targetStatus;
+        this.maxAge = Duration.ofMinutes(maxAgeMinutes);
+        this.batchSize = batchSize;
+        this.concurrency = concurrency;
+        this.pauseMs = pauseMs;
+
+        AtomicInteger threads = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(concurrency, runnable -> {
+            Thread thread = new Thread(runnable, "order-expiry-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.expired = Counter.builder("orders.expired")
+                .description("Stale NEW orders moved to the expiry status")
+                .tag("status", targetStatus.name())
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("orders.expiry.batch")
+                .description("Time to claim and update one batch of stale orders")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${orders.expiry.poll-ms:60000}")
+    public void expireStaleOrders() {
+        if (enabled) {
+            run();
+        }
+    }
+
+    /**
+     * Expire everything that is stale as of now, using all workers of this node, one shard after another.
+     * @return how many orders this node expired
+     */
+    public long run() {
+        Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minus(maxAge));
+        long started = System.nanoTime();
+
+        List<String> names = shards.names();
+        List<Future<Long>> runs = new ArrayList<>(concurrency * names.size());
+        for (String shard : names) {
+            for (int i = 0; i < concurrency; i++) {
+                runs.add(workers.submit(() -> shards.on(shard, () -> drain(cutoff))));
+            }
+        }
+        long total = 0;
+        for (Future<Long> run : runs) {
+            try {
+                total += run.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                runs.forEach(r -> r.cancel(true));
+                break;
+            } catch (ExecutionException e) {
+                logger.warn("Order expiry worker failed", e.getCause());
+            }
+        }
+
+        if (total > 0) {
+            analyticsEngine.requestReload(); // one reload instead of a change per row
+            long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+            logger.info("Expired {} stale NEW orders to {} in {} ms", total, targetStatus, elapsedMs);
+        }
+        return total;
+    }
+
+    private long drain(Timestamp cutoff) {
+        long total = 0;
+        while (!Thread.currentThread().isInterrupted()) {
+            List<OrderStatusChange> changes;
+            long start = System.nanoTime();
+            try {
+                changes = orderJdbcRepository.expireStaleNewOrders(cutoff, targetStatus, batchSize);
+            } catch (DataAccessException e) {
+                logger.warn("Expiring stale orders failed, retrying on the next run: {}", e.getMessage());
+                break;
+            } finally {
+                batchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+            if (!changes.isEmpty()) {
+                expired.increment(changes.size());
+                orderCacheInvalidator.invalidate(changes.stream().map(OrderStatusChange::id).collect(Collectors.toList()));
+                changes.forEach(change -> auditTrail.recordUpdate(EntityType.ORDER, change.id(), change.before(), change.after()));
+                total += changes.size();
+            }
+            // A short batch means nothing unclaimed is left for this worker
+            if (changes.size() < batchSize || !pause()) {
+                break;
+            }
+        }
+        return total;
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(pauseMs);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+}
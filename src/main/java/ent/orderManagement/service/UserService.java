@@ -1,5 +1,6 @@
 package ent.orderManagement.service;
 
+import ent.orderManagement.jfr.UserLookupEvent;
 import ent.orderManagement.model.Role;
 import ent.orderManagement.model.User;
 import ent.orderManagement.repository.UserRepository;
@@ -32,7 +33,7 @@ public class UserService implements UserDetailsService {
      */
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        return userRepository.findByUsername(username)
+        return UserLookupEvent.record(username, () -> userRepository.findByUsername(username))
                 .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
     }
 
@@ -0,0 +1,84 @@
+package ent.orderManagement.sharding;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Places customers on shards by consistent hashing: every shard owns {@code virtualNodes}
+ * points on a 64-bit ring, and a customer belongs to the shard owning the first point at or
+ * after the hash of its id. Adding a shard to a ring of n moves about 1/(n+1) of the
+ * customers, all of them to the new shard.
+ *
+ * The hashes only depend on the shard names and the customer id, so every node (and the
+ * resharding tool) computes the same placement from the same {@code sharding.ring}.
+ */
+public final class ConsistentHashRing {
+
+    private final List<String> shards;
+    private final long[] points;   // sorted
+    private final String[] owners; // owners[i] owns points[i]
+
+    public ConsistentHashRing(List<String> shards, int virtualNodes) {
+        if (shards.isEmpty() || virtualNodes < 1) {
+            throw new IllegalArgumentException("A ring needs at least one shard and one virtual node per shard");
+        }
+        this.shards = List.copyOf(shards);
+        int size = shards.size() * virtualNodes;
+        long[] hashes = new long[size];
+        Integer[] order = new Integer[size];
+        for (int s = 0; s < shards.size(); s++) {
+            long base = nameHash(shards.get(s));
+            for (int v = 0; v < virtualNodes; v++) {
+                int i = s * virtualNodes + v;
+                hashes[i] = mix(base + v * 0x9e3779b97f4a7c15L);
+                order[i] = i;
+            }
+        }
+        Arrays.sort(order, (a, b) -> Long.compare(hashes[a], hashes[b]));
+        this.points = new long[size];
+        this.owners = new String[size];
+        for (int i = 0; i < size; i++) {
+            points[i] = hashes[order[i]];
+            owners[i] = shards.get(order[i] / virtualNodes);
+        }
+    }
+
+    public List<String> shards() {
+        return shards;
+    }
+
+    public String shardFor(UUID customerId) {
+        long hash = hash(customerId);
+        int i = Arrays.binarySearch(points, hash);
+        if (i < 0) {
+            i = -i - 1;
+        }
+        return owners[i == points.length ? 0 : i];
+    }
+
+    static long hash(UUID id) {
+        return mix(id.getMostSignificantBits() ^ mix(id.getLeastSignificantBits()));
+    }
+
+    // FNV-1a, stable across JVMs (unlike String.hashCode spreading)
+    private static long nameHash(String name) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : name.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b;
+            h *= 0x100000001b3L;
+        }
+        return h;
+    }
+
+    // MurmurHash3 finalizer
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
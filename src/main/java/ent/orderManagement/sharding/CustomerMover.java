@@ -0,0 +1,323 @@
+package ent.orderManagement.sharding;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Moves customers' orders (with their items) from one shard to another while the application
+ * keeps serving them.
+ *
+ * <ol>
+ *   <li>Copy: the orders are copied to the target while the source still takes writes. The
+ *       oldest transaction still running on the source is recorded first as the watermark.</li>
+ *   <li>Fence: the customer is entered in the source's 'shard_fences'. From then on the source
+ *       rejects its order writes (SQLSTATE {@value #FENCED_SQLSTATE}, answered with 503 and
+ *       {@code Retry-After}); writes already in flight are waited for.</li>
+ *   <li>Catch up: orders (or their items) written by a transaction from the watermark on are
+ *       copied again and orders deleted since are removed; usually none or a few. Nothing
+ *       else is compared or copied, so this does not grow with the customer's history.</li>
+ *   <li>Switch: the shard directory sends the customer to the target.</li>
+ *   <li>Purge: once every node has picked up the switch ({@code sharding.move.grace-ms}), the
+ *       source copy is deleted. The fence stays, so a node that somehow still routes there
+ *       keeps failing instead of writing orders nobody reads.</li>
+ * </ol>
+ *
+ * Writes are rejected from the fence until every node has picked up the switch with its next
+ * shard directory refresh ({@code sharding.directory.refresh-ms}): the catch-up plus up to
+ * one refresh interval, not just until the switch.
+ */
+@Component
+public class CustomerMover {
+
+    private static final Logger logger = LoggerFactory.getLogger(CustomerMover.class);
+
+    /**
+     * Advisory lock key: order writes hold it shared (fence trigger), fencing holds it exclusively.
+     */
+    public static final long FENCE_LOCK = 0x4f4d5f46454e4345L;
+    public static final String FENCED_SQLSTATE = "OM001";
+    /**
+     * Session setting under which the fence trigger lets writes through (copying and purging).
+     */
+    public static final String MOVING_SETTING = "order_management.moving";
+
+    private static final String ORDER_COLUMNS = "id, customer_id, order_date, total_amount, status, created_at";
+    private static final String ITEM_COLUMNS = "id, order_id, line_number, product_code, name, quantity, unit_price";
+
+    // Order row and its items (in line order) as one hash, to find orders that differ between shards
+    private static final String FINGERPRINTS = "SELECT o.id, md5(o::text || coalesce((SELECT string_agg(i::text, ','"
+            + " ORDER BY i.line_number, i.id) FROM order_items i WHERE i.order_id = o.id), '')) AS fingerprint"
+            + " FROM orders o WHERE o.customer_id = ?";
+
+    // Oldest transaction still running: everything older is visible to any read that starts later
+    private static final String WATERMARK = "SELECT (txid_snapshot_xmin(txid_current_snapshot()) % 4294967296)::text";
+
+    // Orders whose row or items were written from the watermark on; age() compares across xid wraparound
+    private static final String CHANGED_SINCE = "SELECT id FROM orders WHERE customer_id = ? AND age(xmin) <= age(?::xid)"
+            + " UNION SELECT i.order_id FROM order_items i JOIN orders o ON o.id = i.order_id"
+            + " WHERE o.customer_id = ? AND age(i.xmin) <= age(?::xid)";
+
+    /**
+     * One customer to move. {@code merge}: the target already serves the customer (orders
+     * written there by nodes on the new ring), so its own orders are left alone.
+     */
+    public record Move(UUID customerId, String from, String to, boolean merge) {}
+
+    private record Shard(JdbcTemplate jdbc, TransactionTemplate transaction) {}
+
+    private final ShardDataSources dataSources;
+    private final ShardDirectory directory;
+    private final int chunkSize;
+    private final long fenceLockTimeoutMs;
+    private final long graceMs;
+    private final Map<String, Shard> shards = new HashMap<>();
+
+    public CustomerMover(ShardDataSources dataSources, ShardDirectory directory,
+                         @Value("${sharding.move.chunk-size:1000}") int chunkSize,
+                         @Value("${sharding.move.fence-lock-timeout-ms:2000}") long fenceLockTimeoutMs,
+                         @Value("${sharding.move.grace-ms:10000}") long graceMs) {
+        this.dataSources = dataSources;
+        this.directory = directory;
+        this.chunkSize = chunkSize;
+        this.fenceLockTimeoutMs = fenceLockTimeoutMs;
+        this.graceMs = graceMs;
+    }
+
+    /**
+     * True if {@code e} was caused by a write to a customer that is being moved away.
+     */
+    public static boolean isFenced(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sqlException) {
+                for (SQLException next = sqlException; next != null; next = next.getNextException()) {
+                    if (FENCED_SQLSTATE.equals(next.getSQLState())) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Run the moves, then (after one shared grace period) purge their sources.
+     * @return how many orders were copied
+     */
+    public long moveAll(List<Move> moves) {
+        long copied = 0;
+        for (Move move : moves) {
+            copied += move(move);
+        }
+        if (moves.isEmpty()) {
+            return copied;
+        }
+        logger.info("Waiting {} ms for every node to route the moved customers to their new shard", graceMs);
+        try {
+            Thread.sleep(graceMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted before purging; run the tool again to finish", e);
+        }
+        for (Move move : moves) {
+            long purged = purge(move.customerId(), move.from());
+            logger.info("Purged {} orders of customer {} from shard {}", purged, move.customerId(), move.from());
+        }
+        return copied;
+    }
+
+    /**
+     * Copy, fence, catch up and switch one customer; the source is not purged.
+     * @return how many distinct orders were copied
+     */
+    long move(Move move) {
+        Shard source = shard(move.from());
+        Shard target = shard(move.to());
+        UUID customerId = move.customerId();
+
+        target.jdbc().update("DELETE FROM shard_fences WHERE customer_id = ?", customerId);
+        String watermark = source.jdbc().queryForObject(WATERMARK, String.class);
+        Set<UUID> copied = new HashSet<>();
+        sync(customerId, source, target, move.merge(), copied);
+
+        source.transaction().executeWithoutResult(status -> {
+            source.jdbc().execute("SET LOCAL lock_timeout = '" + fenceLockTimeoutMs + "ms'");
+            source.jdbc().query("SELECT pg_advisory_xact_lock(?)", (ResultSetExtractor<Void>) rs -> null, FENCE_LOCK);
+            source.jdbc().update("INSERT INTO shard_fences (customer_id) VALUES (?) ON CONFLICT DO NOTHING", customerId);
+        });
+        long fencedAt = System.nanoTime();
+        long caughtUp = catchUp(customerId, source, target, move.merge(), copied, watermark);
+        if (!move.merge()) {
+            directory.assign(customerId, move.to());
+        }
+        logger.info("Moved customer {} from shard {} to {}: {} orders copied, {} again after the fence in {} ms",
+                customerId, move.from(), move.to(), copied.size(), caughtUp, (System.nanoTime() - fencedAt) / 1_000_000);
+        return copied.size();
+    }
+
+    /**
+     * Lift a fence left behind by a move that was given up (the customer stays where it is).
+     */
+    public void unfence(UUID customerId, String shard) {
+        shard(shard).jdbc().update("DELETE FROM shard_fences WHERE customer_id = ?", customerId);
+    }
+
+    /**
+     * Delete the customer's orders from a shard it no longer lives on, in chunks.
+     */
+    public long purge(UUID customerId, String shard) {
+        Shard source = shard(shard);
+        long purged = 0;
+        int deleted;
+        do {
+            deleted = writing(source, () -> source.jdbc().update(
+                    "DELETE FROM orders WHERE id IN (SELECT id FROM orders WHERE customer_id = ? LIMIT ?)",
+                    customerId, chunkSize));
+            purged += deleted;
+        } while (deleted > 0);
+        return purged;
+    }
+
+    /**
+     * Make the target's copy of the customer's orders match the source. Orders only on the
+     * target are deleted, unless merging and this move never copied them.
+     */
+    private void sync(UUID customerId, Shard source, Shard target, boolean merge, Set<UUID> copied) {
+        Map<UUID, String> sourcePrints = fingerprints(source, customerId);
+        Map<UUID, String> targetPrints = fingerprints(target, customerId);
+
+        List<UUID> extra = new ArrayList<>();
+        List<UUID> changed = new ArrayList<>();
+        sourcePrints.forEach((id, print) -> {
+            String targetPrint = targetPrints.get(id);
+            if (targetPrint == null || (!targetPrint.equals(print) && (!merge || copied.contains(id)))) {
+                changed.add(id);
+            }
+        });
+        targetPrints.keySet().forEach(id -> {
+            if (!sourcePrints.containsKey(id) && (!merge || copied.contains(id))) {
+                extra.add(id);
+            }
+        });
+
+        apply(source, target, changed, extra, copied);
+    }
+
+    /**
+     * After the fence: copy again only the orders written since {@code watermark} and remove
+     * those deleted since. Deletions leave no row behind, so they are found by comparing ids.
+     * @return how many orders were recopied
+     */
+    private long catchUp(UUID customerId, Shard source, Shard target, boolean merge, Set<UUID> copied,
+                         String watermark) {
+        List<UUID> changed = source.jdbc().query(CHANGED_SINCE, (rs, rowNum) -> rs.getObject("id", UUID.class),
+                customerId, watermark, customerId, watermark);
+        Set<UUID> sourceIds = new HashSet<>(ids(source, customerId));
+        List<UUID> extra = new ArrayList<>();
+        for (UUID id : ids(target, customerId)) {
+            if (!sourceIds.contains(id) && (!merge || copied.contains(id))) {
+                extra.add(id);
+            }
+        }
+        apply(source, target, changed, extra, copied);
+        return changed.size();
+    }
+
+    /**
+     * Delete {@code extra} from the target and replace {@code changed} with the source's rows.
+     */
+    private void apply(Shard source, Shard target, List<UUID> changed, List<UUID> extra, Set<UUID> copied) {
+        for (List<UUID> chunk : chunks(extra)) {
+            writing(target, () -> deleteOrders(target, chunk));
+        }
+        for (List<UUID> chunk : chunks(changed)) {
+            List<Object[]> orders = rows(source, "SELECT " + ORDER_COLUMNS + " FROM orders WHERE id = ANY(?)", chunk, 6);
+            List<Object[]> items = rows(source, "SELECT " + ITEM_COLUMNS + " FROM order_items WHERE order_id = ANY(?)", chunk, 7);
+            // Replaced in one transaction, so the target never misses an order it had
+            writing(target, () -> {
+                deleteOrders(target, chunk);
+                target.jdbc().batchUpdate("INSERT INTO orders (" + ORDER_COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?)", orders);
+                target.jdbc().batchUpdate("INSERT INTO order_items (" + ITEM_COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?, ?)", items);
+                return null;
+            });
+            copied.addAll(chunk);
+        }
+    }
+
+    private static List<UUID> ids(Shard shard, UUID customerId) {
+        return shard.jdbc().query("SELECT id FROM orders WHERE customer_id = ?",
+                (rs, rowNum) -> rs.getObject("id", UUID.class), customerId);
+    }
+
+    private static int deleteOrders(Shard shard, List<UUID> ids) {
+        return shard.jdbc().update(connection -> {
+            var statement = connection.prepareStatement("DELETE FROM orders WHERE id = ANY(?)");
+            statement.setArray(1, connection.createArrayOf("uuid", ids.toArray(new UUID[0])));
+            return statement;
+        });
+    }
+
+    private Map<UUID, String> fingerprints(Shard shard, UUID customerId) {
+        Map<UUID, String> prints = new HashMap<>();
+        shard.jdbc().query(FINGERPRINTS,
+                rs -> { prints.put(rs.getObject("id", UUID.class), rs.getString("fingerprint")); }, customerId);
+        return prints;
+    }
+
+    private static List<Object[]> rows(Shard shard, String sql, List<UUID> ids, int columns) {
+        return shard.jdbc().query(connection -> {
+            var statement = connection.prepareStatement(sql);
+            statement.setArray(1, connection.createArrayOf("uuid", ids.toArray(new UUID[0])));
+            return statement;
+        }, (rs, rowNum) -> {
+            Object[] row = new Object[columns];
+            for (int i = 0; i < columns; i++) {
+                row[i] = rs.getObject(i + 1);
+            }
+            return row;
+        });
+    }
+
+    /**
+     * Run {@code work} in a transaction the fence trigger lets through.
+     */
+    private static <T> T writing(Shard shard, Supplier<T> work) {
+        return shard.transaction().execute(status -> {
+            shard.jdbc().execute("SET LOCAL " + MOVING_SETTING + " = 'on'");
+            return work.get();
+        });
+    }
+
+    private List<List<UUID>> chunks(List<UUID> ids) {
+        List<List<UUID>> chunks = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += chunkSize) {
+            chunks.add(ids.subList(from, Math.min(ids.size(), from + chunkSize)));
+        }
+        return chunks;
+    }
+
+    private synchronized Shard shard(String name) {
+        return shards.computeIfAbsent(name, key -> {
+            DataSource dataSource = dataSources.dataSource(key);
+            return new Shard(new JdbcTemplate(dataSource),
+                    new TransactionTemplate(new DataSourceTransactionManager(dataSource)));
+        });
+    }
+}
@@ -0,0 +1,45 @@
+package ent.orderManagement.sharding;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Merges lists that are each sorted by the same comparator, as returned by the shards for
+ * one page: O(n log k) for k lists, and only as far as the requested window reaches.
+ */
+public final class KWayMerge {
+
+    private KWayMerge() {
+    }
+
+    /**
+     * The rows {@code skip} to {@code skip + limit} of the merged order. Ties between lists
+     * go to the earlier list, so the result is deterministic.
+     */
+    public static <T> List<T> merge(List<? extends List<? extends T>> sorted, Comparator<? super T> order,
+                                    long skip, int limit) {
+        PriorityQueue<int[]> heads = new PriorityQueue<>(Math.max(1, sorted.size()), (a, b) -> {
+            int c = order.compare(sorted.get(a[0]).get(a[1]), sorted.get(b[0]).get(b[1]));
+            return c != 0 ? c : Integer.compare(a[0], b[0]);
+        });
+        for (int list = 0; list < sorted.size(); list++) {
+            if (!sorted.get(list).isEmpty()) {
+                heads.add(new int[] {list, 0});
+            }
+        }
+        List<T> merged = new ArrayList<>(limit);
+        for (long row = 0; !heads.isEmpty() && merged.size() < limit; row++) {
+            int[] head = heads.poll();
+            List<? extends T> list = sorted.get(head[0]);
+            if (row >= skip) {
+                merged.add(list.get(head[1]));
+            }
+            if (++head[1] < list.size()) {
+                heads.add(head);
+            }
+        }
+        return merged;
+    }
+}
@@ -0,0 +1,90 @@
+package ent.orderManagement.sharding;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * The customer of each order, kept in the 'order_customers' table of the main database, so an
+ * order known only by its id is read from its customer's shard instead of from every shard.
+ * Only maintained with sharding on; without it every method does nothing.
+ *
+ * Entries are written before the order commits and removed after it is deleted, so the table
+ * may name orders that do not exist (harmless: the lookup on the shard finds nothing) but never
+ * lacks one created since it was introduced. Orders older than the table are not in it and are
+ * still searched for on every shard.
+ *
+ * Statements run on the main database directly, never inside the shard transaction of the
+ * caller.
+ */
+@Component
+public class OrderDirectory {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderDirectory.class);
+
+    private final ShardDataSources dataSources;
+    private volatile JdbcTemplate main;
+
+    public OrderDirectory(ShardDataSources dataSources) {
+        this.dataSources = dataSources;
+    }
+
+    /**
+     * Record the customer of a new order; call before the order's transaction commits.
+     */
+    public void record(UUID orderId, UUID customerId) {
+        if (dataSources.isEnabled()) {
+            main().update("INSERT INTO order_customers (order_id, customer_id) VALUES (?, ?) ON CONFLICT DO NOTHING",
+                    orderId, customerId);
+        }
+    }
+
+    /**
+     * The customer of an order, if the order was recorded.
+     */
+    public Optional<UUID> customerOf(UUID orderId) {
+        if (!dataSources.isEnabled()) {
+            return Optional.empty();
+        }
+        List<UUID> customers = main().queryForList("SELECT customer_id FROM order_customers WHERE order_id = ?",
+                UUID.class, orderId);
+        return customers.stream().findFirst();
+    }
+
+    /**
+     * Remove the entries of deleted orders. A failure only leaves entries behind, so it is logged, not thrown.
+     */
+    public void forget(Collection<UUID> orderIds) {
+        if (!dataSources.isEnabled() || orderIds.isEmpty()) {
+            return;
+        }
+        try {
+            main().update("DELETE FROM order_customers WHERE order_id = ANY(?)", (Object) orderIds.toArray(new UUID[0]));
+        } catch (DataAccessException e) {
+            logger.warn("Could not remove {} deleted orders from the order directory: {}", orderIds.size(), e.getMessage());
+        }
+    }
+
+    public void forgetCustomer(UUID customerId) {
+        if (dataSources.isEnabled()) {
+            main().update("DELETE FROM order_customers WHERE customer_id = ?", customerId);
+        }
+    }
+
+    // The main DataSource is only known once the application's DataSource has been put behind routing
+    private JdbcTemplate main() {
+        JdbcTemplate jdbcTemplate = main;
+        if (jdbcTemplate == null) {
+            jdbcTemplate = new JdbcTemplate(dataSources.dataSource(dataSources.mainShard()));
+            main = jdbcTemplate;
+        }
+        return jdbcTemplate;
+    }
+}
@@ -0,0 +1,116 @@
+package ent.orderManagement.sharding;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import ent.orderManagement.sharding.CustomerMover.Move;
+
+/**
+ * The resharding tool ({@code ./gradlew reshard}, profile {@code reshard}). Either moves the
+ * customers listed in {@code reshard.customers} to {@code reshard.target}, or sweeps every
+ * shard and moves each customer that is not where {@code reshard.ring} (default: the
+ * configured ring) places it. The sweep also picks up orders left on a shard the customer no
+ * longer lives on, e.g. written by a node still on the old ring while the new one was rolled
+ * out. {@code reshard.compact} finally drops directory entries the ring now agrees with.
+ */
+@Component
+public class ReshardRunner implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReshardRunner.class);
+
+    private final ShardDataSources dataSources;
+    private final ShardDirectory directory;
+    private final CustomerMover mover;
+    private final boolean run;
+    private final String[] customers;
+    private final String target;
+    private final String[] ring;
+    private final boolean compact;
+
+    public ReshardRunner(ShardDataSources dataSources, ShardDirectory directory, CustomerMover mover,
+                         @Value("${reshard.run:false}") boolean run,
+                         @Value("${reshard.customers:}") String[] customers,
+                         @Value("${reshard.target:}") String target,
+                         @Value("${reshard.ring:}") String[] ring,
+                         @Value("${reshard.compact:false}") boolean compact) {
+        this.dataSources = dataSources;
+        this.directory = directory;
+        this.mover = mover;
+        this.run = run;
+        this.customers = customers;
+        this.target = target;
+        this.ring = ring;
+        this.compact = compact;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!run) {
+            return;
+        }
+        if (!dataSources.isEnabled()) {
+            throw new IllegalStateException("Resharding needs sharding.enabled=true");
+        }
+        List<Move> moves = customers.length > 0 ? listedMoves() : sweep();
+        logger.info("Resharding: {} customers to move", moves.size());
+        long copied = mover.moveAll(moves);
+        logger.info("Resharding finished: {} customers moved, {} orders copied", moves.size(), copied);
+        if (compact) {
+            logger.info("Shard directory compacted: {} entries dropped", directory.compact());
+        }
+    }
+
+    private List<Move> listedMoves() {
+        if (target.isBlank()) {
+            throw new IllegalStateException("reshard.target is required with reshard.customers");
+        }
+        dataSources.dataSource(target);
+        List<Move> moves = new ArrayList<>(customers.length);
+        for (String customer : customers) {
+            UUID customerId = UUID.fromString(customer.trim());
+            String from = directory.shardOf(customerId);
+            if (!from.equals(target)) {
+                moves.add(new Move(customerId, from, target, false));
+            }
+        }
+        return moves;
+    }
+
+    private List<Move> sweep() {
+        ConsistentHashRing placement = ring.length > 0 ? dataSources.ring(List.of(ring)) : dataSources.ring();
+        List<Move> moves = new ArrayList<>();
+        for (String shard : dataSources.names()) {
+            new JdbcTemplate(dataSources.dataSource(shard)).query(
+                    "SELECT c.customer_id, EXISTS (SELECT 1 FROM shard_fences f WHERE f.customer_id = c.customer_id) AS fenced"
+                  + " FROM (SELECT DISTINCT customer_id FROM orders) c",
+                    rs -> {
+                        UUID customerId = rs.getObject("customer_id", UUID.class);
+                        boolean fenced = rs.getBoolean("fenced");
+                        String current = directory.shardOf(customerId);
+                        if (!current.equals(shard)) {
+                            if (fenced) {
+                                // Moved, but the purge did not run
+                                logger.info("Purged {} orders of customer {} left on shard {}",
+                                        mover.purge(customerId, shard), customerId, shard);
+                            } else {
+                                moves.add(new Move(customerId, shard, current, true));
+                            }
+                        } else if (!placement.shardFor(customerId).equals(shard)) {
+                            moves.add(new Move(customerId, shard, placement.shardFor(customerId), false));
+                        } else if (fenced) {
+                            mover.unfence(customerId, shard); // a move that was given up
+                        }
+                    });
+        }
+        return moves;
+    }
+}
@@ -0,0 +1,152 @@
+package ent.orderManagement.sharding;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * The databases orders are spread over. The main shard is the application's own database
+ * ({@code spring.datasource.*}), which also keeps everything that is not sharded (users,
+ * customers, jobs, the shard directory). Further shards are configured as
+ * {@code sharding.shards.<name>.jdbc-url/username/password} (any Hikari setting works) and
+ * only hold orders and their items.
+ *
+ * A shard can be configured without being on the ring ({@code sharding.ring}) yet: nothing
+ * is placed there except customers the resharding tool moves to it.
+ */
+public class ShardDataSources implements AutoCloseable {
+
+    private final boolean enabled;
+    private final String mainShard;
+    private final Map<String, HikariDataSource> secondaries;
+    private final ConsistentHashRing ring;
+    private final int virtualNodes;
+    private volatile DataSource main;
+
+    public ShardDataSources(boolean enabled, String mainShard, Map<String, HikariDataSource> secondaries,
+                            List<String> ring, int virtualNodes) {
+        this.enabled = enabled;
+        this.mainShard = mainShard;
+        this.secondaries = new LinkedHashMap<>(secondaries);
+        List<String> members = ring.isEmpty() ? names() : ring;
+        for (String member : members) {
+            if (!member.equals(mainShard) && !secondaries.containsKey(member)) {
+                throw new IllegalStateException("sharding.ring: shard '" + member + "' has no sharding.shards entry");
+            }
+        }
+        this.ring = new ConsistentHashRing(members, virtualNodes);
+        this.virtualNodes = virtualNodes;
+    }
+
+    /**
+     * Only the main database, as when sharding is off.
+     */
+    public static ShardDataSources unsharded() {
+        return new ShardDataSources(false, "main", Map.of(), List.of(), 1);
+    }
+
+    public static ShardDataSources fromEnvironment(Environment environment) {
+        Binder binder = Binder.get(environment);
+        boolean enabled = binder.bind("sharding.enabled", Boolean.class).orElse(false);
+        String mainShard = binder.bind("sharding.main-shard", String.class).orElse("main");
+        if (!enabled) {
+            return new ShardDataSources(false, mainShard, Map.of(), List.of(), 1);
+        }
+        Map<String, HikariDataSource> secondaries = new LinkedHashMap<>();
+        binder.bind("sharding.shards", Bindable.mapOf(String.class, HikariDataSource.class))
+                .orElse(Map.of())
+                .forEach((name, dataSource) -> {
+                    dataSource.setPoolName("shard-" + name);
+                    secondaries.put(name, dataSource);
+                });
+        List<String> ring = binder.bind("sharding.ring", Bindable.listOf(String.class)).orElse(List.of());
+        int virtualNodes = binder.bind("sharding.virtual-nodes", Integer.class).orElse(256);
+        return new ShardDataSources(true, mainShard, secondaries, ring, virtualNodes);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public String mainShard() {
+        return mainShard;
+    }
+
+    /**
+     * Every configured shard, the main one first.
+     */
+    public List<String> names() {
+        List<String> names = new ArrayList<>(secondaries.size() + 1);
+        names.add(mainShard);
+        names.addAll(secondaries.keySet());
+        return names;
+    }
+
+    public ConsistentHashRing ring() {
+        return ring;
+    }
+
+    /**
+     * A ring over other shards, placed the same way as the configured one.
+     */
+    public ConsistentHashRing ring(List<String> shards) {
+        for (String shard : shards) {
+            dataSource(shard);
+        }
+        return new ConsistentHashRing(shards, virtualNodes);
+    }
+
+    /**
+     * Direct access to one shard, bypassing routing (migrations, resharding).
+     */
+    public DataSource dataSource(String shard) {
+        if (shard.equals(mainShard)) {
+            return main;
+        }
+        DataSource dataSource = secondaries.get(shard);
+        if (dataSource == null) {
+            throw new IllegalArgumentException("Unknown shard: " + shard);
+        }
+        return dataSource;
+    }
+
+    public Map<String, DataSource> secondaries() {
+        return Map.copyOf(secondaries);
+    }
+
+    /**
+     * Put the application's DataSource behind routing: statements go to the shard selected
+     * with {@link Shards#on}, everything else to the main database. The physical connection
+     * is only fetched at the first statement, so a transaction can select its shard after it
+     * has begun.
+     */
+    public DataSource route(DataSource mainDataSource) {
+        this.main = mainDataSource;
+        if (!enabled) {
+            return mainDataSource;
+        }
+        Map<Object, Object> targets = new LinkedHashMap<>(secondaries);
+        targets.put(mainShard, mainDataSource);
+        ShardRoutingDataSource routing = new ShardRoutingDataSource();
+        routing.setTargetDataSources(targets);
+        routing.setDefaultTargetDataSource(mainDataSource);
+        routing.setLenientFallback(false);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    @Override
+    public void close() {
+        secondaries.values().forEach(HikariDataSource::close);
+    }
+}
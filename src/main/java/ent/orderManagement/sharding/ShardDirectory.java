@@ -0,0 +1,149 @@
+package ent.orderManagement.sharding;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Where each customer's orders live: the ring placement, unless the 'customer_shards' table
+ * (main database) says otherwise. Entries there are written by the resharding tool for the
+ * customers it moved, and can be dropped once the ring itself places them there.
+ *
+ * The entries are held in memory and refreshed like the revoked tokens: every
+ * {@code sharding.directory.refresh-ms} only rows changed since the last refresh, every
+ * {@code sharding.directory.full-reload-ms} everything. A node that still routes a moved
+ * customer to the old shard cannot write there (see {@link CustomerMover}); it only reads
+ * the old copy until its next refresh.
+ */
+@Component
+public class ShardDirectory {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShardDirectory.class);
+
+    private record Placement(UUID customerId, String shard, Timestamp updatedAt) {}
+
+    private static final RowMapper<Placement> PLACEMENT_MAPPER = (rs, rowNum) -> new Placement(
+            rs.getObject("customer_id", UUID.class), rs.getString("shard"), rs.getTimestamp("updated_at"));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ShardDataSources dataSources;
+    private final long overlapMs;
+    private final long fullReloadNanos;
+
+    private volatile Map<UUID, String> overrides = new ConcurrentHashMap<>();
+
+    // Guarded by this
+    private Timestamp cursor;
+    private long fullReloadAt;
+
+    public ShardDirectory(JdbcTemplate jdbcTemplate, ShardDataSources dataSources,
+                          @Value("${sharding.directory.refresh-overlap-ms:5000}") long overlapMs,
+                          @Value("${sharding.directory.full-reload-ms:300000}") long fullReloadMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSources = dataSources;
+        this.overlapMs = overlapMs;
+        this.fullReloadNanos = TimeUnit.MILLISECONDS.toNanos(fullReloadMs);
+    }
+
+    public String shardOf(UUID customerId) {
+        String shard = overrides.get(customerId);
+        return shard != null ? shard : dataSources.ring().shardFor(customerId);
+    }
+
+    /**
+     * Record that a customer now lives on {@code shard}; applies on this node at once.
+     */
+    public void assign(UUID customerId, String shard) {
+        jdbcTemplate.update("INSERT INTO customer_shards (customer_id, shard, updated_at) VALUES (?, ?, now())"
+                + " ON CONFLICT (customer_id) DO UPDATE SET shard = EXCLUDED.shard, updated_at = EXCLUDED.updated_at",
+                customerId, shard);
+        overrides.put(customerId, shard);
+    }
+
+    /**
+     * Drop the entries that merely repeat the ring placement. Only safe once every node runs
+     * with the current {@code sharding.ring}.
+     * @return how many entries were dropped
+     */
+    public synchronized int compact() {
+        ConsistentHashRing ring = dataSources.ring();
+        int dropped = 0;
+        for (Placement placement : jdbcTemplate.query("SELECT customer_id, shard, updated_at FROM customer_shards",
+                PLACEMENT_MAPPER)) {
+            if (placement.shard().equals(ring.shardFor(placement.customerId()))) {
+                dropped += jdbcTemplate.update("DELETE FROM customer_shards WHERE customer_id = ? AND shard = ?",
+                        placement.customerId(), placement.shard());
+            }
+        }
+        reload();
+        return dropped;
+    }
+
+    public int size() {
+        return overrides.size();
+    }
+
+    @PostConstruct
+    void load() {
+        refresh();
+    }
+
+    @Scheduled(fixedDelayString = "${sharding.directory.refresh-ms:1000}")
+    public synchronized void refresh() {
+        if (!dataSources.isEnabled()) {
+            return;
+        }
+        long now = System.nanoTime();
+        try {
+            if (cursor == null || now - fullReloadAt > fullReloadNanos) {
+                reload();
+                fullReloadAt = now;
+            } else {
+                for (Placement row : jdbcTemplate.query(
+                        "SELECT customer_id, shard, updated_at FROM customer_shards WHERE updated_at > ?",
+                        PLACEMENT_MAPPER, new Timestamp(cursor.getTime() - overlapMs))) {
+                    advanceCursor(row);
+                    overrides.put(row.customerId(), row.shard());
+                }
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Could not refresh the shard directory: {}", e.getMessage());
+        }
+    }
+
+    private void reload() {
+        List<Placement> rows = jdbcTemplate.query("SELECT customer_id, shard, updated_at FROM customer_shards",
+                PLACEMENT_MAPPER);
+        Map<UUID, String> loaded = new ConcurrentHashMap<>(Math.max(16, rows.size() * 2));
+        List<String> known = dataSources.names();
+        cursor = new Timestamp(0);
+        for (Placement row : rows) {
+            advanceCursor(row);
+            if (!known.contains(row.shard())) {
+                logger.warn("Customer {} is placed on shard '{}', which is not configured", row.customerId(), row.shard());
+            }
+            loaded.put(row.customerId(), row.shard());
+        }
+        overrides = loaded;
+        logger.debug("Shard directory reloaded: {} customers placed off the ring", rows.size());
+    }
+
+    private void advanceCursor(Placement row) {
+        if (row.updatedAt().after(cursor)) {
+            cursor = row.updatedAt();
+        }
+    }
+}
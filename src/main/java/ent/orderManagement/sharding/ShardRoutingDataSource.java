@@ -0,0 +1,15 @@
+package ent.orderManagement.sharding;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+/**
+ * Hands out connections of the shard the current thread works on ({@link Shards#on}), or of
+ * the main database outside any shard.
+ */
+class ShardRoutingDataSource extends AbstractRoutingDataSource {
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return Shards.current();
+    }
+}
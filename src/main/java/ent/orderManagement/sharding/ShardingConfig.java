@@ -0,0 +1,49 @@
+package ent.orderManagement.sharding;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+
+/**
+ * Sharding is switched on at runtime ({@code sharding.enabled}), not through a condition, so
+ * it also works with Spring AOT.
+ */
+@Configuration
+public class ShardingConfig {
+
+    @Bean
+    public static ShardDataSources shardDataSources(Environment environment) {
+        return ShardDataSources.fromEnvironment(environment);
+    }
+
+    /**
+     * Puts the application's DataSource behind shard routing. Ordered, so it runs before the
+     * (unordered) JFR tracing wrapper, which then sees the statements of every shard.
+     */
+    @Bean
+    public static BeanPostProcessor shardRoutingPostProcessor(ObjectProvider<ShardDataSources> shardDataSources) {
+        return new ShardRoutingPostProcessor(shardDataSources);
+    }
+
+    private record ShardRoutingPostProcessor(ObjectProvider<ShardDataSources> shardDataSources)
+            implements BeanPostProcessor, Ordered {
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof DataSource dataSource && "dataSource".equals(beanName)) {
+                return shardDataSources.getObject().route(dataSource);
+            }
+            return bean;
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.LOWEST_PRECEDENCE - 1;
+        }
+    }
+}
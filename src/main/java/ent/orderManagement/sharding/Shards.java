@@ -0,0 +1,246 @@
+package ent.orderManagement.sharding;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import ent.orderManagement.exception.PageWindowExceededException;
+import ent.orderManagement.exception.ShardUnavailableException;
+import ent.orderManagement.service.FanOut;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Runs order queries on the right shard. Work for one customer goes to that customer's shard
+ * ({@link #onCustomer}); work without a customer runs on every shard in parallel
+ * ({@link #onEach}) and the results are gathered. With sharding off there is one shard and
+ * everything runs directly on the calling thread.
+ *
+ * A transaction stays on one shard: select the shard before its first statement, and do not
+ * switch inside it. {@link #writeFor} and {@link #writeOn} select the shard, then begin the
+ * transaction.
+ */
+@Component
+public class Shards {
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private final ShardDataSources dataSources;
+    private final ShardDirectory directory;
+    private final TransactionTemplate transaction;
+    private final ExecutorService scatter;
+    private final Duration timeout;
+    private final int maxMergeWindow;
+
+    public Shards(ShardDataSources dataSources, ShardDirectory directory, PlatformTransactionManager transactionManager,
+                  @Value("${sharding.scatter.threads:16}") int threads,
+                  @Value("${sharding.scatter.timeout-ms:5000}") long timeoutMs,
+                  @Value("${sharding.max-merge-window:10000}") int maxMergeWindow) {
+        this.dataSources = dataSources;
+        this.directory = directory;
+        this.transaction = transactionManager != null ? new TransactionTemplate(transactionManager) : null;
+        this.timeout = Duration.ofMillis(timeoutMs);
+        this.maxMergeWindow = maxMergeWindow;
+        AtomicInteger count = new AtomicInteger();
+        this.scatter = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "shard-scatter-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * A single shard, the main database (sharding off), without transactions of its own.
+     */
+    public static Shards unsharded() {
+        return new Shards(ShardDataSources.unsharded(), null, null, 1, 5000, Integer.MAX_VALUE);
+    }
+
+    /**
+     * The shard selected on this thread, or null for the main database.
+     */
+    static String current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * The shard work on this thread runs on: the selected one, or else the main database.
+     */
+    public String selected() {
+        String current = CURRENT.get();
+        return current != null ? current : names().get(0);
+    }
+
+    public boolean isSharded() {
+        return dataSources.isEnabled();
+    }
+
+    public List<String> names() {
+        return dataSources.names();
+    }
+
+    public String shardOf(UUID customerId) {
+        return directory != null ? directory.shardOf(customerId) : dataSources.ring().shardFor(customerId);
+    }
+
+    /**
+     * The shards that can hold orders of {@code customerId}: its own, or all of them for null.
+     */
+    public List<String> targets(UUID customerId) {
+        return customerId != null ? List.of(shardOf(customerId)) : names();
+    }
+
+    public <T> T onCustomer(UUID customerId, Supplier<T> work) {
+        return on(shardOf(customerId), work);
+    }
+
+    public <T> T on(String shard, Supplier<T> work) {
+        if (!dataSources.isEnabled()) {
+            return work.get();
+        }
+        String previous = CURRENT.get();
+        if (previous != null && !previous.equals(shard) && TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("A transaction on shard " + previous + " cannot continue on " + shard);
+        }
+        CURRENT.set(shard);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Run {@code work} in one transaction on the customer's shard.
+     */
+    public <T> T writeFor(UUID customerId, Supplier<T> work) {
+        return writeOn(shardOf(customerId), work);
+    }
+
+    public <T> T writeOn(String shard, Supplier<T> work) {
+        return on(shard, () -> transaction != null ? transaction.execute(status -> work.get()) : work.get());
+    }
+
+    /**
+     * Run {@code work} on every shard in parallel, under one deadline.
+     * @return the results in shard order
+     * @throws ShardUnavailableException if a shard did not answer in time
+     */
+    public <T> List<T> onEach(Function<String, T> work) {
+        List<String> names = names();
+        if (names.size() == 1) {
+            List<T> result = new ArrayList<>(1);
+            result.add(on(names.get(0), () -> work.apply(names.get(0))));
+            return result;
+        }
+        try (FanOut scope = new FanOut(scatter, timeout)) {
+            List<Supplier<T>> results = new ArrayList<>(names.size());
+            for (String name : names) {
+                results.add(scope.fork(() -> on(name, () -> work.apply(name))));
+            }
+            scope.join();
+            List<T> gathered = new ArrayList<>(names.size());
+            results.forEach(result -> gathered.add(result.get()));
+            return gathered;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new ShardUnavailableException("Not every shard answered within " + timeout.toMillis() + " ms");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ShardUnavailableException("Interrupted while querying the shards");
+        }
+    }
+
+    /**
+     * Rows of one customer from its shard, or (for null) the rows of every shard.
+     */
+    public <T> List<T> collect(UUID customerId, Supplier<List<T>> query) {
+        if (customerId != null) {
+            return onCustomer(customerId, query);
+        }
+        List<T> rows = new ArrayList<>();
+        onEach(name -> query.get()).forEach(rows::addAll);
+        return rows;
+    }
+
+    /**
+     * The first shard (in shard order) on which {@code lookup} finds something, for rows
+     * only known by their own id.
+     */
+    public <T> Optional<T> findFirst(Supplier<Optional<T>> lookup) {
+        return onEach(name -> lookup.get()).stream().filter(Optional::isPresent).map(Optional::get).findFirst();
+    }
+
+    /**
+     * The shard on which {@code present} holds; with a single shard, that shard without asking.
+     */
+    public Optional<String> locate(Supplier<Boolean> present) {
+        List<String> names = names();
+        if (names.size() == 1) {
+            return Optional.of(names.get(0));
+        }
+        return onEach(name -> present.get() ? name : null).stream().filter(Objects::nonNull).findFirst();
+    }
+
+    /**
+     * One page over all shards. Each shard returns its first {@code offset + size} rows in the
+     * requested order (made total by {@code idProperty}); the pages are merged and the window
+     * cut out. The total is the sum of the shards' totals.
+     * @throws PageWindowExceededException if the page ends beyond {@code sharding.max-merge-window}
+     */
+    public <T> Page<T> mergePages(Pageable pageable, String idProperty, Function<Pageable, Page<T>> query) {
+        List<String> names = names();
+        if (names.size() == 1) {
+            return on(names.get(0), () -> query.apply(pageable));
+        }
+        if (pageable.isUnpaged()) {
+            throw new PageWindowExceededException(Long.MAX_VALUE, maxMergeWindow);
+        }
+        long window = pageable.getOffset() + pageable.getPageSize();
+        if (window > maxMergeWindow) {
+            throw new PageWindowExceededException(window, maxMergeWindow);
+        }
+        Sort sort = pageable.getSort().getOrderFor(idProperty) != null ? pageable.getSort()
+                : pageable.getSort().and(Sort.by(idProperty));
+        Pageable perShard = PageRequest.of(0, (int) window, sort);
+
+        List<Page<T>> pages = onEach(name -> query.apply(perShard));
+        long total = pages.stream().mapToLong(Page::getTotalElements).sum();
+        List<T> content = KWayMerge.merge(pages.stream().map(Page::getContent).toList(), SortComparator.of(sort),
+                pageable.getOffset(), pageable.getPageSize());
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scatter.shutdownNow();
+    }
+}
@@ -0,0 +1,57 @@
+package ent.orderManagement.sharding;
+
+import java.util.Comparator;
+import java.util.UUID;
+
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Orders entities in Java the way PostgreSQL orders them for the same {@link Sort}, so that
+ * pages sorted by each shard can be merged: nulls last ascending and first descending
+ * (unless the sort says otherwise), uuids as unsigned bytes, enums by name (they are stored
+ * as text). Strings compare by code point, which matches the "C" collation.
+ */
+public final class SortComparator {
+
+    private SortComparator() {
+    }
+
+    public static <T> Comparator<T> of(Sort sort) {
+        Comparator<T> comparator = (a, b) -> 0;
+        for (Sort.Order order : sort) {
+            comparator = comparator.thenComparing(by(order));
+        }
+        return comparator;
+    }
+
+    private static <T> Comparator<T> by(Sort.Order order) {
+        boolean nullsFirst = switch (order.getNullHandling()) {
+            case NULLS_FIRST -> true;
+            case NULLS_LAST -> false;
+            case NATIVE -> order.isDescending();
+        };
+        String property = order.getProperty();
+        return (a, b) -> {
+            Object x = new BeanWrapperImpl(a).getPropertyValue(property);
+            Object y = new BeanWrapperImpl(b).getPropertyValue(property);
+            if (x == null || y == null) {
+                return x == y ? 0 : (x == null) == nullsFirst ? -1 : 1;
+            }
+            int c = compareValues(x, y);
+            return order.isDescending() ? -c : c;
+        };
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static int compareValues(Object x, Object y) {
+        if (x instanceof UUID u && y instanceof UUID v) {
+            int c = Long.compareUnsigned(u.getMostSignificantBits(), v.getMostSignificantBits());
+            return c != 0 ? c : Long.compareUnsigned(u.getLeastSignificantBits(), v.getLeastSignificantBits());
+        }
+        if (x instanceof Enum<?> e && y instanceof Enum<?> f) {
+            return e.name().compareTo(f.name());
+        }
+        return ((Comparable) x).compareTo(y);
+    }
+}
@@ -0,0 +1,8 @@
+-- Kupac svake narudžbe po id-u, u glavnoj bazi: uz sharding se narudžba po id-u čita samo sa sharda
+-- njezinog kupca umjesto sa svih. Puni se tek od ove verzije; narudžbe kojih ovdje nema traže se na svim shardovima.
+CREATE TABLE IF NOT EXISTS order_customers (
+    order_id UUID PRIMARY KEY,
+    customer_id UUID NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_order_customers_customer_id ON order_customers(customer_id);
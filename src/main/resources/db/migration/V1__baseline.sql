@@ -1,4 +1,4 @@
--- Kreiranje tablice customers
+-- Shema prije uvođenja migracija (postojeće baze se ovdje označavaju kao baseline)
 CREATE TABLE IF NOT EXISTS customers (
     id UUID PRIMARY KEY,
     name VARCHAR(255) NOT NULL,
@@ -6,7 +6,6 @@ CREATE TABLE IF NOT EXISTS customers (
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
 );
 
--- Kreiranje tablice orders
 CREATE TABLE IF NOT EXISTS orders (
     id UUID PRIMARY KEY,
     customer_id UUID NOT NULL REFERENCES customers(id),
@@ -16,3 +15,10 @@ CREATE TABLE IF NOT EXISTS orders (
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
 );
 
+-- Entitet User; id korisnika s ulogom USER koristi se kao customer_id narudžbi
+CREATE TABLE IF NOT EXISTS users (
+    id UUID PRIMARY KEY,
+    username VARCHAR(255) NOT NULL UNIQUE,
+    password VARCHAR(255) NOT NULL,
+    role VARCHAR(255) NOT NULL
+);
@@ -0,0 +1,12 @@
+CREATE TABLE IF NOT EXISTS order_items (
+    id UUID PRIMARY KEY,
+    order_id UUID NOT NULL REFERENCES orders(id) ON DELETE CASCADE,
+    line_number INT NOT NULL,
+    product_code VARCHAR(64) NOT NULL,
+    name VARCHAR(255),
+    quantity INT NOT NULL CHECK (quantity > 0),
+    unit_price DECIMAL(10,2) NOT NULL CHECK (unit_price >= 0)
+);
+
+-- Tablica je nova, pa običan CREATE INDEX ne blokira nikoga
+CREATE INDEX IF NOT EXISTS idx_order_items_order_id ON order_items(order_id);
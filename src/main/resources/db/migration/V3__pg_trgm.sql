@@ -0,0 +1,2 @@
+-- Trigram operatori za pretragu kupaca (indeksi se grade u V4, izvan transakcije)
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
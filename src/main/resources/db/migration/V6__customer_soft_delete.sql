@@ -0,0 +1,21 @@
+-- Kupac se pri brisanju odmah skriva (deleted_at), a njegove narudžbe brišu se u pozadini u manjim dijelovima.
+-- Stupac bez zadane vrijednosti dodaje se samo u katalog, bez prepisivanja tablice.
+ALTER TABLE customers ADD COLUMN IF NOT EXISTS deleted_at TIMESTAMP;
+
+CREATE TABLE IF NOT EXISTS customer_deletion_jobs (
+    id UUID PRIMARY KEY,
+    customer_id UUID NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    orders_deleted BIGINT NOT NULL DEFAULT 0,
+    attempts INT NOT NULL DEFAULT 0,
+    last_error TEXT,
+    -- Posao drži samo jedna instanca dok traje najam; nakon pada ili restarta preuzima ga sljedeća
+    lease_until TIMESTAMP,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    finished_at TIMESTAMP
+);
+
+-- Najviše jedan nedovršen posao po kupcu
+CREATE UNIQUE INDEX IF NOT EXISTS uq_customer_deletion_jobs_active
+    ON customer_deletion_jobs(customer_id) WHERE status <> 'COMPLETED';
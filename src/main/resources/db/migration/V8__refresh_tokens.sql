@@ -0,0 +1,26 @@
+-- Kratkotrajni access tokeni (JWT) i refresh tokeni koji se rotiraju pri svakoj upotrebi.
+-- Čuva se samo SHA-256 sažetak refresh tokena; svi tokeni nastali iz iste prijave dijele family_id.
+CREATE TABLE IF NOT EXISTS refresh_tokens (
+    id UUID PRIMARY KEY,
+    user_id UUID NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    token_hash VARCHAR(64) NOT NULL UNIQUE,
+    family_id UUID NOT NULL,
+    expires_at TIMESTAMP NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    revoked_at TIMESTAMP,
+    replaced_by UUID,
+    -- Access token izdan zajedno s ovim refresh tokenom; opoziva se s cijelom obitelji
+    access_jti UUID NOT NULL,
+    access_expires_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_family_id ON refresh_tokens(family_id);
+
+-- Opozvani access tokeni (jti) do isteka; svaka instanca ih drži u memoriji i dohvaća samo nove
+CREATE TABLE IF NOT EXISTS revoked_tokens (
+    jti UUID PRIMARY KEY,
+    expires_at TIMESTAMP NOT NULL,
+    revoked_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_revoked_tokens_revoked_at ON revoked_tokens(revoked_at);
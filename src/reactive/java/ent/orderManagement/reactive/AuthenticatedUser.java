@@ -0,0 +1,11 @@
+package ent.orderManagement.reactive;
+
+import java.util.UUID;
+
+import ent.orderManagement.model.Role;
+
+/**
+ * Principal of an authenticated request; the user's id doubles as the customer id of their orders.
+ */
+public record AuthenticatedUser(UUID id, String username, Role role) {
+}
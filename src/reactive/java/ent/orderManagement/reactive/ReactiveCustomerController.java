@@ -0,0 +1,89 @@
+package ent.orderManagement.reactive;
+
+import java.net.URI;
+import java.util.UUID;
+
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+import ent.orderManagement.exception.CustomerNotFoundException;
+import ent.orderManagement.exception.DuplicateEmailException;
+import ent.orderManagement.model.Customer;
+import jakarta.validation.Valid;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("/customers")
+public class ReactiveCustomerController {
+
+    private final ReactiveCustomerRepository customerRepository;
+    private final TransactionalOperator transactionalOperator;
+
+    public ReactiveCustomerController(ReactiveCustomerRepository customerRepository,
+                                      TransactionalOperator transactionalOperator) {
+        this.customerRepository = customerRepository;
+        this.transactionalOperator = transactionalOperator;
+    }
+
+    // GET /customers (JSON array, or a backpressured stream with Accept: application/x-ndjson)
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<Customer> getAllCustomers() {
+        return transactionalOperator.transactional(customerRepository.streamAll());
+    }
+
+    // GET /customers/{id}
+    @GetMapping("/{id}")
+    public Mono<Customer> getCustomer(@PathVariable UUID id) {
+        return customerRepository.findById(id).switchIfEmpty(notFound(id));
+    }
+
+    // POST /customers
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<Customer> createCustomer(@Valid @RequestBody Customer customer) {
+        return customerRepository.insert(customer)
+                .onErrorMap(DataIntegrityViolationException.class,
+                        e -> new DuplicateEmailException("Customer with the same Email already exists."));
+    }
+
+    // PUT /customers/{id}
+    @PutMapping("/{id}")
+    public Mono<Customer> updateCustomer(@PathVariable UUID id, @RequestBody Customer newData) {
+        return customerRepository.findById(id)
+                .switchIfEmpty(notFound(id))
+                .flatMap(existing -> {
+                    if (newData.getName() != null) existing.setName(newData.getName());
+                    if (newData.getEmail() != null) existing.setEmail(newData.getEmail());
+                    return customerRepository.update(existing).thenReturn(existing);
+                })
+                .onErrorMap(DataIntegrityViolationException.class,
+                        e -> new DuplicateEmailException("Customer with the same Email already exists."))
+                .as(transactionalOperator::transactional);
+    }
+
+    // DELETE /customers/{id} (hidden at once, orders deleted in the background; 202 pointing at the job)
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> deleteCustomer(@PathVariable UUID id) {
+        return customerRepository.softDelete(id)
+                .switchIfEmpty(notFound(id))
+                .map(jobId -> ResponseEntity.accepted().location(URI.create("/customers/deletion-jobs/" + jobId)).<Void>build())
+                .as(transactionalOperator::transactional);
+    }
+
+    private static <T> Mono<T> notFound(UUID id) {
+        return Mono.error(() -> new CustomerNotFoundException("Customer with ID " + id + " not found"));
+    }
+}
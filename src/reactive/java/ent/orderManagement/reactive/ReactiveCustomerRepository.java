@@ -0,0 +1,102 @@
+package ent.orderManagement.reactive;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+
+import ent.orderManagement.model.Customer;
+import io.r2dbc.spi.Readable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking counterpart of {@code CustomerRepository} on R2DBC.
+ */
+@Repository
+public class ReactiveCustomerRepository {
+
+    private static final int FETCH_SIZE = 500;
+
+    private final DatabaseClient databaseClient;
+
+    public ReactiveCustomerRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    /**
+     * All customers, fetched from a cursor as the subscriber demands them (needs a transaction).
+     */
+    public Flux<Customer> streamAll() {
+        return databaseClient.sql("SELECT id, name, email, created_at FROM customers WHERE deleted_at IS NULL ORDER BY id")
+                .filter(statement -> statement.fetchSize(FETCH_SIZE))
+                .map(ReactiveCustomerRepository::toCustomer)
+                .all();
+    }
+
+    public Mono<Customer> findById(UUID id) {
+        return databaseClient.sql("SELECT id, name, email, created_at FROM customers WHERE id = :id AND deleted_at IS NULL")
+                .bind("id", id)
+                .map(ReactiveCustomerRepository::toCustomer)
+                .one();
+    }
+
+    public Mono<Customer> insert(Customer customer) {
+        LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+        UUID id = customer.getId() != null ? customer.getId() : UUID.randomUUID();
+        return databaseClient.sql("INSERT INTO customers (id, name, email, created_at) VALUES (:id, :name, :email, :createdAt)")
+                .bind("id", id)
+                .bind("name", customer.getName())
+                .bind("email", customer.getEmail())
+                .bind("createdAt", now)
+                .then()
+                .then(Mono.fromSupplier(() -> {
+                    customer.setId(id);
+                    customer.setCreatedAt(now.atOffset(ZoneOffset.UTC));
+                    return customer;
+                }));
+    }
+
+    public Mono<Long> update(Customer customer) {
+        return databaseClient.sql("UPDATE customers SET name = :name, email = :email WHERE id = :id AND deleted_at IS NULL")
+                .bind("name", customer.getName())
+                .bind("email", customer.getEmail())
+                .bind("id", customer.getId())
+                .fetch()
+                .rowsUpdated();
+    }
+
+    /**
+     * Hide the customer and queue its deletion job; the servlet application's
+     * {@code CustomerDeletionWorker} deletes the orders and the row. Must run in a transaction.
+     * @return id of the new job, empty if there is no visible customer with this id
+     */
+    public Mono<UUID> softDelete(UUID id) {
+        UUID jobId = UUID.randomUUID();
+        return databaseClient.sql("UPDATE customers SET deleted_at = now() WHERE id = :id AND deleted_at IS NULL")
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated()
+                .filter(updated -> updated > 0)
+                .flatMap(updated -> databaseClient.sql("INSERT INTO customer_deletion_jobs (id, customer_id, status)"
+                                + " VALUES (:jobId, :customerId, 'PENDING')")
+                        .bind("jobId", jobId)
+                        .bind("customerId", id)
+                        .then()
+                        .thenReturn(jobId));
+    }
+
+    private static Customer toCustomer(Readable row) {
+        Customer customer = new Customer();
+        customer.setId(row.get("id", UUID.class));
+        customer.setName(row.get("name", String.class));
+        customer.setEmail(row.get("email", String.class));
+        LocalDateTime createdAt = row.get("created_at", LocalDateTime.class);
+        if (createdAt != null) {
+            customer.setCreatedAt(createdAt.atOffset(ZoneOffset.UTC));
+        }
+        return customer;
+    }
+}
@@ -0,0 +1,80 @@
+package ent.orderManagement.reactive;
+
+import java.util.UUID;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+import ent.orderManagement.model.Order;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("/orders")
+@Validated
+public class ReactiveOrderController {
+
+    private final ReactiveOrderService orderService;
+
+    public ReactiveOrderController(ReactiveOrderService orderService) {
+        this.orderService = orderService;
+    }
+
+    // GET /orders?page=0&size=20 (JSON array of one page)
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public Flux<Order> getAllOrders(@AuthenticationPrincipal AuthenticatedUser user,
+                                    @RequestParam(defaultValue = "0") @Min(0) int page,
+                                    @RequestParam(defaultValue = "20") @Min(1) @Max(1000) int size,
+                                    @RequestParam(defaultValue = "true") boolean includeItems) {
+        return orderService.getOrders(user, page, size, includeItems);
+    }
+
+    // GET /orders with Accept: application/x-ndjson streams every visible order, paced by the client
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<Order> streamOrders(@AuthenticationPrincipal AuthenticatedUser user,
+                                    @RequestParam(defaultValue = "true") boolean includeItems) {
+        return orderService.streamOrders(user, includeItems);
+    }
+
+    // GET /orders/{id}
+    @GetMapping("/{id}")
+    public Mono<Order> getOrder(@AuthenticationPrincipal AuthenticatedUser user, @PathVariable UUID id) {
+        return orderService.getOrder(id, user);
+    }
+
+    // POST /orders
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<Order> createOrder(@AuthenticationPrincipal AuthenticatedUser user, @Valid @RequestBody Order order) {
+        return orderService.createOrder(order, user);
+    }
+
+    // PUT /orders/{id}
+    @PutMapping("/{id}")
+    public Mono<Order> updateOrder(@AuthenticationPrincipal AuthenticatedUser user, @PathVariable UUID id,
+                                   @Valid @RequestBody Order newData) {
+        return orderService.updateOrder(id, newData, user);
+    }
+
+    // DELETE /orders/{id}
+    @DeleteMapping("/{id}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public Mono<Void> deleteOrder(@AuthenticationPrincipal AuthenticatedUser user, @PathVariable UUID id) {
+        return orderService.deleteOrder(id, user);
+    }
+}
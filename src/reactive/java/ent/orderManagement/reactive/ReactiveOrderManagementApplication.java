@@ -0,0 +1,26 @@
+package ent.orderManagement.reactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Bean;
+
+import ent.orderManagement.security.JwtUtil;
+
+/**
+ * Non-blocking (WebFlux + R2DBC) implementation of the /orders and /customers API, run as
+ * its own application next to the servlet one: {@code ./gradlew bootRunReactive}.
+ * Only this package is scanned; models, {@link JwtUtil} and the order rules are shared.
+ */
+@SpringBootApplication
+public class ReactiveOrderManagementApplication {
+
+    public static void main(String[] args) {
+        SpringApplication.run(ReactiveOrderManagementApplication.class, args);
+    }
+
+    // Same jwt.secret as the servlet application, so tokens from its /auth/login are accepted here
+    @Bean
+    public JwtUtil jwtUtil() {
+        return new JwtUtil();
+    }
+}
@@ -0,0 +1,182 @@
+package ent.orderManagement.reactive;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.DatabaseClient.GenericExecuteSpec;
+import org.springframework.stereotype.Repository;
+
+import ent.orderManagement.cache.OrderCacheInvalidator;
+import ent.orderManagement.model.Order;
+import ent.orderManagement.model.Order.StatusEnum;
+import ent.orderManagement.model.OrderItem;
+import io.r2dbc.spi.Readable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking counterpart of {@code OrderRepository}/{@code OrderItemRepository} on R2DBC.
+ * Rows are read as they arrive; with a fetch size the driver pulls them from PostgreSQL in
+ * batches as the subscriber requests more (backpressure), so a stream never buffers a whole table.
+ */
+@Repository
+public class ReactiveOrderRepository {
+
+    private static final String ORDER_COLUMNS = "id, customer_id, order_date, total_amount, status, created_at";
+    private static final int FETCH_SIZE = 500;
+    // Sender id of our invalidations; the servlet nodes only skip their own
+    private static final String NODE_ID = "reactive-" + UUID.randomUUID();
+
+    private final DatabaseClient databaseClient;
+
+    public ReactiveOrderRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    public Mono<Order> findById(UUID id) {
+        return databaseClient.sql("SELECT " + ORDER_COLUMNS + " FROM orders WHERE id = :id")
+                .bind("id", id)
+                .map(ReactiveOrderRepository::toOrder)
+                .one();
+    }
+
+    /**
+     * One page of orders; all of them for {@code ownerId == null}, otherwise only that customer's.
+     */
+    public Flux<Order> findPage(UUID ownerId, long offset, int limit) {
+        return ownedBy(ownerId, "SELECT " + ORDER_COLUMNS + " FROM orders", " ORDER BY id LIMIT :limit OFFSET :offset")
+                .bind("limit", limit)
+                .bind("offset", offset)
+                .map(ReactiveOrderRepository::toOrder)
+                .all();
+    }
+
+    /**
+     * Every visible order, fetched from a cursor {@code FETCH_SIZE} rows at a time as demanded.
+     * Must be subscribed inside a transaction (PostgreSQL closes the portal otherwise).
+     */
+    public Flux<Order> streamAll(UUID ownerId) {
+        return ownedBy(ownerId, "SELECT " + ORDER_COLUMNS + " FROM orders", " ORDER BY id")
+                .filter(statement -> statement.fetchSize(FETCH_SIZE))
+                .map(ReactiveOrderRepository::toOrder)
+                .all();
+    }
+
+    /**
+     * Items of many orders with one query, ordered by order and line number.
+     */
+    public Flux<ItemRow> findItems(Collection<UUID> orderIds) {
+        return databaseClient.sql("SELECT order_id, id, product_code, name, quantity, unit_price FROM order_items"
+                        + " WHERE order_id = ANY(:ids) ORDER BY order_id, line_number")
+                .bind("ids", orderIds.toArray(new UUID[0]))
+                .map(row -> new ItemRow(row.get("order_id", UUID.class), new OrderItem()
+                        .id(row.get("id", UUID.class))
+                        .productCode(row.get("product_code", String.class))
+                        .name(row.get("name", String.class))
+                        .quantity(row.get("quantity", Integer.class))
+                        .unitPrice(row.get("unit_price", BigDecimal.class))))
+                .all();
+    }
+
+    public record ItemRow(UUID orderId, OrderItem item) {}
+
+    public Mono<Order> insert(Order order) {
+        LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+        order.setId(UUID.randomUUID());
+        order.setCreatedAt(now.atOffset(ZoneOffset.UTC));
+        return databaseClient.sql("INSERT INTO orders (" + ORDER_COLUMNS + ")"
+                        + " VALUES (:id, :customerId, :orderDate, :totalAmount, :status, :createdAt)")
+                .bind("id", order.getId())
+                .bind("customerId", order.getCustomerId())
+                .bind("orderDate", order.getOrderDate())
+                .bind("totalAmount", BigDecimal.valueOf(order.getTotalAmount()))
+                .bind("status", order.getStatus().name())
+                .bind("createdAt", now)
+                .then()
+                .thenReturn(order);
+    }
+
+    public Mono<Void> update(Order order) {
+        return databaseClient.sql("UPDATE orders SET order_date = :orderDate, total_amount = :totalAmount,"
+                        + " status = :status WHERE id = :id")
+                .bind("orderDate", order.getOrderDate())
+                .bind("totalAmount", BigDecimal.valueOf(order.getTotalAmount()))
+                .bind("status", order.getStatus().name())
+                .bind("id", order.getId())
+                .then();
+    }
+
+    public Mono<Void> deleteById(UUID id) {
+        // order_items go with it (ON DELETE CASCADE)
+        return databaseClient.sql("DELETE FROM orders WHERE id = :id").bind("id", id).then();
+    }
+
+    /**
+     * Tell the servlet nodes to evict one order from their order cache, in the format of
+     * {@link OrderCacheInvalidator}. Sent inside the write transaction, PostgreSQL delivers
+     * it only if and when that transaction commits.
+     */
+    public Mono<Void> notifyChanged(UUID id) {
+        return databaseClient.sql("SELECT pg_notify(:channel, :payload)")
+                .bind("channel", OrderCacheInvalidator.CHANNEL)
+                .bind("payload", NODE_ID + ":" + id)
+                .then();
+    }
+
+    /**
+     * Insert the items of one order in a single round trip; returns them with their ids set.
+     */
+    public Mono<List<OrderItem>> insertItems(UUID orderId, List<OrderItem> items) {
+        if (items == null || items.isEmpty()) {
+            return Mono.just(List.of());
+        }
+        return databaseClient.inConnectionMany(connection -> {
+            var statement = connection.createStatement("INSERT INTO order_items"
+                    + " (id, order_id, line_number, product_code, name, quantity, unit_price)"
+                    + " VALUES ($1, $2, $3, $4, $5, $6, $7)");
+            for (int i = 0; i < items.size(); i++) {
+                OrderItem item = items.get(i);
+                item.setId(UUID.randomUUID());
+                if (i > 0) {
+                    statement.add();
+                }
+                statement.bind(0, item.getId()).bind(1, orderId).bind(2, i + 1).bind(3, item.getProductCode())
+                        .bind(5, item.getQuantity()).bind(6, item.getUnitPrice());
+                if (item.getName() != null) {
+                    statement.bind(4, item.getName());
+                } else {
+                    statement.bindNull(4, String.class);
+                }
+            }
+            return Flux.from(statement.execute()).flatMap(result -> result.getRowsUpdated());
+        }).then(Mono.just(items));
+    }
+
+    public Mono<Void> deleteItems(UUID orderId) {
+        return databaseClient.sql("DELETE FROM order_items WHERE order_id = :orderId").bind("orderId", orderId).then();
+    }
+
+    private GenericExecuteSpec ownedBy(UUID ownerId, String select, String suffix) {
+        if (ownerId == null) {
+            return databaseClient.sql(select + suffix);
+        }
+        return databaseClient.sql(select + " WHERE customer_id = :ownerId" + suffix).bind("ownerId", ownerId);
+    }
+
+    private static Order toOrder(Readable row) {
+        LocalDateTime createdAt = row.get("created_at", LocalDateTime.class);
+        return new Order()
+                .id(row.get("id", UUID.class))
+                .customerId(row.get("customer_id", UUID.class))
+                .orderDate(row.get("order_date", LocalDate.class))
+                .totalAmount(row.get("total_amount", BigDecimal.class).floatValue())
+                .status(StatusEnum.valueOf(row.get("status", String.class)))
+                .createdAt(createdAt != null ? createdAt.atOffset(ZoneOffset.UTC) : null);
+    }
+}
@@ -0,0 +1,131 @@
+package ent.orderManagement.reactive;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.web.server.ResponseStatusException;
+
+import ent.orderManagement.exception.InvalidOrderException;
+import ent.orderManagement.exception.OrderNotFoundException;
+import ent.orderManagement.model.Order;
+import ent.orderManagement.model.OrderItem;
+import ent.orderManagement.reactive.ReactiveOrderRepository.ItemRow;
+import ent.orderManagement.service.OrderRules;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive counterpart of {@code OrderService}: the same ownership, status transition and
+ * total amount rules ({@link OrderRules}), without blocking a thread on the database.
+ *
+ * Updates and deletes notify the order caches of the servlet nodes in the same transaction.
+ * Nothing else of the servlet application sees these writes: its analytics and CACHED
+ * counters catch up at their next reload and reconciliation, the audit trail does not
+ * record them, and there is no shard routing; {@link ServletOnlyFeatures} refuses to start
+ * with sharding or the audit trail switched on.
+ */
+@Service
+public class ReactiveOrderService {
+
+    // Orders whose items are loaded with one query while streaming
+    private static final int ITEM_BATCH = 100;
+
+    private final ReactiveOrderRepository orderRepository;
+    private final TransactionalOperator transactionalOperator;
+
+    public ReactiveOrderService(ReactiveOrderRepository orderRepository, TransactionalOperator transactionalOperator) {
+        this.orderRepository = orderRepository;
+        this.transactionalOperator = transactionalOperator;
+    }
+
+    public Mono<Order> getOrder(UUID orderId, AuthenticatedUser user) {
+        return findAccessible(orderId, user).flatMap(order -> attachItems(Flux.just(order), true).single());
+    }
+
+    /**
+     * One page of visible orders (Admins see all, Users see their own).
+     */
+    public Flux<Order> getOrders(AuthenticatedUser user, int page, int size, boolean includeItems) {
+        return attachItems(orderRepository.findPage(OrderRules.ownerFilter(user.role(), user.id()),
+                (long) page * size, size), includeItems);
+    }
+
+    /**
+     * Every visible order as a stream; rows are pulled from the database only as fast as the client reads.
+     */
+    public Flux<Order> streamOrders(AuthenticatedUser user, boolean includeItems) {
+        return transactionalOperator.transactional(
+                attachItems(orderRepository.streamAll(OrderRules.ownerFilter(user.role(), user.id())), includeItems));
+    }
+
+    public Mono<Order> createOrder(Order order, AuthenticatedUser user) {
+        return Mono.defer(() -> {
+            order.setCustomerId(user.id());
+            List<OrderItem> items = order.getItems();
+            order.setTotalAmount(OrderRules.resolveTotalAmount(OrderRules.itemsTotal(items), order.getTotalAmount()));
+            return orderRepository.insert(order)
+                    .flatMap(saved -> orderRepository.insertItems(saved.getId(), items).map(saved::items));
+        }).as(transactionalOperator::transactional);
+    }
+
+    public Mono<Order> updateOrder(UUID orderId, Order newOrder, AuthenticatedUser user) {
+        return findAccessible(orderId, user).flatMap(existing -> {
+            if (!OrderRules.canTransitionStatus(existing.getStatus(), newOrder.getStatus())) {
+                return Mono.error(new InvalidOrderException(
+                        "Invalid status transition: " + existing.getStatus() + " -> " + newOrder.getStatus()));
+            }
+            existing.setOrderDate(newOrder.getOrderDate());
+            existing.setStatus(newOrder.getStatus());
+
+            Mono<List<OrderItem>> items;
+            if (newOrder.getItems() != null && !newOrder.getItems().isEmpty()) {
+                existing.setTotalAmount(OrderRules.resolveTotalAmount(
+                        OrderRules.itemsTotal(newOrder.getItems()), newOrder.getTotalAmount()));
+                items = orderRepository.deleteItems(orderId).then(orderRepository.insertItems(orderId, newOrder.getItems()));
+            } else {
+                items = orderRepository.findItems(List.of(orderId)).map(ItemRow::item).collectList()
+                        .doOnNext(stored -> existing.setTotalAmount(OrderRules.resolveTotalAmount(
+                                stored.isEmpty() ? null : OrderRules.itemsTotal(stored), newOrder.getTotalAmount())));
+            }
+            return items.flatMap(stored -> orderRepository.update(existing)
+                    .then(orderRepository.notifyChanged(orderId))
+                    .thenReturn(existing.items(stored)));
+        }).as(transactionalOperator::transactional);
+    }
+
+    public Mono<Void> deleteOrder(UUID orderId, AuthenticatedUser user) {
+        return findAccessible(orderId, user)
+                .flatMap(order -> orderRepository.deleteById(orderId).then(orderRepository.notifyChanged(orderId)))
+                .as(transactionalOperator::transactional);
+    }
+
+    private Mono<Order> findAccessible(UUID orderId, AuthenticatedUser user) {
+        return orderRepository.findById(orderId)
+                .switchIfEmpty(Mono.error(() -> new OrderNotFoundException(orderId)))
+                .filter(order -> OrderRules.canAccess(user.role(), user.id(), order.getCustomerId()))
+                .switchIfEmpty(Mono.error(() -> new ResponseStatusException(HttpStatus.FORBIDDEN,
+                        "Access denied: You can only access your own orders.")));
+    }
+
+    /**
+     * Load items for consecutive batches of orders, one query per batch. {@code concatMap}
+     * keeps the order and requests the next batch only when the previous one was consumed.
+     */
+    private Flux<Order> attachItems(Flux<Order> orders, boolean includeItems) {
+        if (!includeItems) {
+            return orders.map(order -> order.items(null));
+        }
+        return orders.buffer(ITEM_BATCH).concatMap(batch -> orderRepository
+                .findItems(batch.stream().map(Order::getId).collect(Collectors.toList()))
+                .collectMultimap(ItemRow::orderId, ItemRow::item)
+                .flatMapIterable(itemsByOrder -> {
+                    batch.forEach(order -> order.setItems(List.copyOf(
+                            itemsByOrder.getOrDefault(order.getId(), List.of()))));
+                    return batch;
+                }));
+    }
+}
@@ -0,0 +1,149 @@
+package ent.orderManagement.reactive;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+
+import ent.orderManagement.security.RevokedJtiSet;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive counterpart of {@code RevokedTokenRegistry}: the same in-memory {@link RevokedJtiSet}
+ * copy of 'revoked_tokens' with the same {@code jwt.revocation.*} settings, refreshed on R2DBC
+ * without blocking. Every refresh reads only rows revoked since the previous one (minus the
+ * overlap); every {@code jwt.revocation.full-reload-ms} the table is read in full. Purging
+ * expired rows is left to the servlet application.
+ *
+ * Until the first load, and whenever the copy is older than {@code jwt.revocation.max-staleness-ms},
+ * every token is treated as revoked.
+ */
+@Component
+public class ReactiveRevokedTokenRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveRevokedTokenRegistry.class);
+
+    private record Revocation(UUID jti, LocalDateTime revokedAt) {}
+
+    private final DatabaseClient databaseClient;
+    private final Duration refreshInterval;
+    private final Duration overlap;
+    private final long fullReloadNanos;
+    private final long maxStalenessNanos;
+
+    private volatile RevokedJtiSet revoked = RevokedJtiSet.EMPTY;
+    private volatile long refreshedAt;
+    private volatile boolean loaded;
+
+    // Only used by the refresh loop, which runs one refresh at a time
+    private LocalDateTime cursor;
+    private long fullReloadAt;
+    private Disposable refreshes;
+
+    public ReactiveRevokedTokenRegistry(DatabaseClient databaseClient,
+                                        @Value("${jwt.revocation.refresh-ms:1000}") long refreshMs,
+                                        @Value("${jwt.revocation.refresh-overlap-ms:5000}") long overlapMs,
+                                        @Value("${jwt.revocation.full-reload-ms:300000}") long fullReloadMs,
+                                        @Value("${jwt.revocation.max-staleness-ms:30000}") long maxStalenessMs) {
+        this.databaseClient = databaseClient;
+        this.refreshInterval = Duration.ofMillis(refreshMs);
+        this.overlap = Duration.ofMillis(overlapMs);
+        this.fullReloadNanos = TimeUnit.MILLISECONDS.toNanos(fullReloadMs);
+        this.maxStalenessNanos = TimeUnit.MILLISECONDS.toNanos(maxStalenessMs);
+    }
+
+    /**
+     * Whether the access token with this id must be rejected. No I/O.
+     */
+    public boolean isRevoked(UUID jti) {
+        if (!loaded || System.nanoTime() - refreshedAt > maxStalenessNanos) {
+            return true;
+        }
+        return revoked.contains(jti);
+    }
+
+    @PostConstruct
+    void start() {
+        // A tick that arrives while a refresh is still running is dropped, not queued
+        refreshes = Flux.interval(Duration.ZERO, refreshInterval)
+                .onBackpressureDrop()
+                .concatMap(tick -> refresh(), 0)
+                .subscribe();
+    }
+
+    @PreDestroy
+    void stop() {
+        if (refreshes != null) {
+            refreshes.dispose();
+        }
+    }
+
+    Mono<Void> refresh() {
+        return Mono.defer(() -> {
+            long now = System.nanoTime();
+            Mono<Void> work = cursor == null || now - fullReloadAt > fullReloadNanos
+                    ? revocations(null).doOnNext(rows -> reload(rows, now)).then()
+                    : revocations(cursor.minus(overlap)).doOnNext(this::apply).then();
+            return work.doOnSuccess(ignored -> {
+                refreshedAt = now;
+                loaded = true;
+            });
+        }).onErrorResume(e -> {
+            logger.warn("Could not refresh revoked tokens: {}", e.getMessage());
+            return Mono.empty();
+        });
+    }
+
+    private Mono<List<Revocation>> revocations(LocalDateTime since) {
+        DatabaseClient.GenericExecuteSpec query = since == null
+                ? databaseClient.sql("SELECT jti, revoked_at FROM revoked_tokens")
+                : databaseClient.sql("SELECT jti, revoked_at FROM revoked_tokens WHERE revoked_at > :since")
+                        .bind("since", since);
+        return query.map(row -> new Revocation(row.get("jti", UUID.class), row.get("revoked_at", LocalDateTime.class)))
+                .all()
+                .collectList();
+    }
+
+    private void reload(List<Revocation> rows, long now) {
+        List<UUID> jtis = new ArrayList<>(rows.size());
+        cursor = LocalDateTime.MIN;
+        for (Revocation row : rows) {
+            advanceCursor(row);
+            jtis.add(row.jti());
+        }
+        revoked = RevokedJtiSet.of(jtis);
+        fullReloadAt = now;
+        logger.debug("Revoked tokens reloaded: {}", jtis.size());
+    }
+
+    private void apply(List<Revocation> rows) {
+        List<UUID> added = new ArrayList<>();
+        for (Revocation row : rows) {
+            advanceCursor(row);
+            if (!revoked.contains(row.jti())) {
+                added.add(row.jti());
+            }
+        }
+        if (!added.isEmpty()) {
+            revoked = revoked.with(added);
+        }
+    }
+
+    private void advanceCursor(Revocation row) {
+        if (row.revokedAt().isAfter(cursor)) {
+            cursor = row.revokedAt();
+        }
+    }
+}
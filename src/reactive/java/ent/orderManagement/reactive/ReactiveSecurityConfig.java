@@ -0,0 +1,77 @@
+package ent.orderManagement.reactive;
+
+import java.util.List;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.authentication.AuthenticationWebFilter;
+import org.springframework.security.web.server.authentication.ServerAuthenticationConverter;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+
+import ent.orderManagement.model.User;
+import ent.orderManagement.security.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import reactor.core.publisher.Mono;
+
+/**
+ * Same access rules as the servlet {@code SecurityConfig}. The bearer token is verified
+ * in memory, checked against the in-memory copy of the revoked tokens, and the principal
+ * (id, username and role) is taken from its claims: no query per request.
+ */
+@Configuration
+@EnableWebFluxSecurity
+public class ReactiveSecurityConfig {
+
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http, JwtUtil jwtUtil,
+                                                         ReactiveRevokedTokenRegistry revokedTokens) {
+        AuthenticationWebFilter jwtFilter = new AuthenticationWebFilter(jwtAuthenticationManager(jwtUtil, revokedTokens));
+        jwtFilter.setServerAuthenticationConverter(bearerTokenConverter());
+        jwtFilter.setSecurityContextRepository(NoOpServerSecurityContextRepository.getInstance()); // stateless
+
+        return http.csrf(ServerHttpSecurity.CsrfSpec::disable)
+                .httpBasic(ServerHttpSecurity.HttpBasicSpec::disable)
+                .formLogin(ServerHttpSecurity.FormLoginSpec::disable)
+                .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+                .authorizeExchange(exchanges -> exchanges
+                        .pathMatchers("/customers/**").hasRole("ADMIN")  // Only ADMIN can manage customers
+                        .pathMatchers(HttpMethod.GET, "/orders/**").authenticated()
+                        .pathMatchers("/orders/**").hasAnyRole("ADMIN", "USER")
+                        .anyExchange().authenticated())
+                .addFilterAt(jwtFilter, SecurityWebFiltersOrder.AUTHENTICATION)
+                .build();
+    }
+
+    private static ServerAuthenticationConverter bearerTokenConverter() {
+        return exchange -> Mono.justOrEmpty(exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION))
+                .filter(header -> header.startsWith("Bearer "))
+                .map(header -> new UsernamePasswordAuthenticationToken(null, header.substring(7)));
+    }
+
+    private static ReactiveAuthenticationManager jwtAuthenticationManager(JwtUtil jwtUtil,
+                                                                          ReactiveRevokedTokenRegistry revokedTokens) {
+        return authentication -> Mono.fromCallable(() -> {
+                    Claims claims = jwtUtil.extractClaims((String) authentication.getCredentials());
+                    if (revokedTokens.isRevoked(jwtUtil.extractTokenId(claims))) {
+                        throw new BadCredentialsException("Revoked token");
+                    }
+                    User user = jwtUtil.extractUser(claims);
+                    return new AuthenticatedUser(user.getId(), user.getUsername(), user.getRole());
+                })
+                .onErrorMap(e -> e instanceof JwtException || e instanceof IllegalArgumentException,
+                        e -> new BadCredentialsException("Invalid token", e))
+                .map(user -> new UsernamePasswordAuthenticationToken(user, null,
+                        List.of(new SimpleGrantedAuthority("ROLE_" + user.role().name()))));
+    }
+}
@@ -0,0 +1,25 @@
+package ent.orderManagement.reactive;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Refuses to start when a feature is switched on that this application does not implement:
+ * its writes go to the main database only and are not recorded in the audit trail, so running
+ * it next to a sharded or audited servlet deployment would silently lose orders or records.
+ */
+@Component
+public class ServletOnlyFeatures {
+
+    public ServletOnlyFeatures(@Value("${sharding.enabled:false}") boolean shardingEnabled,
+                               @Value("${audit.enabled:false}") boolean auditEnabled) {
+        if (shardingEnabled) {
+            throw new IllegalStateException("sharding.enabled=true is not supported by the reactive application:"
+                    + " it has no shard routing");
+        }
+        if (auditEnabled) {
+            throw new IllegalStateException("audit.enabled=true is not supported by the reactive application:"
+                    + " its writes are not recorded in the audit trail");
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package ent.orderManagement;
+
+import ent.orderManagement.model.Role;
+import ent.orderManagement.model.User;
+import ent.orderManagement.reactive.ReactiveOrderManagementApplication;
+import ent.orderManagement.security.JwtUtil;
+import ent.orderManagement.security.JwtUtil.AccessToken;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.sql.Timestamp;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The reactive application end to end (WebTestClient over HTTP) in a throwaway schema: the
+ * ownership, status transition and error rules OrderServiceTest covers for the servlet
+ * application, and the JWT filter with its revoked token check.
+ * Run with: ./gradlew reactivePostgresTest -Dpostgres.url=jdbc:postgresql://localhost:5432/orders
+ */
+@Tag("postgres")
+@SpringBootTest(classes = ReactiveOrderManagementApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "jwt.revocation.refresh-ms=100")
+class ReactiveOrderApiTest {
+
+    @RegisterExtension
+    static final PostgresSchema SCHEMA = PostgresSchema.throwaway("reactive_test");
+
+    @Autowired
+    private WebTestClient client;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    private static JdbcTemplate jdbcTemplate;
+
+    private User ana;
+    private User ivan;
+    private User admin;
+
+    @BeforeAll
+    static void migrate() {
+        jdbcTemplate = SCHEMA.jdbcTemplate();
+        SCHEMA.migrate();
+    }
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        String url = System.getProperty("postgres.url", "");
+        registry.add("spring.r2dbc.url", () -> url.replaceFirst("^jdbc:", "r2dbc:")
+                + (url.contains("?") ? "&" : "?") + "schema=" + SCHEMA.name());
+        registry.add("spring.r2dbc.username", PostgresSchema::username);
+        registry.add("spring.r2dbc.password", PostgresSchema::password);
+    }
+
+    @BeforeEach
+    void setUp() {
+        ana = customer("ana", Role.USER);
+        ivan = customer("ivan", Role.USER);
+        admin = customer("admin", Role.ADMIN);
+        // Every token is rejected until the revoked tokens are loaded for the first time
+        String token = token(ana);
+        awaitTrue(() -> status(client.get().uri("/orders").headers(headers -> headers.setBearerAuth(token))
+                .accept(MediaType.APPLICATION_JSON)) == HttpStatus.OK);
+    }
+
+    @Test
+    void shouldLetUsersSeeOnlyTheirOwnOrders() {
+        UUID orderId = createOrder(ana);
+
+        client.get().uri("/orders/{id}", orderId).headers(headers -> headers.setBearerAuth(token(ana))).exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.customerId").isEqualTo(ana.getId().toString());
+        client.get().uri("/orders/{id}", orderId).headers(headers -> headers.setBearerAuth(token(ivan))).exchange()
+                .expectStatus().isForbidden();
+        client.get().uri("/orders/{id}", orderId).headers(headers -> headers.setBearerAuth(token(admin))).exchange()
+                .expectStatus().isOk();
+        client.get().uri("/orders/{id}", UUID.randomUUID()).headers(headers -> headers.setBearerAuth(token(ana)))
+                .exchange()
+                .expectStatus().isNotFound();
+
+        client.get().uri("/orders").headers(headers -> headers.setBearerAuth(token(ivan)))
+                .accept(MediaType.APPLICATION_JSON).exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.length()").isEqualTo(0);
+        client.get().uri("/orders").headers(headers -> headers.setBearerAuth(token(ana)))
+                .accept(MediaType.APPLICATION_JSON).exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$[0].id").isEqualTo(orderId.toString());
+    }
+
+    @Test
+    void shouldApplyStatusTransitionRules() {
+        UUID orderId = createOrder(ana);
+
+        updateStatus(ana, orderId, "CANCELLED").expectStatus().isOk()
+                .expectBody().jsonPath("$.status").isEqualTo("CANCELLED");
+        // CANCELLED is terminal
+        updateStatus(ana, orderId, "NEW").expectStatus().isBadRequest();
+        updateStatus(ivan, orderId, "CANCELLED").expectStatus().isForbidden();
+        updateStatus(ana, UUID.randomUUID(), "CANCELLED").expectStatus().isNotFound();
+    }
+
+    @Test
+    void shouldDeleteOnlyOwnOrders() {
+        UUID orderId = createOrder(ana);
+
+        client.delete().uri("/orders/{id}", orderId).headers(headers -> headers.setBearerAuth(token(ivan))).exchange()
+                .expectStatus().isForbidden();
+        client.delete().uri("/orders/{id}", orderId).headers(headers -> headers.setBearerAuth(token(ana))).exchange()
+                .expectStatus().isNoContent();
+        client.get().uri("/orders/{id}", orderId).headers(headers -> headers.setBearerAuth(token(ana))).exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void shouldLeaveCustomersToAdmins() {
+        client.get().uri("/customers").headers(headers -> headers.setBearerAuth(token(ana)))
+                .accept(MediaType.APPLICATION_JSON).exchange()
+                .expectStatus().isForbidden();
+        client.get().uri("/customers/{id}", ana.getId()).headers(headers -> headers.setBearerAuth(token(admin)))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.email").isEqualTo(ana.getUsername() + "@example.com");
+    }
+
+    @Test
+    void shouldRejectMissingForgedAndRevokedTokens() {
+        client.get().uri("/orders").accept(MediaType.APPLICATION_JSON).exchange()
+                .expectStatus().isUnauthorized();
+        String forged = new JwtUtil("some-other-secret-of-at-least-32-chars", 300_000).generateAccessToken(ana).token();
+        client.get().uri("/orders").headers(headers -> headers.setBearerAuth(forged))
+                .accept(MediaType.APPLICATION_JSON).exchange()
+                .expectStatus().isUnauthorized();
+
+        AccessToken revoked = jwtUtil.generateAccessToken(ana);
+        jdbcTemplate.update("INSERT INTO revoked_tokens (jti, expires_at) VALUES (?, ?)",
+                revoked.jti(), Timestamp.from(revoked.expiresAt()));
+        // Picked up by the next incremental refresh, without a query per request
+        awaitTrue(() -> status(client.get().uri("/orders").headers(headers -> headers.setBearerAuth(revoked.token()))
+                .accept(MediaType.APPLICATION_JSON)) == HttpStatus.UNAUTHORIZED);
+        client.get().uri("/orders").headers(headers -> headers.setBearerAuth(token(ana)))
+                .accept(MediaType.APPLICATION_JSON).exchange()
+                .expectStatus().isOk();
+    }
+
+    private UUID createOrder(User user) {
+        String id = client.post().uri("/orders").headers(headers -> headers.setBearerAuth(token(user)))
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("orderDate", "2024-03-01", "status", "NEW", "totalAmount", 10.5))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(Map.class).returnResult().getResponseBody().get("id").toString();
+        return UUID.fromString(id);
+    }
+
+    private WebTestClient.ResponseSpec updateStatus(User user, UUID orderId, String status) {
+        return client.put().uri("/orders/{id}", orderId).headers(headers -> headers.setBearerAuth(token(user)))
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("orderDate", "2024-03-02", "status", status))
+                .exchange();
+    }
+
+    private User customer(String name, Role role) {
+        User user = new User(name + "-" + UUID.randomUUID(), null, role);
+        user.setId(UUID.randomUUID());
+        // The user's id doubles as the customer id of their orders
+        jdbcTemplate.update("INSERT INTO customers (id, name, email) VALUES (?, ?, ?)",
+                user.getId(), "Customer " + user.getUsername(), user.getUsername() + "@example.com");
+        return user;
+    }
+
+    private String token(User user) {
+        return jwtUtil.generateAccessToken(user).token();
+    }
+
+    private static HttpStatus status(WebTestClient.RequestHeadersSpec<?> request) {
+        return HttpStatus.valueOf(request.exchange().returnResult(Void.class).getStatus().value());
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "Condition not met within 5s");
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail(e);
+            }
+        }
+    }
+}
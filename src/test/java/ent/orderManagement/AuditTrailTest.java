@@ -0,0 +1,182 @@
+package ent.orderManagement;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import ent.orderManagement.audit.AuditEvent.EntityType;
+import ent.orderManagement.audit.AuditExport;
+import ent.orderManagement.audit.AuditExport.Filter;
+import ent.orderManagement.audit.AuditLogReader;
+import ent.orderManagement.audit.AuditRingBuffer;
+import ent.orderManagement.audit.AuditSegmentLog;
+import ent.orderManagement.audit.AuditTrail;
+import ent.orderManagement.model.Customer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuditTrailTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldHandEveryElementToTheConsumerOnceAndInProducerOrder() throws Exception {
+        int producers = 4;
+        int perProducer = 50_000;
+        AuditRingBuffer<long[]> buffer = new AuditRingBuffer<>(1024);
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        for (int p = 0; p < producers; p++) {
+            int producer = p;
+            executor.execute(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    while (!buffer.offer(new long[] {producer, i})) {
+                        Thread.onSpinWait();
+                    }
+                }
+            });
+        }
+
+        long[] next = new long[producers];
+        int received = 0;
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (received < producers * perProducer && System.nanoTime() < deadline) {
+            long[] element = buffer.poll();
+            if (element != null) {
+                assertEquals(next[(int) element[0]]++, element[1], "producer " + element[0] + " out of order");
+                received++;
+            }
+        }
+        executor.shutdown();
+        assertEquals(producers * perProducer, received);
+        assertNull(buffer.poll());
+    }
+
+    @Test
+    void shouldRefuseWhenFull() {
+        AuditRingBuffer<String> buffer = new AuditRingBuffer<>(3);
+        assertEquals(4, buffer.capacity());
+        for (int i = 0; i < 4; i++) {
+            assertTrue(buffer.offer("e" + i));
+        }
+        assertFalse(buffer.offer("e4"));
+        assertEquals("e0", buffer.poll());
+        assertTrue(buffer.offer("e4"));
+        assertEquals(4, buffer.size());
+    }
+
+    @Test
+    void shouldRotateCompressAndReadBackInOrder() throws Exception {
+        AuditSegmentLog log = new AuditSegmentLog(directory, 1024, true);
+        for (int i = 0; i < 100; i++) {
+            log.append(("{\"n\":" + i + "}").getBytes(StandardCharsets.UTF_8));
+        }
+        log.close();
+
+        List<String> files = fileNames();
+        assertTrue(files.size() > 3, "several segments: " + files);
+        assertTrue(files.stream().allMatch(name -> name.endsWith(".log.gz")), "all compressed: " + files);
+        assertEquals(numbers(0, 100), readAll());
+    }
+
+    @Test
+    void shouldRecoverSegmentLeftOpenByACrash() throws Exception {
+        AuditSegmentLog crashed = new AuditSegmentLog(directory, 1 << 20, false);
+        for (int i = 0; i < 5; i++) {
+            crashed.append(("{\"n\":" + i + "}").getBytes(StandardCharsets.UTF_8));
+        }
+        crashed.force();
+        // A record whose length made it to the file, but not its payload
+        Path open = directory.resolve(fileNames().get(0));
+        int end = 5 * (8 + "{\"n\":0}".length());
+        try (FileChannel file = FileChannel.open(open, StandardOpenOption.WRITE)) {
+            file.write(ByteBuffer.allocate(4).putInt(0, 100), end);
+        }
+
+        AuditSegmentLog recovered = new AuditSegmentLog(directory, 1 << 20, false);
+        assertEquals(end, Files.size(open), "cut after the last intact record");
+        recovered.append("{\"n\":5}".getBytes(StandardCharsets.UTF_8));
+        recovered.close();
+        assertEquals(numbers(0, 6), readAll());
+    }
+
+    @Test
+    void shouldRecordChangesAndExportThemByEntity() throws Exception {
+        ObjectMapper json = new ObjectMapper().findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        AuditTrail trail = new AuditTrail(json, new SimpleMeterRegistry(), true, directory.toString(),
+                64, 8, 1, true, "periodic", 10, 100);
+        trail.start();
+        UUID customerId = UUID.randomUUID();
+        UUID orderId = UUID.randomUUID();
+        Instant start = Instant.now();
+        trail.recordUpdate(EntityType.CUSTOMER, customerId, customer(customerId, "Ana"), customer(customerId, "Ana Horvat"));
+        for (int i = 0; i < 200; i++) {
+            trail.recordUpdate(EntityType.ORDER, orderId, "v" + i, "v" + (i + 1));
+        }
+        trail.recordDelete(EntityType.CUSTOMER, customerId, customer(customerId, "Ana Horvat"));
+        trail.stop();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals(2, AuditExport.export(directory,
+                new Filter(EntityType.CUSTOMER, customerId, null, start, null), out));
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        JsonNode update = json.readTree(lines[0]);
+        assertEquals("UPDATE", update.get("action").asText());
+        assertEquals("Ana", update.get("before").get("name").asText());
+        assertEquals("Ana Horvat", update.get("after").get("name").asText());
+        JsonNode delete = json.readTree(lines[1]);
+        assertEquals("DELETE", delete.get("action").asText());
+        assertTrue(delete.get("after").isNull());
+
+        assertEquals(202, AuditExport.export(directory, Filter.all(), new ByteArrayOutputStream()));
+        assertEquals(0, AuditExport.export(directory,
+                new Filter(null, null, null, Instant.now().plusSeconds(60), null), new ByteArrayOutputStream()));
+    }
+
+    private List<String> readAll() throws Exception {
+        List<String> records = new ArrayList<>();
+        AuditLogReader.read(directory, Long.MIN_VALUE, payload -> records.add(new String(payload, StandardCharsets.UTF_8)));
+        return records;
+    }
+
+    private List<String> fileNames() throws Exception {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(path -> path.getFileName().toString()).sorted().toList();
+        }
+    }
+
+    private static List<String> numbers(int from, int to) {
+        List<String> numbers = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            numbers.add("{\"n\":" + i + "}");
+        }
+        return numbers;
+    }
+
+    private static Customer customer(UUID id, String name) {
+        Customer customer = new Customer();
+        customer.setId(id);
+        customer.setName(name);
+        customer.setEmail("ana@example.com");
+        return customer;
+    }
+}
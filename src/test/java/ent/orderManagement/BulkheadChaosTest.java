@@ -0,0 +1,172 @@
+package ent.orderManagement;
+
+import ent.orderManagement.bulkhead.BulkheadFilter;
+import ent.orderManagement.bulkhead.BulkheadRegistry;
+import ent.orderManagement.bulkhead.EndpointClass;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Injects latency into every statement of an in-memory database and checks that the
+ * bulkhead sheds the excess quickly, shrinks its limit, keeps login usable and recovers.
+ */
+class BulkheadChaosTest {
+
+    private static final long QUEUE_TIMEOUT_MS = 100;
+
+    private final AtomicLong injectedLatencyMs = new AtomicLong();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private BulkheadRegistry registry;
+    private BulkheadFilter filter;
+    private JdbcTemplate jdbcTemplate;
+    private ExecutorService clients;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(new LatencyInjectingDataSource(
+                new DriverManagerDataSource("jdbc:h2:mem:bulkhead_chaos;DB_CLOSE_DELAY=-1", "sa", ""), injectedLatencyMs));
+        registry = new BulkheadRegistry(meterRegistry, 16, 8, 4, 2, 4, QUEUE_TIMEOUT_MS, 1000);
+        filter = new BulkheadFilter(registry, true);
+        clients = Executors.newFixedThreadPool(32);
+    }
+
+    @AfterEach
+    void tearDown() {
+        clients.shutdownNow();
+    }
+
+    @Test
+    void shouldShedLoadFastWhenDatabaseSlowsDownAndRecoverAfterwards() throws Exception {
+        injectedLatencyMs.set(2);
+        hammer(16, 1000);
+        assertTrue(registry.get(EndpointClass.READ).limit() >= 8, "limit stays high while the database is fast");
+
+        injectedLatencyMs.set(200);
+        AtomicLong loginStatus = new AtomicLong();
+        clients.submit(() -> {
+            sleep(500);
+            loginStatus.set(call("POST", "/auth/login").getStatus());
+        });
+        Stats degraded = hammer(32, 2000);
+        int degradedLimit = registry.get(EndpointClass.READ).limit();
+
+        assertTrue(degraded.rejected.get() > 0, "excess requests are rejected");
+        assertTrue(degraded.slowestRejectionMs.get() < QUEUE_TIMEOUT_MS + 100,
+                "rejections never wait much past the queue timeout, was " + degraded.slowestRejectionMs.get() + " ms");
+        assertTrue(degradedLimit < 8, "limit shrinks with the latency, was " + degradedLimit);
+        assertEquals(200, loginStatus.get(), "login has its own bulkhead");
+        assertEquals(degradedLimit, meterRegistry.get("bulkhead.limit").tag("class", "read").gauge().value());
+
+        injectedLatencyMs.set(2);
+        hammer(32, 1000);
+        assertTrue(registry.get(EndpointClass.READ).limit() > degradedLimit, "limit recovers");
+    }
+
+    private Stats hammer(int threads, long durationMs) throws InterruptedException {
+        Stats stats = new Stats();
+        long deadline = System.currentTimeMillis() + durationMs;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        for (int i = 0; i < threads; i++) {
+            pool.submit(() -> {
+                while (System.currentTimeMillis() < deadline) {
+                    long start = System.nanoTime();
+                    MockHttpServletResponse response = call("GET", "/orders");
+                    if (response.getStatus() == 503) {
+                        stats.rejected.incrementAndGet();
+                        stats.slowestRejectionMs.accumulateAndGet(
+                                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), Math::max);
+                        sleep(5);
+                    }
+                }
+            });
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(durationMs + 5000, TimeUnit.MILLISECONDS));
+        return stats;
+    }
+
+    private MockHttpServletResponse call(String method, String uri) {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FilterChain handler = (request, ignored) -> jdbcTemplate.queryForObject("SELECT 1", Integer.class);
+        try {
+            filter.doFilter(new MockHttpServletRequest(method, uri), response, handler);
+        } catch (Exception e) {
+            fail(e);
+        }
+        return response;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class Stats {
+        final AtomicLong rejected = new AtomicLong();
+        final AtomicLong slowestRejectionMs = new AtomicLong();
+    }
+
+    /**
+     * Delays every statement execution by the current value of {@code latencyMs}.
+     */
+    private static final class LatencyInjectingDataSource extends DelegatingDataSource {
+
+        private final AtomicLong latencyMs;
+
+        LatencyInjectingDataSource(DriverManagerDataSource target, AtomicLong latencyMs) {
+            super(target);
+            this.latencyMs = latencyMs;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            Connection connection = super.getConnection();
+            return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {Connection.class},
+                    (proxy, method, args) -> {
+                        Object result = invoke(connection, method, args);
+                        return result instanceof Statement statement ? delayed(statement, method.getReturnType()) : result;
+                    });
+        }
+
+        private Object delayed(Statement statement, Class<?> type) {
+            return Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {type},
+                    (proxy, method, args) -> {
+                        if (method.getName().startsWith("execute")) {
+                            sleep(latencyMs.get());
+                        }
+                        return invoke(statement, method, args);
+                    });
+        }
+
+        private static Object invoke(Object target, java.lang.reflect.Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
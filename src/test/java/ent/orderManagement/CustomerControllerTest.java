@@ -2,6 +2,7 @@ package ent.orderManagement;
 
 import ent.orderManagement.controller.CustomerController;
 import ent.orderManagement.model.Customer;
+import ent.orderManagement.payload.CustomerDeletionJob;
 import ent.orderManagement.service.CustomerService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -114,11 +115,15 @@ class CustomerControllerTest {
     }
 
     @Test
-    void shouldDeleteCustomer() throws Exception {
-        doNothing().when(customerService).deleteCustomer(testCustomerId);
+    void shouldDeleteCustomerInTheBackground() throws Exception {
+        UUID jobId = UUID.randomUUID();
+        when(customerService.deleteCustomer(testCustomerId)).thenReturn(new CustomerDeletionJob(jobId, testCustomerId,
+                CustomerDeletionJob.Status.PENDING, 0, 0, null, null, null, null));
 
         mockMvc.perform(delete("/customers/{id}", testCustomerId))
-                .andExpect(status().isNoContent());
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/customers/deletion-jobs/" + jobId))
+                .andExpect(jsonPath("$.status").value("PENDING"));
 
         verify(customerService, times(1)).deleteCustomer(testCustomerId);
     }
@@ -0,0 +1,100 @@
+package ent.orderManagement;
+
+import ent.orderManagement.analytics.OrderAnalyticsEngine;
+import ent.orderManagement.cache.OrderCacheInvalidator;
+import ent.orderManagement.payload.CustomerDeletionJob;
+import ent.orderManagement.payload.CustomerDeletionJob.Status;
+import ent.orderManagement.repository.CustomerDeletionJobRepository;
+import ent.orderManagement.repository.CustomerRepository;
+import ent.orderManagement.repository.OrderJdbcRepository;
+import ent.orderManagement.service.CustomerDeletionWorker;
+import ent.orderManagement.service.OrderCounts;
+import ent.orderManagement.sharding.OrderDirectory;
+import ent.orderManagement.sharding.ShardDataSources;
+import ent.orderManagement.sharding.Shards;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CustomerDeletionWorkerTest {
+
+    @Mock
+    private CustomerDeletionJobRepository jobRepository;
+
+    @Mock
+    private CustomerRepository customerRepository;
+
+    @Mock
+    private OrderJdbcRepository orderJdbcRepository;
+
+    @Mock
+    private OrderCacheInvalidator orderCacheInvalidator;
+
+    @Mock
+    private OrderAnalyticsEngine analyticsEngine;
+
+    @Mock
+    private OrderCounts orderCounts;
+
+    private CustomerDeletionWorker worker;
+    private final UUID customerId = UUID.randomUUID();
+    private final CustomerDeletionJob job = new CustomerDeletionJob(UUID.randomUUID(), customerId, Status.RUNNING,
+            0, 1, null, null, null, null);
+
+    @BeforeEach
+    void setUp() {
+        worker = new CustomerDeletionWorker(jobRepository, customerRepository, orderJdbcRepository,
+                orderCacheInvalidator, analyticsEngine, orderCounts, Shards.unsharded(),
+                new OrderDirectory(ShardDataSources.unsharded()), true, 2, 0, 60_000, 30_000);
+        when(jobRepository.claimNext(60_000)).thenReturn(Optional.of(job), Optional.empty());
+    }
+
+    @Test
+    void shouldDeleteOrdersInChunksBeforeTheCustomerRow() {
+        UUID o1 = UUID.randomUUID(), o2 = UUID.randomUUID(), o3 = UUID.randomUUID(), late = UUID.randomUUID();
+        when(orderJdbcRepository.deleteChunkByCustomerId(customerId, 2))
+                .thenReturn(List.of(o1, o2), List.of(o3), List.of(), List.of(late), List.of());
+        // an order created while the job ran blocks the first purge attempt
+        doThrow(new DataIntegrityViolationException("orders_customer_id_fkey")).doNothing()
+                .when(customerRepository).purgeSoftDeleted(customerId);
+
+        worker.runPendingJobs();
+
+        InOrder inOrder = inOrder(jobRepository, customerRepository);
+        inOrder.verify(jobRepository).recordProgress(job.getId(), 2, 60_000);
+        inOrder.verify(jobRepository).recordProgress(job.getId(), 1, 60_000);
+        inOrder.verify(jobRepository).recordProgress(job.getId(), 0, 60_000);
+        inOrder.verify(jobRepository).recordProgress(job.getId(), 1, 60_000);
+        inOrder.verify(customerRepository).purgeSoftDeleted(customerId);
+        inOrder.verify(jobRepository).complete(job.getId());
+        verify(orderCacheInvalidator).invalidate(List.of(o1, o2));
+        verify(orderCounts).recordChange(customerId, -2);
+        verify(analyticsEngine).requestReload();
+    }
+
+    @Test
+    void shouldLeaveJobForRetryWhenTheDatabaseFails() {
+        when(orderJdbcRepository.deleteChunkByCustomerId(customerId, 2))
+                .thenReturn(List.of(UUID.randomUUID()))
+                .thenThrow(new QueryTimeoutException("canceling statement due to statement timeout"));
+
+        worker.runPendingJobs();
+
+        verify(jobRepository).fail(eq(job.getId()), contains("statement timeout"), eq(30_000L));
+        verify(jobRepository, never()).complete(any());
+        verify(customerRepository, never()).purgeSoftDeleted(any());
+    }
+}
@@ -0,0 +1,94 @@
+package ent.orderManagement;
+
+import ent.orderManagement.audit.AuditTrail;
+import ent.orderManagement.exception.InvalidSearchException;
+import ent.orderManagement.model.Customer;
+import ent.orderManagement.payload.CustomerMatch;
+import ent.orderManagement.payload.CustomerMatch.MatchType;
+import ent.orderManagement.payload.CustomerSearchResponse;
+import ent.orderManagement.repository.CustomerDeletionJobRepository;
+import ent.orderManagement.repository.CustomerRepository;
+import ent.orderManagement.repository.CustomerRepository.SearchHit;
+import ent.orderManagement.service.CustomerService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CustomerSearchTest {
+
+    @Mock
+    private CustomerRepository customerRepository;
+
+    @Mock
+    private CustomerDeletionJobRepository deletionJobRepository;
+
+    private CustomerService customerService;
+
+    @BeforeEach
+    void setUp() {
+        customerService = new CustomerService(customerRepository, deletionJobRepository, AuditTrail.disabled(), 500, 1000);
+    }
+
+    @Test
+    void shouldRankExactThenPrefixThenFuzzyWithoutDuplicates() {
+        Customer anaByEmail = customer("Zrinka Anić", "ana@example.com");
+        Customer anamarija = customer("Anamarija Horvat", "amh@example.com");
+        Customer ana = customer("Ana", "ana.k@example.com");
+        Customer hana = customer("Hana Babić", "hb@example.com");
+
+        when(customerRepository.findByPrefix("ana", 11)).thenReturn(List.of(
+                new SearchHit(anamarija, "anamarija horvat", 1.0),
+                new SearchHit(ana, "ana", 1.0),
+                new SearchHit(ana, "ana.k@example.com", 1.0),
+                new SearchHit(anaByEmail, "ana@example.com", 1.0)));
+        when(customerRepository.findSimilar(eq("ana"), anyInt())).thenReturn(List.of(
+                new SearchHit(ana, "ana", 1.0),
+                new SearchHit(hana, "hana babić", 0.75)));
+
+        CustomerSearchResponse response = customerService.searchCustomers(" Ana ", 0, 10);
+
+        assertEquals(List.of(ana, anaByEmail, anamarija, hana),
+                response.getResults().stream().map(CustomerMatch::getCustomer).collect(Collectors.toList()));
+        assertEquals(List.of(MatchType.EXACT, MatchType.PREFIX, MatchType.PREFIX, MatchType.FUZZY),
+                response.getResults().stream().map(CustomerMatch::getMatchType).collect(Collectors.toList()));
+        assertFalse(response.isHasNext());
+    }
+
+    @Test
+    void shouldSkipFuzzySearchWhenPrefixMatchesFillThePage() {
+        when(customerRepository.findByPrefix("iva", 3)).thenReturn(List.of(
+                new SearchHit(customer("Iva", "iva@example.com"), "iva", 1.0),
+                new SearchHit(customer("Ivan", "ivan@example.com"), "ivan", 1.0),
+                new SearchHit(customer("Ivana", "ivana@example.com"), "ivana", 1.0)));
+
+        CustomerSearchResponse response = customerService.searchCustomers("iva", 0, 2);
+
+        assertEquals(2, response.getResults().size());
+        assertTrue(response.isHasNext());
+        verify(customerRepository, never()).findSimilar(anyString(), anyInt());
+    }
+
+    @Test
+    void shouldRejectPagesBeyondTheResultLimit() {
+        assertThrows(InvalidSearchException.class, () -> customerService.searchCustomers("ana", 10, 100));
+    }
+
+    private static Customer customer(String name, String email) {
+        Customer customer = new Customer();
+        customer.setId(UUID.randomUUID());
+        customer.setName(name);
+        customer.setEmail(email);
+        return customer;
+    }
+}
@@ -0,0 +1,89 @@
+package ent.orderManagement;
+
+import ent.orderManagement.service.FanOut;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class FanOutTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void shouldTakeAboutAsLongAsTheSlowestSubtask() throws Exception {
+        long start = System.nanoTime();
+        try (FanOut scope = new FanOut(executor, Duration.ofSeconds(5))) {
+            Supplier<String> customer = scope.fork(() -> sleep(300, "customer"));
+            Supplier<String> statuses = scope.fork(() -> sleep(300, "statuses"));
+            Supplier<String> recent = scope.fork(() -> sleep(300, "recent"));
+            scope.join();
+
+            assertEquals("customer statuses recent", customer.get() + " " + statuses.get() + " " + recent.get());
+        }
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertTrue(elapsedMs < 800, "subtasks ran one after another: " + elapsedMs + " ms");
+    }
+
+    @Test
+    void shouldCancelTheOthersWhenOneFails() throws Exception {
+        CountDownLatch interrupted = new CountDownLatch(1);
+        Statement query = mock(Statement.class);
+        FanOut scope = new FanOut(executor, Duration.ofSeconds(5));
+        scope.fork(() -> {
+            FanOut.cancellable(query);
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+            return null;
+        });
+        scope.fork(() -> {
+            Thread.sleep(50);
+            throw new IllegalStateException("customer not found");
+        });
+
+        ExecutionException failure = assertThrows(ExecutionException.class, scope::join);
+        assertEquals("customer not found", failure.getCause().getMessage());
+        assertTrue(interrupted.await(1, TimeUnit.SECONDS), "the slow subtask was not cancelled");
+        verify(query).cancel();
+    }
+
+    @Test
+    void shouldCancelEverythingWhenTheDeadlinePasses() throws Exception {
+        Statement query = mock(Statement.class);
+        FanOut scope = new FanOut(executor, Duration.ofMillis(100));
+        scope.fork(() -> sleep(50, "fast"));
+        scope.fork(() -> {
+            FanOut.cancellable(query);
+            return sleep(10_000, "slow");
+        });
+
+        long start = System.nanoTime();
+        assertThrows(TimeoutException.class, scope::join);
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 1000);
+        verify(query).cancel();
+    }
+
+    private static String sleep(long ms, String result) throws InterruptedException {
+        Thread.sleep(ms);
+        return result;
+    }
+}
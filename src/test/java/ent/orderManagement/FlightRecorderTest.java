@@ -0,0 +1,86 @@
+package ent.orderManagement;
+
+import ent.orderManagement.jfr.FlightRecorderFilter;
+import ent.orderManagement.jfr.TracingDataSource;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Every request is recorded; its SQL breakdown only when it was slower than the threshold.
+ */
+class FlightRecorderTest {
+
+    private final JdbcTemplate jdbcTemplate = new JdbcTemplate(
+            new TracingDataSource(new DriverManagerDataSource("jdbc:h2:mem:flight_recorder;DB_CLOSE_DELAY=-1")));
+
+    private Recording recording;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS probes (id INT)");
+        jdbcTemplate.execute("DELETE FROM probes");
+        jdbcTemplate.update("INSERT INTO probes VALUES (1), (2), (3)");
+
+        recording = new Recording();
+        recording.enable("ent.orderManagement.Request");
+        recording.enable("ent.orderManagement.Query");
+        recording.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        recording.close();
+    }
+
+    @Test
+    void shouldRecordBreakdownOnlyForSlowRequests() throws Exception {
+        request(new FlightRecorderFilter(60_000, 100), "/orders/fast");
+        request(new FlightRecorderFilter(0, 100), "/orders/slow");
+
+        List<RecordedEvent> events = stopAndRead();
+        List<RecordedEvent> requests = events.stream()
+                .filter(event -> event.getEventType().getName().equals("ent.orderManagement.Request")).toList();
+        List<RecordedEvent> queries = events.stream()
+                .filter(event -> event.getEventType().getName().equals("ent.orderManagement.Query")).toList();
+
+        assertEquals(List.of("/orders/fast", "/orders/slow"), requests.stream().map(e -> e.getString("path")).toList());
+        assertEquals(List.of(false, true), requests.stream().map(e -> e.getBoolean("slow")).toList());
+        assertTrue(requests.stream().allMatch(e -> e.getInt("statements") == 1 && e.getLong("rows") == 3));
+
+        assertEquals(1, queries.size());
+        assertEquals("SELECT id FROM probes", queries.get(0).getString("sql"));
+        assertEquals(3, queries.get(0).getLong("rows"));
+        assertEquals(requests.get(1).getLong("requestId"), queries.get(0).getLong("requestId"));
+    }
+
+    private void request(FlightRecorderFilter filter, String path) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        filter.doFilter(request, new MockHttpServletResponse(),
+                (req, res) -> jdbcTemplate.queryForList("SELECT id FROM probes", Integer.class));
+    }
+
+    private List<RecordedEvent> stopAndRead() throws Exception {
+        recording.stop();
+        Path file = Files.createTempFile("flight-recorder-test", ".jfr");
+        try {
+            recording.dump(file);
+            return RecordingFile.readAllEvents(file);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
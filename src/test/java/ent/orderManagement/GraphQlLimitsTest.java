@@ -0,0 +1,72 @@
+package ent.orderManagement;
+
+import ent.orderManagement.graphql.GraphQlConfig;
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+import graphql.execution.AbortExecutionException;
+import graphql.execution.instrumentation.ChainedInstrumentation;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.idl.RuntimeWiring;
+import graphql.schema.idl.SchemaGenerator;
+import graphql.schema.idl.SchemaParser;
+import org.junit.jupiter.api.Test;
+
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The depth and complexity limits with the default settings, against the real schema; the
+ * queries have no data fetchers, so only the limits decide whether they fail.
+ */
+class GraphQlLimitsTest {
+
+    private final GraphQL graphQl = graphQl();
+
+    @Test
+    void shouldRejectQueriesNestedTooDeeply() {
+        assertRejected("{ customers(ids: [\"1\"]) { orders { customer { orders { items { name } } } } } }");
+        assertAllowed("{ customers(ids: [\"1\"]) { name orders { status customer { name } } } }");
+    }
+
+    @Test
+    void shouldRejectQueriesThatWouldReturnTooManyRows() {
+        assertAllowed("{ orders(size: 20) { content { id items { name } customer { name } } } }");
+        assertRejected("{ orders(size: 1000) { content { id items { name } customer { name } } } }");
+    }
+
+    @Test
+    void shouldWeighCustomerListsByTheNumberOfIds() {
+        assertAllowed("{ customers(ids: [\"1\", \"2\"]) { name orders { status items { name } } } }");
+        String ids = String.join(", ", Collections.nCopies(100, "\"1\""));
+        assertRejected("{ customers(ids: [" + ids + "]) { name orders { status items { name } } } }");
+    }
+
+    private void assertRejected(String query) {
+        ExecutionResult result = graphQl.execute(query);
+        assertTrue(result.getErrors().stream().anyMatch(error -> error instanceof AbortExecutionException),
+                "expected rejection: " + result.getErrors());
+    }
+
+    private void assertAllowed(String query) {
+        ExecutionResult result = graphQl.execute(query);
+        assertTrue(result.getErrors().stream().noneMatch(error -> error instanceof AbortExecutionException),
+                "expected no limit to apply: " + result.getErrors());
+    }
+
+    private static GraphQL graphQl() {
+        GraphQLSchema schema = new SchemaGenerator().makeExecutableSchema(
+                new SchemaParser().parse(new InputStreamReader(
+                        GraphQlLimitsTest.class.getResourceAsStream("/graphql/schema.graphqls"), StandardCharsets.UTF_8)),
+                RuntimeWiring.newRuntimeWiring().build());
+        GraphQlConfig config = new GraphQlConfig();
+        return GraphQL.newGraphQL(schema)
+                .instrumentation(new ChainedInstrumentation(List.of(
+                        config.maxQueryDepthInstrumentation(5),
+                        config.maxQueryComplexityInstrumentation(5000, 10, 10))))
+                .build();
+    }
+}
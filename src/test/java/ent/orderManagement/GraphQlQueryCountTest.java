@@ -0,0 +1,177 @@
+package ent.orderManagement;
+
+import ent.orderManagement.model.Role;
+import ent.orderManagement.model.User;
+import ent.orderManagement.querybudget.StatementLog;
+import ent.orderManagement.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.graphql.ExecutionGraphQlService;
+import org.springframework.graphql.execution.ErrorType;
+import org.springframework.graphql.test.tester.ExecutionGraphQlServiceTester;
+import org.springframework.graphql.test.tester.GraphQlTester;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Nested GraphQL fields are loaded per level, not per parent: the same query sends the same
+ * number of SQL statements for 2 customers as for 20, and for a page of 2 orders as for 40.
+ * Run with: ./gradlew postgresTest -Dpostgres.url=jdbc:postgresql://localhost:5432/orders
+ */
+@Tag("postgres")
+@SpringBootTest(properties = {
+        "orders.cache.enabled=false",
+        "rate-limit.enabled=false",
+        "bulkhead.enabled=false",
+        "analytics.enabled=false",
+        "customers.deletion.enabled=false",
+        "warmup.enabled=false",
+        "audit.enabled=false"
+})
+class GraphQlQueryCountTest {
+
+    @RegisterExtension
+    static final PostgresSchema SCHEMA = PostgresSchema.throwaway("graphql_test");
+
+    private static final String CUSTOMERS_WITH_ORDERS = """
+            query($ids: [ID!]!) {
+              customers(ids: $ids) { name orders { status items { productCode } customer { email } } }
+            }
+            """;
+
+    private static final String ORDER_PAGE = """
+            query($size: Int!) {
+              orders(size: $size, count: EXACT) { totalElements content { id items { productCode } customer { name } } }
+            }
+            """;
+
+    @Autowired
+    private ExecutionGraphQlService graphQlService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private GraphQlTester tester;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        SCHEMA.registerDataSource(registry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void shouldSendTheSameStatementsForFewAndManyCustomers() {
+        signIn("graphql-admin", Role.ADMIN);
+        List<UUID> few = customers(2, 1, 1);
+        List<UUID> many = customers(20, 5, 3);
+
+        int forFew = statements(query -> query.document(CUSTOMERS_WITH_ORDERS).variable("ids", few).execute()
+                .path("customers[*].orders[*].items[*]").entityList(Object.class).hasSize(2));
+        int forMany = statements(query -> query.document(CUSTOMERS_WITH_ORDERS).variable("ids", many).execute()
+                .path("customers[*].orders[*].items[*]").entityList(Object.class).hasSize(20 * 5 * 3));
+
+        // customers, their orders, the items and the customers of those orders: one query each
+        assertEquals(4, forFew);
+        assertEquals(forFew, forMany);
+    }
+
+    @Test
+    void shouldSendTheSameStatementsForSmallAndLargePages() {
+        signIn("graphql-page-admin", Role.ADMIN);
+        customers(10, 5, 2);
+
+        int small = statements(query -> query.document(ORDER_PAGE).variable("size", 2).execute()
+                .path("orders.content").entityList(Object.class).hasSize(2));
+        int large = statements(query -> query.document(ORDER_PAGE).variable("size", 40).execute()
+                .path("orders.content").entityList(Object.class).hasSize(40));
+
+        // page, count, items, customers
+        assertEquals(4, small);
+        assertEquals(small, large);
+    }
+
+    @Test
+    void shouldOnlyShowUsersTheirOwnCustomerRecordAndOrders() {
+        User user = signIn("graphql-user", Role.USER);
+        insertCustomer(user.getId(), "graphql-user@example.com", 3, 1);
+        UUID other = customers(1, 2, 1).get(0);
+        UUID otherOrder = jdbcTemplate.queryForObject("SELECT id FROM orders WHERE customer_id = ? LIMIT 1",
+                UUID.class, other);
+
+        tester.document(CUSTOMERS_WITH_ORDERS).variable("ids", List.of(user.getId(), other)).execute()
+                .path("customers[*].orders[*].customer.email").entityList(String.class)
+                .containsExactly("graphql-user@example.com", "graphql-user@example.com", "graphql-user@example.com");
+        tester.document("{ orders { content { customerId } } }").execute()
+                .path("orders.content[*].customerId").entityList(UUID.class)
+                .containsExactly(user.getId(), user.getId(), user.getId());
+
+        tester.document("query($id: ID!) { order(id: $id) { id } }").variable("id", otherOrder).execute()
+                .errors().satisfy(errors -> assertEquals(ErrorType.FORBIDDEN, errors.get(0).getErrorType()))
+                .path("order").valueIsNull();
+        tester.document("query($id: ID!) { customer(id: $id) { id } }").variable("id", other).execute()
+                .errors().satisfy(errors -> assertEquals(ErrorType.FORBIDDEN, errors.get(0).getErrorType()))
+                .path("customer").valueIsNull();
+    }
+
+    /**
+     * How many statements one query sent; the query runs on this thread, where the log is open.
+     */
+    private int statements(Function<GraphQlTester, ?> query) {
+        StatementLog log = StatementLog.open();
+        try {
+            query.apply(tester);
+        } finally {
+            StatementLog.close();
+        }
+        return log.count();
+    }
+
+    private User signIn(String username, Role role) {
+        User user = userRepository.save(new User(username, "secret", role));
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+        tester = ExecutionGraphQlServiceTester.create(graphQlService);
+        return user;
+    }
+
+    private List<UUID> customers(int count, int ordersEach, int itemsEach) {
+        List<UUID> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            UUID id = UUID.randomUUID();
+            insertCustomer(id, id + "@example.com", ordersEach, itemsEach);
+            ids.add(id);
+        }
+        return ids;
+    }
+
+    private void insertCustomer(UUID id, String email, int orders, int itemsEach) {
+        jdbcTemplate.update("INSERT INTO customers (id, name, email) VALUES (?, ?, ?)", id, "Customer " + id, email);
+        jdbcTemplate.update("INSERT INTO orders (id, customer_id, order_date, total_amount, status)"
+                + " SELECT gen_random_uuid(), ?, DATE '2024-03-01' + n, 10, 'NEW' FROM generate_series(1, ?) AS n",
+                id, orders);
+        jdbcTemplate.update("INSERT INTO order_items (id, order_id, line_number, product_code, quantity, unit_price)"
+                + " SELECT gen_random_uuid(), o.id, n, 'SKU-' || n, 1, 5 FROM orders o, generate_series(1, ?) AS n"
+                + " WHERE o.customer_id = ?", itemsEach, id);
+    }
+}
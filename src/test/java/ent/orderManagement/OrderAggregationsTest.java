@@ -0,0 +1,81 @@
+package ent.orderManagement;
+
+import ent.orderManagement.analytics.OrderAggregations;
+import ent.orderManagement.analytics.OrderColumns;
+import ent.orderManagement.analytics.OrderFact;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderAggregationsTest {
+
+    private static final int NEW = 0;
+    private static final int COMPLETED = 2;
+
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void shouldNetOutRetractedRows() {
+        OrderColumns columns = new OrderColumns(8);
+        columns.append(1000, 10, NEW, 0, 1);
+        columns.append(2500, 11, NEW, 1, 1);
+        // second order completed and repriced: retract the old row, add the new one
+        columns.append(-2500, 11, NEW, 1, -1);
+        columns.append(3000, 11, COMPLETED, 1, 1);
+        // first order deleted
+        columns.append(-1000, 10, NEW, 0, -1);
+
+        long[] byStatus = OrderAggregations.byStatus(columns, columns.size(), 3, 0, 100, pool);
+        assertArrayEquals(new long[] {0, 0, 0, 0, 1, 3000}, byStatus);
+
+        long[] byCustomer = OrderAggregations.byCustomer(columns, columns.size(), 2, 0, 100, COMPLETED, pool);
+        assertArrayEquals(new long[] {0, 0, 1, 3000}, byCustomer);
+    }
+
+    @Test
+    void shouldRoundLoadedAndReplayedAmountsAlike() {
+        assertEquals(1056, OrderColumns.cents(new BigDecimal("10.555")));
+        assertEquals(1056, new OrderFact(null, null, 10.555f, null).totalCents());
+        assertEquals(1010, OrderColumns.cents(new BigDecimal("10.10")));
+        assertEquals(1010, new OrderFact(null, null, 10.1f, null).totalCents());
+        assertEquals(1999, new OrderFact(null, null, 19.994f, null).totalCents());
+        assertEquals(0, new OrderFact(null, null, null, null).totalCents());
+    }
+
+    @Test
+    void shouldMatchSequentialSumAcrossManyLeaves() {
+        int rows = 500_000;
+        OrderColumns columns = new OrderColumns(16);
+        Random random = new Random(42);
+        long expectedCount = 0;
+        long expectedCents = 0;
+        for (int i = 0; i < rows; i++) {
+            long cents = random.nextInt(100_000);
+            int day = random.nextInt(1000);
+            int status = random.nextInt(3);
+            if (!columns.append(cents, day, status, random.nextInt(50), 1)) {
+                columns = columns.grow(columns.size() + 1);
+                columns.append(cents, day, status, random.nextInt(50), 1);
+            }
+            if (day >= 100 && day <= 400 && status == COMPLETED) {
+                expectedCount++;
+                expectedCents += cents;
+            }
+        }
+
+        long[] totals = OrderAggregations.byStatus(columns, columns.size(), 3, 100, 400, pool);
+
+        assertEquals(expectedCount, totals[COMPLETED * 2]);
+        assertEquals(expectedCents, totals[COMPLETED * 2 + 1]);
+    }
+}
@@ -0,0 +1,147 @@
+package ent.orderManagement;
+
+import ent.orderManagement.cache.CachedOrder;
+import ent.orderManagement.cache.OrderCache;
+import ent.orderManagement.cache.OrderCacheInvalidator;
+import ent.orderManagement.model.OrderEntity;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Two "nodes" (cache + invalidator each) sharing one local PostgreSQL.
+ * Run with: ./gradlew postgresTest -Dpostgres.url=jdbc:postgresql://localhost:5432/orders
+ */
+@Tag("postgres")
+class OrderCacheInvalidationTest {
+
+    private Node nodeA;
+    private Node nodeB;
+
+    @BeforeEach
+    void setUp() {
+        String url = System.getProperty("postgres.url");
+        assumeTrue(url != null, "postgres.url not set");
+        nodeA = new Node(url);
+        nodeB = new Node(url);
+        nodeA.awaitListening();
+        nodeB.awaitListening();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (nodeA != null) nodeA.invalidator.stop();
+        if (nodeB != null) nodeB.invalidator.stop();
+    }
+
+    @Test
+    void shouldEvictOnOtherNodeAfterWrite() {
+        UUID orderId = UUID.randomUUID();
+        nodeA.cacheOrder(orderId);
+        nodeB.cacheOrder(orderId);
+
+        nodeA.invalidator.invalidate(List.of(orderId));
+        assertNull(nodeA.cache.get(orderId));
+
+        nodeA.invalidator.flush();
+        awaitTrue(() -> nodeB.cache.get(orderId) == null);
+    }
+
+    @Test
+    void shouldBatchManyInvalidationsIntoFewMessages() {
+        List<UUID> orderIds = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            UUID orderId = UUID.randomUUID();
+            orderIds.add(orderId);
+            nodeB.cacheOrder(orderId);
+        }
+
+        nodeA.invalidator.invalidate(orderIds);
+        nodeA.invalidator.flush();
+
+        awaitTrue(() -> orderIds.stream().allMatch(id -> nodeB.cache.get(id) == null));
+    }
+
+    @Test
+    void shouldBypassCacheWhenNotListening() {
+        UUID orderId = UUID.randomUUID();
+        nodeB.cacheOrder(orderId);
+
+        nodeB.invalidator.stop();
+
+        awaitTrue(() -> nodeB.cache.get(orderId) == null);
+    }
+
+    @Test
+    void shouldClearAndReconnectWhenListenConnectionIsLost() {
+        UUID orderId = UUID.randomUUID();
+        nodeB.cacheOrder(orderId);
+
+        String url = System.getProperty("postgres.url");
+        new JdbcTemplate(new DriverManagerDataSource(url, System.getProperty("postgres.username", "postgres"),
+                System.getProperty("postgres.password", "postgres")))
+                .queryForList("SELECT pg_terminate_backend(pid) FROM pg_stat_activity WHERE application_name = ?",
+                        OrderCacheInvalidator.LISTENER_APPLICATION_NAME);
+
+        // Whatever was sent while disconnected is lost, so the entry must not survive the reconnect
+        awaitTrue(() -> nodeB.cache.get(orderId) == null);
+        nodeB.awaitListening();
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "Condition not met within 5s");
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail(e);
+            }
+        }
+    }
+
+    private static final class Node {
+        final OrderCache cache = new OrderCache(true, 10_000, 60_000);
+        final OrderCacheInvalidator invalidator;
+
+        Node(String url) {
+            String username = System.getProperty("postgres.username", "postgres");
+            String password = System.getProperty("postgres.password", "postgres");
+            DataSourceProperties properties = new DataSourceProperties();
+            properties.setUrl(url);
+            properties.setUsername(username);
+            properties.setPassword(password);
+            invalidator = new OrderCacheInvalidator(cache,
+                    new JdbcTemplate(new DriverManagerDataSource(url, username, password)), properties, 200);
+            invalidator.start();
+        }
+
+        void cacheOrder(UUID orderId) {
+            OrderEntity entity = new OrderEntity();
+            entity.setId(orderId);
+            cache.put(orderId, new CachedOrder(entity, List.of()), cache.epoch());
+            assertNotNull(cache.get(orderId));
+        }
+
+        void awaitListening() {
+            UUID probe = UUID.randomUUID();
+            awaitTrue(() -> {
+                cache.put(probe, new CachedOrder(new OrderEntity(), List.of()), cache.epoch());
+                return cache.get(probe) != null;
+            });
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package ent.orderManagement;
+
+import ent.orderManagement.payload.CountMode;
+import ent.orderManagement.repository.OrderJdbcRepository;
+import ent.orderManagement.repository.OrderJdbcRepository.CustomerOrderCount;
+import ent.orderManagement.repository.OrderRepository;
+import ent.orderManagement.service.OrderCounts;
+import ent.orderManagement.sharding.Shards;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderCountsTest {
+
+    private static final List<String> FULL_PAGE = List.of("a", "b", "c", "d", "e");
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private OrderJdbcRepository orderJdbcRepository;
+
+    private OrderCounts orderCounts;
+    private final UUID customerId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        orderCounts = new OrderCounts(orderRepository, orderJdbcRepository, Shards.unsharded(),
+                "estimated", 10_000, 1000, 3_600_000);
+    }
+
+    @Test
+    void shouldNotCountWhenThePageEndsTheResult() {
+        for (CountMode mode : CountMode.values()) {
+            Page<String> page = orderCounts.shardPage(null, PageRequest.of(3, 5), mode, List.of("a", "b"));
+            assertEquals(17, orderCounts.total(null, mode, page));
+        }
+        verifyNoInteractions(orderRepository, orderJdbcRepository);
+    }
+
+    @Test
+    void shouldUseTheConfiguredModeUnlessOneIsRequested() {
+        assertEquals(CountMode.ESTIMATED, orderCounts.resolve(null));
+        assertEquals(CountMode.EXACT, orderCounts.resolve(CountMode.EXACT));
+    }
+
+    @Test
+    void shouldEstimateAllOrdersFromTableStatisticsOnceTheTableIsLarge() {
+        when(orderJdbcRepository.estimateCount()).thenReturn(2_000_000L);
+        assertEquals(2_000_000, totalOf(null, CountMode.ESTIMATED));
+        verify(orderRepository, never()).count();
+
+        // Below the threshold (or never analyzed) counting is cheap and exact
+        when(orderJdbcRepository.estimateCount()).thenReturn(-1L);
+        when(orderRepository.count()).thenReturn(480L);
+        assertEquals(480, totalOf(null, CountMode.ESTIMATED));
+    }
+
+    @Test
+    void shouldCountSmallCustomersExactlyAndAskThePlannerForLargeOnes() {
+        when(orderJdbcRepository.countByCustomerIdUpTo(customerId, 10_000)).thenReturn(37L);
+        assertEquals(37, totalOf(customerId, CountMode.ESTIMATED));
+        verify(orderJdbcRepository, never()).estimateCountByCustomerId(any());
+
+        when(orderJdbcRepository.countByCustomerIdUpTo(customerId, 10_000)).thenReturn(10_000L);
+        when(orderJdbcRepository.estimateCountByCustomerId(customerId)).thenReturn(64_000L);
+        assertEquals(64_000, totalOf(customerId, CountMode.ESTIMATED));
+        verify(orderRepository, never()).countByCustomerId(any());
+    }
+
+    @Test
+    void shouldFollowChangesFromOneExactCountAndReconcile() {
+        when(orderRepository.count()).thenReturn(100L);
+        when(orderRepository.countByCustomerId(customerId)).thenReturn(30L);
+        assertEquals(100, totalOf(null, CountMode.CACHED));
+        assertEquals(30, totalOf(customerId, CountMode.CACHED));
+
+        orderCounts.recordChange(customerId, 1);
+        orderCounts.recordChange(customerId, 1);
+        orderCounts.recordChange(UUID.randomUUID(), -1);
+        assertEquals(101, totalOf(null, CountMode.CACHED));
+        assertEquals(32, totalOf(customerId, CountMode.CACHED));
+        verify(orderRepository, times(1)).count();
+        verify(orderRepository, times(1)).countByCustomerId(customerId);
+
+        // Other nodes created orders meanwhile
+        when(orderRepository.count()).thenReturn(108L);
+        when(orderJdbcRepository.countByCustomerIds(List.of(customerId)))
+                .thenReturn(List.of(new CustomerOrderCount(customerId, 37)));
+        orderCounts.reconcile();
+        assertEquals(108, totalOf(null, CountMode.CACHED));
+        assertEquals(37, totalOf(customerId, CountMode.CACHED));
+    }
+
+    @Test
+    void shouldCountExactlyOnRequest() {
+        when(orderRepository.countByCustomerId(customerId)).thenReturn(12L);
+        assertEquals(12, totalOf(customerId, CountMode.EXACT));
+        verifyNoInteractions(orderJdbcRepository);
+    }
+
+    private long totalOf(UUID customerId, CountMode mode) {
+        Page<String> page = orderCounts.shardPage(customerId, PageRequest.of(0, 5), mode, FULL_PAGE);
+        return orderCounts.total(customerId, mode, page);
+    }
+}
@@ -0,0 +1,147 @@
+package ent.orderManagement;
+
+import ent.orderManagement.analytics.OrderAnalyticsEngine;
+import ent.orderManagement.audit.AuditTrail;
+import ent.orderManagement.cache.OrderCache;
+import ent.orderManagement.cache.OrderCacheInvalidator;
+import ent.orderManagement.model.Order;
+import ent.orderManagement.model.OrderEntity;
+import ent.orderManagement.model.OrderItem;
+import ent.orderManagement.model.OrderItemEntity;
+import ent.orderManagement.model.Role;
+import ent.orderManagement.model.User;
+import ent.orderManagement.payload.CountMode;
+import ent.orderManagement.repository.CustomerRepository;
+import ent.orderManagement.repository.OrderItemRepository;
+import ent.orderManagement.repository.OrderJdbcRepository;
+import ent.orderManagement.repository.OrderRepository;
+import ent.orderManagement.repository.UserRepository;
+import ent.orderManagement.service.OrderCounts;
+import ent.orderManagement.service.OrderService;
+import ent.orderManagement.sharding.ShardDirectory;
+import ent.orderManagement.sharding.Shards;
+import ent.orderManagement.sharding.ShardingConfig;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Reading a page of orders with their items must cost the same number of SQL statements
+ * whatever the page size (no per-order item query).
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "orders.cache.enabled=false",
+        "spring.flyway.enabled=false"
+})
+@Import({OrderService.class, OrderCounts.class, OrderJdbcRepository.class, CustomerRepository.class,
+        OrderCache.class, OrderCacheInvalidator.class, OrderAnalyticsEngine.class,
+        ShardingConfig.class, ShardDirectory.class, Shards.class, OrderItemsQueryCountTest.NoAudit.class})
+class OrderItemsQueryCountTest {
+
+    @TestConfiguration
+    static class NoAudit {
+        @Bean
+        AuditTrail auditTrail() {
+            return AuditTrail.disabled();
+        }
+    }
+
+    private static final int ORDERS = 60;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void setUp() {
+        User user = userRepository.save(new User("page-reader", "secret", Role.USER));
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("page-reader", null, List.of()));
+
+        for (int i = 0; i < ORDERS; i++) {
+            OrderEntity order = orderRepository.save(new OrderEntity(new Order()
+                    .customerId(user.getId())
+                    .orderDate(LocalDate.now())
+                    .totalAmount(15f)
+                    .status(Order.StatusEnum.NEW)));
+            orderItemRepository.save(new OrderItemEntity(order.getId(), 1,
+                    new OrderItem().productCode("SKU-1").quantity(1).unitPrice(new BigDecimal("5.00"))));
+            orderItemRepository.save(new OrderItemEntity(order.getId(), 2,
+                    new OrderItem().productCode("SKU-2").quantity(2).unitPrice(new BigDecimal("5.00"))));
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void shouldUseConstantStatementCountPerPage() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        List<Long> statementCounts = new ArrayList<>();
+        for (int pageSize : new int[] {5, 20, 50}) {
+            entityManager.clear();
+            statistics.clear();
+
+            Page<Order> page = orderService.getOrders(PageRequest.of(0, pageSize));
+
+            assertEquals(pageSize, page.getNumberOfElements());
+            assertTrue(page.getContent().stream().allMatch(order -> order.getItems().size() == 2));
+            statementCounts.add(statistics.getPrepareStatementCount());
+        }
+
+        // user lookup, page, count, items of the whole page
+        assertEquals(List.of(4L, 4L, 4L), statementCounts);
+    }
+
+    @Test
+    void shouldSkipItemQueryWhenItemsAreExcluded() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        Page<Order> page = orderService.getOrders(PageRequest.of(0, 20), false, CountMode.EXACT);
+
+        assertTrue(page.getContent().stream().allMatch(order -> order.getItems() == null));
+        assertEquals(3L, statistics.getPrepareStatementCount());
+    }
+}
@@ -1,13 +1,29 @@
 package ent.orderManagement;
 
+import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
 
-@SpringBootTest
+/**
+ * Boots the whole application (migrations included) in a throwaway schema, never against the
+ * database configured in application.yml.
+ */
+@Tag("postgres")
+@SpringBootTest(properties = {"warmup.enabled=false", "audit.enabled=false"})
 class OrderManagementApplicationTests {
 
+	@RegisterExtension
+	static final PostgresSchema SCHEMA = PostgresSchema.throwaway("context_test");
+
+	@DynamicPropertySource
+	static void datasource(DynamicPropertyRegistry registry) {
+		SCHEMA.registerDataSource(registry);
+	}
+
 	@Test
 	void contextLoads() {
 	}
-
 }
@@ -0,0 +1,47 @@
+package ent.orderManagement;
+
+import ent.orderManagement.exception.InvalidOrderException;
+import ent.orderManagement.model.Order.StatusEnum;
+import ent.orderManagement.model.OrderItem;
+import ent.orderManagement.model.Role;
+import ent.orderManagement.service.OrderRules;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderRulesTest {
+
+    @Test
+    void shouldRestrictUsersToOwnOrdersAndNewOrdersToForwardTransitions() {
+        UUID userId = UUID.randomUUID();
+
+        assertTrue(OrderRules.canAccess(Role.USER, userId, userId));
+        assertFalse(OrderRules.canAccess(Role.USER, userId, UUID.randomUUID()));
+        assertTrue(OrderRules.canAccess(Role.ADMIN, userId, UUID.randomUUID()));
+        assertNull(OrderRules.ownerFilter(Role.ADMIN, userId));
+
+        assertEquals(EnumSet.of(StatusEnum.IN_PROGRESS), OrderRules.allowedSourceStatuses(StatusEnum.NEW));
+        assertEquals(EnumSet.of(StatusEnum.NEW, StatusEnum.COMPLETED), OrderRules.allowedSourceStatuses(StatusEnum.IN_PROGRESS));
+        assertEquals(EnumSet.of(StatusEnum.NEW, StatusEnum.IN_PROGRESS, StatusEnum.COMPLETED),
+                OrderRules.allowedSourceStatuses(StatusEnum.CANCELLED));
+        assertFalse(OrderRules.canTransitionStatus(StatusEnum.CANCELLED, StatusEnum.NEW));
+        assertTrue(OrderRules.canTransitionStatus(StatusEnum.CANCELLED, StatusEnum.CANCELLED));
+    }
+
+    @Test
+    void shouldDeriveTotalFromItemsAndRejectMismatch() {
+        List<OrderItem> items = List.of(
+                new OrderItem().productCode("A").quantity(2).unitPrice(new BigDecimal("1.25")),
+                new OrderItem().productCode("B").quantity(1).unitPrice(new BigDecimal("7.50")));
+
+        assertEquals(10f, OrderRules.resolveTotalAmount(OrderRules.itemsTotal(items), null));
+        assertEquals(10f, OrderRules.resolveTotalAmount(OrderRules.itemsTotal(items), 10f));
+        assertThrows(InvalidOrderException.class, () -> OrderRules.resolveTotalAmount(OrderRules.itemsTotal(items), 9.99f));
+        assertThrows(InvalidOrderException.class, () -> OrderRules.resolveTotalAmount(null, null));
+    }
+}
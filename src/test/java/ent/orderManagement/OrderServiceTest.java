@@ -0,0 +1,185 @@
+package ent.orderManagement;
+
+import ent.orderManagement.analytics.OrderAnalyticsEngine;
+import ent.orderManagement.audit.AuditEvent.EntityType;
+import ent.orderManagement.audit.AuditTrail;
+import ent.orderManagement.cache.OrderCache;
+import ent.orderManagement.cache.OrderCacheInvalidator;
+import ent.orderManagement.model.Order;
+import ent.orderManagement.model.Order.StatusEnum;
+import ent.orderManagement.model.OrderEntity;
+import ent.orderManagement.model.Role;
+import ent.orderManagement.model.User;
+import ent.orderManagement.payload.BatchGetResponse;
+import ent.orderManagement.payload.StatusTransitionOutcome;
+import ent.orderManagement.payload.StatusTransitionOutcome.Result;
+import ent.orderManagement.payload.StatusTransitionRequest;
+import ent.orderManagement.payload.StatusTransitionResponse;
+import ent.orderManagement.repository.CustomerRepository;
+import ent.orderManagement.repository.OrderJdbcRepository;
+import ent.orderManagement.repository.OrderJdbcRepository.OrderStatusChange;
+import ent.orderManagement.repository.OrderJdbcRepository.OrderStatusRow;
+import ent.orderManagement.repository.OrderItemRepository;
+import ent.orderManagement.repository.OrderRepository;
+import ent.orderManagement.repository.UserRepository;
+import ent.orderManagement.service.OrderCounts;
+import ent.orderManagement.service.OrderService;
+import ent.orderManagement.sharding.OrderDirectory;
+import ent.orderManagement.sharding.ShardDataSources;
+import ent.orderManagement.sharding.Shards;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderServiceTest {
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private OrderJdbcRepository orderJdbcRepository;
+
+    @Mock
+    private OrderItemRepository orderItemRepository;
+
+    @Mock
+    private CustomerRepository customerRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private OrderCache orderCache;
+
+    @Mock
+    private OrderCacheInvalidator orderCacheInvalidator;
+
+    @Mock
+    private OrderAnalyticsEngine analyticsEngine;
+
+    @Mock
+    private OrderCounts orderCounts;
+
+    @Mock
+    private AuditTrail auditTrail;
+
+    private OrderService orderService;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        orderService = new OrderService(orderRepository, orderJdbcRepository, orderItemRepository,
+                customerRepository, userRepository, orderCache, orderCacheInvalidator, analyticsEngine,
+                Shards.unsharded(), new OrderDirectory(ShardDataSources.unsharded()), auditTrail, orderCounts, 2, 500);
+        user = new User("jane", "secret", Role.USER);
+        user.setId(UUID.randomUUID());
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("jane", null, List.of()));
+        when(userRepository.findByUsername("jane")).thenReturn(Optional.of(user));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void shouldTransitionOwnOrdersInChunksAndExplainRejections() {
+        UUID updated1 = UUID.randomUUID();
+        UUID updated2 = UUID.randomUUID();
+        UUID completedAlready = UUID.randomUUID();
+        UUID foreign = UUID.randomUUID();
+        UUID missing = UUID.randomUUID();
+
+        when(orderJdbcRepository.updateStatusByIds(eq(List.of(updated1, updated2)), eq(StatusEnum.NEW),
+                eq(EnumSet.of(StatusEnum.IN_PROGRESS, StatusEnum.COMPLETED)), eq(user.getId())))
+                .thenReturn(List.of(changed(updated1, StatusEnum.IN_PROGRESS, StatusEnum.NEW),
+                        changed(updated2, StatusEnum.COMPLETED, StatusEnum.NEW)));
+        when(orderJdbcRepository.updateStatusByIds(eq(List.of(completedAlready, foreign)), any(), any(), any()))
+                .thenReturn(List.of());
+        when(orderJdbcRepository.updateStatusByIds(eq(List.of(missing)), any(), any(), any()))
+                .thenReturn(List.of());
+        when(orderJdbcRepository.findStatusRows(List.of(completedAlready, foreign, missing))).thenReturn(List.of(
+                new OrderStatusRow(completedAlready, user.getId(), StatusEnum.NEW),
+                new OrderStatusRow(foreign, UUID.randomUUID(), StatusEnum.IN_PROGRESS)));
+
+        StatusTransitionRequest request = new StatusTransitionRequest();
+        request.setTargetStatus(StatusEnum.NEW);
+        request.setIds(List.of(updated1, updated2, completedAlready, foreign, missing, updated1));
+
+        StatusTransitionResponse response = orderService.transitionStatuses(request);
+
+        assertEquals(2, response.getUpdated());
+        assertEquals(3, response.getRejected());
+        assertEquals(List.of(Result.UPDATED, Result.UPDATED, Result.UNCHANGED, Result.FORBIDDEN, Result.NOT_FOUND),
+                response.getResults().stream().map(StatusTransitionOutcome::getResult).toList());
+        verify(orderJdbcRepository, times(3)).updateStatusByIds(any(), any(), any(), any());
+        verify(orderRepository, never()).save(any());
+        verify(orderCacheInvalidator).invalidate(List.of(updated1, updated2));
+        verify(auditTrail).recordUpdate(eq(EntityType.ORDER), eq(updated1),
+                argThat(before -> ((Order) before).getStatus() == StatusEnum.IN_PROGRESS),
+                argThat(after -> ((Order) after).getStatus() == StatusEnum.NEW));
+        verify(auditTrail).recordUpdate(eq(EntityType.ORDER), eq(updated2),
+                argThat(before -> ((Order) before).getStatus() == StatusEnum.COMPLETED), any());
+        verifyNoMoreInteractions(auditTrail);
+    }
+
+    @Test
+    void shouldNotRestrictOwnerForAdminsAndReportConcurrentChanges() {
+        UUID changedMeanwhile = UUID.randomUUID();
+        when(orderJdbcRepository.updateStatusByIds(any(), any(), any(), any())).thenReturn(List.of());
+        when(orderJdbcRepository.findStatusRows(List.of(changedMeanwhile)))
+                .thenReturn(List.of(new OrderStatusRow(changedMeanwhile, UUID.randomUUID(), StatusEnum.NEW)));
+
+        StatusTransitionRequest request = new StatusTransitionRequest();
+        request.setTargetStatus(StatusEnum.IN_PROGRESS);
+        request.setIds(List.of(changedMeanwhile));
+        user.setRole(Role.ADMIN);
+
+        StatusTransitionResponse response = orderService.transitionStatuses(request);
+
+        assertEquals(Result.CONFLICT, response.getResults().get(0).getResult());
+        verify(orderJdbcRepository).updateStatusByIds(eq(List.of(changedMeanwhile)), eq(StatusEnum.IN_PROGRESS), any(), isNull());
+    }
+
+    @Test
+    void shouldResolveBatchWithOwnershipFilterAndClassifyTheRest() {
+        UUID own = UUID.randomUUID();
+        UUID foreign = UUID.randomUUID();
+        UUID missing = UUID.randomUUID();
+
+        OrderEntity ownOrder = new OrderEntity(new Order().id(own).customerId(user.getId())
+                .orderDate(LocalDate.now()).totalAmount(10f).status(StatusEnum.NEW));
+        when(orderJdbcRepository.findByIds(List.of(missing, own, foreign), user.getId())).thenReturn(List.of(ownOrder));
+        when(orderJdbcRepository.findExistingIds(List.of(missing, foreign))).thenReturn(List.of(foreign));
+
+        BatchGetResponse<Order> response = orderService.getOrdersByIds(List.of(missing, own, foreign, own), false);
+
+        assertEquals(List.of(own), response.getFound().stream().map(Order::getId).toList());
+        assertEquals(List.of(missing), response.getMissing());
+        assertEquals(List.of(foreign), response.getForbidden());
+        verifyNoInteractions(orderItemRepository);
+    }
+
+    private OrderStatusChange changed(UUID id, StatusEnum from, StatusEnum to) {
+        Order after = new Order().id(id).customerId(user.getId()).orderDate(LocalDate.now()).totalAmount(10f).status(to);
+        Order before = new Order().id(id).customerId(user.getId()).orderDate(LocalDate.now()).totalAmount(10f).status(from);
+        return new OrderStatusChange(before, after);
+    }
+}
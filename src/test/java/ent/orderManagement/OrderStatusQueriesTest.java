@@ -0,0 +1,120 @@
+package ent.orderManagement;
+
+import ent.orderManagement.model.Order.StatusEnum;
+import ent.orderManagement.payload.OrderFilter;
+import ent.orderManagement.repository.OrderJdbcRepository;
+import ent.orderManagement.repository.OrderJdbcRepository.OrderStatusRow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The lookups the bulk status transition uses to explain skipped orders, against PostgreSQL:
+ * OrderServiceTest mocks the repository, so only here is the SQL and its array binding run.
+ * Run with: ./gradlew postgresTest -Dpostgres.url=jdbc:postgresql://localhost:5432/orders
+ */
+@Tag("postgres")
+class OrderStatusQueriesTest {
+
+    @RegisterExtension
+    final PostgresSchema schema = PostgresSchema.throwaway("status_test");
+    private JdbcTemplate jdbcTemplate;
+    private OrderJdbcRepository repository;
+
+    private UUID customerId;
+    private UUID otherCustomerId;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = schema.jdbcTemplate();
+        schema.migrate();
+        repository = new OrderJdbcRepository(jdbcTemplate);
+
+        customerId = insertCustomer("ana@example.com");
+        otherCustomerId = insertCustomer("ivan@example.com");
+    }
+
+    @Test
+    void shouldFindStatusRowsOfExistingIdsOnly() {
+        UUID first = insertOrder(customerId, StatusEnum.NEW);
+        UUID second = insertOrder(otherCustomerId, StatusEnum.COMPLETED);
+        insertOrder(customerId, StatusEnum.IN_PROGRESS);
+
+        Map<UUID, OrderStatusRow> rows = repository.findStatusRows(List.of(first, second, UUID.randomUUID()))
+                .stream()
+                .collect(Collectors.toMap(OrderStatusRow::id, row -> row));
+
+        assertEquals(2, rows.size());
+        assertEquals(new OrderStatusRow(first, customerId, StatusEnum.NEW), rows.get(first));
+        assertEquals(new OrderStatusRow(second, otherCustomerId, StatusEnum.COMPLETED), rows.get(second));
+    }
+
+    @Test
+    void shouldFindStatusRowOfASingleId() {
+        UUID id = insertOrder(customerId, StatusEnum.IN_PROGRESS);
+
+        assertEquals(List.of(new OrderStatusRow(id, customerId, StatusEnum.IN_PROGRESS)),
+                repository.findStatusRows(List.of(id)));
+    }
+
+    @Test
+    void shouldFindOrdersNotInTheGivenStatuses() {
+        UUID inProgress = insertOrder(customerId, StatusEnum.IN_PROGRESS);
+        UUID completed = insertOrder(customerId, StatusEnum.COMPLETED);
+        insertOrder(customerId, StatusEnum.NEW);
+        insertOrder(otherCustomerId, StatusEnum.COMPLETED);
+
+        OrderFilter filter = new OrderFilter();
+        filter.setCustomerId(customerId);
+        List<UUID> excludingNew = ids(repository.findByFilterExcludingStatuses(filter, List.of(StatusEnum.NEW), null, 10));
+        List<UUID> excludingTwo = ids(repository.findByFilterExcludingStatuses(filter,
+                List.of(StatusEnum.NEW, StatusEnum.IN_PROGRESS), null, 10));
+
+        assertEquals(2, excludingNew.size());
+        assertTrue(excludingNew.containsAll(List.of(inProgress, completed)));
+        assertEquals(List.of(completed), excludingTwo);
+    }
+
+    @Test
+    void shouldApplyOwnerAndLimitWhenExcludingStatuses() {
+        for (int i = 0; i < 5; i++) {
+            insertOrder(customerId, StatusEnum.COMPLETED);
+        }
+        UUID others = insertOrder(otherCustomerId, StatusEnum.COMPLETED);
+
+        List<OrderStatusRow> limited = repository.findByFilterExcludingStatuses(new OrderFilter(),
+                List.of(StatusEnum.NEW), customerId, 3);
+        List<UUID> owned = ids(repository.findByFilterExcludingStatuses(new OrderFilter(),
+                List.of(StatusEnum.NEW), otherCustomerId, 10));
+
+        assertEquals(3, limited.size());
+        assertTrue(limited.stream().allMatch(row -> row.customerId().equals(customerId)));
+        assertEquals(List.of(others), owned);
+    }
+
+    private static List<UUID> ids(List<OrderStatusRow> rows) {
+        return rows.stream().map(OrderStatusRow::id).collect(Collectors.toList());
+    }
+
+    private UUID insertCustomer(String email) {
+        UUID id = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO customers (id, name, email) VALUES (?, ?, ?)", id, "Customer " + id, email);
+        return id;
+    }
+
+    private UUID insertOrder(UUID customer, StatusEnum status) {
+        UUID id = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO orders (id, customer_id, order_date, total_amount, status)"
+                + " VALUES (?, ?, DATE '2024-03-01', 10, ?)", id, customer, status.name());
+        return id;
+    }
+}
@@ -0,0 +1,148 @@
+package ent.orderManagement;
+
+import ent.orderManagement.migration.V4__PerformanceIndexes;
+import ent.orderManagement.migration.V5__BackfillOrderCreatedAt;
+import ent.orderManagement.migration.V7__StaleOrderIndex;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.configuration.FluentConfiguration;
+import org.flywaydb.core.api.migration.JavaMigration;
+import org.junit.jupiter.api.extension.AfterAllCallback;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.DynamicPropertyRegistry;
+
+import javax.sql.DataSource;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * A schema of the local PostgreSQL given by -Dpostgres.url (user and password from
+ * -Dpostgres.username and -Dpostgres.password, both "postgres" by default), so tests never
+ * touch the database configured in application.yml. Tests are skipped when postgres.url is
+ * not set.
+ *
+ * Registered with {@code @RegisterExtension}: in a static field the schema lives for the whole
+ * class, in an instance field for each test. Throwaway schemas get a random name and are dropped
+ * afterwards; kept ones are reused by later runs.
+ */
+public final class PostgresSchema implements BeforeAllCallback, AfterAllCallback, BeforeEachCallback, AfterEachCallback {
+
+    private final String name;
+    private final boolean keep;
+    private boolean classLevel;
+    private DriverManagerDataSource dataSource;
+
+    private PostgresSchema(String name, boolean keep) {
+        this.name = name;
+        this.keep = keep;
+    }
+
+    public static PostgresSchema throwaway(String prefix) {
+        return new PostgresSchema(prefix + "_" + UUID.randomUUID().toString().replace("-", ""), false);
+    }
+
+    public static PostgresSchema kept(String name) {
+        return new PostgresSchema(name, true);
+    }
+
+    public String name() {
+        return name;
+    }
+
+    /**
+     * JDBC URL with the schema first on the search path ({@code public} after it, for extensions).
+     */
+    public String url() {
+        String url = System.getProperty("postgres.url", "");
+        return url + (url.contains("?") ? "&" : "?") + "currentSchema=" + name + ",public";
+    }
+
+    public static String username() {
+        return System.getProperty("postgres.username", "postgres");
+    }
+
+    public static String password() {
+        return System.getProperty("postgres.password", "postgres");
+    }
+
+    public DataSource dataSource() {
+        return dataSource;
+    }
+
+    public JdbcTemplate jdbcTemplate() {
+        return new JdbcTemplate(dataSource);
+    }
+
+    /**
+     * Flyway on this schema with the Java migrations of the application, plus {@code extra}.
+     */
+    public FluentConfiguration flyway(JavaMigration... extra) {
+        JavaMigration[] standard = {new V4__PerformanceIndexes(), new V5__BackfillOrderCreatedAt(5000, 0),
+                new V7__StaleOrderIndex()};
+        return Flyway.configure()
+                .dataSource(dataSource)
+                .javaMigrations(Stream.concat(Stream.of(standard), Stream.of(extra)).toArray(JavaMigration[]::new));
+    }
+
+    public void migrate() {
+        flyway().load().migrate();
+    }
+
+    /**
+     * Point the application's DataSource at this schema; for {@code @DynamicPropertySource}.
+     */
+    public void registerDataSource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", this::url);
+        registry.add("spring.datasource.username", PostgresSchema::username);
+        registry.add("spring.datasource.password", PostgresSchema::password);
+    }
+
+    @Override
+    public void beforeAll(ExtensionContext context) {
+        classLevel = true;
+        create();
+    }
+
+    @Override
+    public void afterAll(ExtensionContext context) {
+        drop();
+    }
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        if (!classLevel) {
+            create();
+        }
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        if (!classLevel) {
+            drop();
+        }
+    }
+
+    private void create() {
+        String url = System.getProperty("postgres.url");
+        assumeTrue(url != null, "postgres.url not set");
+        admin(url).execute("CREATE SCHEMA " + (keep ? "IF NOT EXISTS " : "") + name);
+        dataSource = new DriverManagerDataSource(url(), username(), password());
+    }
+
+    private void drop() {
+        if (dataSource != null && !keep) {
+            admin(System.getProperty("postgres.url")).execute("DROP SCHEMA " + name + " CASCADE");
+        }
+        dataSource = null;
+    }
+
+    private static JdbcTemplate admin(String url) {
+        return new JdbcTemplate(new DriverManagerDataSource(url, username(), password()));
+    }
+}
@@ -0,0 +1,183 @@
+package ent.orderManagement;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ent.orderManagement.controller.AuthController;
+import ent.orderManagement.controller.CustomerController;
+import ent.orderManagement.controller.OrderController;
+import ent.orderManagement.querybudget.QueryBudgetFilter;
+import ent.orderManagement.querybudget.QueryBudgets;
+import ent.orderManagement.querybudget.StatementLog;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+
+/**
+ * Calls every endpoint of the order, customer and auth controllers against a real PostgreSQL
+ * and fails if one sends more SQL statements than its budget in query-budgets.txt, or the same
+ * statement twice. Run with: ./gradlew postgresTest -Dpostgres.url=jdbc:postgresql://localhost:5432/orders
+ */
+@Tag("postgres")
+@SpringBootTest(properties = {
+        "query-budget.enabled=true",
+        "orders.cache.enabled=false",
+        "rate-limit.enabled=false",
+        "bulkhead.enabled=false",
+        "analytics.enabled=false",
+        "customers.deletion.enabled=false",
+        "warmup.enabled=false",
+        "audit.enabled=false"
+})
+@AutoConfigureMockMvc
+class QueryBudgetTest {
+
+    @RegisterExtension
+    static final PostgresSchema SCHEMA = PostgresSchema.throwaway("query_budget_test");
+
+    private static final Set<Class<?>> CONTROLLERS = Set.of(OrderController.class, CustomerController.class,
+            AuthController.class);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    @Qualifier("requestMappingHandlerMapping")
+    private RequestMappingHandlerMapping handlerMapping;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final QueryBudgets budgets = QueryBudgets.load();
+    private final Set<String> exercised = new TreeSet<>();
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        SCHEMA.registerDataSource(registry);
+    }
+
+    @Test
+    void shouldStayWithinQueryBudgetOnEveryEndpoint() throws Exception {
+        // Auth
+        call(post("/auth/register").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\": \"budget-user\", \"password\": \"secret\", \"role\": \"USER\"}"));
+        JsonNode userTokens = json(call(post("/auth/login").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\": \"budget-user\", \"password\": \"secret\"}")));
+        userTokens = json(call(post("/auth/refresh").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"refreshToken\": \"" + userTokens.get("refreshToken").asText() + "\"}")));
+        UUID userId = jdbcTemplate.queryForObject("SELECT id FROM users WHERE username = 'budget-user'", UUID.class);
+        jdbcTemplate.update("INSERT INTO customers (id, name, email) VALUES (?, 'Budget User', 'budget-user@example.com')",
+                userId);
+        String user = "Bearer " + userTokens.get("accessToken").asText();
+
+        // Orders, as their owner
+        String order = """
+                {"orderDate": "2024-05-01", "status": "NEW", "items": [
+                  {"productCode": "SKU-1", "quantity": 1, "unitPrice": 5.00},
+                  {"productCode": "SKU-2", "quantity": 2, "unitPrice": 7.50}]}
+                """;
+        UUID orderId = id(call(post("/orders").header("Authorization", user)
+                .contentType(MediaType.APPLICATION_JSON).content(order)));
+        call(get("/orders/{id}", orderId).header("Authorization", user));
+        call(get("/orders").header("Authorization", user));
+        call(get("/orders/batch").param("ids", orderId + "," + UUID.randomUUID()).header("Authorization", user));
+        call(post("/orders/batch").header("Authorization", user).contentType(MediaType.APPLICATION_JSON)
+                .content("{\"ids\": [\"" + orderId + "\", \"" + UUID.randomUUID() + "\"]}"));
+        call(put("/orders/{id}", orderId).header("Authorization", user).contentType(MediaType.APPLICATION_JSON)
+                .content(order.replace("NEW", "IN_PROGRESS")));
+        call(post("/orders/status-transitions").header("Authorization", user).contentType(MediaType.APPLICATION_JSON)
+                .content("{\"targetStatus\": \"COMPLETED\", \"ids\": [\"" + orderId + "\", \"" + UUID.randomUUID() + "\"]}"));
+        call(delete("/orders/{id}", orderId).header("Authorization", user));
+        call(post("/auth/logout").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"refreshToken\": \"" + userTokens.get("refreshToken").asText() + "\"}"));
+
+        // Customers, as an admin
+        call(post("/auth/register").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\": \"budget-admin\", \"password\": \"secret\", \"role\": \"ADMIN\"}"));
+        String admin = "Bearer " + json(call(post("/auth/login").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\": \"budget-admin\", \"password\": \"secret\"}"))).get("accessToken").asText();
+        UUID customerId = id(call(post("/customers").header("Authorization", admin).contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\": \"Budget Customer\", \"email\": \"budget-customer@example.com\"}")));
+        call(get("/customers/{id}", customerId).header("Authorization", admin));
+        call(get("/customers/{id}/overview", customerId).header("Authorization", admin));
+        call(get("/customers").header("Authorization", admin));
+        call(get("/customers/search").param("q", "budget").header("Authorization", admin));
+        call(get("/customers/batch").param("ids", customerId + "," + UUID.randomUUID()).header("Authorization", admin));
+        call(post("/customers/batch").header("Authorization", admin).contentType(MediaType.APPLICATION_JSON)
+                .content("{\"ids\": [\"" + customerId + "\"]}"));
+        call(put("/customers/{id}", customerId).header("Authorization", admin).contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\": \"Budget Customer 2\", \"email\": \"budget-customer@example.com\"}"));
+        UUID jobId = id(call(delete("/customers/{id}", customerId).header("Authorization", admin)));
+        call(get("/customers/deletion-jobs").header("Authorization", admin));
+        call(get("/customers/deletion-jobs/{jobId}", jobId).header("Authorization", admin));
+
+        assertEquals(controllerEndpoints(), exercised, "every endpoint must be exercised here");
+    }
+
+    @Test
+    void shouldHaveBudgetForEveryEndpoint() {
+        assertEquals(controllerEndpoints(), new TreeSet<>(budgets.limits().keySet()));
+    }
+
+    /**
+     * Perform the request and check its statements against the budget of the endpoint it was routed to.
+     */
+    private MvcResult call(MockHttpServletRequestBuilder request) throws Exception {
+        MvcResult result = mockMvc.perform(request).andReturn();
+        int status = result.getResponse().getStatus();
+        assertTrue(status >= 200 && status < 300, "unexpected status " + status + ": "
+                + result.getResponse().getContentAsString());
+
+        String endpoint = (String) result.getRequest().getAttribute(QueryBudgetFilter.ENDPOINT_ATTRIBUTE);
+        StatementLog log = (StatementLog) result.getRequest().getAttribute(QueryBudgetFilter.LOG_ATTRIBUTE);
+        assertNotNull(endpoint);
+        exercised.add(endpoint);
+
+        int limit = budgets.limitFor(endpoint).orElseThrow(() -> new AssertionError("no budget for " + endpoint));
+        assertTrue(log.count() <= limit,
+                endpoint + " sent " + log.count() + " statements (budget " + limit + "): " + log.statements());
+        assertTrue(log.repeated().isEmpty(), endpoint + " repeated statements: " + log.repeated());
+        return result;
+    }
+
+    private UUID id(MvcResult result) throws Exception {
+        return UUID.fromString(json(result).get("id").asText());
+    }
+
+    private JsonNode json(MvcResult result) throws Exception {
+        return objectMapper.readTree(result.getResponse().getContentAsString());
+    }
+
+    private Set<String> controllerEndpoints() {
+        Set<String> endpoints = new TreeSet<>();
+        handlerMapping.getHandlerMethods().forEach((info, method) -> {
+            if (CONTROLLERS.contains(method.getBeanType())) {
+                info.getMethodsCondition().getMethods().forEach(httpMethod ->
+                        info.getPatternValues().forEach(pattern ->
+                                endpoints.add(QueryBudgets.endpoint(httpMethod.name(), pattern))));
+            }
+        });
+        return endpoints;
+    }
+}
@@ -0,0 +1,33 @@
+package ent.orderManagement;
+
+import ent.orderManagement.security.RateLimiter;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimiterTest {
+
+    @Test
+    void shouldKeepOneBucketPerUserAndEndpoint() {
+        RateLimiter limiter = new RateLimiter(10, 0.001, 1, 0.001, 300_000, 100);
+
+        assertEquals(0, limiter.tryAcquire("ana", false, "GET /orders/{id}"));
+        assertTrue(limiter.tryAcquire("ana", false, "GET /orders/{id}") > 0);
+        assertEquals(0, limiter.tryAcquire("ana", false, "GET /orders"));
+        assertEquals(0, limiter.tryAcquire("ivan", false, "GET /orders/{id}"));
+        assertEquals(3, limiter.bucketCount());
+    }
+
+    @Test
+    void shouldShareAnOverflowBucketOnceFull() {
+        RateLimiter limiter = new RateLimiter(1, 0.001, 1, 0.001, 300_000, 2);
+        limiter.tryAcquire("ana", false, "GET /orders");
+        limiter.tryAcquire("ivan", false, "GET /orders");
+
+        // No room for new buckets: later users share one per role instead of growing the map
+        assertEquals(0, limiter.tryAcquire("marko", false, "GET /orders"));
+        assertTrue(limiter.tryAcquire("petra", false, "GET /orders") > 0);
+        assertEquals(0, limiter.tryAcquire("admin", true, "GET /orders"));
+        assertEquals(2, limiter.bucketCount());
+    }
+}
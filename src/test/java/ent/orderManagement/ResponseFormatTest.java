@@ -0,0 +1,211 @@
+package ent.orderManagement;
+
+import com.aayushatharva.brotli4j.decoder.BrotliInputStream;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import ent.orderManagement.compression.BrotliCompressionFilter;
+import ent.orderManagement.config.SerializationConfig;
+import ent.orderManagement.controller.OrderController;
+import ent.orderManagement.jfr.TracingJackson2HttpMessageConverter;
+import ent.orderManagement.model.Order;
+import ent.orderManagement.payload.CountMode;
+import ent.orderManagement.payload.CountedPage;
+import ent.orderManagement.service.OrderService;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.web.PageableHandlerMethodArgumentResolver;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.ByteArrayInputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+/**
+ * Content negotiation and compression of {@code GET /orders}, with the converters and the
+ * Brotli filter configured as in the application, and the filter with async responses.
+ */
+class ResponseFormatTest {
+
+    private static final String SMILE = "application/x-jackson-smile";
+    private static final String CBOR = "application/cbor";
+
+    private final OrderService orderService = mock(OrderService.class);
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        SerializationConfig config = new SerializationConfig();
+        mockMvc = MockMvcBuilders.standaloneSetup(new OrderController(orderService))
+                .setMessageConverters(
+                        new TracingJackson2HttpMessageConverter(builder(config).build()),
+                        config.mappingJackson2SmileHttpMessageConverter(builder(config)),
+                        config.mappingJackson2CborHttpMessageConverter(builder(config)))
+                .setCustomArgumentResolvers(new PageableHandlerMethodArgumentResolver())
+                .addFilters(new BrotliCompressionFilter(true, 4, DataSize.ofKilobytes(2),
+                        new String[] {"application/json", SMILE, CBOR}))
+                .build();
+    }
+
+    @Test
+    void shouldAnswerInTheRequestedFormat() throws Exception {
+        givenOrders(20);
+        byte[] json = body(get("/orders")).getContentAsByteArray();
+        List<String> ids = ids(new ObjectMapper().readTree(json));
+        assertEquals(20, ids.size());
+        assertEquals("EXACT", new ObjectMapper().readTree(json).get("countMode").asText());
+
+        MockHttpServletResponse smile = body(get("/orders").accept(SMILE));
+        assertEquals(SMILE, smile.getContentType());
+        assertEquals(ids, ids(new ObjectMapper(new SmileFactory()).readTree(smile.getContentAsByteArray())));
+        assertTrue(smile.getContentAsByteArray().length < json.length);
+
+        MockHttpServletResponse cbor = body(get("/orders").accept(CBOR));
+        assertEquals(CBOR, cbor.getContentType());
+        assertEquals(ids, ids(new ObjectMapper(new CBORFactory()).readTree(cbor.getContentAsByteArray())));
+    }
+
+    @Test
+    void shouldPreferJsonWhenTheClientAcceptsAnything() throws Exception {
+        givenOrders(1);
+        assertTrue(body(get("/orders").accept("*/*")).getContentType().startsWith("application/json"));
+    }
+
+    @Test
+    void shouldCompressLargeResponsesWithBrotli() throws Exception {
+        givenOrders(100);
+        byte[] plain = body(get("/orders").accept(SMILE)).getContentAsByteArray();
+
+        MockHttpServletResponse compressed = body(get("/orders").accept(SMILE)
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate, br"));
+        assertEquals("br", compressed.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(HttpHeaders.ACCEPT_ENCODING, compressed.getHeader(HttpHeaders.VARY));
+        assertTrue(compressed.getContentAsByteArray().length < plain.length / 2);
+        try (BrotliInputStream in = new BrotliInputStream(new ByteArrayInputStream(compressed.getContentAsByteArray()))) {
+            assertArrayEquals(plain, in.readAllBytes());
+        }
+    }
+
+    @Test
+    void shouldLeaveSmallResponsesAndOtherEncodingsAlone() throws Exception {
+        givenOrders(1);
+        MockHttpServletResponse small = body(get("/orders").header(HttpHeaders.ACCEPT_ENCODING, "br"));
+        assertNull(small.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(small.getContentAsByteArray().length, small.getContentLength());
+
+        givenOrders(100);
+        MockHttpServletResponse refused = body(get("/orders").header(HttpHeaders.ACCEPT_ENCODING, "gzip, br;q=0"));
+        assertNull(refused.getHeader(HttpHeaders.CONTENT_ENCODING), "gzip is left to Tomcat");
+        new ObjectMapper().readTree(refused.getContentAsByteArray());
+    }
+
+    @Test
+    void shouldCompressAsyncResponsesOnceTheyAreComplete() throws Exception {
+        String payload = "order ".repeat(2000);
+        MockMvc async = MockMvcBuilders.standaloneSetup(new AsyncController(payload))
+                .addFilters(new BrotliCompressionFilter(true, 4, DataSize.ofKilobytes(2), new String[] {"application/json"}))
+                .build();
+
+        MvcResult started = async.perform(get("/async").header(HttpHeaders.ACCEPT_ENCODING, "br"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        assertEquals(0, started.getResponse().getContentAsByteArray().length);
+
+        MockHttpServletResponse response = async.perform(asyncDispatch(started)).andReturn().getResponse();
+        assertEquals("br", response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        try (BrotliInputStream in = new BrotliInputStream(new ByteArrayInputStream(response.getContentAsByteArray()))) {
+            assertEquals(payload, new ObjectMapper().readTree(in.readAllBytes()).get("payload").asText());
+        }
+    }
+
+    @Test
+    void shouldPassNonBlockingWritesThroughUncompressed() throws Exception {
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        ServletOutputStream raw = mock(ServletOutputStream.class);
+        when(response.getOutputStream()).thenReturn(raw);
+        WriteListener listener = mock(WriteListener.class);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/orders");
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "br");
+
+        new BrotliCompressionFilter(true, 4, DataSize.ofKilobytes(2), new String[] {"application/json"})
+                .doFilter(request, response, (req, res) -> {
+                    res.setContentType("application/json");
+                    ServletOutputStream out = res.getOutputStream();
+                    out.write(new byte[] {'['});
+                    out.setWriteListener(listener);
+                    assertFalse(out.isReady(), "readiness is the servlet stream's");
+                    out.write(new byte[] {']'});
+                });
+
+        verify(raw).setWriteListener(listener);
+        verify(raw, times(2)).write(any(byte[].class), eq(0), eq(1));
+        verify(response, never()).setHeader(eq(HttpHeaders.CONTENT_ENCODING), any());
+    }
+
+    @RestController
+    static class AsyncController {
+
+        private final String payload;
+
+        AsyncController(String payload) {
+            this.payload = payload;
+        }
+
+        @GetMapping("/async")
+        Callable<Map<String, String>> async() {
+            return () -> Map.of("payload", payload);
+        }
+    }
+
+    private MockHttpServletResponse body(org.springframework.test.web.servlet.RequestBuilder request) throws Exception {
+        MockHttpServletResponse response = mockMvc.perform(request).andReturn().getResponse();
+        assertEquals(200, response.getStatus());
+        return response;
+    }
+
+    private void givenOrders(int count) {
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            orders.add(new Order().id(UUID.randomUUID()).customerId(UUID.randomUUID())
+                    .orderDate(LocalDate.of(2025, 1, 1).plusDays(i)).totalAmount(10f + i).status(Order.StatusEnum.NEW));
+        }
+        when(orderService.getOrders(any(), anyBoolean(), any()))
+                .thenReturn(new CountedPage<>(orders, PageRequest.of(0, 20), count, CountMode.EXACT));
+    }
+
+    private static List<String> ids(JsonNode page) {
+        List<String> ids = new ArrayList<>();
+        page.get("content").forEach(order -> ids.add(order.get("id").asText()));
+        return ids;
+    }
+
+    // Spring Boot injects a fresh, customized builder into each converter bean
+    private static Jackson2ObjectMapperBuilder builder(SerializationConfig config) {
+        return Jackson2ObjectMapperBuilder.json().modulesToInstall(config.blackbirdModule());
+    }
+}
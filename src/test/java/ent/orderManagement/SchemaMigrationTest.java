@@ -0,0 +1,83 @@
+package ent.orderManagement;
+
+import ent.orderManagement.config.MigrationConfig;
+import ent.orderManagement.migration.V4__PerformanceIndexes;
+import ent.orderManagement.migration.V5__BackfillOrderCreatedAt;
+import ent.orderManagement.migration.V7__StaleOrderIndex;
+import ent.orderManagement.sharding.ShardDataSources;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Runs the real migrations against a throw-away schema of a local PostgreSQL.
+ * Run with: ./gradlew postgresTest -Dpostgres.url=jdbc:postgresql://localhost:5432/orders
+ */
+@Tag("postgres")
+class SchemaMigrationTest {
+
+    @RegisterExtension
+    final PostgresSchema schema = PostgresSchema.throwaway("migration_test");
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = schema.jdbcTemplate();
+    }
+
+    @Test
+    void shouldBackfillInBatchesAndBuildValidIndexes() {
+        flyway("4").migrate();
+        UUID customerId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO customers (id, name, email) VALUES (?, 'Ana Horvat', 'ana@example.com')", customerId);
+        for (int i = 0; i < 10; i++) {
+            jdbcTemplate.update("INSERT INTO orders (id, customer_id, order_date, total_amount, status, created_at)"
+                    + " VALUES (?, ?, DATE '2024-03-01' + ?, 10, 'NEW', NULL)", UUID.randomUUID(), customerId, i);
+        }
+
+        flyway(null).migrate();
+
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT count(*) FROM orders WHERE created_at IS NULL", Integer.class));
+        assertEquals(10, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM orders WHERE created_at = order_date", Integer.class));
+        List<Boolean> indexValidity = jdbcTemplate.queryForList(
+                "SELECT i.indisvalid FROM pg_index i JOIN pg_class c ON c.oid = i.indexrelid"
+              + " JOIN pg_namespace n ON n.oid = c.relnamespace WHERE n.nspname = ? AND c.relname LIKE 'idx_%'",
+                Boolean.class, schema.name());
+        assertEquals(9, indexValidity.size());
+        assertTrue(indexValidity.stream().allMatch(Boolean::booleanValue));
+    }
+
+    @Test
+    void shouldSkipFlywayWhenSchemaIsCurrent() {
+        Flyway flyway = flyway(null);
+        flyway.migrate();
+
+        Flyway spied = spy(flyway);
+        new MigrationConfig().skipWhenCurrentMigrationStrategy(
+                new StaticListableBeanFactory().getBeanProvider(ShardDataSources.class)).migrate(spied);
+
+        verify(spied, never()).migrate();
+    }
+
+    private Flyway flyway(String target) {
+        var configuration = Flyway.configure()
+                .dataSource(schema.dataSource())
+                .javaMigrations(new V4__PerformanceIndexes(), new V5__BackfillOrderCreatedAt(3, 0),
+                        new V7__StaleOrderIndex());
+        if (target != null) {
+            configuration.target(target);
+        }
+        return configuration.load();
+    }
+}
@@ -0,0 +1,127 @@
+package ent.orderManagement;
+
+import ent.orderManagement.model.Order.StatusEnum;
+import ent.orderManagement.model.OrderEntity;
+import ent.orderManagement.sharding.ConsistentHashRing;
+import ent.orderManagement.sharding.KWayMerge;
+import ent.orderManagement.sharding.SortComparator;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardRingTest {
+
+    private static final int CUSTOMERS = 100_000;
+
+    @Test
+    void shouldSpreadCustomersEvenly() {
+        ConsistentHashRing ring = new ConsistentHashRing(List.of("main", "eu2", "eu3", "eu4"), 256);
+        Map<String, Integer> counts = new HashMap<>();
+        for (UUID customerId : customers()) {
+            counts.merge(ring.shardFor(customerId), 1, Integer::sum);
+        }
+        assertEquals(4, counts.size());
+        // 256 virtual nodes keep every shard within about 10% of its fair share
+        counts.values().forEach(count -> assertEquals(CUSTOMERS / 4.0, count, CUSTOMERS / 4.0 * 0.1));
+    }
+
+    @Test
+    void shouldOnlyMoveCustomersOntoTheAddedShard() {
+        ConsistentHashRing before = new ConsistentHashRing(List.of("main", "eu2", "eu3"), 256);
+        ConsistentHashRing after = new ConsistentHashRing(List.of("main", "eu2", "eu3", "eu4"), 256);
+        int moved = 0;
+        for (UUID customerId : customers()) {
+            String from = before.shardFor(customerId);
+            String to = after.shardFor(customerId);
+            if (!from.equals(to)) {
+                assertEquals("eu4", to);
+                moved++;
+            }
+        }
+        assertEquals(CUSTOMERS / 4.0, moved, CUSTOMERS / 4.0 * 0.1);
+    }
+
+    @Test
+    void shouldPlaceIndependentlyOfShardOrder() {
+        ConsistentHashRing ring = new ConsistentHashRing(List.of("main", "eu2"), 64);
+        ConsistentHashRing reversed = new ConsistentHashRing(List.of("eu2", "main"), 64);
+        customers().stream().limit(1000).forEach(customerId ->
+                assertEquals(ring.shardFor(customerId), reversed.shardFor(customerId)));
+    }
+
+    @Test
+    void shouldMergeSortedShardPagesIntoOnePage() {
+        Sort sort = Sort.by(Sort.Order.desc("orderDate"), Sort.Order.asc("id"));
+        Comparator<OrderEntity> order = SortComparator.of(sort);
+        Random random = new Random(7);
+        List<OrderEntity> all = new ArrayList<>();
+        List<List<OrderEntity>> shards = new ArrayList<>();
+        for (int shard = 0; shard < 3; shard++) {
+            List<OrderEntity> rows = new ArrayList<>();
+            for (int i = 0; i < 40; i++) {
+                rows.add(order(LocalDate.of(2024, 3, 1).plusDays(random.nextInt(10))));
+            }
+            rows.sort(order);
+            shards.add(rows);
+            all.addAll(rows);
+        }
+        all.sort(order);
+
+        assertEquals(all.subList(25, 35), KWayMerge.merge(shards, order, 25, 10));
+        assertEquals(all.subList(110, 120), KWayMerge.merge(shards, order, 110, 10));
+        assertEquals(List.of(), KWayMerge.merge(shards, order, 120, 10));
+    }
+
+    @Test
+    void shouldOrderNullsAndUuidsLikePostgres() {
+        OrderEntity undated = order(null);
+        OrderEntity early = order(LocalDate.of(2024, 1, 1));
+        OrderEntity late = order(LocalDate.of(2024, 6, 1));
+
+        List<OrderEntity> ascending = new ArrayList<>(List.of(undated, late, early));
+        ascending.sort(SortComparator.of(Sort.by("orderDate")));
+        assertEquals(List.of(early, late, undated), ascending);
+
+        List<OrderEntity> descending = new ArrayList<>(List.of(early, undated, late));
+        descending.sort(SortComparator.of(Sort.by(Sort.Direction.DESC, "orderDate")));
+        assertEquals(List.of(undated, late, early), descending);
+
+        // PostgreSQL compares uuids as unsigned bytes, UUID.compareTo as signed longs
+        OrderEntity low = order(null);
+        low.setId(UUID.fromString("00000000-0000-0000-0000-000000000001"));
+        OrderEntity high = order(null);
+        high.setId(UUID.fromString("ffffffff-0000-0000-0000-000000000000"));
+        List<OrderEntity> byId = new ArrayList<>(List.of(high, low));
+        byId.sort(SortComparator.of(Sort.by("id")));
+        assertEquals(List.of(low, high), byId);
+    }
+
+    private static OrderEntity order(LocalDate orderDate) {
+        OrderEntity order = new OrderEntity();
+        order.setId(UUID.randomUUID());
+        order.setCustomerId(UUID.randomUUID());
+        order.setOrderDate(orderDate);
+        order.setTotalAmount(10f);
+        order.setStatus(StatusEnum.NEW);
+        return order;
+    }
+
+    private static List<UUID> customers() {
+        Random random = new Random(42);
+        List<UUID> customers = new ArrayList<>(CUSTOMERS);
+        for (int i = 0; i < CUSTOMERS; i++) {
+            customers.add(new UUID(random.nextLong(), random.nextLong()));
+        }
+        return customers;
+    }
+}
@@ -0,0 +1,204 @@
+package ent.orderManagement;
+
+import com.zaxxer.hikari.HikariDataSource;
+import ent.orderManagement.exception.PageWindowExceededException;
+import ent.orderManagement.migration.V9__ShardSupport;
+import ent.orderManagement.model.OrderEntity;
+import ent.orderManagement.repository.OrderJdbcRepository;
+import ent.orderManagement.sharding.CustomerMover;
+import ent.orderManagement.sharding.CustomerMover.Move;
+import ent.orderManagement.sharding.OrderDirectory;
+import ent.orderManagement.sharding.ShardDataSources;
+import ent.orderManagement.sharding.ShardDirectory;
+import ent.orderManagement.sharding.Shards;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Two shards in two schemas of one local PostgreSQL: "main" (with customers) and "eu2".
+ * Run with: ./gradlew postgresTest -Dpostgres.url=jdbc:postgresql://localhost:5432/orders
+ */
+@Tag("postgres")
+class ShardingTest {
+
+    private static final int CUSTOMERS = 20;
+    private static final int ORDERS_PER_CUSTOMER = 3;
+
+    @RegisterExtension
+    final PostgresSchema mainSchema = PostgresSchema.throwaway("shard_main");
+    @RegisterExtension
+    final PostgresSchema eu2Schema = PostgresSchema.throwaway("shard_eu2");
+    private JdbcTemplate main;
+    private JdbcTemplate eu2;
+    private ShardDataSources dataSources;
+    private ShardDirectory directory;
+    private Shards shards;
+    private OrderJdbcRepository orderJdbcRepository;
+    private JdbcTemplate routedJdbc;
+    private final List<UUID> customers = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        DataSource mainDataSource = mainSchema.dataSource();
+        HikariDataSource eu2DataSource = new HikariDataSource();
+        eu2DataSource.setJdbcUrl(eu2Schema.url());
+        eu2DataSource.setUsername(PostgresSchema.username());
+        eu2DataSource.setPassword(PostgresSchema.password());
+        eu2DataSource.setMaximumPoolSize(4);
+        migrate(mainSchema, "primary");
+        migrate(eu2Schema, "secondary");
+        main = new JdbcTemplate(mainDataSource);
+        eu2 = new JdbcTemplate(eu2DataSource);
+
+        dataSources = new ShardDataSources(true, "main", Map.of("eu2", eu2DataSource), List.of(), 64);
+        DataSource routed = dataSources.route(mainDataSource);
+        directory = new ShardDirectory(main, dataSources, 5000, 300_000);
+        directory.refresh();
+        shards = new Shards(dataSources, directory, new DataSourceTransactionManager(routed), 4, 5000, 100);
+        orderJdbcRepository = new OrderJdbcRepository(new JdbcTemplate(routed));
+        routedJdbc = new JdbcTemplate(routed);
+
+        for (int i = 0; i < CUSTOMERS; i++) {
+            UUID customerId = UUID.randomUUID();
+            customers.add(customerId);
+            main.update("INSERT INTO customers (id, name, email) VALUES (?, ?, ?)",
+                    customerId, "Customer " + i, "customer" + i + "@example.com");
+            shards.writeFor(customerId, () -> routedJdbc.update(
+                    "INSERT INTO orders (id, customer_id, order_date, total_amount, status)"
+                  + " SELECT gen_random_uuid(), ?, DATE '2024-03-01' + (random() * 30)::int, 10, 'NEW'"
+                  + " FROM generate_series(1, ?)", customerId, ORDERS_PER_CUSTOMER));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (shards != null) {
+            shards.shutdown();
+            dataSources.close();
+        }
+    }
+
+    @Test
+    void shouldKeepEveryCustomersOrdersOnItsShard() {
+        for (UUID customerId : customers) {
+            boolean onMain = "main".equals(shards.shardOf(customerId));
+            assertEquals(onMain ? ORDERS_PER_CUSTOMER : 0, countOrders(main, customerId));
+            assertEquals(onMain ? 0 : ORDERS_PER_CUSTOMER, countOrders(eu2, customerId));
+        }
+        assertTrue(countAll(main) > 0 && countAll(eu2) > 0, "both shards hold orders");
+
+        UUID onEu2 = eu2.queryForObject("SELECT id FROM orders LIMIT 1", UUID.class);
+        assertEquals(onEu2, shards.findFirst(() -> orderJdbcRepository.findByIdWithItems(onEu2))
+                .orElseThrow().order().getId());
+        assertEquals(List.of(onEu2), shards.collect(null, () -> orderJdbcRepository.findExistingIds(List.of(onEu2))));
+    }
+
+    @Test
+    void shouldFindAnOrdersShardThroughTheOrderDirectory() {
+        OrderDirectory orderDirectory = new OrderDirectory(dataSources);
+        UUID customerId = customers.stream().filter(id -> "eu2".equals(shards.shardOf(id))).findFirst().orElseThrow();
+        UUID orderId = eu2.queryForObject("SELECT id FROM orders WHERE customer_id = ? LIMIT 1", UUID.class, customerId);
+
+        assertTrue(orderDirectory.customerOf(orderId).isEmpty()); // created before it was recorded
+        orderDirectory.record(orderId, customerId);
+        assertEquals(customerId, orderDirectory.customerOf(orderId).orElseThrow());
+        assertEquals(1, main.queryForObject("SELECT count(*) FROM order_customers", Integer.class));
+
+        orderDirectory.forget(List.of(orderId));
+        assertTrue(orderDirectory.customerOf(orderId).isEmpty());
+        orderDirectory.record(orderId, customerId);
+        orderDirectory.forgetCustomer(customerId);
+        assertTrue(orderDirectory.customerOf(orderId).isEmpty());
+    }
+
+    @Test
+    void shouldMergePagesOfAllShards() {
+        Pageable pageable = PageRequest.of(2, 7, Sort.by(Sort.Direction.DESC, "orderDate"));
+        Page<OrderEntity> page = shards.mergePages(pageable, "id", this::findAll);
+
+        List<UUID> expected = main.queryForList(
+                "SELECT id FROM (SELECT id, order_date FROM " + mainSchema.name() + ".orders"
+              + " UNION ALL SELECT id, order_date FROM " + eu2Schema.name() + ".orders) o"
+              + " ORDER BY order_date DESC, id LIMIT 7 OFFSET 14", UUID.class);
+        assertEquals(expected, page.getContent().stream().map(OrderEntity::getId).toList());
+        assertEquals(CUSTOMERS * ORDERS_PER_CUSTOMER, page.getTotalElements());
+
+        assertThrows(PageWindowExceededException.class,
+                () -> shards.mergePages(PageRequest.of(20, 10), "id", this::findAll));
+    }
+
+    @Test
+    void shouldMoveCustomerAndFenceTheOldShard() {
+        UUID customerId = customers.stream().filter(c -> "main".equals(shards.shardOf(c))).findFirst().orElseThrow();
+        UUID orderId = main.queryForObject("SELECT id FROM orders WHERE customer_id = ? LIMIT 1", UUID.class, customerId);
+        main.update("INSERT INTO order_items (id, order_id, line_number, product_code, quantity, unit_price)"
+                + " VALUES (gen_random_uuid(), ?, 1, 'SKU-1', 2, 5)", orderId);
+
+        CustomerMover mover = new CustomerMover(dataSources, directory, 2, 2000, 0);
+        assertEquals(ORDERS_PER_CUSTOMER, mover.moveAll(List.of(new Move(customerId, "main", "eu2", false))));
+
+        assertEquals("eu2", shards.shardOf(customerId));
+        assertEquals(0, countOrders(main, customerId));
+        assertEquals(ORDERS_PER_CUSTOMER, countOrders(eu2, customerId));
+        assertEquals(1, eu2.queryForObject("SELECT count(*) FROM order_items WHERE order_id = ?", Integer.class, orderId));
+
+        // A node that has not seen the move yet cannot write to the old shard
+        DataAccessException rejected = assertThrows(DataAccessException.class, () -> main.update(
+                "INSERT INTO orders (id, customer_id, order_date, total_amount, status)"
+              + " VALUES (gen_random_uuid(), ?, DATE '2024-03-01', 10, 'NEW')", customerId));
+        assertTrue(CustomerMover.isFenced(rejected));
+
+        ShardDirectory otherNode = new ShardDirectory(main, dataSources, 5000, 300_000);
+        otherNode.refresh();
+        assertEquals("eu2", otherNode.shardOf(customerId));
+    }
+
+    private Page<OrderEntity> findAll(Pageable pageable) {
+        // Runs on each shard in turn: the routed connection belongs to that shard
+        assertEquals(Sort.by(Sort.Order.desc("orderDate"), Sort.Order.asc("id")), pageable.getSort());
+        List<OrderEntity> content = routedJdbc.query(
+                "SELECT id, order_date FROM orders ORDER BY order_date DESC, id LIMIT ? OFFSET ?",
+                (rs, rowNum) -> {
+                    OrderEntity order = new OrderEntity();
+                    order.setId(rs.getObject("id", UUID.class));
+                    order.setOrderDate(rs.getObject("order_date", LocalDate.class));
+                    return order;
+                }, pageable.getPageSize(), pageable.getOffset());
+        return new PageImpl<>(content, pageable, countAll(routedJdbc));
+    }
+
+    private static int countOrders(JdbcTemplate shard, UUID customerId) {
+        return shard.queryForObject("SELECT count(*) FROM orders WHERE customer_id = ?", Integer.class, customerId);
+    }
+
+    private static int countAll(JdbcTemplate shard) {
+        return shard.queryForObject("SELECT count(*) FROM orders", Integer.class);
+    }
+
+    private static void migrate(PostgresSchema schema, String shardRole) {
+        schema.flyway(new V9__ShardSupport())
+                .placeholders(Map.of("shardRole", shardRole))
+                .load()
+                .migrate();
+    }
+}
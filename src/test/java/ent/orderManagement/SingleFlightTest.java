@@ -0,0 +1,90 @@
+package ent.orderManagement;
+
+import ent.orderManagement.service.SingleFlight;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    @Test
+    void shouldShareOneLoadBetweenConcurrentCallers() throws Exception {
+        SingleFlight<String, String> flight = new SingleFlight<>();
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            results.add(pool.submit(() -> flight.load("order-1", () -> {
+                loads.incrementAndGet();
+                loading.countDown();
+                await(release);
+                return "loaded";
+            })));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+            for (int i = 0; i < 15; i++) {
+                results.add(pool.submit(() -> flight.load("order-1", () -> {
+                    loads.incrementAndGet();
+                    return "duplicate";
+                })));
+            }
+            Thread.sleep(100); // let the followers reach the in-flight load
+            release.countDown();
+
+            for (Future<String> result : results) {
+                assertEquals("loaded", result.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, loads.get());
+            assertEquals(0, flight.inFlight());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void shouldLoadAgainOnceTheFlightHasLanded() {
+        SingleFlight<String, Integer> flight = new SingleFlight<>();
+        AtomicInteger loads = new AtomicInteger();
+
+        assertEquals(1, flight.load("k", loads::incrementAndGet));
+        assertEquals(2, flight.load("k", loads::incrementAndGet));
+    }
+
+    @Test
+    void shouldPropagateLoaderFailureAndForgetIt() {
+        SingleFlight<String, String> flight = new SingleFlight<>();
+
+        assertThrows(IllegalStateException.class, () -> flight.load("k", () -> {
+            throw new IllegalStateException("db down");
+        }));
+        assertEquals("ok", flight.load("k", () -> "ok"));
+    }
+
+    @Test
+    void shouldStopCoalescingWhenStripeIsFull() {
+        SingleFlight<String, String> flight = new SingleFlight<>(1, 0);
+
+        assertEquals("direct", flight.load("k", () -> "direct"));
+        assertEquals(0, flight.inFlight());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
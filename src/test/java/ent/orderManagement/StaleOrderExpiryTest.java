@@ -0,0 +1,137 @@
+package ent.orderManagement;
+
+import ent.orderManagement.analytics.OrderAnalyticsEngine;
+import ent.orderManagement.audit.AuditEvent.EntityType;
+import ent.orderManagement.audit.AuditTrail;
+import ent.orderManagement.cache.OrderCacheInvalidator;
+import ent.orderManagement.model.Order;
+import ent.orderManagement.model.Order.StatusEnum;
+import ent.orderManagement.repository.OrderJdbcRepository;
+import ent.orderManagement.service.StaleOrderExpiryWorker;
+import ent.orderManagement.sharding.Shards;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Three "nodes" (each with its own connections and two workers) expire the same backlog of
+ * stale orders at once; every order must be expired exactly once and nothing else touched.
+ * Run with: ./gradlew postgresTest -Dpostgres.url=jdbc:postgresql://localhost:5432/orders
+ */
+@Tag("postgres")
+class StaleOrderExpiryTest {
+
+    private static final int STALE = 3000;
+    private static final int NODES = 3;
+
+    @RegisterExtension
+    final PostgresSchema schema = PostgresSchema.throwaway("expiry_test");
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = schema.jdbcTemplate();
+        schema.migrate();
+
+        UUID customerId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO customers (id, name, email) VALUES (?, 'Ana Horvat', 'ana@example.com')", customerId);
+        insertOrders(customerId, STALE, "NEW", "now() - interval '10 days'");
+        insertOrders(customerId, 200, "NEW", "now() - interval '1 hour'");
+        insertOrders(customerId, 200, "IN_PROGRESS", "now() - interval '10 days'");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldShareTheBacklogBetweenNodesWithoutDoubleProcessing() {
+        List<SimpleMeterRegistry> registries = new ArrayList<>();
+        List<OrderCacheInvalidator> invalidators = new ArrayList<>();
+        List<StaleOrderExpiryWorker> nodes = new ArrayList<>();
+        AuditTrail auditTrail = mock(AuditTrail.class);
+        for (int i = 0; i < NODES; i++) {
+            SimpleMeterRegistry registry = new SimpleMeterRegistry();
+            OrderCacheInvalidator invalidator = mock(OrderCacheInvalidator.class);
+            registries.add(registry);
+            invalidators.add(invalidator);
+            nodes.add(new StaleOrderExpiryWorker(new OrderJdbcRepository(schema.jdbcTemplate()), invalidator,
+                    mock(OrderAnalyticsEngine.class), Shards.unsharded(), auditTrail, registry, true, StatusEnum.CANCELLED,
+                    24 * 60, 50, 2, 0));
+        }
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<CompletableFuture<Long>> runs = nodes.stream()
+                .map(node -> CompletableFuture.supplyAsync(() -> {
+                    awaitQuietly(start);
+                    return node.run();
+                }))
+                .collect(Collectors.toList());
+        start.countDown();
+        long expired = runs.stream().mapToLong(CompletableFuture::join).sum();
+        long secondPass = nodes.get(0).run();
+        nodes.forEach(StaleOrderExpiryWorker::shutdown);
+
+        assertEquals(STALE, expired);
+        assertEquals(0, secondPass);
+        Map<String, Long> byStatusAndAge = jdbcTemplate.query(
+                "SELECT status || CASE WHEN created_at < now() - interval '1 day' THEN '/stale' ELSE '/recent' END AS k,"
+                        + " count(*) AS n FROM orders GROUP BY 1",
+                rs -> {
+                    Map<String, Long> counts = new TreeMap<>();
+                    while (rs.next()) {
+                        counts.put(rs.getString("k"), rs.getLong("n"));
+                    }
+                    return counts;
+                });
+        assertEquals(Map.of("CANCELLED/stale", (long) STALE, "NEW/recent", 200L, "IN_PROGRESS/stale", 200L),
+                byStatusAndAge);
+
+        double counted = registries.stream().mapToDouble(r -> r.get("orders.expired").counter().count()).sum();
+        assertEquals(STALE, counted);
+        assertTrue(registries.stream().allMatch(r -> r.get("orders.expiry.batch").timer().count() > 0));
+
+        // Every expired order was claimed by exactly one worker
+        List<UUID> invalidated = new ArrayList<>();
+        for (OrderCacheInvalidator invalidator : invalidators) {
+            ArgumentCaptor<List<UUID>> ids = ArgumentCaptor.forClass(List.class);
+            verify(invalidator, atLeast(0)).invalidate(ids.capture());
+            ids.getAllValues().forEach(invalidated::addAll);
+        }
+        assertEquals(STALE, invalidated.size());
+        assertEquals(STALE, new HashSet<>(invalidated).size());
+
+        // ... and audited once, from NEW to the target status
+        verify(auditTrail, times(STALE)).recordUpdate(eq(EntityType.ORDER), any(),
+                argThat(before -> ((Order) before).getStatus() == StatusEnum.NEW),
+                argThat(after -> ((Order) after).getStatus() == StatusEnum.CANCELLED));
+    }
+
+    private void insertOrders(UUID customerId, int count, String status, String createdAt) {
+        jdbcTemplate.update("INSERT INTO orders (id, customer_id, order_date, total_amount, status, created_at)"
+                + " SELECT gen_random_uuid(), ?, DATE '2024-03-01', 10, ?, " + createdAt
+                + " FROM generate_series(1, ?)", customerId, status, count);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package ent.orderManagement;
+
+import ent.orderManagement.security.TokenBucket;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void shouldAllowBurstUpToCapacityThenReject() {
+        long now = 1_000L;
+        TokenBucket bucket = new TokenBucket(3, 1, now);
+
+        assertEquals(0, bucket.tryConsume(now));
+        assertEquals(0, bucket.tryConsume(now));
+        assertEquals(0, bucket.tryConsume(now));
+
+        long wait = bucket.tryConsume(now);
+        assertEquals(SECOND, wait);
+    }
+
+    @Test
+    void shouldRefillOverTime() {
+        long now = 1_000L;
+        TokenBucket bucket = new TokenBucket(1, 2, now);
+
+        assertEquals(0, bucket.tryConsume(now));
+        assertTrue(bucket.tryConsume(now) > 0);
+        assertEquals(0, bucket.tryConsume(now + SECOND / 2));
+    }
+
+    @Test
+    void shouldBecomeIdleOnceFull() {
+        long now = 1_000L;
+        TokenBucket bucket = new TokenBucket(2, 1, now);
+        bucket.tryConsume(now);
+
+        assertFalse(bucket.isIdle(now, 0));
+        assertTrue(bucket.isIdle(now + SECOND, 0));
+        assertFalse(bucket.isIdle(now + SECOND, SECOND));
+    }
+}
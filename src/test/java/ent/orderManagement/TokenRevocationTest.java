@@ -0,0 +1,109 @@
+package ent.orderManagement;
+
+import ent.orderManagement.exception.InvalidRefreshTokenException;
+import ent.orderManagement.model.Role;
+import ent.orderManagement.model.User;
+import ent.orderManagement.payload.AuthResponse;
+import ent.orderManagement.repository.RefreshTokenRepository;
+import ent.orderManagement.security.JwtRequestFilter;
+import ent.orderManagement.security.JwtUtil;
+import ent.orderManagement.security.RevokedTokenRegistry;
+import ent.orderManagement.service.AuthTokenService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Refresh token rotation and revocation on two "nodes" sharing one database: a revocation on
+ * one node applies there at once and on the other after its next incremental refresh, while
+ * authenticating a request never needs the database.
+ * Run with: ./gradlew postgresTest -Dpostgres.url=jdbc:postgresql://localhost:5432/orders
+ */
+@Tag("postgres")
+class TokenRevocationTest {
+
+    @RegisterExtension
+    final PostgresSchema schema = PostgresSchema.throwaway("token_test");
+    private final JwtUtil jwtUtil = new JwtUtil("token-revocation-test-secret-of-32-chars", 300_000);
+    private JdbcTemplate jdbcTemplate;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = schema.jdbcTemplate();
+        schema.migrate();
+
+        user = new User("ana", "{noop}secret", Role.USER);
+        user.setId(UUID.randomUUID());
+        jdbcTemplate.update("INSERT INTO users (id, username, password, role) VALUES (?, ?, ?, ?)",
+                user.getId(), user.getUsername(), user.getPassword(), user.getRole().name());
+    }
+
+    @Test
+    void shouldRevokeTheWholeFamilyWhenARefreshTokenIsReused() {
+        RevokedTokenRegistry registry = registry();
+        RevokedTokenRegistry otherNode = registry();
+        AuthTokenService tokens = new AuthTokenService(new RefreshTokenRepository(jdbcTemplate), registry, jwtUtil, 60_000);
+        JwtRequestFilter filter = new JwtRequestFilter(jwtUtil, registry);
+        JwtRequestFilter otherFilter = new JwtRequestFilter(jwtUtil, otherNode);
+
+        AuthResponse login = tokens.login(user);
+        AuthResponse rotated = tokens.refresh(login.getRefreshToken());
+        User principal = filter.authenticate(rotated.getAccessToken());
+        assertEquals(user.getId(), principal.getId());
+        assertEquals(Role.USER, principal.getRole());
+
+        // The first refresh token was stolen and is used again: both sessions end
+        assertThrows(InvalidRefreshTokenException.class, () -> tokens.refresh(login.getRefreshToken()));
+        assertThrows(InvalidRefreshTokenException.class, () -> tokens.refresh(rotated.getRefreshToken()));
+        assertNull(filter.authenticate(login.getAccessToken()));
+        assertNull(filter.authenticate(rotated.getAccessToken()));
+
+        assertNotNull(otherFilter.authenticate(rotated.getAccessToken()));
+        otherNode.refresh();
+        assertNull(otherFilter.authenticate(rotated.getAccessToken()));
+    }
+
+    @Test
+    void shouldRevokeAccessTokensOnLogoutAndForgetThemOnceExpired() {
+        RevokedTokenRegistry registry = registry();
+        AuthTokenService tokens = new AuthTokenService(new RefreshTokenRepository(jdbcTemplate), registry, jwtUtil, 60_000);
+        JwtRequestFilter filter = new JwtRequestFilter(jwtUtil, registry);
+
+        AuthResponse session = tokens.login(user);
+        AuthResponse other = tokens.login(user);
+        tokens.logout(session.getRefreshToken());
+
+        assertNull(filter.authenticate(session.getAccessToken()));
+        assertNotNull(filter.authenticate(other.getAccessToken()), "other sessions are not affected");
+        assertThrows(InvalidRefreshTokenException.class, () -> tokens.refresh(session.getRefreshToken()));
+        assertNull(filter.authenticate(other.getAccessToken() + "x"), "tampered tokens are rejected");
+
+        // Expired revocations are purged by the next full reload
+        jdbcTemplate.update("UPDATE revoked_tokens SET expires_at = now() - interval '1 minute'");
+        RevokedTokenRegistry restarted = registry();
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT count(*) FROM revoked_tokens", Integer.class));
+        assertFalse(restarted.isRevoked(UUID.randomUUID()));
+    }
+
+    @Test
+    void shouldRejectEveryTokenUntilTheRevocationsHaveBeenLoaded() {
+        RevokedTokenRegistry registry = new RevokedTokenRegistry(jdbcTemplate, new SimpleMeterRegistry(), true, 5000, 300_000, 30_000);
+        assertTrue(registry.isRevoked(UUID.randomUUID()));
+        registry.refresh();
+        assertFalse(registry.isRevoked(UUID.randomUUID()));
+    }
+
+    private RevokedTokenRegistry registry() {
+        RevokedTokenRegistry registry = new RevokedTokenRegistry(jdbcTemplate, new SimpleMeterRegistry(), true, 5000, 300_000, 30_000);
+        registry.refresh();
+        return registry;
+    }
+}
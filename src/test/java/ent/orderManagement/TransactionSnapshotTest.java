@@ -0,0 +1,33 @@
+package ent.orderManagement;
+
+import ent.orderManagement.analytics.TransactionSnapshot;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionSnapshotTest {
+
+    @Test
+    void shouldSeeOnlyTransactionsCommittedBeforeIt() {
+        TransactionSnapshot snapshot = TransactionSnapshot.parse("100:105:100,103");
+
+        assertEquals(new TransactionSnapshot(100, 105, Set.of(100L, 103L)), snapshot);
+        assertTrue(snapshot.sees(99));
+        assertFalse(snapshot.sees(100)); // still running
+        assertTrue(snapshot.sees(101));
+        assertFalse(snapshot.sees(103));
+        assertTrue(snapshot.sees(104));
+        assertFalse(snapshot.sees(105)); // started afterwards
+    }
+
+    @Test
+    void shouldParseASnapshotWithoutRunningTransactions() {
+        TransactionSnapshot snapshot = TransactionSnapshot.parse("42:42:");
+
+        assertTrue(snapshot.inProgress().isEmpty());
+        assertTrue(snapshot.sees(41));
+        assertFalse(snapshot.sees(42));
+    }
+}
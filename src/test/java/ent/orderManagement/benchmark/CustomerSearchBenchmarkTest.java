@@ -0,0 +1,105 @@
+package ent.orderManagement.benchmark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import ent.orderManagement.PostgresSchema;
+import ent.orderManagement.audit.AuditTrail;
+import ent.orderManagement.repository.CustomerRepository;
+import ent.orderManagement.service.CustomerService;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Latency of {@code CustomerService.searchCustomers} over 5M customers in PostgreSQL.
+ *
+ * Uses its own schema ({@code search_benchmark}) so the seeded rows never mix with real data;
+ * seeding and index builds take a few minutes the first time and are reused afterwards.
+ * Run with {@code ./gradlew customerSearchBenchmark -Dpostgres.url=jdbc:postgresql://localhost:5432/orders}.
+ */
+@Tag("benchmark")
+class CustomerSearchBenchmarkTest {
+
+    // Kept between runs: seeding millions of customers takes minutes
+    @RegisterExtension
+    static final PostgresSchema SCHEMA = PostgresSchema.kept("search_benchmark");
+
+    private static final int CUSTOMERS = Integer.getInteger("benchmark.search.customers", 5_000_000);
+    private static final long TARGET_P95_MICROS = Long.getLong("benchmark.search.target-ms", 20) * 1000;
+    private static final int WARMUP = 200;
+    private static final int MEASURED = 1000;
+
+    // Prefixes of varying selectivity, e-mail fragments and typos
+    private static final Map<String, List<String>> QUERIES = new LinkedHashMap<>();
+    static {
+        QUERIES.put("prefix", List.of("a", "an", "ana", "ivan h", "marko kovačević 12", "petra.babić"));
+        QUERIES.put("exact", List.of("luka novak 4711", "ana.horvat.99@example.com"));
+        QUERIES.put("fuzzy", List.of("horvta", "kovacevic", "jurikć", "novka 4711", "babic.petra"));
+    }
+
+    private static CustomerService customerService;
+
+    @BeforeAll
+    static void seed() {
+        JdbcTemplate jdbcTemplate = SCHEMA.jdbcTemplate();
+        SCHEMA.migrate();
+
+        Integer existing = jdbcTemplate.queryForObject("SELECT count(*) FROM customers", Integer.class);
+        if (existing == null || existing < CUSTOMERS) {
+            jdbcTemplate.execute("TRUNCATE customers CASCADE");
+            // Names repeat with a running number, like a real directory with many namesakes
+            jdbcTemplate.update(
+                    "INSERT INTO customers (id, name, email, created_at)"
+                  + " SELECT gen_random_uuid(), f || ' ' || l || ' ' || g,"
+                  + "        lower(f || '.' || l || '.' || g || '@example.com'), now()"
+                  + " FROM generate_series(1, ?) g,"
+                  + " LATERAL (SELECT (ARRAY['Ana','Ivan','Marko','Petra','Luka','Iva','Josip','Maja','Tomislav','Katarina',"
+                  + "                        'Nikola','Lucija','Filip','Sara','Matej','Ema','Karlo','Lana','Jurica','Nina'])[1 + g % 20] AS f,"
+                  + "                 (ARRAY['Horvat','Kovačević','Babić','Marić','Jurić','Novak','Kovačić','Knežević','Vuković','Marković',"
+                  + "                        'Petrović','Matić','Tomić','Pavlović','Kovač','Božić','Blažević','Grgić','Pavić','Radić'])[1 + (g / 20) % 20] AS l) n",
+                    CUSTOMERS);
+            jdbcTemplate.execute("ANALYZE customers");
+        }
+
+        customerService = new CustomerService(new CustomerRepository(jdbcTemplate), null, AuditTrail.disabled(), 500, 1000);
+    }
+
+    @Test
+    void searchLatencyAtScale() {
+        System.out.printf("Customer search over %,d customers (µs)%n", CUSTOMERS);
+        List<Long> all = new ArrayList<>();
+        for (Map.Entry<String, List<String>> kind : QUERIES.entrySet()) {
+            List<String> queries = kind.getValue();
+            for (int i = 0; i < WARMUP; i++) {
+                customerService.searchCustomers(queries.get(i % queries.size()), 0, 20);
+            }
+            long[] micros = new long[MEASURED];
+            for (int i = 0; i < MEASURED; i++) {
+                long start = System.nanoTime();
+                customerService.searchCustomers(queries.get(i % queries.size()), i % 3, 20);
+                micros[i] = (System.nanoTime() - start) / 1000;
+                all.add(micros[i]);
+            }
+            Arrays.sort(micros);
+            System.out.printf("  %-7s p50 %6d  p95 %6d  p99 %6d  max %6d%n", kind.getKey(),
+                    percentile(micros, 50), percentile(micros, 95), percentile(micros, 99), micros[MEASURED - 1]);
+        }
+
+        long[] overall = all.stream().mapToLong(Long::longValue).sorted().toArray();
+        long p95 = percentile(overall, 95);
+        assertTrue(p95 <= TARGET_P95_MICROS, "p95 " + p95 + " µs exceeds the target of " + TARGET_P95_MICROS + " µs");
+    }
+
+    private static long percentile(long[] sorted, int percentile) {
+        return sorted[Math.min(sorted.length - 1, sorted.length * percentile / 100)];
+    }
+}
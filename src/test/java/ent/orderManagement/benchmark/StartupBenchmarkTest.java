@@ -0,0 +1,139 @@
+package ent.orderManagement.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Tag;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Launches the application as a separate JVM and measures the time until the first
+ * successful {@code GET /orders}, once with the default launch and once with
+ * AOT + AppCDS + the startup profile.
+ *
+ * Run with {@code ./gradlew startupBenchmark}; needs the database from application.yml
+ * with the schema already migrated ({@code ./gradlew migrateSchema}).
+ */
+@Tag("benchmark")
+class StartupBenchmarkTest {
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(2);
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final HttpClient http = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofMillis(200))
+            .build();
+
+    private final String username = System.getProperty("benchmark.username", "startup-benchmark");
+    private final String password = System.getProperty("benchmark.password", "startup-benchmark");
+    private final int runs = Integer.getInteger("benchmark.startup.runs", 3);
+
+    @Test
+    void timeToFirstOrdersPage() throws Exception {
+        String classpath = System.getProperty("benchmark.startup.classpath");
+        String cdsArchive = System.getProperty("benchmark.startup.cds-archive");
+        assertTrue(classpath != null && cdsArchive != null, "Run through ./gradlew startupBenchmark");
+
+        List<Long> baseline = new ArrayList<>();
+        List<Long> optimized = new ArrayList<>();
+        for (int i = 0; i < runs; i++) {
+            baseline.add(measure(classpath, List.of(), List.of()));
+            optimized.add(measure(classpath,
+                    List.of("-XX:SharedArchiveFile=" + cdsArchive, "-Xshare:auto", "-Dspring.aot.enabled=true"),
+                    List.of("--spring.profiles.active=startup")));
+        }
+
+        System.out.printf("Time to first GET /orders (ms, %d runs)%n", runs);
+        System.out.printf("  default   : min %d, median %d%n", Collections.min(baseline), median(baseline));
+        System.out.printf("  optimized : min %d, median %d%n", Collections.min(optimized), median(optimized));
+    }
+
+    private long measure(String classpath, List<String> jvmArgs, List<String> appArgs) throws Exception {
+        int port = freePort();
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvmArgs);
+        command.add("-cp");
+        command.add(classpath);
+        command.add("ent.orderManagement.OrderManagementApplication");
+        command.add("--server.port=" + port);
+        command.addAll(appArgs);
+
+        File log = Files.createTempFile("startup-benchmark", ".log").toFile();
+        long start = System.nanoTime();
+        Process app = new ProcessBuilder(command).redirectErrorStream(true).redirectOutput(log).start();
+        try {
+            String base = "http://localhost:" + port;
+            long deadline = start + STARTUP_TIMEOUT.toNanos();
+            while (System.nanoTime() < deadline) {
+                assertTrue(app.isAlive(), "Application exited during startup, see " + log);
+                if (firstOrdersPage(base)) {
+                    return Duration.ofNanos(System.nanoTime() - start).toMillis();
+                }
+                Thread.sleep(10);
+            }
+            throw new AssertionError("No successful GET /orders within " + STARTUP_TIMEOUT + ", see " + log);
+        } finally {
+            app.destroy();
+            app.waitFor();
+        }
+    }
+
+    /**
+     * Registers (idempotently), logs in and fetches the first orders page.
+     * Returns false while the server is not accepting requests yet.
+     */
+    private boolean firstOrdersPage(String base) throws InterruptedException {
+        try {
+            String credentials = "{\"username\":\"" + username + "\",\"password\":\"" + password + "\",\"role\":\"USER\"}";
+            http.send(post(base + "/auth/register", credentials), HttpResponse.BodyHandlers.discarding());
+
+            HttpResponse<String> login = http.send(post(base + "/auth/login", credentials), HttpResponse.BodyHandlers.ofString());
+            if (login.statusCode() != 200) {
+                return false;
+            }
+
+            HttpRequest orders = HttpRequest.newBuilder(URI.create(base + "/orders"))
+                    .header("Authorization", "Bearer " + JSON.readTree(login.body()).get("accessToken").asText())
+                    .GET()
+                    .build();
+            return http.send(orders, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+        } catch (IOException notListeningYet) {
+            return false;
+        }
+    }
+
+    private static HttpRequest post(String uri, String json) {
+        return HttpRequest.newBuilder(URI.create(uri))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static long median(List<Long> values) {
+        List<Long> sorted = new ArrayList<>(values);
+        Collections.sort(sorted);
+        return sorted.get(sorted.size() / 2);
+    }
+}
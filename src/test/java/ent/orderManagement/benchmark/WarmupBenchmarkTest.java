@@ -0,0 +1,197 @@
+package ent.orderManagement.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Launches the application as a separate JVM, once with {@code warmup.enabled=false} and once
+ * with the warmup, waits until the readiness probe reports it ready and then sends it requests
+ * (log in, first orders page, single order) from a few clients for one minute. Reports the
+ * latency percentiles of the first ten seconds and of the whole minute.
+ *
+ * Run with {@code ./gradlew warmupBenchmark}; needs the database from application.yml
+ * with the schema already migrated ({@code ./gradlew migrateSchema}).
+ */
+@Tag("benchmark")
+class WarmupBenchmarkTest {
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(2);
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final HttpClient http = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofMillis(200))
+            .build();
+
+    private final String username = System.getProperty("benchmark.username", "warmup-benchmark");
+    private final String password = System.getProperty("benchmark.password", "warmup-benchmark");
+    private final Duration duration = Duration.ofSeconds(Long.getLong("benchmark.warmup.duration-seconds", 60));
+    private final int clients = Integer.getInteger("benchmark.warmup.clients", 8);
+
+    /**
+     * Latency of one request, in microseconds, and when it was sent, in ms after the instance became ready.
+     */
+    private record Sample(long sentAtMs, long micros) {}
+
+    @Test
+    void firstMinuteLatency() throws Exception {
+        String classpath = System.getProperty("benchmark.warmup.classpath");
+        assertTrue(classpath != null, "Run through ./gradlew warmupBenchmark");
+
+        List<Sample> cold = measure(classpath, false);
+        List<Sample> warm = measure(classpath, true);
+
+        System.out.printf("Latency after readiness (µs, %d clients, %d s)%n", clients, duration.toSeconds());
+        report("no warmup, first 10 s", cold, 10_000);
+        report("warmup,    first 10 s", warm, 10_000);
+        report("no warmup, whole run ", cold, Long.MAX_VALUE);
+        report("warmup,    whole run ", warm, Long.MAX_VALUE);
+    }
+
+    private List<Sample> measure(String classpath, boolean warmup) throws Exception {
+        int port = freePort();
+        List<String> command = List.of(
+                Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                "-cp", classpath,
+                "ent.orderManagement.OrderManagementApplication",
+                "--server.port=" + port,
+                "--warmup.enabled=" + warmup,
+                "--rate-limit.enabled=false",
+                "--bulkhead.enabled=false");
+
+        File log = Files.createTempFile("warmup-benchmark", ".log").toFile();
+        Process app = new ProcessBuilder(command).redirectErrorStream(true).redirectOutput(log).start();
+        ExecutorService executor = Executors.newFixedThreadPool(clients);
+        try {
+            String base = "http://localhost:" + port;
+            awaitReady(app, base, log);
+            long readyAt = System.nanoTime();
+            long end = readyAt + duration.toNanos();
+
+            List<Future<List<Sample>>> results = new ArrayList<>();
+            for (int i = 0; i < clients; i++) {
+                results.add(executor.submit(() -> {
+                    List<Sample> samples = new ArrayList<>();
+                    while (System.nanoTime() < end) {
+                        samples.addAll(session(base, readyAt));
+                    }
+                    return samples;
+                }));
+            }
+            List<Sample> samples = new ArrayList<>();
+            for (Future<List<Sample>> result : results) {
+                samples.addAll(result.get());
+            }
+            return samples;
+        } finally {
+            executor.shutdownNow();
+            app.destroy();
+            app.waitFor();
+        }
+    }
+
+    private void awaitReady(Process app, String base, File log) throws InterruptedException {
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        HttpRequest readiness = HttpRequest.newBuilder(URI.create(base + "/actuator/health/readiness")).GET().build();
+        while (System.nanoTime() < deadline) {
+            assertTrue(app.isAlive(), "Application exited during startup, see " + log);
+            try {
+                if (http.send(readiness, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    // The user must exist before anything is timed
+                    http.send(post(base + "/auth/register", credentials()), HttpResponse.BodyHandlers.discarding());
+                    return;
+                }
+            } catch (IOException notListeningYet) {
+                // Retry
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("Not ready within " + STARTUP_TIMEOUT + ", see " + log);
+    }
+
+    /**
+     * What a client does when it starts: log in, fetch the first orders page, open one order.
+     */
+    private List<Sample> session(String base, long readyAt) throws Exception {
+        List<Sample> samples = new ArrayList<>(3);
+        HttpResponse<String> login = timed(samples, readyAt, post(base + "/auth/login", credentials()));
+        String token = JSON.readTree(login.body()).get("accessToken").asText();
+
+        HttpResponse<String> page = timed(samples, readyAt, get(base + "/orders", token));
+        var content = JSON.readTree(page.body()).get("content");
+        if (content != null && !content.isEmpty()) {
+            timed(samples, readyAt, get(base + "/orders/" + content.get(0).get("id").asText(), token));
+        }
+        return samples;
+    }
+
+    private HttpResponse<String> timed(List<Sample> samples, long readyAt, HttpRequest request) throws Exception {
+        long start = System.nanoTime();
+        HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+        samples.add(new Sample((start - readyAt) / 1_000_000, (System.nanoTime() - start) / 1_000));
+        assertEquals(200, response.statusCode(), request.uri().toString());
+        return response;
+    }
+
+    private String credentials() {
+        return "{\"username\":\"" + username + "\",\"password\":\"" + password + "\",\"role\":\"USER\"}";
+    }
+
+    private static HttpRequest get(String uri, String token) {
+        return HttpRequest.newBuilder(URI.create(uri))
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build();
+    }
+
+    private static HttpRequest post(String uri, String json) {
+        return HttpRequest.newBuilder(URI.create(uri))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    private static void report(String label, List<Sample> samples, long withinMs) {
+        List<Long> micros = new ArrayList<>();
+        for (Sample sample : samples) {
+            if (sample.sentAtMs() < withinMs) {
+                micros.add(sample.micros());
+            }
+        }
+        Collections.sort(micros);
+        System.out.printf("  %s: %6d requests, p50 %7d, p90 %7d, p99 %8d, max %8d%n", label, micros.size(),
+                percentile(micros, 0.5), percentile(micros, 0.9), percentile(micros, 0.99),
+                micros.isEmpty() ? 0 : micros.get(micros.size() - 1));
+    }
+
+    private static long percentile(List<Long> sorted, double p) {
+        return sorted.isEmpty() ? 0 : sorted.get((int) Math.min(sorted.size() - 1, Math.floor(p * sorted.size())));
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}